@@ -0,0 +1,89 @@
+package com.vztekoverflow.cilostazol.benchmarks;
+
+import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
+import com.vztekoverflow.cil.parser.cli.CLIFileUtils;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITypeDefTableRow;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.context.ContextProviderImpl;
+import com.vztekoverflow.cilostazol.runtime.symbols.AssemblySymbol;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.io.ByteSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Creation of the assembly symbols and resolution of types, measured in a fresh context for every
+ * invocation so nothing is cached between them. The context is created outside of a polyglot
+ * engine, the way the unit tests of the language create it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public class AssemblyLoading {
+  @Param({"System.Linq.Expressions", "System.Data.Common", "System.Collections", "System.Linq"})
+  public String assembly;
+
+  private Source source;
+  private AssemblyIdentity identity;
+  private String[][] typeNames;
+
+  @Setup
+  public void setup() throws IOException {
+    Path path = LibraryPath.getAssemblyPath(assembly);
+    source =
+        Source.newBuilder(
+                CILOSTAZOLLanguage.ID,
+                ByteSequence.create(Files.readAllBytes(path)),
+                path.getFileName().toString())
+            .build();
+
+    AssemblySymbol symbol = AssemblySymbol.AssemblySymbolFactory.create(source);
+    identity = symbol.getIdentity();
+    List<String[]> names = new ArrayList<>();
+    for (CLITypeDefTableRow row : symbol.getDefiningFile().getTableHeads().getTypeDefTableHead()) {
+      var nameAndNamespace = CLIFileUtils.getNameAndNamespace(symbol.getDefiningFile(), row);
+      names.add(new String[] {nameAndNamespace.getLeft(), nameAndNamespace.getRight()});
+    }
+    typeNames = names.toArray(new String[0][]);
+  }
+
+  private CILOSTAZOLContext createContext() {
+    CILOSTAZOLContext context =
+        new CILOSTAZOLContext(new CILOSTAZOLLanguage(), new Path[] {LibraryPath.get()});
+    ContextProviderImpl.getInstance().setContext(() -> context);
+    return context;
+  }
+
+  @Benchmark
+  public AssemblySymbol createAssembly() {
+    return AssemblySymbol.AssemblySymbolFactory.create(source);
+  }
+
+  /** Loading the assembly from the library path and resolving every type it defines. */
+  @Benchmark
+  public void resolveTypes(Blackhole blackhole) {
+    CILOSTAZOLContext context = createContext();
+    for (String[] name : typeNames)
+      blackhole.consume(context.resolveType(name[0], name[1], identity));
+  }
+}
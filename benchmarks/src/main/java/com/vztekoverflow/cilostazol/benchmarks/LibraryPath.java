@@ -0,0 +1,19 @@
+package com.vztekoverflow.cilostazol.benchmarks;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/** The directory with the .NET runtime libraries, set by {@code cilostazol.libraryPath}. */
+final class LibraryPath {
+  static final String PROPERTY = "cilostazol.libraryPath";
+
+  private LibraryPath() {}
+
+  static Path get() {
+    return Paths.get(System.getProperty(PROPERTY, "runtime"));
+  }
+
+  static Path getAssemblyPath(String assembly) {
+    return get().resolve(assembly + ".dll");
+  }
+}
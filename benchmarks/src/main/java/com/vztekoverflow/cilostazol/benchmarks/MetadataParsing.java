@@ -0,0 +1,122 @@
+package com.vztekoverflow.cilostazol.benchmarks;
+
+import com.vztekoverflow.cil.parser.cli.CLIFile;
+import com.vztekoverflow.cil.parser.cli.signature.FieldSig;
+import com.vztekoverflow.cil.parser.cli.signature.MethodDefSig;
+import com.vztekoverflow.cil.parser.cli.signature.SignatureReader;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLIFieldTableRow;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLIMethodDefTableRow;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITableConstants;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITypeDefTableRow;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.graalvm.polyglot.io.ByteSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The parts of cil-parser on the startup path, measured on the large libraries of the .NET runtime
+ * on their own, without the interpreter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public class MetadataParsing {
+  @Param({"System.Linq.Expressions", "System.Data.Common", "System.Collections", "System.Linq"})
+  public String assembly;
+
+  private ByteSequence bytes;
+  private CLIFile file;
+  private int typeDefCount;
+  private int methodDefCount;
+  private byte[][] methodSignatures;
+  private byte[][] fieldSignatures;
+
+  @Setup
+  public void setup() throws IOException {
+    Path path = LibraryPath.getAssemblyPath(assembly);
+    bytes = ByteSequence.create(Files.readAllBytes(path));
+    file = CLIFile.parse(assembly, path.toString(), bytes);
+    typeDefCount = file.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_TYPE_DEF);
+    methodDefCount = file.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_METHOD_DEF);
+
+    methodSignatures = new byte[methodDefCount][];
+    int i = 0;
+    for (CLIMethodDefTableRow row : file.getTableHeads().getMethodDefTableHead())
+      methodSignatures[i++] = row.getSignatureHeapPtr().read(file.getBlobHeap());
+
+    fieldSignatures =
+        new byte[file.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_FIELD)][];
+    i = 0;
+    for (CLIFieldTableRow row : file.getTableHeads().getFieldTableHead())
+      fieldSignatures[i++] = row.getSignatureHeapPtr().read(file.getBlobHeap());
+  }
+
+  /** PE headers, the metadata root, the table layout and copies of the heaps. */
+  @Benchmark
+  public CLIFile parse() {
+    return CLIFile.parse(assembly, null, bytes);
+  }
+
+  /** Sequential iteration, {@link com.vztekoverflow.cil.parser.cli.table.CLITableRow#next()}. */
+  @Benchmark
+  public void nextRows(Blackhole blackhole) {
+    for (CLITypeDefTableRow row : file.getTableHeads().getTypeDefTableHead())
+      blackhole.consume(row.getFlags());
+    for (CLIMethodDefTableRow row : file.getTableHeads().getMethodDefTableHead())
+      blackhole.consume(row.getRVA());
+  }
+
+  /** Random access from the table head, the way table pointers are resolved. */
+  @Benchmark
+  public void skipRows(Blackhole blackhole) {
+    CLITypeDefTableRow typeDefHead = file.getTableHeads().getTypeDefTableHead();
+    for (int i = typeDefCount - 1; i >= 0; i--) blackhole.consume(typeDefHead.skip(i).getFlags());
+
+    CLIMethodDefTableRow methodDefHead = file.getTableHeads().getMethodDefTableHead();
+    for (int i = methodDefCount - 1; i >= 0; i--) blackhole.consume(methodDefHead.skip(i).getRVA());
+  }
+
+  /** Names and namespaces of all types and names of all methods, as the type lookups read them. */
+  @Benchmark
+  public void readStrings(Blackhole blackhole) {
+    byte[] stringHeap = file.getStringHeap();
+    for (CLITypeDefTableRow row : file.getTableHeads().getTypeDefTableHead()) {
+      blackhole.consume(row.getTypeNameHeapPtr().read(stringHeap));
+      blackhole.consume(row.getTypeNamespaceHeapPtr().read(stringHeap));
+    }
+    for (CLIMethodDefTableRow row : file.getTableHeads().getMethodDefTableHead())
+      blackhole.consume(row.getNameHeapPtr().read(stringHeap));
+  }
+
+  @Benchmark
+  public void readBlobs(Blackhole blackhole) {
+    byte[] blobHeap = file.getBlobHeap();
+    for (CLIMethodDefTableRow row : file.getTableHeads().getMethodDefTableHead())
+      blackhole.consume(row.getSignatureHeapPtr().read(blobHeap));
+  }
+
+  /** Decoding of all method and field signatures, the blobs are read beforehand. */
+  @Benchmark
+  public void decodeSignatures(Blackhole blackhole) {
+    for (byte[] signature : methodSignatures)
+      blackhole.consume(MethodDefSig.parse(new SignatureReader(signature)));
+    for (byte[] signature : fieldSignatures)
+      blackhole.consume(FieldSig.parse(new SignatureReader(signature)));
+  }
+}
@@ -0,0 +1,114 @@
+package com.vztekoverflow.cilostazol.benchmarks;
+
+import com.vztekoverflow.cilostazol.CILOSTAZOLEngineOption;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A context with one of the benchmark programs loaded. The context lives for the whole trial, so
+ * every invocation runs the entry point of an already parsed assembly.
+ *
+ * <p>The directory with the programs and the .NET runtime libraries can be set by the {@code
+ * cilostazol.benchmarks.programs} and {@code cilostazol.libraryPath} system properties.
+ */
+@State(Scope.Benchmark)
+public class ProgramState {
+  private static final String PROGRAMS_PROPERTY = "cilostazol.benchmarks.programs";
+  // The programs are test projects, their Release builds are measured
+  private static final String TEST_PROJECTS = "tests/src/test/resources/BasicTests";
+  private static final String COMPILATION_OPTION = "engine.Compilation";
+
+  /** Problem sizes short enough to run many iterations in the interpreter. */
+  private static final Map<String, String> DEFAULT_SIZES =
+      Map.of(
+          "NBody", "20000",
+          "BinaryTrees", "10",
+          "FannkuchRedux", "8",
+          "Mandelbrot", "200",
+          "SpectralNorm", "100");
+
+  @Param({"NBody", "BinaryTrees", "FannkuchRedux", "Mandelbrot", "SpectralNorm"})
+  public String program;
+
+  /**
+   * Runs with {@code false} measure the interpreter alone. On a JDK without the Graal compiler both
+   * values only interpret.
+   */
+  @Param({"true", "false"})
+  public String compilation;
+
+  /** The argument passed to the program, empty for the default size of the program. */
+  @Param({""})
+  public String size;
+
+  private Engine engine;
+  private Context context;
+  private Source source;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    String argument = size.isEmpty() ? DEFAULT_SIZES.get(program) : size;
+    engine = createEngine();
+    context =
+        Context.newBuilder(CILOSTAZOLLanguage.ID)
+            .engine(engine)
+            .arguments(CILOSTAZOLLanguage.ID, new String[] {argument})
+            .out(OutputStream.nullOutputStream())
+            .err(OutputStream.nullOutputStream())
+            .allowAllAccess(true)
+            .build();
+    source = Source.newBuilder(CILOSTAZOLLanguage.ID, getProgramFile()).build();
+  }
+
+  private Engine createEngine() {
+    try {
+      return newEngineBuilder()
+          .allowExperimentalOptions(true)
+          .option(COMPILATION_OPTION, compilation)
+          .build();
+    } catch (IllegalArgumentException e) {
+      // Without a Truffle compiler the fallback runtime only interprets and has no such option
+      return newEngineBuilder().build();
+    }
+  }
+
+  private static Engine.Builder newEngineBuilder() {
+    return Engine.newBuilder(CILOSTAZOLLanguage.ID)
+        .option(CILOSTAZOLEngineOption.LIBRARY_PATH_NAME, LibraryPath.get().toString())
+        .out(OutputStream.nullOutputStream());
+  }
+
+  private File getProgramFile() {
+    Path programs = Paths.get(System.getProperty(PROGRAMS_PROPERTY, TEST_PROJECTS));
+    File dll = programs.resolve(program).resolve("bin").resolve(program + ".dll").toFile();
+    if (!dll.isFile())
+      throw new IllegalStateException(
+          "Missing " + dll + ", build the programs with " + TEST_PROJECTS + "/build.sh");
+    return dll;
+  }
+
+  /** Run the entry point of the program once. */
+  public int run() {
+    return context.eval(source).asInt();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+    engine.close();
+  }
+}
@@ -0,0 +1,26 @@
+package com.vztekoverflow.cilostazol.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The time of each of the first runs in a fresh context. Every iteration is a single run, printed
+ * one by one they show how fast the program reaches its peak performance.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 20)
+@Fork(value = 3)
+public class WarmupCurve {
+  @Benchmark
+  public int run(ProgramState state) {
+    return state.run();
+  }
+}
@@ -0,0 +1,6 @@
+/**
+ * JMH harnesses running the Benchmarks Game programs, the test projects in {@code
+ * tests/src/test/resources/BasicTests}, on CILOSTAZOL. Build their Release DLLs with {@code
+ * tests/src/test/resources/BasicTests/build.sh} before running them.
+ */
+package com.vztekoverflow.cilostazol.benchmarks;
@@ -33,4 +33,26 @@ public class CompressedInteger {
     positionable.setPosition(offset);
     return result;
   }
+
+  /**
+   * Read a signed compressed integer from the specified byte array, setting the positionable at the
+   * end of it. The sign is rotated into the lowest bit as described in II.23.2 Blobs and
+   * signatures.
+   *
+   * @param data the raw bytes
+   * @param positionable positionable that's set before the compressed integer
+   * @return the value of the compressed integer
+   */
+  public static int readSigned(byte[] data, Positionable positionable) {
+    int start = positionable.getPosition();
+    int rotated = read(data, positionable);
+    int value = rotated >>> 1;
+    if ((rotated & 1) == 0) return value;
+
+    return switch (positionable.getPosition() - start) {
+      case 1 -> value - 0x40;
+      case 2 -> value - 0x2000;
+      default -> value - 0x10000000;
+    };
+  }
 }
@@ -5,6 +5,8 @@ import static com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions.SWITCH;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 /**
  * A class encapsulating raw bytecode bytes with an API to directly read opcodes (with prefixed
@@ -14,6 +16,7 @@ import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
  * and providing only bytecode-specific accessor methods.
  */
 public class BytecodeBuffer {
+  private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
   private final byte[] bytecode;
@@ -158,6 +161,22 @@ public class BytecodeBuffer {
     System.arraycopy(patch, 0, bytecode, position, patch.length);
   }
 
+  /**
+   * Writes the single byte {@code opcode} to the specified position with release semantics. A
+   * thread reading the opcode and issuing an acquire fence afterwards sees the operands patched
+   * before it.
+   *
+   * <p>The same rules as for {@link #patchBytecode(int, byte[])} apply.
+   *
+   * @param position the index of the instruction
+   * @param opcode the new opcode
+   */
+  public void patchOpcode(int position, byte opcode) {
+    CompilerAsserts.neverPartOfCompilation();
+
+    BYTES.setRelease(bytecode, position, opcode);
+  }
+
   /**
    * Reads the immediate value from the instruction at the specified {@code position} as a {@link
    * CLITablePtr}. Supports prefixed opcodes.
@@ -225,6 +225,7 @@ public class BytecodeInstructions {
   public static final int STLOC = 0xFE0E;
   public static final int LOCALLOC = 0xFE0F;
   public static final int ENDFILTER = 0xFE11;
+  public static final int VOLATILE = 0xFE13;
   public static final int INITOBJ = 0xFE15;
   public static final int CPBLK = 0xFE17;
   public static final int INITBLK = 0xFE18;
@@ -384,6 +385,7 @@ public class BytecodeInstructions {
     def(STSFLD, "stsfld", "otttt", -1);
     def(LDFLDA, "ldflda", "otttt", 0);
     def(LDSFLDA, "ldsfdla", "otttt", 1);
+    defPrefixed(VOLATILE, "volatile.", "o", 0);
 
     def(LDELEM, "ldelem", "otttt", -1);
     def(LDELEM_I1, "ldelem.i1", "o", -1);
@@ -67,6 +67,11 @@ public final class AssemblyIdentity {
     return new AssemblyIdentity((short) 7, (short) 0, (short) 0, (short) 0, "System.Runtime");
   }
 
+  public static AssemblyIdentity SystemThreadingTasksParallel700() {
+    return new AssemblyIdentity(
+        (short) 7, (short) 0, (short) 0, (short) 0, "System.Threading.Tasks.Parallel");
+  }
+
   public static AssemblyIdentity CILOSTAZOLInternalImpl() {
     return new AssemblyIdentity(
         (short) 1, (short) 0, (short) 0, (short) 0, "CILOSTAZOLInternalImpl");
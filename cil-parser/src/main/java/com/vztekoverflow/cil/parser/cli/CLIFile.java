@@ -12,7 +12,10 @@ import com.vztekoverflow.cil.parser.cli.table.generated.CLITableHeads;
 import com.vztekoverflow.cil.parser.pe.PEFile;
 import org.graalvm.polyglot.io.ByteSequence;
 
-/** A class representing a CLI Component, as described in I.9.1 Components and assemblies. */
+/**
+ * A class representing a CLI Component, as described in I.9.1 Components and assemblies. It is
+ * immutable once parsed and can be read by several threads at once.
+ */
 public class CLIFile {
 
   private final CLIHeader cliHeader;
@@ -0,0 +1,263 @@
+package com.vztekoverflow.cil.parser.pdb;
+
+import com.vztekoverflow.cil.parser.ByteSequenceBuffer;
+import com.vztekoverflow.cil.parser.CILParserException;
+import com.vztekoverflow.cil.parser.CompressedInteger;
+import com.vztekoverflow.cil.parser.ParserBundle;
+import com.vztekoverflow.cil.parser.Positionable;
+import com.vztekoverflow.cil.parser.cli.CLIMetadata;
+import com.vztekoverflow.cil.parser.cli.table.CLIBlobHeapPtr;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITableConstants;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.graalvm.polyglot.io.ByteSequence;
+
+/**
+ * A portable PDB file, holding the debug information of a CLI component in the metadata format of
+ * II.24 Metadata physical layout. Only the Document and MethodDebugInformation tables are read, the
+ * sequence points of a method are decoded when they are first asked for.
+ */
+public class PortablePdb {
+  private static final byte TABLE_DOCUMENT = 0x30;
+  private static final byte TABLE_METHOD_DEBUG_INFORMATION = 0x31;
+
+  private final byte[] blobHeap;
+  private final String[] documentNames;
+  private final int methodDebugInformationCount;
+  private final int methodDebugInformationStart;
+  private final int documentIndexSize;
+  private final int blobIndexSize;
+  private final byte[] tablesStream;
+  private final int typeSystemMethodDefCount;
+  private final SequencePoint[][] sequencePoints;
+
+  private PortablePdb(
+      byte[] blobHeap,
+      byte[] tablesStream,
+      String[] documentNames,
+      int methodDebugInformationCount,
+      int methodDebugInformationStart,
+      int documentIndexSize,
+      int blobIndexSize,
+      int typeSystemMethodDefCount) {
+    this.blobHeap = blobHeap;
+    this.tablesStream = tablesStream;
+    this.documentNames = documentNames;
+    this.methodDebugInformationCount = methodDebugInformationCount;
+    this.methodDebugInformationStart = methodDebugInformationStart;
+    this.documentIndexSize = documentIndexSize;
+    this.blobIndexSize = blobIndexSize;
+    this.typeSystemMethodDefCount = typeSystemMethodDefCount;
+    this.sequencePoints = new SequencePoint[methodDebugInformationCount][];
+  }
+
+  /**
+   * Parse a portable PDB.
+   *
+   * @param bytes a {@link ByteSequence} representing the PDB bytes
+   * @return a {@link PortablePdb} representation of the debug information
+   */
+  public static PortablePdb parse(ByteSequence bytes) {
+    CLIMetadata metadata = CLIMetadata.read(new ByteSequenceBuffer(bytes));
+
+    ByteSequence pdbStream = metadata.getStream("#Pdb", bytes);
+    if (pdbStream == null)
+      throw new CILParserException(
+          ParserBundle.message("cli.parser.exception.pdb.stream.missing", "#Pdb"));
+
+    // PDB id (20 bytes) and the entry point token precede the type system row counts
+    ByteSequenceBuffer pdb = new ByteSequenceBuffer(pdbStream);
+    pdb.setPosition(24);
+    long referencedTables = pdb.getLong();
+    int typeSystemMethodDefCount = 0;
+    for (int table = 0; table < 64; table++) {
+      if ((referencedTables & (1L << table)) == 0) continue;
+
+      int rowCount = pdb.getInt();
+      if (table == CLITableConstants.CLI_TABLE_METHOD_DEF) typeSystemMethodDefCount = rowCount;
+    }
+
+    byte[] tablesStream = metadata.getStreamBytes("#~", bytes);
+    if (tablesStream.length == 0)
+      throw new CILParserException(
+          ParserBundle.message("cli.parser.exception.pdb.stream.missing", "#~"));
+
+    // II.24.2.6 #~ stream, the debug tables are the only ones present in a PDB
+    ByteSequenceBuffer tables = new ByteSequenceBuffer(ByteSequence.create(tablesStream));
+    tables.setPosition(6);
+    byte heapSizes = tables.getByte();
+    tables.getByte();
+    long valid = tables.getLong();
+    tables.getLong();
+    int[] rowCounts = new int[64];
+    for (int table = 0; table < 64; table++) {
+      if ((valid & (1L << table)) == 0) continue;
+      if (table < TABLE_DOCUMENT)
+        throw new CILParserException(
+            ParserBundle.message("cli.parser.exception.pdb.table.unexpected", table));
+
+      rowCounts[table] = tables.getInt();
+    }
+
+    final int guidIndexSize = (heapSizes & 0x02) != 0 ? 4 : 2;
+    final int blobIndexSize = (heapSizes & 0x04) != 0 ? 4 : 2;
+    final byte[] blobHeap = metadata.getStreamBytes("#Blob", bytes);
+
+    String[] documentNames = new String[rowCounts[TABLE_DOCUMENT]];
+    for (int i = 0; i < documentNames.length; i++) {
+      int name = readIndex(tables, blobIndexSize);
+      // HashAlgorithm, Hash and Language
+      tables.setPosition(tables.getPosition() + 2 * guidIndexSize + blobIndexSize);
+      documentNames[i] = readDocumentName(blobHeap, name);
+    }
+
+    return new PortablePdb(
+        blobHeap,
+        tablesStream,
+        documentNames,
+        rowCounts[TABLE_METHOD_DEBUG_INFORMATION],
+        tables.getPosition(),
+        rowCounts[TABLE_DOCUMENT] < 0x10000 ? 2 : 4,
+        blobIndexSize,
+        typeSystemMethodDefCount);
+  }
+
+  private static int readIndex(ByteSequenceBuffer buf, int size) {
+    return size == 2 ? buf.getShort() & 0xFFFF : buf.getInt();
+  }
+
+  /** Document names are blobs of a separator followed by the blob indexes of the UTF-8 parts. */
+  private static String readDocumentName(byte[] blobHeap, int offset) {
+    byte[] blob = new CLIBlobHeapPtr(offset).read(blobHeap);
+    if (blob.length == 0) return "";
+
+    Cursor cursor = new Cursor(1);
+    String separator = blob[0] == 0 ? "" : Character.toString(blob[0]);
+    StringBuilder name = new StringBuilder();
+    boolean first = true;
+    while (cursor.position < blob.length) {
+      if (!first) name.append(separator);
+      first = false;
+
+      int part = CompressedInteger.read(blob, cursor);
+      if (part != 0)
+        name.append(new String(new CLIBlobHeapPtr(part).read(blobHeap), StandardCharsets.UTF_8));
+    }
+
+    return name.toString();
+  }
+
+  /** Get the number of MethodDef rows of the component the PDB was built with. */
+  public int getMethodDefCount() {
+    return typeSystemMethodDefCount;
+  }
+
+  public int getDocumentCount() {
+    return documentNames.length;
+  }
+
+  /**
+   * Get the name of a document, usually the path of the source file it was compiled from.
+   *
+   * @param document the index of the document, starting at 0
+   */
+  public String getDocumentName(int document) {
+    return documentNames[document];
+  }
+
+  /**
+   * Get the sequence points of a method, ordered by their IL offsets.
+   *
+   * @param methodDefRow the row of the method in the MethodDef table, starting at 1
+   * @return the sequence points or an empty array if the method has no debug information
+   */
+  public SequencePoint[] getSequencePoints(int methodDefRow) {
+    if (methodDefRow < 1 || methodDefRow > methodDebugInformationCount) return new SequencePoint[0];
+
+    SequencePoint[] result = sequencePoints[methodDefRow - 1];
+    if (result == null) {
+      result = readSequencePoints(methodDefRow);
+      sequencePoints[methodDefRow - 1] = result;
+    }
+
+    return result;
+  }
+
+  private SequencePoint[] readSequencePoints(int methodDefRow) {
+    ByteSequenceBuffer row = new ByteSequenceBuffer(ByteSequence.create(tablesStream));
+    row.setPosition(
+        methodDebugInformationStart + (methodDefRow - 1) * (documentIndexSize + blobIndexSize));
+    int document = readIndex(row, documentIndexSize);
+    int blobOffset = readIndex(row, blobIndexSize);
+    if (blobOffset == 0) return new SequencePoint[0];
+
+    byte[] blob = new CLIBlobHeapPtr(blobOffset).read(blobHeap);
+    Cursor cursor = new Cursor(0);
+    // LocalSignature
+    CompressedInteger.read(blob, cursor);
+    if (document == 0) document = CompressedInteger.read(blob, cursor);
+
+    ArrayList<SequencePoint> points = new ArrayList<>();
+    int ilOffset = 0;
+    int startLine = 0;
+    int startColumn = 0;
+    boolean firstNonHidden = true;
+    while (cursor.position < blob.length) {
+      int ilDelta = CompressedInteger.read(blob, cursor);
+      if (ilDelta == 0 && !points.isEmpty()) {
+        document = CompressedInteger.read(blob, cursor);
+        continue;
+      }
+      ilOffset += ilDelta;
+
+      int lineDelta = CompressedInteger.read(blob, cursor);
+      int columnDelta =
+          lineDelta == 0
+              ? CompressedInteger.read(blob, cursor)
+              : CompressedInteger.readSigned(blob, cursor);
+      if (lineDelta == 0 && columnDelta == 0) {
+        points.add(new SequencePoint(ilOffset, document - 1, 0, 0, 0, 0, true));
+        continue;
+      }
+
+      if (firstNonHidden) {
+        startLine = CompressedInteger.read(blob, cursor);
+        startColumn = CompressedInteger.read(blob, cursor);
+        firstNonHidden = false;
+      } else {
+        startLine += CompressedInteger.readSigned(blob, cursor);
+        startColumn += CompressedInteger.readSigned(blob, cursor);
+      }
+
+      points.add(
+          new SequencePoint(
+              ilOffset,
+              document - 1,
+              startLine,
+              startColumn,
+              startLine + lineDelta,
+              startColumn + columnDelta,
+              false));
+    }
+
+    return points.toArray(new SequencePoint[0]);
+  }
+
+  private static final class Cursor implements Positionable {
+    private int position;
+
+    private Cursor(int position) {
+      this.position = position;
+    }
+
+    @Override
+    public int getPosition() {
+      return position;
+    }
+
+    @Override
+    public void setPosition(int position) {
+      this.position = position;
+    }
+  }
+}
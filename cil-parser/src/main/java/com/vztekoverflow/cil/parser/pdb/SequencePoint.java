@@ -0,0 +1,18 @@
+package com.vztekoverflow.cil.parser.pdb;
+
+/**
+ * A sequence point of a method, mapping the IL starting at an offset to a range of a source
+ * document, as described in the MethodDebugInformation table of the Portable PDB specification.
+ * Hidden sequence points mark IL that does not correspond to any source and have no lines.
+ *
+ * @param ilOffset the offset of the first instruction of the sequence point
+ * @param document the index of the document, see {@link PortablePdb#getDocumentName(int)}
+ */
+public record SequencePoint(
+    int ilOffset,
+    int document,
+    int startLine,
+    int startColumn,
+    int endLine,
+    int endColumn,
+    boolean hidden) {}
@@ -0,0 +1,2 @@
+/** Classes for reading portable PDB files with the debug information of CLI components. */
+package com.vztekoverflow.cil.parser.pdb;
@@ -0,0 +1,51 @@
+package com.vztekoverflow.cil.parser;
+
+import junit.framework.TestCase;
+
+public class CompressedIntegerTests extends TestCase {
+  private static int[] readSigned(int... bytes) {
+    byte[] data = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; i++) data[i] = (byte) bytes[i];
+
+    Cursor cursor = new Cursor();
+    int value = CompressedInteger.readSigned(data, cursor);
+    return new int[] {value, cursor.position};
+  }
+
+  private static void assertSigned(int expected, int... bytes) {
+    int[] result = readSigned(bytes);
+    assertEquals(expected, result[0]);
+    assertEquals(bytes.length, result[1]);
+  }
+
+  // The examples of II.23.2 Blobs and signatures
+  public void testOneByte() {
+    assertSigned(3, 0x06);
+    assertSigned(-3, 0x7B);
+    assertSigned(-64, 0x01);
+  }
+
+  public void testTwoBytes() {
+    assertSigned(64, 0x80, 0x80);
+    assertSigned(-8192, 0x80, 0x01);
+  }
+
+  public void testFourBytes() {
+    assertSigned(268435455, 0xDF, 0xFF, 0xFF, 0xFE);
+    assertSigned(-268435456, 0xC0, 0x00, 0x00, 0x01);
+  }
+
+  private static final class Cursor implements Positionable {
+    private int position;
+
+    @Override
+    public int getPosition() {
+      return position;
+    }
+
+    @Override
+    public void setPosition(int position) {
+      this.position = position;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.vztekoverflow.cil.parser.pdb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import junit.framework.TestCase;
+import org.graalvm.polyglot.io.ByteSequence;
+
+public class PortablePdbTests extends TestCase {
+  /**
+   * One document and one method with a statement, a hidden point and a statement spanning two lines
+   * that starts a column to the left of the first one.
+   */
+  private static PortablePdb parse() throws IOException {
+    try (InputStream stream = PortablePdbTests.class.getResourceAsStream("/pdb/Program.pdb")) {
+      assertNotNull(stream);
+      return PortablePdb.parse(ByteSequence.create(stream.readAllBytes()));
+    }
+  }
+
+  public void testDocuments() throws IOException {
+    PortablePdb pdb = parse();
+    assertEquals(1, pdb.getDocumentCount());
+    assertEquals("src/Program.cs", pdb.getDocumentName(0));
+  }
+
+  public void testSequencePoints() throws IOException {
+    PortablePdb pdb = parse();
+    assertEquals(1, pdb.getMethodDefCount());
+
+    SequencePoint[] points = pdb.getSequencePoints(1);
+    assertEquals(3, points.length);
+    assertEquals(new SequencePoint(0, 0, 10, 3, 10, 8, false), points[0]);
+    assertTrue(points[1].hidden());
+    assertEquals(6, points[1].ilOffset());
+    // Lines and columns of the second statement are deltas from the first one, the column one is
+    // negative
+    assertEquals(new SequencePoint(8, 0, 12, 2, 13, 1, false), points[2]);
+  }
+
+  public void testRowsWithoutDebugInformation() throws IOException {
+    PortablePdb pdb = parse();
+    assertEquals(0, pdb.getSequencePoints(0).length);
+    assertEquals(0, pdb.getSequencePoints(2).length);
+  }
+}
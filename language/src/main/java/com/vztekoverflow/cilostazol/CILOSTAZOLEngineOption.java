@@ -5,10 +5,12 @@ import com.oracle.truffle.api.TruffleLanguage;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Objects;
 import org.graalvm.options.OptionCategory;
 import org.graalvm.options.OptionDescriptor;
 import org.graalvm.options.OptionKey;
 import org.graalvm.options.OptionStability;
+import org.graalvm.options.OptionValues;
 
 public final class CILOSTAZOLEngineOption {
 
@@ -27,6 +29,70 @@ public final class CILOSTAZOLEngineOption {
               + "\'.")
   public static final OptionKey<String> LIBRARY_PATH = new OptionKey<>("");
 
+  public static final String HOST_COLLECTIONS_NAME = "cil.hostCollections";
+
+  @Option(
+      name = HOST_COLLECTIONS_NAME,
+      category = OptionCategory.EXPERT,
+      stability = OptionStability.EXPERIMENTAL,
+      help =
+          "Run common List<T> and Dictionary<TKey,TValue> operations natively. Dictionaries with "
+              + "primitive or string keys are backed by host hash maps and cannot be enumerated.")
+  public static final OptionKey<Boolean> HOST_COLLECTIONS = new OptionKey<>(false);
+
+  public static final String PARALLELISM_NAME = "cil.parallelism";
+
+  @Option(
+      name = PARALLELISM_NAME,
+      category = OptionCategory.USER,
+      stability = OptionStability.EXPERIMENTAL,
+      help =
+          "The number of threads running Task.Run and Parallel.For work. Defaults to the number of "
+              + "available processors.")
+  public static final OptionKey<Integer> PARALLELISM = new OptionKey<>(0);
+
+  public static final String ALLOCATION_HISTOGRAM_NAME = "cil.allocationHistogram";
+
+  @Option(
+      name = ALLOCATION_HISTOGRAM_NAME,
+      category = OptionCategory.EXPERT,
+      stability = OptionStability.EXPERIMENTAL,
+      help =
+          "Count the objects guest code allocates and their estimated sizes by type and by "
+              + "allocating method, and print the largest entries when the context is closed.")
+  public static final OptionKey<Boolean> ALLOCATION_HISTOGRAM = new OptionKey<>(false);
+
+  public static final String STATISTICS_NAME = "cil.statistics";
+
+  @Option(
+      name = STATISTICS_NAME,
+      category = OptionCategory.EXPERT,
+      stability = OptionStability.EXPERIMENTAL,
+      help =
+          "Count method invocations, interpreted and nodeized instructions and OSR entries, and "
+              + "print a summary when the context is closed.")
+  public static final OptionKey<Boolean> STATISTICS = new OptionKey<>(false);
+
+  public static final String SHARE_LIBRARIES_NAME = "cil.shareLibraries";
+
+  @Option(
+      name = SHARE_LIBRARIES_NAME,
+      category = OptionCategory.EXPERT,
+      stability = OptionStability.EXPERIMENTAL,
+      help =
+          "Share the parsed metadata of libraries loaded from the library path between all "
+              + "contexts of the process. Files changed on disk are parsed again.")
+  public static final OptionKey<Boolean> SHARE_LIBRARIES = new OptionKey<>(false);
+
+  /** Whether all options of the language have the same values. */
+  public static boolean areEqual(OptionValues first, OptionValues second) {
+    for (OptionDescriptor descriptor : first.getDescriptors()) {
+      if (!Objects.equals(first.get(descriptor.getKey()), second.get(descriptor.getKey())))
+        return false;
+    }
+    return true;
+  }
+
   public static Path[] getPolyglotOptionSearchPaths(TruffleLanguage.Env env) {
     if (env.getOptions().getDescriptors().get(LIBRARY_PATH_NAME) == null)
       return new Path[] {Paths.get(".")};
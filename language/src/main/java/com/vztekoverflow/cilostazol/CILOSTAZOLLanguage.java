@@ -5,11 +5,18 @@ import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.instrumentation.AllocationReporter;
+import com.oracle.truffle.api.instrumentation.ProvidedTags;
+import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.vztekoverflow.cilostazol.nodes.CallEntryPointCallTarget;
+import com.vztekoverflow.cilostazol.nodes.ExecutionStatistics;
 import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.interop.AssemblyObject;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.AllocationHistogram;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
 import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import java.io.PrintStream;
 import org.graalvm.options.OptionDescriptors;
 import org.graalvm.polyglot.Source;
 
@@ -20,6 +27,12 @@ import org.graalvm.polyglot.Source;
     interactive = false,
     defaultMimeType = CILOSTAZOLLanguage.CIL_PE_MIME_TYPE,
     byteMimeTypes = {CILOSTAZOLLanguage.CIL_PE_MIME_TYPE})
+@ProvidedTags({
+  StandardTags.RootTag.class,
+  StandardTags.RootBodyTag.class,
+  StandardTags.StatementTag.class,
+  StandardTags.CallTag.class
+})
 public class CILOSTAZOLLanguage extends TruffleLanguage<CILOSTAZOLContext> {
 
   public static final String ID = "cil";
@@ -32,6 +45,9 @@ public class CILOSTAZOLLanguage extends TruffleLanguage<CILOSTAZOLContext> {
   private final Assumption noAllocationTracking =
       Assumption.create("No allocation tracking assumption");
 
+  @CompilerDirectives.CompilationFinal
+  private final Assumption noStatistics = Assumption.create("No execution statistics assumption");
+
   @CompilerDirectives.CompilationFinal private GuestAllocator allocator;
 
   public static CILOSTAZOLLanguage get(Node node) {
@@ -49,6 +65,37 @@ public class CILOSTAZOLLanguage extends TruffleLanguage<CILOSTAZOLContext> {
     return new CILOSTAZOLContext(this, env);
   }
 
+  @Override
+  protected void initializeContext(CILOSTAZOLContext context) {
+    if (context.getEnv().isPreInitialization()) context.preInitialize();
+  }
+
+  @Override
+  protected boolean patchContext(CILOSTAZOLContext context, Env newEnv) {
+    return context.patch(newEnv);
+  }
+
+  @Override
+  protected void finalizeContext(CILOSTAZOLContext context) {
+    context.shutdownTaskPool();
+
+    ExecutionStatistics statistics = context.getStatistics();
+    if (statistics != null) {
+      statistics.print(new PrintStream(context.getEnv().err(), true));
+    }
+
+    AllocationHistogram histogram = context.getAllocator().getHistogram();
+    if (histogram != null) {
+      histogram.print(new PrintStream(context.getEnv().err(), true));
+    }
+  }
+
+  @Override
+  protected boolean isThreadAccessAllowed(Thread thread, boolean singleThreaded) {
+    // Guest threads run on polyglot threads, shared state of the context is thread-safe
+    return true;
+  }
+
   @Override
   protected CallTarget parse(ParsingRequest request) throws Exception {
     var source =
@@ -59,10 +106,31 @@ public class CILOSTAZOLLanguage extends TruffleLanguage<CILOSTAZOLContext> {
             .build();
 
     var assembly = CILOSTAZOLContext.get(null).loadAssembly(source);
+    // Libraries are only loaded, their types are reached through the result or the bindings
+    if (!assembly.hasEntryPoint()) {
+      return RootNode.createConstantNode(new AssemblyObject(assembly)).getCallTarget();
+    }
+
     MethodSymbol main = assembly.getEntryPoint();
     return new CallEntryPointCallTarget(
         main.getNode().getCallTarget(), main.getParameters().length == 1);
   }
+
+  @Override
+  protected Object getScope(CILOSTAZOLContext context) {
+    return context.getScope();
+  }
+  // endregion
+
+  // region statistics
+  /** Valid while no context counts execution statistics, the counting is compiled out. */
+  public Assumption getNoStatisticsAssumption() {
+    return noStatistics;
+  }
+
+  public void invalidateNoStatistics() {
+    noStatistics.invalidate();
+  }
   // endregion
 
   // region allocator
@@ -79,7 +147,13 @@ public class CILOSTAZOLLanguage extends TruffleLanguage<CILOSTAZOLContext> {
   }
 
   public void initializeGuestAllocator(TruffleLanguage.Env env) {
-    this.allocator = new GuestAllocator(this, env.lookup(AllocationReporter.class));
+    this.allocator =
+        new GuestAllocator(
+            this,
+            env.lookup(AllocationReporter.class),
+            env.getOptions().get(CILOSTAZOLEngineOption.ALLOCATION_HISTOGRAM)
+                ? new AllocationHistogram()
+                : null);
   }
   // endregion
 }
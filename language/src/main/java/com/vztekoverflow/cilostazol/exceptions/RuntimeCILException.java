@@ -28,17 +28,30 @@ public final class RuntimeCILException extends RuntimeException {
     Security("SecurityException"),
     StackOverflow("StackOverflowException"),
     TypeLoad("TypeLoadException"),
+    TypeInitialization("TypeInitializationException"),
     IndexOutOfRange("IndexOutOfRangeException"),
     InvalidCast("InvalidCastException"),
     MissingField("MissingFieldException"),
     MissingMethod("MissingMethodException"),
     NullReference("NullReferenceException"),
     OutOfMemory("OutOfMemoryException"),
-    ArrayTypeMismatch("ArrayTypeMismatchException");
+    ArrayTypeMismatch("ArrayTypeMismatchException"),
+    Argument("ArgumentException"),
+    ArgumentNull("ArgumentNullException"),
+    ArgumentOutOfRange("ArgumentOutOfRangeException"),
+    KeyNotFound("System.Collections.Generic", "KeyNotFoundException"),
+    SynchronizationLock("System.Threading", "SynchronizationLockException"),
+    ThreadState("System.Threading", "ThreadStateException");
 
+    public final String namespace;
     public final String className;
 
     Exception(String name) {
+      this("System", name);
+    }
+
+    Exception(String namespace, String name) {
+      this.namespace = namespace;
       className = name;
     }
   }
@@ -53,7 +66,7 @@ public final class RuntimeCILException extends RuntimeException {
       var type =
           (NamedTypeSymbol)
               SymbolResolver.resolveType(
-                  ex.className, "System", AssemblyIdentity.SystemRuntimeLib700(), ctx);
+                  ex.className, ex.namespace, AssemblyIdentity.SystemRuntimeLib700(), ctx);
       return new RuntimeCILException(ctx.getAllocator().createNew(type, frame, tp));
     }
   }
@@ -0,0 +1,88 @@
+package com.vztekoverflow.cilostazol.nodes;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
+import com.vztekoverflow.cilostazol.nodes.internal.DelegateMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * The Invoke method of a delegate type. The method and target are read from the fields of the
+ * delegate, the first method seen gets a direct call, others go through the indirect call.
+ */
+public final class CILDelegateInvokeNode extends CILMethodNode {
+  private final DelegateMethodImplementations.DelegateFields fields;
+
+  @CompilerDirectives.CompilationFinal private volatile MethodSymbol cachedMethod;
+  @CompilerDirectives.CompilationFinal private boolean polymorphic;
+
+  @Child private DirectCallNode directCallNode;
+  @Child private IndirectCallNode indirectCallNode = IndirectCallNode.create();
+
+  private CILDelegateInvokeNode(MethodSymbol method) {
+    super(method);
+    fields = new DelegateMethodImplementations.DelegateFields(method.getDefiningType());
+  }
+
+  public static CILDelegateInvokeNode create(MethodSymbol method) {
+    return new CILDelegateInvokeNode(method);
+  }
+
+  @Override
+  public Object execute(VirtualFrame frame) {
+    Object[] arguments = frame.getArguments();
+    StaticObject delegate = (StaticObject) arguments[0];
+    MethodSymbol target = fields.getMethod(delegate);
+    if (target == null)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.NullReference, getMethod().getContext(), frame, 0);
+
+    if (cachedMethod == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      initializeCache(target);
+    }
+
+    if (target == cachedMethod) {
+      return directCallNode.call(getCallArguments(arguments, delegate, cachedMethod));
+    }
+
+    if (!polymorphic) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      polymorphic = true;
+    }
+    return indirectCallNode.call(
+        target.getNode().getCallTarget(), getCallArguments(arguments, delegate, target));
+  }
+
+  private void initializeCache(MethodSymbol target) {
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      if (cachedMethod != null) return;
+
+      directCallNode = insert(DirectCallNode.create(target.getNode().getCallTarget()));
+      // Published last, threads seeing the method see the call it is cached for
+      cachedMethod = target;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Object[] getCallArguments(
+      Object[] arguments, StaticObject delegate, MethodSymbol target) {
+    if (target.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.STATIC)) {
+      Object[] result = new Object[arguments.length - 1];
+      System.arraycopy(arguments, 1, result, 0, result.length);
+      return result;
+    }
+
+    // The delegate is replaced by its target
+    Object[] result = arguments.clone();
+    result[0] = fields.getTarget(delegate);
+    return result;
+  }
+}
@@ -2,21 +2,30 @@ package com.vztekoverflow.cilostazol.nodes;
 
 import static com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions.*;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.HostCompilerDirectives;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.InstrumentableNode;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.Tag;
 import com.oracle.truffle.api.nodes.BytecodeOSRNode;
 import com.oracle.truffle.api.nodes.ControlFlowException;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.api.staticobject.StaticProperty;
 import com.vztekoverflow.cil.parser.bytecode.BytecodeBuffer;
 import com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions;
 import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
 import com.vztekoverflow.cil.parser.cli.table.CLIUSHeapPtr;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITableConstants;
+import com.vztekoverflow.cil.parser.pdb.SequencePoint;
 import com.vztekoverflow.cilostazol.CILOSTAZOLBundle;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
 import com.vztekoverflow.cilostazol.exceptions.InterpreterException;
 import com.vztekoverflow.cilostazol.exceptions.NotImplementedException;
 import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
@@ -24,12 +33,16 @@ import com.vztekoverflow.cilostazol.nodes.internal.IndirectLoader;
 import com.vztekoverflow.cilostazol.nodes.nodeized.*;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType;
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
 import com.vztekoverflow.cilostazol.runtime.symbols.*;
 import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol.MethodFlags.Flag;
 import com.vztekoverflow.cilostazol.staticanalysis.StaticOpCodeAnalyser;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
   private final MethodSymbol method;
@@ -38,8 +51,30 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
   private final FrameDescriptor frameDescriptor;
 
   @Children private NodeizedNodeBase[] nodes = new NodeizedNodeBase[0];
+  // The offset of the instruction each node replaces
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private int[] nodePcs = new int[0];
+
   @CompilerDirectives.CompilationFinal private Object osrMetadata;
 
+  // Created when an instrument first asks for statements or calls of the method
+  @Child private InstrumentationSupport instrumentation;
+  private volatile Source source;
+  private volatile SequencePoint[] sequencePoints;
+
+  // Valid unless the context counts execution statistics
+  private final Assumption noStatistics;
+
+  // Whether the method runs the code shared by the reference type instantiations of its type
+  private final boolean sharedCode;
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private boolean[] structSlots;
+
+  // The indices in nodes of the STELEM_REF instructions, which are too short to be patched
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile int[] storeElementNodes = new int[0];
+
   CILMethodNode(MethodSymbol method) {
     this.method = method;
     cil = method.getCIL();
@@ -49,6 +84,8 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             method.getLocals().length,
             method.getMaxStack());
     this.bytecodeBuffer = new BytecodeBuffer(cil);
+    this.sharedCode = method.isSharedCode();
+    this.noStatistics = method.getContext().getLanguage().getNoStatisticsAssumption();
   }
 
   public static CILMethodNode create(MethodSymbol method) {
@@ -66,11 +103,148 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
   // region CILNodeBase
   @Override
   public Object execute(VirtualFrame frame) {
+    if (!noStatistics.isValid()) {
+      getStatistics().countInvocation(method, CompilerDirectives.inCompiledCode());
+    }
     initializeFrame(frame);
     return execute(frame, 0, CILOSTAZOLFrame.getStartStackOffset(method));
   }
   // endregion
 
+  private ExecutionStatistics getStatistics() {
+    return method.getContext().getStatistics();
+  }
+
+  // region Instrumentation
+  /**
+   * The line of an instruction in the source of its method. Without debugging information the
+   * source has no content and its lines are the offsets of the instructions, starting at one.
+   */
+  static int getLine(int pc) {
+    return pc + 1;
+  }
+
+  private Source getSource() {
+    Source result = source;
+    if (result == null) {
+      result = createSource();
+    }
+
+    return result;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private synchronized Source createSource() {
+    if (source == null) {
+      source =
+          Source.newBuilder(CILOSTAZOLLanguage.ID, "", method.toString())
+              .content(Source.CONTENT_NONE)
+              .build();
+    }
+
+    return source;
+  }
+
+  /** The sequence points of the method from the PDB of its module, empty without one. */
+  SequencePoint[] getSequencePoints() {
+    SequencePoint[] result = sequencePoints;
+    if (result == null) {
+      result = method.getDefinition().getModule().getSequencePoints(method);
+      sequencePoints = result;
+    }
+
+    return result;
+  }
+
+  private SourceSection createSection(SequencePoint point) {
+    // PDB columns end after the last character, source section columns at it
+    int endColumn = point.endColumn() - 1;
+    if (point.startLine() == point.endLine()) endColumn = Math.max(endColumn, point.startColumn());
+
+    return method
+        .getDefinition()
+        .getModule()
+        .getDocumentSource(point.document())
+        .createSection(point.startLine(), point.startColumn(), point.endLine(), endColumn);
+  }
+
+  /**
+   * The source section of the instruction at the offset, the statement of the last sequence point
+   * before it, or the line of the instruction without debugging information.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public SourceSection getSourceSectionAt(int pc) {
+    SequencePoint[] points = getSequencePoints();
+    if (points.length == 0) return getSource().createSection(getLine(pc));
+
+    // The points are ordered by their offsets, find the last one at or before the instruction
+    int low = 0;
+    int high = points.length - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (points[middle].ilOffset() <= pc) low = middle + 1;
+      else high = middle - 1;
+    }
+
+    int statement = high;
+    while (statement >= 0 && points[statement].hidden()) statement--;
+
+    return statement < 0 ? getSourceSection() : createSection(points[statement]);
+  }
+
+  @Override
+  public boolean isInstrumentable() {
+    return true;
+  }
+
+  @Override
+  public boolean hasTag(Class<? extends Tag> tag) {
+    return tag == StandardTags.RootTag.class || tag == StandardTags.RootBodyTag.class;
+  }
+
+  @Override
+  @CompilerDirectives.TruffleBoundary
+  public SourceSection getSourceSection() {
+    SequencePoint first = null;
+    int endLine = 0;
+    for (SequencePoint point : getSequencePoints()) {
+      if (point.hidden() || (first != null && point.document() != first.document())) continue;
+      if (first == null) first = point;
+      endLine = Math.max(endLine, point.endLine());
+    }
+
+    if (first == null) {
+      return getSource().createSection(1, -1, getLine(Math.max(0, cil.length - 1)), -1);
+    }
+
+    return method
+        .getDefinition()
+        .getModule()
+        .getDocumentSource(first.document())
+        .createSection(first.startLine(), -1, endLine, -1);
+  }
+
+  @Override
+  public InstrumentableNode materializeInstrumentableNodes(
+      Set<Class<? extends Tag>> materializedTags) {
+    if (instrumentation == null
+        && (materializedTags.contains(StandardTags.StatementTag.class)
+            || materializedTags.contains(StandardTags.CallTag.class))) {
+      Lock lock = getLock();
+      lock.lock();
+      try {
+        if (instrumentation == null) {
+          instrumentation = insert(new InstrumentationSupport(method.getOriginalCIL(), this));
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    return this;
+  }
+  // endregion
+
   // region OSR
   @Override
   public Object executeOSR(VirtualFrame osrFrame, int target, Object interpreterState) {
@@ -101,6 +275,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
           throw new OSRReturnException(any);
         }
         if (osrResult != null) {
+          if (!noStatistics.isValid()) getStatistics().countOSR(method);
           throw new OSRReturnException(osrResult);
         }
       }
@@ -110,13 +285,15 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
 
   // endregion
 
+  @ExplodeLoop
   private void initializeFrame(VirtualFrame frame) {
-    // Init arguments
+    // Init arguments, the layout is a compilation constant so the loop unrolls and the switch
+    // in put folds to a single typed store per argument
     Object[] args = frame.getArguments();
-    TypeSymbol[] argTypes = getMethod().getParameterTypesIncludingInstance();
+    CILOSTAZOLFrame.StackType[] argTypes = getMethod().getParameterStackTypesIncludingInstance();
     int argsOffset = CILOSTAZOLFrame.getStartArgsOffset(getMethod());
 
-    for (int i = 0; i < args.length; i++) {
+    for (int i = 0; i < argTypes.length; i++) {
       CILOSTAZOLFrame.put(frame, args[i], argsOffset + i, argTypes[i]);
     }
   }
@@ -128,10 +305,18 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
     int pc = startPc;
     int topStack = top;
     RuntimeCILException currentEx = null;
+    // Set by the volatile. prefix for the instruction following it
+    boolean volatilePrefix = false;
 
     while (true) {
       int curOpcode = bytecodeBuffer.getOpcode(pc);
       int nextpc = bytecodeBuffer.nextInstruction(pc);
+      if (instrumentation != null) {
+        instrumentation.onStatement(frame, pc);
+      }
+      if (!noStatistics.isValid()) {
+        getStatistics().countOpcode(curOpcode);
+      }
       try {
         CompilerAsserts.partialEvaluationConstant(topStack);
         CompilerAsserts.partialEvaluationConstant(pc);
@@ -211,10 +396,33 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             CILOSTAZOLFrame.copyStatic(frame, bytecodeBuffer.getImmUShort(pc), topStack);
             break;
           case LDLOCA_S:
-            loadLocalIndirect(frame, bytecodeBuffer.getImmUByte(pc), topStack);
-            break;
           case LDLOCA:
-            loadLocalIndirect(frame, bytecodeBuffer.getImmUShort(pc), topStack);
+            {
+              int local =
+                  curOpcode == LDLOCA_S
+                      ? bytecodeBuffer.getImmUByte(pc)
+                      : bytecodeBuffer.getImmUShort(pc);
+              int nextOpcode = bytecodeBuffer.getOpcode(nextpc);
+              if (nextOpcode == INITOBJ) {
+                // The address only serves the following INITOBJ, initialize the local directly.
+                // The INITOBJ is still reported as executed, as if it was dispatched.
+                if (instrumentation != null) {
+                  instrumentation.onStatement(frame, nextpc);
+                }
+                if (!noStatistics.isValid()) {
+                  getStatistics().countOpcode(INITOBJ);
+                }
+                initializeLocal(frame, local, topStack + 1, bytecodeBuffer.getImmToken(nextpc));
+                nextpc = bytecodeBuffer.nextInstruction(nextpc);
+                // Compensates the stack effect of LDLOCA as the address is never pushed
+                topStack--;
+              } else if (isFieldAccess(nextOpcode) && isStructSlot(local)) {
+                // Field accesses work on the struct itself, no reference has to be created
+                CILOSTAZOLFrame.copyStatic(frame, local, topStack);
+              } else {
+                loadLocalIndirect(frame, local, topStack);
+              }
+            }
             break;
 
             // Loading args to top
@@ -240,10 +448,20 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
                 topStack);
             break;
           case LDARGA_S:
-            loadArgument(frame, bytecodeBuffer.getImmUByte(pc), topStack);
-            break;
           case LDARGA:
-            loadArgument(frame, bytecodeBuffer.getImmUShort(pc), topStack);
+            {
+              int argSlot =
+                  CILOSTAZOLFrame.getStartArgsOffset(getMethod())
+                      + (curOpcode == LDARGA_S
+                          ? bytecodeBuffer.getImmUByte(pc)
+                          : bytecodeBuffer.getImmUShort(pc));
+              if (isFieldAccess(bytecodeBuffer.getOpcode(nextpc)) && isStructSlot(argSlot)) {
+                // Field accesses work on the struct itself, no reference has to be created
+                CILOSTAZOLFrame.copyStatic(frame, argSlot, topStack);
+              } else {
+                loadArgument(frame, argSlot, topStack);
+              }
+            }
             break;
 
             // Storing args
@@ -261,10 +479,10 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
 
             // Loading fields
           case LDFLD:
-            loadInstanceField(frame, topStack, bytecodeBuffer.getImmToken(pc));
+            loadInstanceField(frame, topStack, bytecodeBuffer.getImmToken(pc), volatilePrefix);
             break;
           case LDSFLD:
-            loadStaticField(frame, topStack, bytecodeBuffer.getImmToken(pc));
+            loadStaticField(frame, topStack, bytecodeBuffer.getImmToken(pc), volatilePrefix);
             break;
           case LDFLDA:
             loadFieldInstanceFieldRef(frame, topStack, bytecodeBuffer.getImmToken(pc));
@@ -275,10 +493,13 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
 
             // Storing fields
           case STFLD:
-            storeInstanceField(frame, topStack, bytecodeBuffer.getImmToken(pc));
+            storeInstanceField(frame, topStack, bytecodeBuffer.getImmToken(pc), volatilePrefix);
             break;
           case STSFLD:
-            storeStaticField(frame, topStack, bytecodeBuffer.getImmToken(pc));
+            storeStaticField(frame, topStack, bytecodeBuffer.getImmToken(pc), volatilePrefix);
+            break;
+          case VOLATILE:
+            // Only makes field accesses volatile, indirect loads and stores stay plain
             break;
 
             // Object manipulation
@@ -617,33 +838,8 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             }
             break;
           case STELEM_REF:
-            try {
-              Array.set(
-                  getMethod()
-                      .getContext()
-                      .getArrayProperty()
-                      .getObject(CILOSTAZOLFrame.popObject(frame, topStack - 3)),
-                  CILOSTAZOLFrame.popInt32(frame, topStack - 2),
-                  CILOSTAZOLFrame.popObject(frame, topStack - 1));
-            } catch (NullPointerException ex) {
-              throw RuntimeCILException.RuntimeCILExceptionFactory.create(
-                  RuntimeCILException.Exception.NullReference,
-                  getMethod().getContext(),
-                  frame,
-                  topStack);
-            } catch (IllegalArgumentException ex) {
-              throw RuntimeCILException.RuntimeCILExceptionFactory.create(
-                  RuntimeCILException.Exception.ArrayTypeMismatch,
-                  getMethod().getContext(),
-                  frame,
-                  topStack);
-            } catch (IndexOutOfBoundsException ex) {
-              throw RuntimeCILException.RuntimeCILExceptionFactory.create(
-                  RuntimeCILException.Exception.IndexOutOfRange,
-                  getMethod().getContext(),
-                  frame,
-                  topStack);
-            }
+            // The node returns the stack top the stack effect below computes as well
+            getStoreElementNode(pc, topStack).execute(frame);
             break;
           case STELEM_I, STELEM_I4:
             try {
@@ -934,10 +1130,34 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             break;
 
             // Unmanaged memory manipulation
-          case INITBLK:
-          case CPBLK:
           case LDFTN:
+            CILOSTAZOLFrame.putObject(
+                frame,
+                topStack,
+                loadFunctionPointer(
+                    bytecodeBuffer.getImmToken(pc), getClassTypeArguments(frame), null));
+            break;
           case LDVIRTFTN:
+            {
+              var receiver = CILOSTAZOLFrame.popObject(frame, topStack - 1);
+              if (receiver == StaticObject.NULL)
+                throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+                    RuntimeCILException.Exception.NullReference,
+                    getMethod().getContext(),
+                    frame,
+                    topStack);
+
+              CILOSTAZOLFrame.putObject(
+                  frame,
+                  topStack - 1,
+                  loadFunctionPointer(
+                      bytecodeBuffer.getImmToken(pc), getClassTypeArguments(frame), receiver));
+              break;
+            }
+
+            // Unmanaged memory manipulation
+          case INITBLK:
+          case CPBLK:
           case LOCALLOC:
           case LDTOKEN:
             throw new InterpreterException(
@@ -976,7 +1196,9 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             break;
 
           case TRUFFLE_NODE:
-            topStack = nodes[bytecodeBuffer.getImmInt(pc)].execute(frame);
+            // Pairs with the release of the patched opcode, the operands and nodes are visible
+            VarHandle.acquireFence();
+            topStack = getNodeizedNode(bytecodeBuffer.getImmInt(pc)).execute(frame);
             break;
 
           default:
@@ -985,6 +1207,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
         }
 
         topStack += BytecodeInstructions.getStackEffect(curOpcode);
+        volatilePrefix = curOpcode == VOLATILE;
         pc = nextpc;
       } catch (OSRReturnException e) {
         return e.getResultOrRethrow();
@@ -1483,38 +1706,18 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
         SymbolResolver.resolveType(
             token,
             getMethod().getTypeArguments(),
-            getMethod().getDefiningType().getTypeArguments(),
+            getClassTypeArguments(frame),
             getMethod().getModule());
     int num = CILOSTAZOLFrame.popInt32(frame, top);
     if (num < 0)
       throw RuntimeCILException.RuntimeCILExceptionFactory.create(
           RuntimeCILException.Exception.Overflow, getMethod().getContext(), frame, top);
     var arrayType = SymbolResolver.resolveArray(elemType, getMethod().getContext());
-    StaticObject object = null;
-    try {
-      object = getMethod().getContext().getArrayShape().getFactory().create(arrayType);
-    } catch (Exception ex) {
-      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
-          RuntimeCILException.Exception.OutOfMemory, getMethod().getContext(), frame, top);
-    }
-    Object value =
-        switch (elemType.getSystemType()) {
-          case Boolean -> new boolean[num];
-          case Char -> new char[num];
-          case Int -> new int[num];
-          case Byte -> new byte[num];
-          case Short -> new short[num];
-          case Float -> new float[num];
-          case Long -> new long[num];
-          case Double -> new double[num];
-          case Void -> throw new InterpreterException();
-          case Object -> {
-            var res = new StaticObject[num];
-            Arrays.fill(res, StaticObject.NULL);
-            yield res;
-          }
-        };
-    getMethod().getContext().getArrayProperty().setObject(object, value);
+    var allocator = getMethod().getContext().getAllocator();
+    StaticObject object =
+        elemType.getSystemType() == SystemType.Object
+            ? allocator.createNewReferenceArray(arrayType, num)
+            : allocator.createNewPrimitiveArray(arrayType, num);
     CILOSTAZOLFrame.putObject(frame, top, object);
   }
 
@@ -1895,7 +2098,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
     CILOSTAZOLFrame.copyStatic(frame, top - 1, top);
   }
 
-  private void loadArgument(VirtualFrame frame, int index, int topStack) {
+  private void loadArgument(VirtualFrame frame, int slot, int topStack) {
     CILOSTAZOLFrame.putObject(
         frame,
         topStack,
@@ -1906,7 +2109,45 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
                 SymbolResolver.resolveReference(
                     ReferenceSymbol.ReferenceType.Argument, getMethod().getContext()),
                 frame,
-                index + CILOSTAZOLFrame.getStartArgsOffset(getMethod())));
+                slot));
+  }
+
+  private static boolean isFieldAccess(int opcode) {
+    return opcode == LDFLD || opcode == LDFLDA;
+  }
+
+  /**
+   * Whether the local or argument in the slot holds a struct. The struct is stored as an object in
+   * the slot, so it can be used directly wherever only its fields are accessed through the address.
+   */
+  private boolean isStructSlot(int slot) {
+    if (structSlots == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      structSlots = createStructSlots();
+    }
+
+    return structSlots[slot];
+  }
+
+  private boolean[] createStructSlots() {
+    var locals = getMethod().getLocals();
+    var args = getMethod().getParameterTypesIncludingInstance();
+    int argsOffset = CILOSTAZOLFrame.getStartArgsOffset(getMethod());
+    boolean[] result = new boolean[argsOffset + args.length];
+    for (int i = 0; i < locals.length; i++) {
+      result[i] = isStruct(locals[i].getType());
+    }
+    for (int i = 0; i < args.length; i++) {
+      result[argsOffset + i] = isStruct(args[i]);
+    }
+
+    return result;
+  }
+
+  private static boolean isStruct(TypeSymbol type) {
+    return type instanceof NamedTypeSymbol namedType
+        && namedType.getStackTypeKind() == CILOSTAZOLFrame.StackType.Object
+        && namedType.isValueType();
   }
 
   private void loadLocalIndirect(VirtualFrame frame, int slot, int topStack) {
@@ -1941,7 +2182,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     CILOSTAZOLFrame.copyStatic(frame, sourceSlot, destSlot);
   }
@@ -1963,11 +2204,16 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     var object = CILOSTAZOLFrame.popObject(frame, slot);
+    if (object == StaticObject.NULL) {
+      CILOSTAZOLFrame.putObject(frame, slot, StaticObject.NULL);
+      return;
+    }
+
     var sourceType = object.getTypeSymbol();
-    if (sourceType.isAssignableFrom(targetType)) {
+    if (targetType.isAssignableFrom(sourceType)) {
       // Success: put object back on stack with a new type
       CILOSTAZOLFrame.putObject(frame, slot, object);
       // TODO: Decide how to denote the change in type in the static analysis
@@ -1990,7 +2236,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     var sourceType = object.getTypeSymbol();
     if (targetType.isAssignableFrom(sourceType)) {
@@ -2008,7 +2254,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     if (!type.isValueType()) return;
 
@@ -2029,7 +2275,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     if (!type.isValueType()) return;
 
@@ -2044,20 +2290,21 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     var object = CILOSTAZOLFrame.popObject(frame, slot);
-    var sourceType = (NamedTypeSymbol) object.getTypeSymbol();
-    if (!sourceType.isValueType()) {
+    if (object == StaticObject.NULL) {
       // Reference types are handled like castclass
-      if (object == StaticObject.NULL) {
-        CILOSTAZOLFrame.putObject(frame, slot, StaticObject.NULL);
-        return;
-      }
+      CILOSTAZOLFrame.putObject(frame, slot, StaticObject.NULL);
+      return;
+    }
 
+    var sourceType = (NamedTypeSymbol) object.getTypeSymbol();
+    if (!sourceType.isValueType()) {
       // TODO: The value can be a Nullable<T>, which is handled differently than T
-      if (sourceType.isAssignableFrom(targetType)) {
+      if (targetType.isAssignableFrom(sourceType)) {
         CILOSTAZOLFrame.putObject(frame, slot, object);
+        return;
       } else {
         throw RuntimeCILException.RuntimeCILExceptionFactory.create(
             RuntimeCILException.Exception.InvalidCast, getMethod().getContext(), frame, slot + 1);
@@ -2147,7 +2394,7 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
     CILOSTAZOLFrame.putInt32(frame, slot, type.getSize(frame, slot));
   }
@@ -2159,17 +2406,21 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
   }
 
   private void initializeObject(VirtualFrame frame, int top, CLITablePtr typePtr) {
+    var destReference = CILOSTAZOLFrame.popObject(frame, top - 1);
+    assert ((ReferenceSymbol) destReference.getTypeSymbol()).getReferenceType()
+        == ReferenceSymbol.ReferenceType.Local;
+    int dest = getMethod().getContext().getStackReferenceIndexProperty().getInt(destReference);
+    initializeLocal(frame, dest, top, typePtr);
+  }
+
+  private void initializeLocal(VirtualFrame frame, int dest, int top, CLITablePtr typePtr) {
     var type =
         (NamedTypeSymbol)
             SymbolResolver.resolveType(
                 typePtr,
                 method.getTypeArguments(),
-                method.getDefiningType().getTypeArguments(),
+                getClassTypeArguments(frame),
                 method.getModule());
-    var destReference = CILOSTAZOLFrame.popObject(frame, top - 1);
-    assert ((ReferenceSymbol) destReference.getTypeSymbol()).getReferenceType()
-        == ReferenceSymbol.ReferenceType.Local;
-    int dest = getMethod().getContext().getStackReferenceIndexProperty().getInt(destReference);
 
     if (type.isValueType()) {
       // Initialize value type
@@ -2220,7 +2471,8 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
                 field));
   }
 
-  private void loadInstanceField(VirtualFrame frame, int top, CLITablePtr fieldPtr) {
+  private void loadInstanceField(
+      VirtualFrame frame, int top, CLITablePtr fieldPtr, boolean isVolatile) {
     StaticObject object =
         (StaticObject)
             CILOSTAZOLFrame.popObjectFromPossibleReference(
@@ -2234,59 +2486,65 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
     if (object.equals(StaticObject.NULL))
       throw RuntimeCILException.RuntimeCILExceptionFactory.create(
           RuntimeCILException.Exception.NullReference, getMethod().getContext(), frame, top);
-    loadValueFromField(frame, top, field, object);
+    loadValueFromField(frame, top, field, object, isVolatile);
   }
 
-  private void loadStaticField(VirtualFrame frame, int top, CLITablePtr fieldPtr) {
+  private void loadStaticField(
+      VirtualFrame frame, int top, CLITablePtr fieldPtr, boolean isVolatile) {
     var classMember = SymbolResolver.resolveField(fieldPtr, method.getModule());
     StaticField field = classMember.symbol.getAssignableStaticField(classMember.member, frame, top);
     StaticObject object = classMember.symbol.getStaticInstance(frame, top);
-    loadValueFromField(frame, top + 1, field, object);
+    loadValueFromField(frame, top + 1, field, object, isVolatile);
   }
 
+  /**
+   * Pushes the value of a field. Volatile loads have acquire semantics, later memory accesses of
+   * the thread cannot be moved before them.
+   */
   private void loadValueFromField(
-      VirtualFrame frame, int top, StaticField field, StaticObject object) {
+      VirtualFrame frame, int top, StaticField field, StaticObject object, boolean isVolatile) {
     switch (field.getKind()) {
       case Boolean -> {
-        boolean value = field.getBoolean(object);
+        boolean value = isVolatile ? field.getBooleanVolatile(object) : field.getBoolean(object);
         CILOSTAZOLFrame.putInt32(frame, top - 1, value ? 1 : 0);
       }
       case Byte -> {
-        byte value = field.getByte(object);
+        byte value = isVolatile ? field.getByteVolatile(object) : field.getByte(object);
         CILOSTAZOLFrame.putInt32(frame, top - 1, value);
       }
       case Char -> {
-        char value = field.getChar(object);
+        char value = isVolatile ? field.getCharVolatile(object) : field.getChar(object);
         CILOSTAZOLFrame.putInt32(frame, top - 1, value);
       }
       case Short -> {
-        short value = field.getShort(object);
+        short value = isVolatile ? field.getShortVolatile(object) : field.getShort(object);
         CILOSTAZOLFrame.putInt32(frame, top - 1, value);
       }
       case Float -> {
-        float value = field.getFloat(object);
+        float value = isVolatile ? field.getFloatVolatile(object) : field.getFloat(object);
         CILOSTAZOLFrame.putNativeFloat(frame, top - 1, value);
       }
       case Double -> {
-        double value = field.getDouble(object);
+        double value = isVolatile ? field.getDoubleVolatile(object) : field.getDouble(object);
         CILOSTAZOLFrame.putNativeFloat(frame, top - 1, value);
       }
       case Int -> {
-        int value = field.getInt(object);
+        int value = isVolatile ? field.getIntVolatile(object) : field.getInt(object);
         CILOSTAZOLFrame.putInt32(frame, top - 1, value);
       }
       case Long -> {
-        long value = field.getLong(object);
+        long value = isVolatile ? field.getLongVolatile(object) : field.getLong(object);
         CILOSTAZOLFrame.putInt64(frame, top - 1, value);
       }
       default -> {
-        StaticObject value = (StaticObject) field.getObject(object);
+        StaticObject value =
+            (StaticObject) (isVolatile ? field.getObjectVolatile(object) : field.getObject(object));
         CILOSTAZOLFrame.putObject(frame, top - 1, value);
       }
     }
   }
 
-  void storeInstanceField(VirtualFrame frame, int top, CLITablePtr fieldPtr) {
+  void storeInstanceField(VirtualFrame frame, int top, CLITablePtr fieldPtr, boolean isVolatile) {
     StaticObject object =
         (StaticObject)
             CILOSTAZOLFrame.popObjectFromPossibleReference(
@@ -2296,62 +2554,95 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
         SymbolResolver.resolveField(fieldPtr, instance.getTypeArguments(), method.getModule());
     StaticField field =
         classMember.symbol.getAssignableInstanceField(classMember.member, frame, top);
-    assignValueToField(frame, top, field, object);
+    assignValueToField(frame, top, field, object, isVolatile);
   }
 
-  private void storeStaticField(VirtualFrame frame, int top, CLITablePtr fieldPtr) {
+  private void storeStaticField(
+      VirtualFrame frame, int top, CLITablePtr fieldPtr, boolean isVolatile) {
     var classMember = SymbolResolver.resolveField(fieldPtr, method.getModule());
     StaticField field = classMember.symbol.getAssignableStaticField(classMember.member, frame, top);
     StaticObject object = classMember.symbol.getStaticInstance(frame, top);
     if (object.equals(StaticObject.NULL))
       throw RuntimeCILException.RuntimeCILExceptionFactory.create(
           RuntimeCILException.Exception.NullReference, getMethod().getContext(), frame, top);
-    assignValueToField(frame, top, field, object);
+    assignValueToField(frame, top, field, object, isVolatile);
   }
 
+  /**
+   * Pops a value to a field. Volatile stores have release semantics, earlier memory accesses of the
+   * thread cannot be moved after them.
+   */
   private void assignValueToField(
-      VirtualFrame frame, int top, StaticField field, StaticObject object) {
+      VirtualFrame frame, int top, StaticField field, StaticObject object, boolean isVolatile) {
     switch (field.getKind()) {
       case Boolean -> {
-        int value = CILOSTAZOLFrame.popInt32(frame, top - 1);
-        field.setBoolean(object, value != 0);
+        boolean value = CILOSTAZOLFrame.popInt32(frame, top - 1) != 0;
+        if (isVolatile) field.setBooleanVolatile(object, value);
+        else field.setBoolean(object, value);
       }
       case Byte -> {
-        int value = CILOSTAZOLFrame.popInt32(frame, top - 1);
-        field.setByte(object, (byte) value);
+        byte value = (byte) CILOSTAZOLFrame.popInt32(frame, top - 1);
+        if (isVolatile) field.setByteVolatile(object, value);
+        else field.setByte(object, value);
       }
       case Short -> {
-        int value = CILOSTAZOLFrame.popInt32(frame, top - 1);
-        field.setShort(object, (short) value);
+        short value = (short) CILOSTAZOLFrame.popInt32(frame, top - 1);
+        if (isVolatile) field.setShortVolatile(object, value);
+        else field.setShort(object, value);
       }
       case Char -> {
-        int value = CILOSTAZOLFrame.popInt32(frame, top - 1);
-        field.setChar(object, (char) value);
+        char value = (char) CILOSTAZOLFrame.popInt32(frame, top - 1);
+        if (isVolatile) field.setCharVolatile(object, value);
+        else field.setChar(object, value);
       }
       case Float -> {
-        double value = CILOSTAZOLFrame.popNativeFloat(frame, top - 1);
-        field.setFloat(object, (float) value);
+        float value = (float) CILOSTAZOLFrame.popNativeFloat(frame, top - 1);
+        if (isVolatile) field.setFloatVolatile(object, value);
+        else field.setFloat(object, value);
       }
       case Double -> {
         double value = CILOSTAZOLFrame.popNativeFloat(frame, top - 1);
-        field.setDouble(object, value);
+        if (isVolatile) field.setDoubleVolatile(object, value);
+        else field.setDouble(object, value);
       }
       case Int -> {
         int value = CILOSTAZOLFrame.popInt32(frame, top - 1);
-        field.setInt(object, value);
+        if (isVolatile) field.setIntVolatile(object, value);
+        else field.setInt(object, value);
       }
       case Long -> {
         long value = CILOSTAZOLFrame.popInt64(frame, top - 1);
-        field.setLong(object, value);
+        if (isVolatile) field.setLongVolatile(object, value);
+        else field.setLong(object, value);
       }
       default -> {
         StaticObject value = CILOSTAZOLFrame.popObject(frame, top - 1);
-        field.setObject(object, value);
+        if (isVolatile) field.setObjectVolatile(object, value);
+        else field.setObject(object, value);
       }
     }
   }
   // endregion
 
+  // region generic context
+  /**
+   * The type arguments of the defining type. Shared code reads them from the instantiation the
+   * receiver derives from.
+   */
+  private TypeSymbol[] getClassTypeArguments(VirtualFrame frame) {
+    if (!sharedCode) return method.getDefiningType().getTypeArguments();
+
+    return getGenericContext(((StaticObject) frame.getArguments()[0]).getTypeSymbol())
+        .getTypeArguments();
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private NamedTypeSymbol getGenericContext(TypeSymbol receiverType) {
+    return ((NamedTypeSymbol) receiverType)
+        .getInstantiationOf(method.getDefinition().getDefiningType());
+  }
+  // endregion
+
   // region Nodeization
   /**
    * Get a byte[] representing an instruction with the specified opcode and a 32-bit immediate
@@ -2375,67 +2666,162 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
 
   private int nodeizeOpToken(VirtualFrame frame, int top, CLITablePtr token, int pc, int opcode) {
     CompilerDirectives.transferToInterpreterAndInvalidate();
-    final NodeizedNodeBase node;
+    final int index;
+    // Threads running the method race on patching the instruction, only the first one patches it
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      if (bytecodeBuffer.getOpcode(pc) == TRUFFLE_NODE) {
+        index = bytecodeBuffer.getImmInt(pc);
+      } else {
+        index = addNode(createNodeizedNode(frame, top, token, opcode), pc);
+        if (!noStatistics.isValid()) getStatistics().countNodeization(opcode);
+
+        byte[] patch =
+            preparePatch(
+                (byte) TRUFFLE_NODE,
+                index,
+                com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions.getLength(opcode));
+        // The node is published before the operands and the opcode is released last, a thread
+        // reading it reads the index of an existing node
+        bytecodeBuffer.patchBytecode(pc + 1, Arrays.copyOfRange(patch, 1, patch.length));
+        bytecodeBuffer.patchOpcode(pc, patch[0]);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // execute the new node
+    return nodes[index].execute(frame);
+  }
+
+  private NodeizedNodeBase createNodeizedNode(
+      VirtualFrame frame, int top, CLITablePtr token, int opcode) {
+    if (sharedCode && token.getTableId() != CLITableConstants.CLI_TABLE_METHOD_DEF) {
+      // The target can depend on the type arguments, which differ between the receivers
+      return new GenericContextNode(
+          receiverType ->
+              resolveMethodToken(token, getGenericContext(receiverType).getTypeArguments()),
+          target -> createNodeizedNode(opcode, target, top),
+          opcode == CALL);
+    }
+
+    return createNodeizedNode(opcode, resolveMethodToken(token, getClassTypeArguments(frame)), top);
+  }
+
+  private NodeizedNodeBase getNodeizedNode(int index) {
+    NodeizedNodeBase[] currentNodes = nodes;
+    if (index < 0 || index >= currentNodes.length) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      throw CompilerDirectives.shouldNotReachHere("Invalid index of a nodeized instruction");
+    }
+
+    return currentNodes[index];
+  }
+
+  @ExplodeLoop(kind = ExplodeLoop.LoopExplosionKind.FULL_EXPLODE_UNTIL_RETURN)
+  private NodeizedNodeBase getStoreElementNode(int pc, int top) {
+    int[] indices = storeElementNodes;
+    for (int index : indices) {
+      if (nodePcs[index] == pc) return nodes[index];
+    }
+
+    CompilerDirectives.transferToInterpreterAndInvalidate();
+    return createStoreElementNode(pc, top);
+  }
+
+  private NodeizedNodeBase createStoreElementNode(int pc, int top) {
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      for (int index : storeElementNodes) {
+        if (nodePcs[index] == pc) return nodes[index];
+      }
+
+      int index = addNode(new STELEMREFNode(top), pc);
+      if (!noStatistics.isValid()) getStatistics().countNodeization(STELEM_REF);
+      int[] indices = Arrays.copyOf(storeElementNodes, storeElementNodes.length + 1);
+      indices[indices.length - 1] = index;
+      // Written after the node is added, a thread seeing the index sees the node
+      storeElementNodes = indices;
+      return nodes[index];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Creates the method pointer of ldftn and ldvirtftn. Delegates are created rarely compared to
+   * calls, so the method is resolved on every execution.
+   *
+   * @param receiver the object to resolve a virtual method on, null for ldftn
+   */
+  @CompilerDirectives.TruffleBoundary
+  private StaticObject loadFunctionPointer(
+      CLITablePtr token, TypeSymbol[] classTypeArguments, StaticObject receiver) {
+    MethodSymbol target = resolveMethodToken(token, classTypeArguments);
+    if (receiver != null
+        && target.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.VIRTUAL)) {
+      target = resolveVirtualMethod(target, receiver.getTypeSymbol());
+    }
+
+    return getMethod().getContext().getAllocator().createMethodPointer(target);
+  }
+
+  private static MethodSymbol resolveVirtualMethod(MethodSymbol method, TypeSymbol receiverType) {
+    // Generic virtual methods are instantiated per call site, they are resolved by name
+    int slot =
+        method.getTypeParameters().length == 0
+            ? method.getDefiningType().getVTableSlot(method)
+            : -1;
+    if (slot >= 0 && receiverType instanceof NamedTypeSymbol type) {
+      var implementation = type.getVirtualMethod(method.getDefiningType(), slot);
+      if (implementation != null) return implementation;
+    }
+
+    var candidate =
+        SymbolResolver.resolveMethod(
+            receiverType,
+            method.getName(),
+            method.getTypeArguments(),
+            method.getParameterTypes(),
+            method.getTypeParameters().length);
+    if (candidate == null) candidate = SymbolResolver.resolveMethodImpl(method, receiverType);
+
+    return candidate == null ? method : candidate.member;
+  }
+
+  private MethodSymbol resolveMethodToken(CLITablePtr token, TypeSymbol[] classTypeArguments) {
+    return SymbolResolver.resolveMethod(
+            token, getMethod().getTypeArguments(), classTypeArguments, getMethod().getModule())
+        .member;
+  }
+
+  private NodeizedNodeBase createNodeizedNode(int opcode, MethodSymbol method, int top) {
     switch (opcode) {
       case NEWOBJ -> {
-        var method =
-            SymbolResolver.resolveMethod(
-                token,
-                getMethod().getTypeArguments(),
-                getMethod().getDefiningType().getTypeArguments(),
-                getMethod().getModule());
-        node = new NEWOBJNode(method.member, top);
+        return new NEWOBJNode(method, top);
       }
       case JMP -> {
-        var method =
-            SymbolResolver.resolveMethod(
-                token,
-                getMethod().getTypeArguments(),
-                getMethod().getDefiningType().getTypeArguments(),
-                getMethod().getModule());
-        if (method.member.getMethodFlags().hasFlag(Flag.UNMANAGED_EXPORT)) {
+        if (method.getMethodFlags().hasFlag(Flag.UNMANAGED_EXPORT)) {
           // Either native support must be supported or some workaround must be implemented
           throw new NotImplementedException();
         }
 
-        node = new JMPNode(method.member, top);
+        return new JMPNode(method, top);
       }
       case CALL -> {
-        var method =
-            SymbolResolver.resolveMethod(
-                token,
-                getMethod().getTypeArguments(),
-                getMethod().getDefiningType().getTypeArguments(),
-                getMethod().getModule());
-        node = getCheckedCALLNode(method.member, top);
+        return getCheckedCALLNode(method, top);
       }
       case CALLVIRT -> {
         // This is not very efficient, but it's the easiest way to get one of the correct methods
-        var method =
-            SymbolResolver.resolveMethod(
-                token,
-                getMethod().getTypeArguments(),
-                getMethod().getDefiningType().getTypeArguments(),
-                getMethod().getModule());
-        node = getCheckedCALLVIRTNode(method.member, top);
+        return getCheckedCALLVIRTNode(method, top);
       }
       default -> {
         CompilerDirectives.transferToInterpreterAndInvalidate();
         throw new InterpreterException();
       }
     }
-
-    int index = addNode(node);
-
-    byte[] patch =
-        preparePatch(
-            (byte) TRUFFLE_NODE,
-            index,
-            com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions.getLength(opcode));
-    bytecodeBuffer.patchBytecode(pc, patch);
-
-    // execute the new node
-    return nodes[index].execute(frame);
   }
 
   private CALLNode getCheckedCALLNode(MethodSymbol method, int top) {
@@ -2454,11 +2840,17 @@ public class CILMethodNode extends CILNodeBase implements BytecodeOSRNode {
     return new CALLVIRTNode(method, top);
   }
 
-  private int addNode(NodeizedNodeBase node) {
+  private int addNode(NodeizedNodeBase node, int pc) {
     CompilerAsserts.neverPartOfCompilation();
-    nodes = Arrays.copyOf(nodes, nodes.length + 1);
-    int nodeIndex = nodes.length - 1; // latest empty slot
-    nodes[nodeIndex] = insert(node);
+    int[] newPcs = Arrays.copyOf(nodePcs, nodePcs.length + 1);
+    newPcs[newPcs.length - 1] = pc;
+    nodePcs = newPcs;
+    NodeizedNodeBase[] newNodes = Arrays.copyOf(nodes, nodes.length + 1);
+    int nodeIndex = newNodes.length - 1; // latest empty slot
+    node.setPc(pc);
+    newNodes[nodeIndex] = insert(node);
+    // Filled before it is published, readers never see an empty slot
+    nodes = newNodes;
     return nodeIndex;
   }
   // endregion
@@ -1,8 +1,22 @@
 package com.vztekoverflow.cilostazol.nodes;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.GenerateWrapper;
+import com.oracle.truffle.api.instrumentation.InstrumentableNode;
+import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.api.nodes.Node;
 
-public abstract class CILNodeBase extends Node {
+@GenerateWrapper
+public abstract class CILNodeBase extends Node implements InstrumentableNode {
   public abstract Object execute(VirtualFrame frame);
+
+  @Override
+  public boolean isInstrumentable() {
+    return false;
+  }
+
+  @Override
+  public WrapperNode createWrapper(ProbeNode probe) {
+    return new CILNodeBaseWrapper(this, probe);
+  }
 }
@@ -4,20 +4,27 @@ import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
 import com.vztekoverflow.cilostazol.exceptions.ReturnException;
+import com.vztekoverflow.cilostazol.nodes.internal.DelegateMethodImplementations;
 import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
 
 public final class CILOSTAZOLRootNode extends RootNode {
-  @Child private CILMethodNode _node;
+  // Replaced by a wrapper when instruments attach to the method
+  @Child private CILNodeBase _node;
+  private final CILMethodNode methodNode;
 
   private CILOSTAZOLRootNode(FrameDescriptor descriptor, CILMethodNode node) {
     super(node.getMethod().getContext().getLanguage(), descriptor);
     _node = node;
+    methodNode = node;
   }
 
   public static CILOSTAZOLRootNode create(MethodSymbol method) {
     final CILMethodNode node;
-    if (method.isInternalCall()) {
+    if (DelegateMethodImplementations.isInvoke(method)) {
+      node = CILDelegateInvokeNode.create(method);
+    } else if (method.isInternalCall()) {
       node = CILRuntimeSpecificMethodNode.create(method);
     } else {
       node = CILMethodNode.create(method);
@@ -36,4 +43,20 @@ public final class CILOSTAZOLRootNode extends RootNode {
       return ex.getResult();
     }
   }
+
+  @Override
+  public String getName() {
+    MethodSymbol method = methodNode.getMethod();
+    return method.getDefiningType().toString() + "::" + method.getName();
+  }
+
+  @Override
+  public SourceSection getSourceSection() {
+    return methodNode.getSourceSection();
+  }
+
+  @Override
+  public String toString() {
+    return getName();
+  }
 }
@@ -1,6 +1,7 @@
 package com.vztekoverflow.cilostazol.nodes;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.nodes.internal.DelegateMethodImplementations;
 import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
 import java.util.function.Function;
 
@@ -10,18 +11,40 @@ public class CILRuntimeSpecificMethodNode extends CILMethodNode {
 
   public CILRuntimeSpecificMethodNode(MethodSymbol method) {
     super(method);
-    implementation = RuntimeSpecificMethodImplementations.getImplementation(method.toString());
+    implementation = resolveImplementation(method);
     if (implementation == null) {
       throw new IllegalArgumentException("No implementation for " + method);
     }
   }
 
+  private static Function<VirtualFrame, Object> resolveImplementation(MethodSymbol method) {
+    var result = RuntimeSpecificMethodImplementations.getImplementation(method, method.toString());
+    if (result == null && method.getDefinition() != method) {
+      // Generic instantiations are registered under the signature of their definition
+      result =
+          RuntimeSpecificMethodImplementations.getImplementation(
+              method, method.getDefinition().toString());
+    }
+    if (result == null) {
+      result = RuntimeSpecificMethodImplementations.getFallbackImplementation(method);
+    }
+    if (result == null) {
+      // Delegate types declare their methods without bodies, whatever their signature is
+      result = DelegateMethodImplementations.getImplementation(method);
+    }
+    return result;
+  }
+
   public static CILRuntimeSpecificMethodNode create(MethodSymbol method) {
     return new CILRuntimeSpecificMethodNode(method);
   }
 
   @Override
   public Object execute(VirtualFrame frame) {
-    return implementation.apply(frame);
+    Object result = implementation.apply(frame);
+    if (result == RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION) {
+      return super.execute(frame);
+    }
+    return result;
   }
 }
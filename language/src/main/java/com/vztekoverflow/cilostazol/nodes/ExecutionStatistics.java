@@ -0,0 +1,123 @@
+package com.vztekoverflow.cilostazol.nodes;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Counts what the interpreter does: method invocations, executed and nodeized instructions and OSR
+ * entries. Enabled by the {@code cil.statistics} option, the summary is printed when the context is
+ * closed.
+ *
+ * <p>Truffle offers languages no compilation listener, invocations are counted as compiled when
+ * they run in compiled code. An interpreted invocation of a method that already ran compiled is
+ * counted as a return to the interpreter, usually a deoptimization.
+ */
+public final class ExecutionStatistics {
+  // Single byte opcodes, followed by the ones with the 0xFE prefix
+  private static final int OPCODE_SLOTS = 0x200;
+  private static final int PRINTED_ROWS = 25;
+
+  private final AtomicLongArray executedOpcodes = new AtomicLongArray(OPCODE_SLOTS);
+  private final AtomicLongArray nodeizedOpcodes = new AtomicLongArray(OPCODE_SLOTS);
+  private final Map<MethodSymbol, MethodCounters> methods = new ConcurrentHashMap<>();
+
+  private static final class MethodCounters {
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder compiledInvocations = new LongAdder();
+    private final LongAdder interpreterReturns = new LongAdder();
+    private final LongAdder osrEntries = new LongAdder();
+    private volatile boolean ranCompiled;
+  }
+
+  private static int getSlot(int opcode) {
+    return (opcode & 0xFF00) == 0 ? opcode : 0x100 | (opcode & 0xFF);
+  }
+
+  private static int getOpcode(int slot) {
+    return slot < 0x100 ? slot : 0xFE00 | (slot & 0xFF);
+  }
+
+  private MethodCounters getCounters(MethodSymbol method) {
+    return methods.computeIfAbsent(method, m -> new MethodCounters());
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  void countInvocation(MethodSymbol method, boolean compiled) {
+    MethodCounters counters = getCounters(method);
+    counters.invocations.increment();
+    if (compiled) {
+      counters.compiledInvocations.increment();
+      counters.ranCompiled = true;
+    } else if (counters.ranCompiled) {
+      counters.interpreterReturns.increment();
+      counters.ranCompiled = false;
+    }
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  void countOpcode(int opcode) {
+    executedOpcodes.incrementAndGet(getSlot(opcode));
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  void countNodeization(int opcode) {
+    nodeizedOpcodes.incrementAndGet(getSlot(opcode));
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  void countOSR(MethodSymbol method) {
+    getCounters(method).osrEntries.increment();
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  public void print(PrintStream out) {
+    out.println("Methods by invocations:");
+    out.printf("  %14s %14s %12s %8s  %s%n", "invocations", "compiled", "deopts", "osr", "method");
+    methods.entrySet().stream()
+        .sorted(
+            Comparator.comparingLong(
+                    (Map.Entry<MethodSymbol, MethodCounters> e) -> e.getValue().invocations.sum())
+                .reversed())
+        .limit(PRINTED_ROWS)
+        .forEach(
+            e -> {
+              MethodSymbol method = e.getKey();
+              MethodCounters counters = e.getValue();
+              out.printf(
+                  "  %14d %14d %12d %8d  %s::%s%n",
+                  counters.invocations.sum(),
+                  counters.compiledInvocations.sum(),
+                  counters.interpreterReturns.sum(),
+                  counters.osrEntries.sum(),
+                  method.getDefiningType(),
+                  method.getName());
+            });
+
+    out.println("Executed instructions:");
+    printOpcodes(out, executedOpcodes);
+    out.println("Nodeized instructions:");
+    printOpcodes(out, nodeizedOpcodes);
+    out.flush();
+  }
+
+  private static void printOpcodes(PrintStream out, AtomicLongArray counts) {
+    IntStream.range(0, OPCODE_SLOTS)
+        .filter(slot -> counts.get(slot) != 0)
+        .boxed()
+        .sorted(Comparator.comparingLong(counts::get).reversed())
+        .limit(PRINTED_ROWS)
+        .forEach(
+            slot ->
+                out.printf(
+                    "  %14d  %s%n",
+                    counts.get(slot), BytecodeInstructions.getName(getOpcode(slot))));
+  }
+}
@@ -0,0 +1,44 @@
+package com.vztekoverflow.cilostazol.nodes;
+
+import static com.vztekoverflow.cil.parser.bytecode.BytecodeInstructions.*;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.vztekoverflow.cil.parser.bytecode.BytecodeBuffer;
+import com.vztekoverflow.cil.parser.pdb.SequencePoint;
+
+/**
+ * The statement nodes of a method, indexed by the offset of their instruction. With debugging
+ * information the statements are the sequence points of the method, otherwise every instruction is
+ * one. Calls get a node either way. Methods create it only when an instrument asks for statements
+ * or calls, until then the interpreter pays nothing for instrumentation.
+ */
+final class InstrumentationSupport extends Node {
+  @Children private final StatementNode[] statements;
+
+  InstrumentationSupport(byte[] cil, CILMethodNode method) {
+    statements = new StatementNode[cil.length];
+    SequencePoint[] points = method.getSequencePoints();
+    boolean[] sequencePointStarts = new boolean[cil.length];
+    for (SequencePoint point : points) {
+      if (!point.hidden() && point.ilOffset() < cil.length)
+        sequencePointStarts[point.ilOffset()] = true;
+    }
+
+    // The original instructions, nodeization patches the bytecode of the method in place
+    BytecodeBuffer bytecode = new BytecodeBuffer(cil);
+    for (int pc = 0; pc < cil.length; pc = bytecode.nextInstruction(pc)) {
+      int opcode = bytecode.getOpcode(pc);
+      boolean call = opcode == CALL || opcode == CALLVIRT || opcode == CALLI || opcode == NEWOBJ;
+      boolean statement = points.length == 0 || sequencePointStarts[pc];
+      if (statement || call) {
+        statements[pc] = new StatementNode(method.getSourceSectionAt(pc), statement, call);
+      }
+    }
+  }
+
+  void onStatement(VirtualFrame frame, int pc) {
+    StatementNode statement = statements[pc];
+    if (statement != null) statement.execute(frame);
+  }
+}
@@ -2,15 +2,28 @@ package com.vztekoverflow.cilostazol.nodes;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.nodes.internal.ArrayMethodImplementations;
+import com.vztekoverflow.cilostazol.nodes.internal.CollectionMethodImplementations;
 import com.vztekoverflow.cilostazol.nodes.internal.ConsoleMethodImplementations;
 import com.vztekoverflow.cilostazol.nodes.internal.MathMethodImplementations;
 import com.vztekoverflow.cilostazol.nodes.internal.ObjectMethodImplementations;
 import com.vztekoverflow.cilostazol.nodes.internal.StringMethodImplementations;
+import com.vztekoverflow.cilostazol.nodes.internal.TaskMethodImplementations;
+import com.vztekoverflow.cilostazol.nodes.internal.ThreadingMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 public final class RuntimeSpecificMethodImplementations {
+  /**
+   * Returned by an implementation that cannot handle its arguments, the CIL body of the method is
+   * interpreted instead.
+   */
+  public static final Object USE_CIL_IMPLEMENTATION = new Object();
+
   private static final Map<String, Function<VirtualFrame, Object>> methodImplementations =
       new HashMap<>() {
         {
@@ -182,16 +195,274 @@ public final class RuntimeSpecificMethodImplementations {
           put(
               "System.Int32 System.String::get_Length()",
               StringMethodImplementations::stringGetLength);
+          put(
+              "System.Void System.Array::Copy(System.Array, System.Array, System.Int32)",
+              ArrayMethodImplementations::arrayCopy);
+          put(
+              "System.Void System.Array::Copy(System.Array, System.Array, System.Int64)",
+              ArrayMethodImplementations::arrayCopyLong);
+          put(
+              "System.Void System.Array::Copy(System.Array, System.Int32, System.Array, System.Int32, System.Int32)",
+              ArrayMethodImplementations::arrayCopyWithIndices);
+          put(
+              "System.Void System.Array::Copy(System.Array, System.Int64, System.Array, System.Int64, System.Int64)",
+              ArrayMethodImplementations::arrayCopyWithIndicesLong);
+          put(
+              "System.Void System.Array::ConstrainedCopy(System.Array, System.Int32, System.Array, System.Int32, System.Int32)",
+              ArrayMethodImplementations::arrayConstrainedCopy);
+          put(
+              "System.Void System.Array::Clear(System.Array)",
+              ArrayMethodImplementations::arrayClear);
+          put(
+              "System.Void System.Array::Clear(System.Array, System.Int32, System.Int32)",
+              ArrayMethodImplementations::arrayClearRange);
+          put(
+              "System.Void System.Array::Fill(System.Array, T)",
+              ArrayMethodImplementations::arrayFill);
+          put(
+              "System.Void System.Array::Fill(System.Array, T, System.Int32, System.Int32)",
+              ArrayMethodImplementations::arrayFillRange);
+          put(
+              "System.Void System.Array::Sort(System.Array)",
+              ArrayMethodImplementations::arraySort);
+          put(
+              "System.Void System.Array::Sort(System.Array, System.Int32, System.Int32)",
+              ArrayMethodImplementations::arraySortRange);
+          put(
+              "System.Int32 System.Array::BinarySearch(System.Array, T)",
+              ArrayMethodImplementations::arrayBinarySearch);
+          put(
+              "System.Int32 System.Array::BinarySearch(System.Array, System.Int32, System.Int32, T)",
+              ArrayMethodImplementations::arrayBinarySearchRange);
+          put(
+              "System.Void System.Buffer::BlockCopy(System.Array, System.Int32, System.Array, System.Int32, System.Int32)",
+              ArrayMethodImplementations::bufferBlockCopy);
+          put(
+              "System.Void System.Buffer::Memmove(System.Byte, System.Byte, System.UIntPtr)",
+              ArrayMethodImplementations::bufferMemmove);
+          put(
+              "System.Void System.Buffer::Memmove(T, T, System.UIntPtr)",
+              ArrayMethodImplementations::bufferMemmove);
+          put(
+              "System.Void System.Threading.Thread::.ctor(System.Threading.ThreadStart)",
+              ThreadingMethodImplementations::threadCtor);
+          put(
+              "System.Void System.Threading.Thread::.ctor(System.Threading.ParameterizedThreadStart)",
+              ThreadingMethodImplementations::threadCtorParameterized);
+          put(
+              "System.Void System.Threading.Thread::Start()",
+              ThreadingMethodImplementations::threadStart);
+          put(
+              "System.Void System.Threading.Thread::Start(System.Object)",
+              ThreadingMethodImplementations::threadStartParameter);
+          put(
+              "System.Void System.Threading.Thread::Join()",
+              ThreadingMethodImplementations::threadJoin);
+          put(
+              "System.Boolean System.Threading.Thread::Join(System.Int32)",
+              ThreadingMethodImplementations::threadJoinTimeout);
+          put(
+              "System.Void System.Threading.Thread::Sleep(System.Int32)",
+              ThreadingMethodImplementations::threadSleep);
+          put(
+              "System.Void System.Threading.Monitor::Enter(System.Object)",
+              ThreadingMethodImplementations::monitorEnter);
+          put(
+              "System.Void System.Threading.Monitor::Enter(System.Object, System.Boolean)",
+              ThreadingMethodImplementations::monitorEnterLockTaken);
+          put(
+              "System.Boolean System.Threading.Monitor::TryEnter(System.Object)",
+              ThreadingMethodImplementations::monitorTryEnter);
+          put(
+              "System.Void System.Threading.Monitor::Exit(System.Object)",
+              ThreadingMethodImplementations::monitorExit);
+          put(
+              "System.Boolean System.Threading.Monitor::IsEntered(System.Object)",
+              ThreadingMethodImplementations::monitorIsEntered);
+          put(
+              "System.Boolean System.Threading.Monitor::Wait(System.Object)",
+              ThreadingMethodImplementations::monitorWait);
+          put(
+              "System.Boolean System.Threading.Monitor::Wait(System.Object, System.Int32)",
+              ThreadingMethodImplementations::monitorWaitTimeout);
+          put(
+              "System.Void System.Threading.Monitor::Pulse(System.Object)",
+              ThreadingMethodImplementations::monitorPulse);
+          put(
+              "System.Void System.Threading.Monitor::PulseAll(System.Object)",
+              ThreadingMethodImplementations::monitorPulseAll);
+          put(
+              "System.Int32 System.Threading.Interlocked::Increment(System.Int32)",
+              ThreadingMethodImplementations::interlockedIncrementInt32);
+          put(
+              "System.Int32 System.Threading.Interlocked::Decrement(System.Int32)",
+              ThreadingMethodImplementations::interlockedDecrementInt32);
+          put(
+              "System.Int32 System.Threading.Interlocked::Exchange(System.Int32, System.Int32)",
+              ThreadingMethodImplementations::interlockedExchangeInt32);
+          put(
+              "System.Int32 System.Threading.Interlocked::CompareExchange(System.Int32, System.Int32, System.Int32)",
+              ThreadingMethodImplementations::interlockedCompareExchangeInt32);
+          put(
+              "System.Int64 System.Threading.Interlocked::Increment(System.Int64)",
+              ThreadingMethodImplementations::interlockedIncrementInt64);
+          put(
+              "System.Int64 System.Threading.Interlocked::Decrement(System.Int64)",
+              ThreadingMethodImplementations::interlockedDecrementInt64);
+          put(
+              "System.Int64 System.Threading.Interlocked::Exchange(System.Int64, System.Int64)",
+              ThreadingMethodImplementations::interlockedExchangeInt64);
+          put(
+              "System.Int64 System.Threading.Interlocked::CompareExchange(System.Int64, System.Int64, System.Int64)",
+              ThreadingMethodImplementations::interlockedCompareExchangeInt64);
+          put(
+              "System.Int32 System.Threading.Interlocked::Add(System.Int32, System.Int32)",
+              ThreadingMethodImplementations::interlockedAddInt32);
+          put(
+              "System.Int64 System.Threading.Interlocked::Add(System.Int64, System.Int64)",
+              ThreadingMethodImplementations::interlockedAddInt64);
+          put(
+              "System.Object System.Threading.Interlocked::Exchange(System.Object, System.Object)",
+              ThreadingMethodImplementations::interlockedExchangeObject);
+          put(
+              "System.Object System.Threading.Interlocked::CompareExchange(System.Object, System.Object, System.Object)",
+              ThreadingMethodImplementations::interlockedCompareExchangeObject);
+          put(
+              "T System.Threading.Interlocked::Exchange(T, T)",
+              ThreadingMethodImplementations::interlockedExchangeObject);
+          put(
+              "T System.Threading.Interlocked::CompareExchange(T, T, T)",
+              ThreadingMethodImplementations::interlockedCompareExchangeObject);
+          put(
+              "System.Threading.Tasks.ParallelLoopResult System.Threading.Tasks.Parallel::For(System.Int32, System.Int32, System.Action`1<System.Int32>)",
+              TaskMethodImplementations::parallelFor);
+          put(
+              "System.Threading.Tasks.ParallelLoopResult System.Threading.Tasks.Parallel::ForEach(System.Collections.Generic.IEnumerable`1<TSource>, System.Action`1<TSource>)",
+              TaskMethodImplementations::parallelForEach);
+          put(
+              "System.Threading.Tasks.Task System.Threading.Tasks.Task::Run(System.Action)",
+              TaskMethodImplementations::taskRun);
+          put(
+              "System.Threading.Tasks.Task`1<TResult> System.Threading.Tasks.Task::Run(System.Func`1<TResult>)",
+              TaskMethodImplementations::taskRunResult);
+          put(
+              "System.Void System.Threading.Tasks.Task::Wait()",
+              TaskMethodImplementations::taskWait);
+          put(
+              "System.Void System.Threading.Tasks.Task::WaitAll(System.Threading.Tasks.Task[])",
+              TaskMethodImplementations::taskWaitAll);
+          put(
+              "System.Boolean System.Threading.Tasks.Task::get_IsCompleted()",
+              TaskMethodImplementations::taskGetIsCompleted);
+          put(
+              "TResult System.Threading.Tasks.Task`1::get_Result()",
+              TaskMethodImplementations::taskGetResult);
         }
       };
 
+  // Only used when cil.hostCollections is enabled. Created for each method, so that the List<T>
+  // intrinsics can keep the fields of their instantiation.
+  private static final Map<String, Function<MethodSymbol, Function<VirtualFrame, Object>>>
+      hostCollectionImplementations =
+          new HashMap<>() {
+            {
+              put(
+                  "System.Int32 System.Collections.Generic.List`1::get_Count()",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listGetCount));
+              put(
+                  "T System.Collections.Generic.List`1::get_Item(System.Int32)",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listGetItem));
+              put(
+                  "System.Void System.Collections.Generic.List`1::set_Item(System.Int32, T)",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listSetItem));
+              put(
+                  "System.Void System.Collections.Generic.List`1::Add(T)",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listAdd));
+              put(
+                  "System.Void System.Collections.Generic.List`1::Clear()",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listClear));
+              put(
+                  "System.Boolean System.Collections.Generic.List`1::Contains(T)",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listContains));
+              put(
+                  "System.Int32 System.Collections.Generic.List`1::IndexOf(T)",
+                  method ->
+                      CollectionMethodImplementations.forList(
+                          method, CollectionMethodImplementations::listIndexOf));
+              put(
+                  "System.Void System.Collections.Generic.Dictionary`2::.ctor()",
+                  method -> CollectionMethodImplementations::dictionaryCtor);
+              put(
+                  "System.Void System.Collections.Generic.Dictionary`2::.ctor(System.Int32)",
+                  method -> CollectionMethodImplementations::dictionaryCtorCapacity);
+              put(
+                  "System.Int32 System.Collections.Generic.Dictionary`2::get_Count()",
+                  method -> CollectionMethodImplementations::dictionaryGetCount);
+              put(
+                  "System.Void System.Collections.Generic.Dictionary`2::Add(TKey, TValue)",
+                  method -> CollectionMethodImplementations::dictionaryAdd);
+              put(
+                  "System.Boolean System.Collections.Generic.Dictionary`2::TryAdd(TKey, TValue)",
+                  method -> CollectionMethodImplementations::dictionaryTryAdd);
+              put(
+                  "TValue System.Collections.Generic.Dictionary`2::get_Item(TKey)",
+                  method -> CollectionMethodImplementations::dictionaryGetItem);
+              put(
+                  "System.Void System.Collections.Generic.Dictionary`2::set_Item(TKey, TValue)",
+                  method -> CollectionMethodImplementations::dictionarySetItem);
+              put(
+                  "System.Boolean System.Collections.Generic.Dictionary`2::TryGetValue(TKey, TValue)",
+                  method -> CollectionMethodImplementations::dictionaryTryGetValue);
+              put(
+                  "System.Boolean System.Collections.Generic.Dictionary`2::ContainsKey(TKey)",
+                  method -> CollectionMethodImplementations::dictionaryContainsKey);
+              put(
+                  "System.Boolean System.Collections.Generic.Dictionary`2::Remove(TKey)",
+                  method -> CollectionMethodImplementations::dictionaryRemove);
+              put(
+                  "System.Void System.Collections.Generic.Dictionary`2::Clear()",
+                  method -> CollectionMethodImplementations::dictionaryClear);
+            }
+          };
+
+  @CompilerDirectives.TruffleBoundary
+  public static Function<VirtualFrame, Object> getImplementation(
+      MethodSymbol method, String methodIdentifier) {
+    var result = methodImplementations.get(methodIdentifier);
+    if (result == null && method.getContext().isHostCollectionsEnabled()) {
+      var factory = hostCollectionImplementations.get(methodIdentifier);
+      if (factory != null) result = factory.apply(method);
+    }
+    return result;
+  }
+
+  /** The implementation of methods without one of their own, or null if there is none. */
   @CompilerDirectives.TruffleBoundary
-  public static Function<VirtualFrame, Object> getImplementation(String methodIdentifier) {
-    return methodImplementations.get(methodIdentifier);
+  public static Function<VirtualFrame, Object> getFallbackImplementation(MethodSymbol method) {
+    if (method.getContext().isHostCollectionsEnabled()
+        && CollectionMethodImplementations.isDictionary(method.getDefiningType()))
+      return CollectionMethodImplementations.forDictionaryMember(method);
+    return null;
   }
 
   @CompilerDirectives.TruffleBoundary
-  public static boolean hasCustomImplementation(String methodIdentifier) {
-    return methodImplementations.containsKey(methodIdentifier);
+  public static boolean hasCustomImplementation(
+      String methodIdentifier, NamedTypeSymbol definingType, CILOSTAZOLContext context) {
+    if (methodImplementations.containsKey(methodIdentifier)) return true;
+    return context.isHostCollectionsEnabled()
+        && (hostCollectionImplementations.containsKey(methodIdentifier)
+            || CollectionMethodImplementations.isDictionary(definingType));
   }
 }
@@ -0,0 +1,54 @@
+package com.vztekoverflow.cilostazol.nodes;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.GenerateWrapper;
+import com.oracle.truffle.api.instrumentation.InstrumentableNode;
+import com.oracle.truffle.api.instrumentation.ProbeNode;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.Tag;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * An instruction of a method as seen by instruments, a statement, a call or both. It does nothing,
+ * instruments attach to its wrapper, which the method executes before the instruction.
+ */
+@GenerateWrapper
+public class StatementNode extends Node implements InstrumentableNode {
+  private final SourceSection sourceSection;
+  private final boolean statement;
+  private final boolean call;
+
+  StatementNode(SourceSection sourceSection, boolean statement, boolean call) {
+    this.sourceSection = sourceSection;
+    this.statement = statement;
+    this.call = call;
+  }
+
+  StatementNode(StatementNode delegate) {
+    this(delegate.sourceSection, delegate.statement, delegate.call);
+  }
+
+  public void execute(VirtualFrame frame) {}
+
+  @Override
+  public boolean isInstrumentable() {
+    return true;
+  }
+
+  @Override
+  public boolean hasTag(Class<? extends Tag> tag) {
+    return (statement && tag == StandardTags.StatementTag.class)
+        || (call && tag == StandardTags.CallTag.class);
+  }
+
+  @Override
+  public SourceSection getSourceSection() {
+    return sourceSection;
+  }
+
+  @Override
+  public WrapperNode createWrapper(ProbeNode probe) {
+    return new StatementNodeWrapper(this, this, probe);
+  }
+}
@@ -0,0 +1,842 @@
+package com.vztekoverflow.cilostazol.nodes.internal;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.CILOSTAZOLBundle;
+import com.vztekoverflow.cilostazol.exceptions.InterpreterException;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
+import com.vztekoverflow.cilostazol.nodes.RuntimeSpecificMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.ReferenceSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Bulk operations over guest arrays. All bounds and type checks are done once per call, the
+ * elements are then moved directly between the backing Java arrays.
+ */
+public final class ArrayMethodImplementations {
+  // Ranges at least this long are sorted with Arrays.parallelSort
+  private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+  // region System.Array
+  public static Object arrayCopy(VirtualFrame frame) {
+    StaticObject src = (StaticObject) frame.getArguments()[0];
+    StaticObject dest = (StaticObject) frame.getArguments()[1];
+    int length = (int) frame.getArguments()[2];
+    copy(frame, src, 0, dest, 0, length, false);
+    return null;
+  }
+
+  public static Object arrayCopyLong(VirtualFrame frame) {
+    StaticObject src = (StaticObject) frame.getArguments()[0];
+    StaticObject dest = (StaticObject) frame.getArguments()[1];
+    int length = toIntIndex(frame, (long) frame.getArguments()[2]);
+    copy(frame, src, 0, dest, 0, length, false);
+    return null;
+  }
+
+  public static Object arrayCopyWithIndices(VirtualFrame frame) {
+    StaticObject src = (StaticObject) frame.getArguments()[0];
+    int srcIndex = (int) frame.getArguments()[1];
+    StaticObject dest = (StaticObject) frame.getArguments()[2];
+    int destIndex = (int) frame.getArguments()[3];
+    int length = (int) frame.getArguments()[4];
+    copy(frame, src, srcIndex, dest, destIndex, length, false);
+    return null;
+  }
+
+  public static Object arrayConstrainedCopy(VirtualFrame frame) {
+    StaticObject src = (StaticObject) frame.getArguments()[0];
+    int srcIndex = (int) frame.getArguments()[1];
+    StaticObject dest = (StaticObject) frame.getArguments()[2];
+    int destIndex = (int) frame.getArguments()[3];
+    int length = (int) frame.getArguments()[4];
+    copy(frame, src, srcIndex, dest, destIndex, length, true);
+    return null;
+  }
+
+  public static Object arrayCopyWithIndicesLong(VirtualFrame frame) {
+    StaticObject src = (StaticObject) frame.getArguments()[0];
+    int srcIndex = toIntIndex(frame, (long) frame.getArguments()[1]);
+    StaticObject dest = (StaticObject) frame.getArguments()[2];
+    int destIndex = toIntIndex(frame, (long) frame.getArguments()[3]);
+    int length = toIntIndex(frame, (long) frame.getArguments()[4]);
+    copy(frame, src, srcIndex, dest, destIndex, length, false);
+    return null;
+  }
+
+  public static Object arrayClear(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    Object javaArray = getJavaArray(frame, array);
+    clear(javaArray, getElementKind(array), 0, Array.getLength(javaArray));
+    return null;
+  }
+
+  public static Object arrayClearRange(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    int index = (int) frame.getArguments()[1];
+    int length = (int) frame.getArguments()[2];
+    Object javaArray = getJavaArray(frame, array);
+    checkRange(frame, Array.getLength(javaArray), index, length);
+    clear(javaArray, getElementKind(array), index, index + length);
+    return null;
+  }
+
+  public static Object arrayFill(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    Object value = frame.getArguments()[1];
+    Object javaArray = getJavaArray(frame, array);
+    fill(frame, javaArray, getElementType(array), value, 0, Array.getLength(javaArray));
+    return null;
+  }
+
+  public static Object arrayFillRange(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    Object value = frame.getArguments()[1];
+    int startIndex = (int) frame.getArguments()[2];
+    int count = (int) frame.getArguments()[3];
+    Object javaArray = getJavaArray(frame, array);
+    checkRange(frame, Array.getLength(javaArray), startIndex, count);
+    fill(frame, javaArray, getElementType(array), value, startIndex, startIndex + count);
+    return null;
+  }
+
+  public static Object arraySort(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    Object javaArray = getJavaArray(frame, array);
+    return sort(frame, javaArray, getElementType(array), 0, Array.getLength(javaArray));
+  }
+
+  public static Object arraySortRange(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    int index = (int) frame.getArguments()[1];
+    int length = (int) frame.getArguments()[2];
+    Object javaArray = getJavaArray(frame, array);
+    checkRange(frame, Array.getLength(javaArray), index, length);
+    return sort(frame, javaArray, getElementType(array), index, index + length);
+  }
+
+  public static Object arrayBinarySearch(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    Object value = frame.getArguments()[1];
+    Object javaArray = getJavaArray(frame, array);
+    return binarySearch(
+        frame.materialize(),
+        javaArray,
+        getElementType(array),
+        0,
+        Array.getLength(javaArray),
+        value);
+  }
+
+  public static Object arrayBinarySearchRange(VirtualFrame frame) {
+    StaticObject array = (StaticObject) frame.getArguments()[0];
+    int index = (int) frame.getArguments()[1];
+    int length = (int) frame.getArguments()[2];
+    Object value = frame.getArguments()[3];
+    Object javaArray = getJavaArray(frame, array);
+    checkRange(frame, Array.getLength(javaArray), index, length);
+    return binarySearch(
+        frame.materialize(), javaArray, getElementType(array), index, index + length, value);
+  }
+  // endregion
+
+  // region System.Buffer
+  public static Object bufferBlockCopy(VirtualFrame frame) {
+    StaticObject src = (StaticObject) frame.getArguments()[0];
+    int srcOffset = (int) frame.getArguments()[1];
+    StaticObject dest = (StaticObject) frame.getArguments()[2];
+    int destOffset = (int) frame.getArguments()[3];
+    int count = (int) frame.getArguments()[4];
+
+    Object srcArray = getJavaArray(frame, src);
+    Object destArray = getJavaArray(frame, dest);
+    SystemType srcKind = getElementKind(src);
+    SystemType destKind = getElementKind(dest);
+    if (srcKind == SystemType.Object || destKind == SystemType.Object)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.Argument, CILOSTAZOLContext.get(null), frame, 0);
+
+    int srcSize = getElementSize(srcKind);
+    int destSize = getElementSize(destKind);
+    checkRange(frame, Array.getLength(srcArray) * srcSize, srcOffset, count);
+    checkRange(frame, Array.getLength(destArray) * destSize, destOffset, count);
+
+    if (srcKind == destKind
+        && srcOffset % srcSize == 0
+        && destOffset % destSize == 0
+        && count % srcSize == 0) {
+      System.arraycopy(
+          srcArray, srcOffset / srcSize, destArray, destOffset / destSize, count / srcSize);
+      return null;
+    }
+
+    copyBytes(srcArray, srcKind, srcOffset, destArray, destKind, destOffset, count);
+    return null;
+  }
+
+  public static Object bufferMemmove(VirtualFrame frame) {
+    StaticObject destination = (StaticObject) frame.getArguments()[0];
+    StaticObject source = (StaticObject) frame.getArguments()[1];
+    int elementCount = toIntIndex(frame, (long) frame.getArguments()[2]);
+
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    if (!isArrayElementReference(destination) || !isArrayElementReference(source))
+      throw new InterpreterException(
+          CILOSTAZOLBundle.message("cilostazol.exception.not.supported.memmove.reference"));
+
+    StaticObject destArray =
+        (StaticObject) context.getArrayElementReferenceArrayProperty().getObject(destination);
+    int destIndex = context.getArrayElementReferenceIndexProperty().getInt(destination);
+    StaticObject srcArray =
+        (StaticObject) context.getArrayElementReferenceArrayProperty().getObject(source);
+    int srcIndex = context.getArrayElementReferenceIndexProperty().getInt(source);
+    copy(frame, srcArray, srcIndex, destArray, destIndex, elementCount, true);
+    return null;
+  }
+  // endregion
+
+  // region helpers
+  /**
+   * Copies a range between two arrays following the rules of Array.Copy. Primitive elements are
+   * widened and value types are boxed or unboxed when the element types differ. A reliable copy
+   * (Array.ConstrainedCopy) only allows element types that need no conversion or check.
+   */
+  private static void copy(
+      VirtualFrame frame,
+      StaticObject src,
+      int srcIndex,
+      StaticObject dest,
+      int destIndex,
+      int length,
+      boolean reliable) {
+    Object srcArray = getJavaArray(frame, src);
+    Object destArray = getJavaArray(frame, dest);
+    checkRange(frame, Array.getLength(srcArray), srcIndex, length);
+    checkRange(frame, Array.getLength(destArray), destIndex, length);
+
+    TypeSymbol srcElementType = getElementType(src);
+    TypeSymbol destElementType = getElementType(dest);
+    SystemType srcKind = srcElementType.getSystemType();
+    SystemType destKind = destElementType.getSystemType();
+
+    if (srcKind == SystemType.Object && destKind == SystemType.Object) {
+      if (!destElementType.isAssignableFrom(srcElementType)) {
+        if (reliable) throw createArrayTypeMismatch(frame);
+        // Downcasting copy, every element has to be checked before anything is written
+        checkElementTypes(frame, (StaticObject[]) srcArray, srcIndex, length, destElementType);
+      }
+      System.arraycopy(srcArray, srcIndex, destArray, destIndex, length);
+      return;
+    }
+
+    if (srcKind == SystemType.Object || destKind == SystemType.Object) {
+      if (reliable) throw createArrayTypeMismatch(frame);
+      if (destKind == SystemType.Object) {
+        if (!destElementType.isAssignableFrom(srcElementType)) throw createArrayTypeMismatch(frame);
+        boxEach(
+            frame,
+            srcArray,
+            (NamedTypeSymbol) srcElementType,
+            srcIndex,
+            destArray,
+            destIndex,
+            length);
+      } else {
+        if (!srcElementType.isAssignableFrom(destElementType)) throw createArrayTypeMismatch(frame);
+        unboxEach(
+            frame,
+            srcArray,
+            srcIndex,
+            destArray,
+            (NamedTypeSymbol) destElementType,
+            destIndex,
+            length);
+      }
+      return;
+    }
+
+    PrimitiveType srcType = PrimitiveType.of(srcElementType);
+    PrimitiveType destType = PrimitiveType.of(destElementType);
+    if (srcType.normalize() == destType.normalize()) {
+      System.arraycopy(srcArray, srcIndex, destArray, destIndex, length);
+    } else if (!reliable && srcType.canWidenTo(destType)) {
+      widen(srcArray, srcType, srcIndex, destArray, destType, destIndex, length);
+    } else {
+      throw createArrayTypeMismatch(frame);
+    }
+  }
+
+  private static void checkElementTypes(
+      VirtualFrame frame, StaticObject[] elements, int from, int length, TypeSymbol type) {
+    for (int i = from; i < from + length; i++) {
+      StaticObject element = elements[i];
+      if (!StaticObject.isNull(element) && !type.isAssignableFrom(element.getTypeSymbol()))
+        throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+            RuntimeCILException.Exception.InvalidCast, CILOSTAZOLContext.get(null), frame, 0);
+    }
+  }
+
+  private static void boxEach(
+      VirtualFrame frame,
+      Object srcArray,
+      NamedTypeSymbol srcType,
+      int srcIndex,
+      Object destArray,
+      int destIndex,
+      int length) {
+    GuestAllocator allocator = CILOSTAZOLContext.get(null).getAllocator();
+    StaticField valueField = srcType.getAssignableInstanceField(srcType.getFields()[0], frame, 0);
+    StaticObject[] destElements = (StaticObject[]) destArray;
+    for (int i = 0; i < length; i++) {
+      StaticObject boxed = allocator.createNew(srcType, frame, 0);
+      int s = srcIndex + i;
+      switch (srcType.getSystemType()) {
+        case Boolean -> valueField.setBoolean(boxed, ((boolean[]) srcArray)[s]);
+        case Char -> valueField.setChar(boxed, ((char[]) srcArray)[s]);
+        case Byte -> valueField.setByte(boxed, ((byte[]) srcArray)[s]);
+        case Short -> valueField.setShort(boxed, ((short[]) srcArray)[s]);
+        case Int -> valueField.setInt(boxed, ((int[]) srcArray)[s]);
+        case Float -> valueField.setFloat(boxed, ((float[]) srcArray)[s]);
+        case Long -> valueField.setLong(boxed, ((long[]) srcArray)[s]);
+        case Double -> valueField.setDouble(boxed, ((double[]) srcArray)[s]);
+        default -> throw new InterpreterException();
+      }
+      destElements[destIndex + i] = boxed;
+    }
+  }
+
+  /** Unboxing does not widen, every element has to be a boxed instance of the destination type. */
+  private static void unboxEach(
+      VirtualFrame frame,
+      Object srcArray,
+      int srcIndex,
+      Object destArray,
+      NamedTypeSymbol destType,
+      int destIndex,
+      int length) {
+    StaticObject[] srcElements = (StaticObject[]) srcArray;
+    PrimitiveType destPrimitive = PrimitiveType.of(destType);
+    for (int i = srcIndex; i < srcIndex + length; i++) {
+      StaticObject element = srcElements[i];
+      if (StaticObject.isNull(element)
+          || element.getTypeSymbol().getSystemType() != destType.getSystemType()
+          || PrimitiveType.of(element.getTypeSymbol()).normalize() != destPrimitive.normalize())
+        throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+            RuntimeCILException.Exception.InvalidCast, CILOSTAZOLContext.get(null), frame, 0);
+    }
+
+    StaticField valueField = destType.getAssignableInstanceField(destType.getFields()[0], frame, 0);
+    for (int i = 0; i < length; i++) {
+      StaticObject element = srcElements[srcIndex + i];
+      int d = destIndex + i;
+      switch (destType.getSystemType()) {
+        case Boolean -> ((boolean[]) destArray)[d] = valueField.getBoolean(element);
+        case Char -> ((char[]) destArray)[d] = valueField.getChar(element);
+        case Byte -> ((byte[]) destArray)[d] = valueField.getByte(element);
+        case Short -> ((short[]) destArray)[d] = valueField.getShort(element);
+        case Int -> ((int[]) destArray)[d] = valueField.getInt(element);
+        case Float -> ((float[]) destArray)[d] = valueField.getFloat(element);
+        case Long -> ((long[]) destArray)[d] = valueField.getLong(element);
+        case Double -> ((double[]) destArray)[d] = valueField.getDouble(element);
+        default -> throw new InterpreterException();
+      }
+    }
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static void widen(
+      Object srcArray,
+      PrimitiveType srcType,
+      int srcIndex,
+      Object destArray,
+      PrimitiveType destType,
+      int destIndex,
+      int length) {
+    for (int i = 0; i < length; i++) {
+      int s = srcIndex + i;
+      int d = destIndex + i;
+      switch (destType) {
+        case Double -> ((double[]) destArray)[d] = srcType.readDouble(srcArray, s);
+        case Single -> ((float[]) destArray)[d] = srcType.readFloat(srcArray, s);
+        case Char -> ((char[]) destArray)[d] = (char) srcType.readLong(srcArray, s);
+        case Int16, UInt16 -> ((short[]) destArray)[d] = (short) srcType.readLong(srcArray, s);
+        case Int32, UInt32 -> ((int[]) destArray)[d] = (int) srcType.readLong(srcArray, s);
+        case Int64, UInt64 -> ((long[]) destArray)[d] = srcType.readLong(srcArray, s);
+        default -> throw new InterpreterException();
+      }
+    }
+  }
+
+  private static void clear(Object javaArray, SystemType kind, int from, int to) {
+    switch (kind) {
+      case Boolean -> Arrays.fill((boolean[]) javaArray, from, to, false);
+      case Char -> Arrays.fill((char[]) javaArray, from, to, (char) 0);
+      case Byte -> Arrays.fill((byte[]) javaArray, from, to, (byte) 0);
+      case Short -> Arrays.fill((short[]) javaArray, from, to, (short) 0);
+      case Int -> Arrays.fill((int[]) javaArray, from, to, 0);
+      case Float -> Arrays.fill((float[]) javaArray, from, to, 0f);
+      case Long -> Arrays.fill((long[]) javaArray, from, to, 0L);
+      case Double -> Arrays.fill((double[]) javaArray, from, to, 0d);
+      case Object -> Arrays.fill((StaticObject[]) javaArray, from, to, StaticObject.NULL);
+      case Void -> throw new InterpreterException();
+    }
+  }
+
+  private static void fill(
+      VirtualFrame frame,
+      Object javaArray,
+      TypeSymbol elementType,
+      Object value,
+      int from,
+      int to) {
+    switch (elementType.getSystemType()) {
+      case Boolean -> Arrays.fill((boolean[]) javaArray, from, to, (int) value != 0);
+      case Char -> Arrays.fill((char[]) javaArray, from, to, (char) (int) value);
+      case Byte -> Arrays.fill((byte[]) javaArray, from, to, (byte) (int) value);
+      case Short -> Arrays.fill((short[]) javaArray, from, to, (short) (int) value);
+      case Int -> Arrays.fill((int[]) javaArray, from, to, (int) value);
+      case Float -> Arrays.fill((float[]) javaArray, from, to, (float) (double) value);
+      case Long -> Arrays.fill((long[]) javaArray, from, to, (long) value);
+      case Double -> Arrays.fill((double[]) javaArray, from, to, (double) value);
+      case Object -> {
+        StaticObject object = (StaticObject) value;
+        if (!StaticObject.isNull(object) && !elementType.isAssignableFrom(object.getTypeSymbol()))
+          throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+              RuntimeCILException.Exception.ArrayTypeMismatch,
+              CILOSTAZOLContext.get(null),
+              frame,
+              0);
+        Arrays.fill((StaticObject[]) javaArray, from, to, object);
+      }
+      case Void -> throw new InterpreterException();
+    }
+  }
+
+  /**
+   * Sorts the range using the default ordering of the element type. Only types whose default
+   * ordering matches a JDK sort are handled here, unsigned integers and types with a guest
+   * CompareTo are left to the CIL implementation. Strings are compared ordinally, as in the
+   * invariant globalization mode.
+   */
+  private static Object sort(
+      VirtualFrame frame, Object javaArray, TypeSymbol elementType, int from, int to) {
+    if (!hasIntrinsicOrdering(elementType))
+      return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    if (elementType.getSystemType() == SystemType.Object)
+      sortStrings(frame.materialize(), (StaticObject[]) javaArray, from, to);
+    else sortPrimitives(javaArray, elementType.getSystemType(), from, to);
+    return null;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static void sortPrimitives(Object javaArray, SystemType kind, int from, int to) {
+    boolean parallel = to - from >= PARALLEL_SORT_THRESHOLD;
+    switch (kind) {
+      case Char -> {
+        if (parallel) Arrays.parallelSort((char[]) javaArray, from, to);
+        else Arrays.sort((char[]) javaArray, from, to);
+      }
+      case Byte -> {
+        if (parallel) Arrays.parallelSort((byte[]) javaArray, from, to);
+        else Arrays.sort((byte[]) javaArray, from, to);
+      }
+      case Short -> {
+        if (parallel) Arrays.parallelSort((short[]) javaArray, from, to);
+        else Arrays.sort((short[]) javaArray, from, to);
+      }
+      case Int -> {
+        if (parallel) Arrays.parallelSort((int[]) javaArray, from, to);
+        else Arrays.sort((int[]) javaArray, from, to);
+      }
+      case Long -> {
+        if (parallel) Arrays.parallelSort((long[]) javaArray, from, to);
+        else Arrays.sort((long[]) javaArray, from, to);
+      }
+      case Float -> {
+        float[] values = (float[]) javaArray;
+        if (parallel) Arrays.parallelSort(values, from, to);
+        else Arrays.sort(values, from, to);
+        // The JDK orders NaN last, .NET orders it first
+        int nans = 0;
+        while (nans < to - from && Float.isNaN(values[to - 1 - nans])) nans++;
+        if (nans > 0) {
+          System.arraycopy(values, from, values, from + nans, to - from - nans);
+          Arrays.fill(values, from, from + nans, Float.NaN);
+        }
+      }
+      case Double -> {
+        double[] values = (double[]) javaArray;
+        if (parallel) Arrays.parallelSort(values, from, to);
+        else Arrays.sort(values, from, to);
+        int nans = 0;
+        while (nans < to - from && Double.isNaN(values[to - 1 - nans])) nans++;
+        if (nans > 0) {
+          System.arraycopy(values, from, values, from + nans, to - from - nans);
+          Arrays.fill(values, from, from + nans, Double.NaN);
+        }
+      }
+      default -> throw new InterpreterException();
+    }
+  }
+
+  /**
+   * Reading the characters of a guest string needs a thread entered in the context, which the
+   * common pool threads used by {@link Arrays#parallelSort} are not. Long ranges are sorted by Java
+   * string keys extracted on the calling thread instead.
+   */
+  @CompilerDirectives.TruffleBoundary
+  private static void sortStrings(
+      MaterializedFrame frame, StaticObject[] strings, int from, int to) {
+    if (to - from < PARALLEL_SORT_THRESHOLD) {
+      Arrays.sort(strings, from, to, (a, b) -> compareOrdinal(frame, a, b));
+      return;
+    }
+
+    StringSortKey[] keys = new StringSortKey[to - from];
+    for (int i = 0; i < keys.length; i++) {
+      StaticObject string = strings[from + i];
+      keys[i] =
+          new StringSortKey(
+              StaticObject.isNull(string)
+                  ? null
+                  : StringMethodImplementations.toJavaString(frame, string),
+              string);
+    }
+    // String.compareTo compares UTF-16 code units, which is the ordinal ordering
+    Arrays.parallelSort(
+        keys,
+        Comparator.comparing(StringSortKey::key, Comparator.nullsFirst(Comparator.naturalOrder())));
+    for (int i = 0; i < keys.length; i++) strings[from + i] = keys[i].string();
+  }
+
+  private record StringSortKey(String key, StaticObject string) {}
+
+  @CompilerDirectives.TruffleBoundary
+  private static Object binarySearch(
+      MaterializedFrame frame,
+      Object javaArray,
+      TypeSymbol elementType,
+      int from,
+      int to,
+      Object value) {
+    if (!hasIntrinsicOrdering(elementType))
+      return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    return switch (elementType.getSystemType()) {
+      case Char -> Arrays.binarySearch((char[]) javaArray, from, to, (char) (int) value);
+      case Byte -> Arrays.binarySearch((byte[]) javaArray, from, to, (byte) (int) value);
+      case Short -> Arrays.binarySearch((short[]) javaArray, from, to, (short) (int) value);
+      case Int -> Arrays.binarySearch((int[]) javaArray, from, to, (int) value);
+      case Long -> Arrays.binarySearch((long[]) javaArray, from, to, (long) value);
+      case Float -> {
+        // The JDK distinguishes -0.0 and orders NaN last, so the .NET ordering is used instead
+        float[] values = (float[]) javaArray;
+        float key = (float) (double) value;
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          int cmp = compareFloating(values[mid], key);
+          if (cmp == 0) yield mid;
+          if (cmp < 0) low = mid + 1;
+          else high = mid - 1;
+        }
+        yield ~low;
+      }
+      case Double -> {
+        double[] values = (double[]) javaArray;
+        double key = (double) value;
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          int cmp = compareFloating(values[mid], key);
+          if (cmp == 0) yield mid;
+          if (cmp < 0) low = mid + 1;
+          else high = mid - 1;
+        }
+        yield ~low;
+      }
+      case Object -> Arrays.binarySearch(
+          (StaticObject[]) javaArray,
+          from,
+          to,
+          (StaticObject) value,
+          (a, b) -> compareOrdinal(frame, a, b));
+      default -> throw new InterpreterException();
+    };
+  }
+
+  private static boolean hasIntrinsicOrdering(TypeSymbol elementType) {
+    return switch (elementType.getSystemType()) {
+      case Char, Float, Double -> true;
+      case Byte -> isSystemType(elementType, "SByte");
+      case Short -> isSystemType(elementType, "Int16");
+      case Int -> isSystemType(elementType, "Int32");
+      case Long -> isSystemType(elementType, "Int64");
+      case Object -> isSystemType(elementType, "String");
+      default -> false;
+    };
+  }
+
+  private static boolean isSystemType(TypeSymbol type, String name) {
+    return type instanceof NamedTypeSymbol namedType
+        && !namedType.isArray()
+        && "System".equals(namedType.getNamespace())
+        && name.equals(namedType.getName());
+  }
+
+  private static int compareFloating(double a, double b) {
+    if (a < b) return -1;
+    if (a > b) return 1;
+    if (a == b) return 0;
+    // At least one of the values is NaN, NaN is smaller than any other value
+    if (Double.isNaN(a)) return Double.isNaN(b) ? 0 : -1;
+    return 1;
+  }
+
+  private static int compareOrdinal(VirtualFrame frame, StaticObject a, StaticObject b) {
+    if (StaticObject.isNull(a)) return StaticObject.isNull(b) ? 0 : -1;
+    if (StaticObject.isNull(b)) return 1;
+
+    StaticField[] aFields = ((NamedTypeSymbol) a.getTypeSymbol()).getInstanceFields(frame, 0);
+    StaticField[] bFields = ((NamedTypeSymbol) b.getTypeSymbol()).getInstanceFields(frame, 0);
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    char[] aChars = (char[]) context.getArrayProperty().getObject(aFields[1].getObject(a));
+    char[] bChars = (char[]) context.getArrayProperty().getObject(bFields[1].getObject(b));
+    return Arrays.compare(aChars, 0, aFields[0].getInt(a), bChars, 0, bFields[0].getInt(b));
+  }
+
+  /**
+   * Copies {@code count} bytes between arrays of different kinds or at offsets that split their
+   * elements. Only the elements holding the copied bytes are converted, the bytes of a destination
+   * element outside the range keep their values.
+   */
+  @CompilerDirectives.TruffleBoundary
+  private static void copyBytes(
+      Object srcArray,
+      SystemType srcKind,
+      int srcOffset,
+      Object destArray,
+      SystemType destKind,
+      int destOffset,
+      int count) {
+    int srcSize = getElementSize(srcKind);
+    int destSize = getElementSize(destKind);
+    // Read before the destination is written, the arrays can be the same
+    ByteBuffer srcBuffer = toByteBuffer(srcArray, srcKind, srcOffset / srcSize, srcOffset, count);
+    ByteBuffer destBuffer =
+        toByteBuffer(destArray, destKind, destOffset / destSize, destOffset, count);
+    System.arraycopy(
+        srcBuffer.array(), srcOffset % srcSize, destBuffer.array(), destOffset % destSize, count);
+    fromByteBuffer(destBuffer, destArray, destKind, destOffset / destSize);
+  }
+
+  /** The elements from {@code first} holding the bytes {@code [offset, offset + count)}. */
+  private static ByteBuffer toByteBuffer(
+      Object javaArray, SystemType kind, int first, int offset, int count) {
+    int size = getElementSize(kind);
+    int length = (offset + count + size - 1) / size - first;
+    ByteBuffer buffer = ByteBuffer.allocate(length * size).order(ByteOrder.LITTLE_ENDIAN);
+    switch (kind) {
+      case Boolean -> {
+        boolean[] values = (boolean[]) javaArray;
+        for (int i = 0; i < length; i++) buffer.put(values[first + i] ? (byte) 1 : (byte) 0);
+      }
+      case Byte -> buffer.put((byte[]) javaArray, first, length);
+      case Char -> buffer.asCharBuffer().put((char[]) javaArray, first, length);
+      case Short -> buffer.asShortBuffer().put((short[]) javaArray, first, length);
+      case Int -> buffer.asIntBuffer().put((int[]) javaArray, first, length);
+      case Float -> buffer.asFloatBuffer().put((float[]) javaArray, first, length);
+      case Long -> buffer.asLongBuffer().put((long[]) javaArray, first, length);
+      case Double -> buffer.asDoubleBuffer().put((double[]) javaArray, first, length);
+      default -> throw new InterpreterException();
+    }
+    return buffer.rewind();
+  }
+
+  /** Writes the elements in the buffer back to the array, starting at {@code first}. */
+  private static void fromByteBuffer(
+      ByteBuffer buffer, Object javaArray, SystemType kind, int first) {
+    int length = buffer.capacity() / getElementSize(kind);
+    switch (kind) {
+      case Boolean -> {
+        boolean[] values = (boolean[]) javaArray;
+        for (int i = 0; i < length; i++) values[first + i] = buffer.get(i) != 0;
+      }
+      case Byte -> buffer.get((byte[]) javaArray, first, length);
+      case Char -> buffer.asCharBuffer().get((char[]) javaArray, first, length);
+      case Short -> buffer.asShortBuffer().get((short[]) javaArray, first, length);
+      case Int -> buffer.asIntBuffer().get((int[]) javaArray, first, length);
+      case Float -> buffer.asFloatBuffer().get((float[]) javaArray, first, length);
+      case Long -> buffer.asLongBuffer().get((long[]) javaArray, first, length);
+      case Double -> buffer.asDoubleBuffer().get((double[]) javaArray, first, length);
+      default -> throw new InterpreterException();
+    }
+  }
+
+  private static int getElementSize(SystemType kind) {
+    return switch (kind) {
+      case Boolean, Byte -> 1;
+      case Char, Short -> 2;
+      case Int, Float -> 4;
+      case Long, Double -> 8;
+      default -> throw new InterpreterException();
+    };
+  }
+
+  private static Object getJavaArray(VirtualFrame frame, StaticObject array) {
+    if (StaticObject.isNull(array))
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.ArgumentNull, CILOSTAZOLContext.get(null), frame, 0);
+    return CILOSTAZOLContext.get(null).getArrayProperty().getObject(array);
+  }
+
+  private static TypeSymbol getElementType(StaticObject array) {
+    return ((ArrayTypeSymbol) array.getTypeSymbol()).getElementType();
+  }
+
+  private static SystemType getElementKind(StaticObject array) {
+    return getElementType(array).getSystemType();
+  }
+
+  private static boolean isArrayElementReference(StaticObject reference) {
+    return reference.getTypeSymbol() instanceof ReferenceSymbol referenceSymbol
+        && referenceSymbol.getReferenceType() == ReferenceSymbol.ReferenceType.ArrayElement;
+  }
+
+  private static void checkRange(VirtualFrame frame, int arrayLength, int index, int length) {
+    if (index < 0 || length < 0)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.ArgumentOutOfRange, CILOSTAZOLContext.get(null), frame, 0);
+    if (index > arrayLength - length)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.Argument, CILOSTAZOLContext.get(null), frame, 0);
+  }
+
+  private static RuntimeCILException createArrayTypeMismatch(VirtualFrame frame) {
+    return RuntimeCILException.RuntimeCILExceptionFactory.create(
+        RuntimeCILException.Exception.ArrayTypeMismatch, CILOSTAZOLContext.get(null), frame, 0);
+  }
+
+  private static int toIntIndex(VirtualFrame frame, long value) {
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.ArgumentOutOfRange, CILOSTAZOLContext.get(null), frame, 0);
+    return (int) value;
+  }
+  // endregion
+
+  /**
+   * The primitive element types of the BCL. {@link SystemType} only tells the backing Java arrays
+   * apart, the conversions of Array.Copy also depend on the signedness of the elements.
+   */
+  private enum PrimitiveType {
+    Boolean,
+    Char,
+    SByte,
+    Byte,
+    Int16,
+    UInt16,
+    Int32,
+    UInt32,
+    Int64,
+    UInt64,
+    IntPtr,
+    UIntPtr,
+    Single,
+    Double;
+
+    static PrimitiveType of(TypeSymbol type) {
+      return valueOf(((NamedTypeSymbol) type).getName());
+    }
+
+    /** Integers of the same size are copied bit by bit regardless of their signedness. */
+    PrimitiveType normalize() {
+      return switch (this) {
+        case Byte -> SByte;
+        case UInt16 -> Int16;
+        case UInt32 -> Int32;
+        case UInt64 -> Int64;
+        case UIntPtr -> IntPtr;
+        default -> this;
+      };
+    }
+
+    /** The lossless conversions allowed by Array.Copy, as listed in the BCL. */
+    boolean canWidenTo(PrimitiveType target) {
+      return switch (this) {
+        case Char, UInt16 -> switch (target) {
+          case Char, UInt16, Int32, UInt32, Int64, UInt64, Single, Double -> true;
+          default -> false;
+        };
+        case SByte -> switch (target) {
+          case SByte, Int16, Int32, Int64, Single, Double -> true;
+          default -> false;
+        };
+        case Byte -> switch (target) {
+          case Char, Byte, Int16, UInt16, Int32, UInt32, Int64, UInt64, Single, Double -> true;
+          default -> false;
+        };
+        case Int16 -> switch (target) {
+          case Int16, Int32, Int64, Single, Double -> true;
+          default -> false;
+        };
+        case Int32 -> switch (target) {
+          case Int32, Int64, Single, Double -> true;
+          default -> false;
+        };
+        case UInt32 -> switch (target) {
+          case UInt32, Int64, UInt64, Single, Double -> true;
+          default -> false;
+        };
+        case Int64, UInt64 -> target == this || target == Single || target == Double;
+        case Single -> target == Single || target == Double;
+        case Boolean, IntPtr, UIntPtr, Double -> target == this;
+      };
+    }
+
+    long readLong(Object javaArray, int index) {
+      return switch (this) {
+        case SByte -> ((byte[]) javaArray)[index];
+        case Byte -> ((byte[]) javaArray)[index] & 0xFF;
+        case Char -> ((char[]) javaArray)[index];
+        case Int16 -> ((short[]) javaArray)[index];
+        case UInt16 -> ((short[]) javaArray)[index] & 0xFFFF;
+        case Int32 -> ((int[]) javaArray)[index];
+        case UInt32 -> ((int[]) javaArray)[index] & 0xFFFFFFFFL;
+        case Int64, UInt64 -> ((long[]) javaArray)[index];
+        default -> throw new InterpreterException();
+      };
+    }
+
+    float readFloat(Object javaArray, int index) {
+      if (this == Single) return ((float[]) javaArray)[index];
+      long value = readLong(javaArray, index);
+      if (this != UInt64 || value >= 0) return value;
+      // Halve the unsigned value, keeping the lowest bit for correct rounding
+      return ((value >>> 1) | (value & 1)) * 2f;
+    }
+
+    double readDouble(Object javaArray, int index) {
+      if (this == Single) return ((float[]) javaArray)[index];
+      long value = readLong(javaArray, index);
+      if (this != UInt64 || value >= 0) return value;
+      return ((value >>> 1) | (value & 1)) * 2d;
+    }
+  }
+}
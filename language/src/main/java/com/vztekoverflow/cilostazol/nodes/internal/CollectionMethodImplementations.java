@@ -0,0 +1,560 @@
+package com.vztekoverflow.cilostazol.nodes.internal;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.CILOSTAZOLBundle;
+import com.vztekoverflow.cilostazol.exceptions.InterpreterException;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
+import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
+import com.vztekoverflow.cilostazol.nodes.RuntimeSpecificMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.collections.LongObjectHashMap;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.ParameterSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.ReferenceSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Native implementations of the hot paths of generic collections, enabled by the {@code
+ * cil.hostCollections} option.
+ *
+ * <p>{@code List<T>} keeps the BCL layout, the intrinsics work directly on its {@code _items} and
+ * {@code _size} fields and fall back to the CIL implementation whenever the list has to grow.
+ * {@code Dictionary<TKey,TValue>} with primitive or string keys is stored in a host {@link
+ * LongObjectHashMap} or {@link HashMap} attached to the guest object, dictionaries with other keys
+ * or a custom comparer run the CIL implementation.
+ */
+public final class CollectionMethodImplementations {
+  // region System.Collections.Generic.List`1
+  /** Binds a {@code List<T>} intrinsic to the fields of the instantiation declaring the method. */
+  public static Function<VirtualFrame, Object> forList(
+      MethodSymbol method, BiFunction<VirtualFrame, ListFields, Object> implementation) {
+    ListFields fields = new ListFields(method.getDefiningType());
+    return frame -> implementation.apply(frame, fields);
+  }
+
+  public static Object listGetCount(VirtualFrame frame, ListFields fields) {
+    StaticObject list = (StaticObject) frame.getArguments()[0];
+    return fields.size(frame).getInt(list);
+  }
+
+  public static Object listGetItem(VirtualFrame frame, ListFields fields) {
+    StaticObject list = (StaticObject) frame.getArguments()[0];
+    int index = (int) frame.getArguments()[1];
+    checkListIndex(frame, fields, list, index);
+    StaticObject items = (StaticObject) fields.items(frame).getObject(list);
+    return loadElement(items, index);
+  }
+
+  public static Object listSetItem(VirtualFrame frame, ListFields fields) {
+    StaticObject list = (StaticObject) frame.getArguments()[0];
+    int index = (int) frame.getArguments()[1];
+    Object value = frame.getArguments()[2];
+    checkListIndex(frame, fields, list, index);
+    StaticObject items = (StaticObject) fields.items(frame).getObject(list);
+    storeElement(items, index, value);
+    incrementVersion(frame, fields, list);
+    return null;
+  }
+
+  public static Object listAdd(VirtualFrame frame, ListFields fields) {
+    StaticObject list = (StaticObject) frame.getArguments()[0];
+    Object value = frame.getArguments()[1];
+    StaticField sizeField = fields.size(frame);
+    StaticObject items = (StaticObject) fields.items(frame).getObject(list);
+    int size = sizeField.getInt(list);
+    if (size >= getLength(items)) {
+      // Growing is left to the BCL so that the capacity policy stays the same
+      return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    }
+
+    storeElement(items, size, value);
+    sizeField.setInt(list, size + 1);
+    incrementVersion(frame, fields, list);
+    return null;
+  }
+
+  public static Object listClear(VirtualFrame frame, ListFields fields) {
+    StaticObject list = (StaticObject) frame.getArguments()[0];
+    StaticField sizeField = fields.size(frame);
+    StaticObject items = (StaticObject) fields.items(frame).getObject(list);
+    Object javaArray = CILOSTAZOLContext.get(null).getArrayProperty().getObject(items);
+    if (javaArray instanceof StaticObject[] references) {
+      Arrays.fill(references, 0, sizeField.getInt(list), StaticObject.NULL);
+    }
+    sizeField.setInt(list, 0);
+    incrementVersion(frame, fields, list);
+    return null;
+  }
+
+  public static Object listContains(VirtualFrame frame, ListFields fields) {
+    Object index = listIndexOf(frame, fields);
+    if (index == RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION) return index;
+    return (int) index >= 0 ? 1 : 0;
+  }
+
+  public static Object listIndexOf(VirtualFrame frame, ListFields fields) {
+    StaticObject list = (StaticObject) frame.getArguments()[0];
+    Object value = frame.getArguments()[1];
+    StaticObject items = (StaticObject) fields.items(frame).getObject(list);
+    TypeSymbol elementType = ((ArrayTypeSymbol) items.getTypeSymbol()).getElementType();
+    if (elementType.getSystemType() == SystemType.Object && !isString(elementType))
+      return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    int size = fields.size(frame).getInt(list);
+    for (int i = 0; i < size; i++) {
+      if (elementEquals(frame, loadElement(items, i), value)) return i;
+    }
+    return -1;
+  }
+  // endregion
+
+  // region System.Collections.Generic.Dictionary`2
+  public static Object dictionaryCtor(VirtualFrame frame) {
+    return createDictionary(frame, 0);
+  }
+
+  public static Object dictionaryCtorCapacity(VirtualFrame frame) {
+    int capacity = (int) frame.getArguments()[1];
+    if (capacity < 0)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.ArgumentOutOfRange, CILOSTAZOLContext.get(null), frame, 0);
+    return createDictionary(frame, capacity);
+  }
+
+  public static Object dictionaryGetCount(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    return size(storage);
+  }
+
+  public static Object dictionaryAdd(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    Object key = toHostKey(frame, frame.getArguments()[1]);
+    if (containsKey(storage, key))
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.Argument, CILOSTAZOLContext.get(null), frame, 0);
+    put(storage, key, frame.getArguments()[2]);
+    return null;
+  }
+
+  public static Object dictionaryTryAdd(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    Object key = toHostKey(frame, frame.getArguments()[1]);
+    if (containsKey(storage, key)) return 0;
+    put(storage, key, frame.getArguments()[2]);
+    return 1;
+  }
+
+  public static Object dictionaryGetItem(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    Object value = get(storage, toHostKey(frame, frame.getArguments()[1]));
+    if (value == null)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.KeyNotFound, CILOSTAZOLContext.get(null), frame, 0);
+    return value;
+  }
+
+  public static Object dictionarySetItem(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    put(storage, toHostKey(frame, frame.getArguments()[1]), frame.getArguments()[2]);
+    return null;
+  }
+
+  public static Object dictionaryTryGetValue(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    StaticObject dictionary = (StaticObject) frame.getArguments()[0];
+    StaticObject valueReference = (StaticObject) frame.getArguments()[2];
+    TypeSymbol valueType = getTypeArgument(dictionary, 1);
+    Object value = get(storage, toHostKey(frame, frame.getArguments()[1]));
+    storeToReference(valueReference, valueType, value == null ? getDefaultValue(valueType) : value);
+    return value == null ? 0 : 1;
+  }
+
+  public static Object dictionaryContainsKey(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    return containsKey(storage, toHostKey(frame, frame.getArguments()[1])) ? 1 : 0;
+  }
+
+  public static Object dictionaryRemove(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    return remove(storage, toHostKey(frame, frame.getArguments()[1])) ? 1 : 0;
+  }
+
+  public static Object dictionaryClear(VirtualFrame frame) {
+    Object storage = getDictionaryStorage(frame);
+    if (storage == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    clear(storage);
+    return null;
+  }
+
+  public static boolean isDictionary(NamedTypeSymbol type) {
+    return type.getName().equals("Dictionary`2")
+        && "System.Collections.Generic".equals(type.getNamespace());
+  }
+
+  /**
+   * The members of {@code Dictionary<TKey,TValue>} without an intrinsic, including the ones called
+   * through interfaces. They need the entries in the BCL fields, so a host-backed dictionary is
+   * converted first and runs the CIL implementation of all its members from then on.
+   */
+  public static Function<VirtualFrame, Object> forDictionaryMember(MethodSymbol method) {
+    NamedTypeSymbol dictionaryType = method.getDefiningType();
+    boolean isStatic = method.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.STATIC);
+    boolean isConstructor = method.getName().equals(".ctor");
+    return frame -> {
+      Object[] arguments = frame.getArguments();
+      if (!isStatic) materializeDictionary(frame, dictionaryType, (StaticObject) arguments[0]);
+      // The copy constructors read the fields of their source directly
+      if (isConstructor
+          && arguments.length > 1
+          && arguments[1] instanceof StaticObject source
+          && source.getTypeSymbol() == dictionaryType)
+        materializeDictionary(frame, dictionaryType, source);
+      return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    };
+  }
+  // endregion
+
+  // region list helpers
+  /**
+   * The fields of a {@code List<T>} instantiation, looked up on the first call. Instances of
+   * subclasses share the properties of their base shape, so these work for any receiver.
+   */
+  public static final class ListFields {
+    private final NamedTypeSymbol listType;
+    @CompilerDirectives.CompilationFinal private volatile StaticField items;
+    @CompilerDirectives.CompilationFinal private volatile StaticField size;
+    @CompilerDirectives.CompilationFinal private volatile StaticField version;
+
+    ListFields(NamedTypeSymbol listType) {
+      this.listType = listType;
+    }
+
+    StaticField items(VirtualFrame frame) {
+      if (items == null) resolve(frame);
+      return items;
+    }
+
+    StaticField size(VirtualFrame frame) {
+      if (size == null) resolve(frame);
+      return size;
+    }
+
+    StaticField version(VirtualFrame frame) {
+      if (version == null) resolve(frame);
+      return version;
+    }
+
+    private void resolve(VirtualFrame frame) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      StaticField[] fields = listType.getInstanceFields(frame, 0);
+      items = find(fields, "_items");
+      size = find(fields, "_size");
+      version = find(fields, "_version");
+    }
+
+    private StaticField find(StaticField[] fields, String name) {
+      for (StaticField field : fields) {
+        if (field.getSymbol().getName().equals(name)) return field;
+      }
+
+      throw new InterpreterException(
+          CILOSTAZOLBundle.message(
+              "cilostazol.exception.instance.field.not.found", name, listType));
+    }
+  }
+
+  private static void checkListIndex(
+      VirtualFrame frame, ListFields fields, StaticObject list, int index) {
+    if (Integer.compareUnsigned(index, fields.size(frame).getInt(list)) >= 0)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.ArgumentOutOfRange, CILOSTAZOLContext.get(null), frame, 0);
+  }
+
+  private static void incrementVersion(VirtualFrame frame, ListFields fields, StaticObject list) {
+    StaticField versionField = fields.version(frame);
+    versionField.setInt(list, versionField.getInt(list) + 1);
+  }
+
+  public static int getLength(StaticObject array) {
+    return Array.getLength(CILOSTAZOLContext.get(null).getArrayProperty().getObject(array));
+  }
+
+  /** Loads an element in the representation used for arguments and return values. */
+  public static Object loadElement(StaticObject array, int index) {
+    Object javaArray = CILOSTAZOLContext.get(null).getArrayProperty().getObject(array);
+    TypeSymbol elementType = ((ArrayTypeSymbol) array.getTypeSymbol()).getElementType();
+    return switch (elementType.getSystemType()) {
+      case Boolean -> ((boolean[]) javaArray)[index] ? 1 : 0;
+      case Char -> (int) ((char[]) javaArray)[index];
+      case Byte -> isSystemType(elementType, "Byte")
+          ? ((byte[]) javaArray)[index] & 0xFF
+          : (int) ((byte[]) javaArray)[index];
+      case Short -> isSystemType(elementType, "UInt16")
+          ? ((short[]) javaArray)[index] & 0xFFFF
+          : (int) ((short[]) javaArray)[index];
+      case Int -> ((int[]) javaArray)[index];
+      case Long -> ((long[]) javaArray)[index];
+      case Float -> (double) ((float[]) javaArray)[index];
+      case Double -> ((double[]) javaArray)[index];
+      case Object -> ((StaticObject[]) javaArray)[index];
+      case Void -> throw new InterpreterException();
+    };
+  }
+
+  /** Stores an element given in the representation used for arguments and return values. */
+  public static void storeElement(StaticObject array, int index, Object value) {
+    Object javaArray = CILOSTAZOLContext.get(null).getArrayProperty().getObject(array);
+    switch (((ArrayTypeSymbol) array.getTypeSymbol()).getElementType().getSystemType()) {
+      case Boolean -> ((boolean[]) javaArray)[index] = (int) value != 0;
+      case Char -> ((char[]) javaArray)[index] = (char) (int) value;
+      case Byte -> ((byte[]) javaArray)[index] = (byte) (int) value;
+      case Short -> ((short[]) javaArray)[index] = (short) (int) value;
+      case Int -> ((int[]) javaArray)[index] = (int) value;
+      case Long -> ((long[]) javaArray)[index] = (long) value;
+      case Float -> ((float[]) javaArray)[index] = (float) (double) value;
+      case Double -> ((double[]) javaArray)[index] = (double) value;
+      case Object -> ((StaticObject[]) javaArray)[index] = (StaticObject) value;
+      case Void -> throw new InterpreterException();
+    }
+  }
+
+  private static boolean elementEquals(VirtualFrame frame, Object element, Object value) {
+    if (element instanceof StaticObject string) {
+      StaticObject other = (StaticObject) value;
+      if (StaticObject.isNull(string) || StaticObject.isNull(other))
+        return StaticObject.isNull(string) && StaticObject.isNull(other);
+      return StringMethodImplementations.toJavaString(frame, string)
+          .equals(StringMethodImplementations.toJavaString(frame, other));
+    }
+    if (element instanceof Double number) {
+      // double.Equals treats NaN as equal to itself
+      double other = (double) value;
+      return number == other || (Double.isNaN(number) && Double.isNaN(other));
+    }
+    return element.equals(value);
+  }
+  // endregion
+
+  // region dictionary helpers
+  private static Object createDictionary(VirtualFrame frame, int capacity) {
+    StaticObject dictionary = (StaticObject) frame.getArguments()[0];
+    TypeSymbol keyType = getTypeArgument(dictionary, 0);
+    final Object storage;
+    // Both keep the insertion order, which is the enumeration order of the BCL without removals
+    if (isString(keyType)) storage = new LinkedHashMap<String, Object>(Math.max(capacity, 16));
+    else if (isIntegral(keyType)) storage = new LongObjectHashMap(capacity);
+    else return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    GuestAllocator.setHostStorage(dictionary, storage);
+    return null;
+  }
+
+  private static void materializeDictionary(
+      VirtualFrame frame, NamedTypeSymbol dictionaryType, StaticObject dictionary) {
+    Object storage = GuestAllocator.getHostStorage(dictionary);
+    if (storage != null)
+      materializeDictionary(frame.materialize(), dictionaryType, dictionary, storage);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static void materializeDictionary(
+      MaterializedFrame frame,
+      NamedTypeSymbol dictionaryType,
+      StaticObject dictionary,
+      Object storage) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    // Detached first, so that the intrinsics called below run the CIL implementation
+    GuestAllocator.setHostStorage(dictionary, null);
+
+    MethodSymbol constructor = null;
+    MethodSymbol add = null;
+    for (MethodSymbol method : dictionaryType.getMethods()) {
+      ParameterSymbol[] parameters = method.getParameters();
+      if (parameters.length != 2) continue;
+      if (method.getName().equals(".ctor")
+          && parameters[0].getType().getSystemType() == SystemType.Int) constructor = method;
+      else if (method.getName().equals("Add")) add = method;
+    }
+    if (constructor == null || add == null)
+      throw new InterpreterException(
+          CILOSTAZOLBundle.message(
+              "cilostazol.exception.method.not.found",
+              constructor == null ? ".ctor" : "Add",
+              dictionaryType));
+
+    constructor.getNode().getCallTarget().call(dictionary, size(storage), StaticObject.NULL);
+    CallTarget addTarget = add.getNode().getCallTarget();
+    TypeSymbol keyType = dictionaryType.getTypeArguments()[0];
+    if (storage instanceof LongObjectHashMap map) {
+      map.forEachInInsertionOrder(
+          (key, value) ->
+              addTarget.call(
+                  dictionary,
+                  keyType.getStackTypeKind() == CILOSTAZOLFrame.StackType.Int64 ? key : (int) key,
+                  value));
+    } else {
+      ((HashMap<String, Object>) storage)
+          .forEach(
+              (key, value) ->
+                  addTarget.call(
+                      dictionary, context.getAllocator().createString(key, frame, 0), value));
+    }
+  }
+
+  private static Object getDictionaryStorage(VirtualFrame frame) {
+    return GuestAllocator.getHostStorage((StaticObject) frame.getArguments()[0]);
+  }
+
+  private static TypeSymbol getTypeArgument(StaticObject object, int index) {
+    return ((NamedTypeSymbol) object.getTypeSymbol()).getTypeArguments()[index];
+  }
+
+  /** Converts a guest key to {@link Long} for integral keys and to {@link String} for strings. */
+  private static Object toHostKey(VirtualFrame frame, Object key) {
+    if (key instanceof StaticObject string) {
+      if (StaticObject.isNull(string))
+        throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+            RuntimeCILException.Exception.ArgumentNull, CILOSTAZOLContext.get(null), frame, 0);
+      return StringMethodImplementations.toJavaString(frame, string);
+    }
+    if (key instanceof Integer value) return (long) value;
+    return key;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static Object get(Object storage, Object key) {
+    if (storage instanceof LongObjectHashMap map) return map.get((long) key);
+    return ((HashMap<String, Object>) storage).get((String) key);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static void put(Object storage, Object key, Object value) {
+    if (storage instanceof LongObjectHashMap map) map.put((long) key, value);
+    else ((HashMap<String, Object>) storage).put((String) key, value);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static boolean containsKey(Object storage, Object key) {
+    if (storage instanceof LongObjectHashMap map) return map.containsKey((long) key);
+    return ((HashMap<String, Object>) storage).containsKey((String) key);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static boolean remove(Object storage, Object key) {
+    if (storage instanceof LongObjectHashMap map) return map.remove((long) key) != null;
+    return ((HashMap<String, Object>) storage).remove((String) key) != null;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static int size(Object storage) {
+    if (storage instanceof LongObjectHashMap map) return map.size();
+    return ((HashMap<String, Object>) storage).size();
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  @SuppressWarnings("unchecked")
+  private static void clear(Object storage) {
+    if (storage instanceof LongObjectHashMap map) map.clear();
+    else ((HashMap<String, Object>) storage).clear();
+  }
+
+  private static Object getDefaultValue(TypeSymbol type) {
+    return switch (type.getStackTypeKind()) {
+      case Int64 -> 0L;
+      case NativeFloat -> 0d;
+      case Object -> StaticObject.NULL;
+      default -> 0;
+    };
+  }
+
+  /** Writes a value in the argument representation through a managed reference. */
+  static void storeToReference(StaticObject reference, TypeSymbol type, Object value) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        switch (type.getStackTypeKind()) {
+          case Int64 -> CILOSTAZOLFrame.putInt64(refFrame, index, (long) value);
+          case NativeFloat -> CILOSTAZOLFrame.putNativeFloat(refFrame, index, (double) value);
+          case Object -> CILOSTAZOLFrame.putObject(refFrame, index, (StaticObject) value);
+          default -> CILOSTAZOLFrame.putInt32(refFrame, index, (int) value);
+        }
+      }
+      case Field -> {
+        StaticObject refObj =
+            (StaticObject) context.getFieldReferenceObjectProperty().getObject(reference);
+        StaticField refField =
+            (StaticField) context.getFieldReferenceFieldProperty().getObject(reference);
+        switch (refField.getKind()) {
+          case Boolean -> refField.setBoolean(refObj, (int) value != 0);
+          case Char -> refField.setChar(refObj, (char) (int) value);
+          case Byte -> refField.setByte(refObj, (byte) (int) value);
+          case Short -> refField.setShort(refObj, (short) (int) value);
+          case Int -> refField.setInt(refObj, (int) value);
+          case Long -> refField.setLong(refObj, (long) value);
+          case Float -> refField.setFloat(refObj, (float) (double) value);
+          case Double -> refField.setDouble(refObj, (double) value);
+          case Object -> refField.setObject(refObj, value);
+          case Void -> throw new InterpreterException();
+        }
+      }
+      case ArrayElement -> {
+        StaticObject refArr =
+            (StaticObject) context.getArrayElementReferenceArrayProperty().getObject(reference);
+        int index = context.getArrayElementReferenceIndexProperty().getInt(reference);
+        storeElement(refArr, index, value);
+      }
+      default -> throw new InterpreterException();
+    }
+  }
+  // endregion
+
+  private static boolean isString(TypeSymbol type) {
+    return isSystemType(type, "String");
+  }
+
+  private static boolean isIntegral(TypeSymbol type) {
+    return switch (type.getSystemType()) {
+      case Boolean, Char, Byte, Short, Int, Long -> true;
+      default -> false;
+    };
+  }
+
+  private static boolean isSystemType(TypeSymbol type, String name) {
+    return type instanceof NamedTypeSymbol namedType
+        && !namedType.isArray()
+        && "System".equals(namedType.getNamespace())
+        && name.equals(namedType.getName());
+  }
+}
@@ -0,0 +1,142 @@
+package com.vztekoverflow.cilostazol.nodes.internal;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.CILOSTAZOLBundle;
+import com.vztekoverflow.cilostazol.exceptions.InterpreterException;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import java.util.function.Function;
+
+/**
+ * The runtime implemented methods of delegate types. A delegate keeps its target in the {@code
+ * _target} field of {@code System.Delegate} and the handle of its method in {@code _methodPtr},
+ * Invoke is implemented by {@link com.vztekoverflow.cilostazol.nodes.CILDelegateInvokeNode}.
+ */
+public final class DelegateMethodImplementations {
+  /** The constructor of a delegate type, or null for other methods. */
+  public static Function<VirtualFrame, Object> getImplementation(MethodSymbol method) {
+    if (!isDelegate(method.getDefiningType()) || !method.getName().equals(".ctor")) return null;
+
+    DelegateFields fields = new DelegateFields(method.getDefiningType());
+    return frame -> delegateCtor(frame, fields);
+  }
+
+  /** Whether the method is the Invoke method of a delegate type. */
+  public static boolean isInvoke(MethodSymbol method) {
+    return method.getName().equals("Invoke") && isDelegate(method.getDefiningType());
+  }
+
+  private static boolean isDelegate(NamedTypeSymbol type) {
+    NamedTypeSymbol baseClass = type.getDirectBaseClass();
+    return baseClass != null
+        && baseClass.getName().equals("MulticastDelegate")
+        && baseClass.getNamespace().equals("System");
+  }
+
+  private static Object delegateCtor(VirtualFrame frame, DelegateFields fields) {
+    StaticObject delegate = (StaticObject) frame.getArguments()[0];
+    StaticObject target = (StaticObject) frame.getArguments()[1];
+    MethodSymbol method = GuestAllocator.getPointedMethod((StaticObject) frame.getArguments()[2]);
+    fields.getTargetField().setObject(delegate, target);
+    fields.getMethodField().setLong(delegate, method.getHandle());
+    return null;
+  }
+
+  /**
+   * Gets the target and method of a delegate, for callers invoking it from the host.
+   *
+   * @return null if the object was not created by a delegate constructor
+   */
+  @CompilerDirectives.TruffleBoundary
+  public static GuestDelegate resolve(StaticObject delegate) {
+    if (delegate == StaticObject.NULL) return null;
+
+    DelegateFields fields = new DelegateFields((NamedTypeSymbol) delegate.getTypeSymbol());
+    MethodSymbol method = fields.getMethod(delegate);
+    return method == null ? null : new GuestDelegate(fields.getTarget(delegate), method);
+  }
+
+  /** The fields of {@code System.Delegate} in the layout of a delegate type, found on first use. */
+  public static final class DelegateFields {
+    private final NamedTypeSymbol delegateType;
+
+    @CompilerDirectives.CompilationFinal private StaticField targetField;
+    // Resolved after the target field, a thread seeing it sees both
+    @CompilerDirectives.CompilationFinal private volatile StaticField methodField;
+
+    public DelegateFields(NamedTypeSymbol delegateType) {
+      this.delegateType = delegateType;
+    }
+
+    public StaticObject getTarget(StaticObject delegate) {
+      getMethodField();
+      return (StaticObject) targetField.getObject(delegate);
+    }
+
+    /**
+     * @return null if the delegate was not created by its constructor
+     */
+    public MethodSymbol getMethod(StaticObject delegate) {
+      return delegateType.getContext().getMethodFromHandle(getMethodField().getLong(delegate));
+    }
+
+    private StaticField getTargetField() {
+      getMethodField();
+      return targetField;
+    }
+
+    private StaticField getMethodField() {
+      if (methodField == null) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        resolveFields();
+      }
+
+      return methodField;
+    }
+
+    private synchronized void resolveFields() {
+      if (methodField != null) return;
+
+      StaticField target = null;
+      StaticField method = null;
+      for (NamedTypeSymbol type : delegateType.getSuperClasses()) {
+        if (!type.getName().equals("Delegate") || !"System".equals(type.getNamespace())) continue;
+
+        for (StaticField field : type.getInstanceFields(null, 0)) {
+          switch (field.getSymbol().getName()) {
+            case "_target" -> target = field;
+            case "_methodPtr" -> method = field;
+          }
+        }
+      }
+      if (target == null || method == null)
+        throw new InterpreterException(
+            CILOSTAZOLBundle.message(
+                "cilostazol.exception.instance.field.not.found",
+                target == null ? "_target" : "_methodPtr",
+                delegateType));
+
+      targetField = target;
+      methodField = method;
+    }
+  }
+
+  /** The target and method of a delegate. */
+  public record GuestDelegate(StaticObject target, MethodSymbol method) {
+    @CompilerDirectives.TruffleBoundary
+    public Object invoke(Object... parameters) {
+      if (method.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.STATIC)) {
+        return method.getNode().getCallTarget().call(parameters);
+      }
+
+      Object[] arguments = new Object[parameters.length + 1];
+      arguments[0] = target;
+      System.arraycopy(parameters, 0, arguments, 1, parameters.length);
+      return method.getNode().getCallTarget().call(arguments);
+    }
+  }
+}
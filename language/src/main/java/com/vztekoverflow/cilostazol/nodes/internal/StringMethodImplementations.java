@@ -41,6 +41,14 @@ public final class StringMethodImplementations {
     return null;
   }
 
+  public static String toJavaString(VirtualFrame frame, StaticObject str) {
+    StaticField[] fields = ((NamedTypeSymbol) str.getTypeSymbol()).getInstanceFields(frame, 0);
+    char[] buffer =
+        (char[])
+            (CILOSTAZOLContext.get(null).getArrayProperty().getObject(fields[1].getObject(str)));
+    return new String(buffer, 0, fields[0].getInt(str));
+  }
+
   public static Object stringGetLength(VirtualFrame frame) {
     StaticObject str = (StaticObject) frame.getArguments()[0];
     NamedTypeSymbol stringSymbol = (NamedTypeSymbol) str.getTypeSymbol();
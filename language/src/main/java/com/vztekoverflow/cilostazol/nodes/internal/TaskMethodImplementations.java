@@ -0,0 +1,293 @@
+package com.vztekoverflow.cilostazol.nodes.internal;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleSafepoint;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
+import com.vztekoverflow.cilostazol.nodes.RuntimeSpecificMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * System.Threading.Tasks on the task pool of the context. Loops are split into ranges the workers
+ * steal from each other, tasks are host tasks kept in the host storage of their guest objects.
+ * Exceptions of the work are rethrown as they are, not wrapped in an AggregateException.
+ */
+public final class TaskMethodImplementations {
+  // Ranges per worker, more of them balance iterations of uneven cost better
+  private static final int RANGES_PER_WORKER = 4;
+
+  // region Parallel
+  public static Object parallelFor(VirtualFrame frame) {
+    int fromInclusive = (int) frame.getArguments()[0];
+    int toExclusive = (int) frame.getArguments()[1];
+    DelegateMethodImplementations.GuestDelegate body = getDelegate(frame, 2);
+    forRange(fromInclusive, toExclusive, body, i -> i);
+    return createLoopResult(frame);
+  }
+
+  public static Object parallelForEach(VirtualFrame frame) {
+    StaticObject source = (StaticObject) frame.getArguments()[0];
+    if (source == StaticObject.NULL)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentNull);
+    // Other enumerables are enumerated by the guest implementation
+    if (!(source.getTypeSymbol() instanceof ArrayTypeSymbol arrayType) || arrayType.getRank() != 1)
+      return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    DelegateMethodImplementations.GuestDelegate body = getDelegate(frame, 1);
+    forRange(
+        0,
+        CollectionMethodImplementations.getLength(source),
+        body,
+        i -> CollectionMethodImplementations.loadElement(source, i));
+    return createLoopResult(frame);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static void forRange(
+      int fromInclusive,
+      int toExclusive,
+      DelegateMethodImplementations.GuestDelegate body,
+      IntFunction<Object> argument) {
+    if (fromInclusive >= toExclusive) return;
+
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    ForkJoinPool pool = context.getTaskPool();
+    long iterations = (long) toExclusive - fromInclusive;
+    int grain = (int) Math.max(1, iterations / ((long) pool.getParallelism() * RANGES_PER_WORKER));
+    RangeAction action =
+        new RangeAction(fromInclusive, toExclusive, grain, new LoopBody(context, body, argument));
+    if (ForkJoinTask.getPool() == pool) {
+      // A loop nested in other work, the worker runs it and steals its ranges back
+      action.invoke();
+    } else {
+      await(pool.submit(action));
+    }
+  }
+
+  private static StaticObject createLoopResult(VirtualFrame frame) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    var type =
+        (NamedTypeSymbol)
+            SymbolResolver.resolveType(
+                "ParallelLoopResult",
+                "System.Threading.Tasks",
+                AssemblyIdentity.SystemThreadingTasksParallel700(),
+                context);
+    StaticObject result = context.getAllocator().createNew(type, frame, 0);
+    for (StaticField field : type.getInstanceFields(frame, 0)) {
+      if (field.getSymbol().getName().equals("_completed")) field.setBoolean(result, true);
+    }
+    return result;
+  }
+
+  /**
+   * The body delegate of a loop, called through one call node by all workers. A range reuses one
+   * argument array for all of its iterations, the callee copies its arguments to its frame.
+   */
+  private static final class LoopBody {
+    private final CILOSTAZOLContext context;
+    private final DirectCallNode callNode;
+    // Null for a static method, it does not take the target
+    private final StaticObject target;
+    private final IntFunction<Object> argument;
+
+    private LoopBody(
+        CILOSTAZOLContext context,
+        DelegateMethodImplementations.GuestDelegate body,
+        IntFunction<Object> argument) {
+      this.context = context;
+      this.callNode = DirectCallNode.create(body.method().getNode().getCallTarget());
+      this.target =
+          body.method().getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.STATIC)
+              ? null
+              : body.target();
+      this.argument = argument;
+    }
+
+    private void run(int from, int to) {
+      context.runGuestWork(
+          () -> {
+            Object[] arguments = target == null ? new Object[1] : new Object[] {target, null};
+            int last = arguments.length - 1;
+            for (int i = from; i < to; i++) {
+              arguments[last] = argument.apply(i);
+              callNode.call(arguments);
+            }
+            return null;
+          });
+    }
+  }
+
+  /** Splits its range in halves until it is not larger than the grain. */
+  private static final class RangeAction extends RecursiveAction {
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final LoopBody body;
+
+    private RangeAction(int from, int to, int grain, LoopBody body) {
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+      this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        body.run(from, to);
+        return;
+      }
+
+      int middle = (int) (((long) from + to) >>> 1);
+      invokeAll(
+          new RangeAction(from, middle, grain, body), new RangeAction(middle, to, grain, body));
+    }
+  }
+  // endregion
+
+  // region Task
+  public static Object taskRun(VirtualFrame frame) {
+    DelegateMethodImplementations.GuestDelegate action = getDelegate(frame, 0);
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    var type =
+        (NamedTypeSymbol)
+            SymbolResolver.resolveType(
+                "Task", "System.Threading.Tasks", AssemblyIdentity.SystemRuntimeLib700(), context);
+    return startTask(context, context.getAllocator().createNew(type, frame, 0), action);
+  }
+
+  public static Object taskRunResult(VirtualFrame frame) {
+    DelegateMethodImplementations.GuestDelegate function = getDelegate(frame, 0);
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    var definition =
+        (NamedTypeSymbol)
+            SymbolResolver.resolveType(
+                "Task`1",
+                "System.Threading.Tasks",
+                AssemblyIdentity.SystemRuntimeLib700(),
+                context);
+    var type =
+        (NamedTypeSymbol)
+            SymbolResolver.resolveType(
+                definition,
+                new TypeSymbol[] {function.method().getReturnType().getType()},
+                context);
+    return startTask(context, context.getAllocator().createNew(type, frame, 0), function);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static StaticObject startTask(
+      CILOSTAZOLContext context,
+      StaticObject task,
+      DelegateMethodImplementations.GuestDelegate work) {
+    GuestAllocator.setHostStorage(
+        task, context.getTaskPool().submit(() -> context.runGuestWork(work::invoke)));
+    return task;
+  }
+
+  public static Object taskWait(VirtualFrame frame) {
+    ForkJoinTask<?> task = getHostTask((StaticObject) frame.getArguments()[0]);
+    if (task == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    await(task);
+    return null;
+  }
+
+  public static Object taskWaitAll(VirtualFrame frame) {
+    StaticObject tasks = (StaticObject) frame.getArguments()[0];
+    if (tasks == StaticObject.NULL)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentNull);
+
+    int length = CollectionMethodImplementations.getLength(tasks);
+    ForkJoinTask<?>[] hostTasks = new ForkJoinTask<?>[length];
+    for (int i = 0; i < length; i++) {
+      StaticObject task = (StaticObject) CollectionMethodImplementations.loadElement(tasks, i);
+      if (task == StaticObject.NULL)
+        throw createException(frame, RuntimeCILException.Exception.Argument);
+
+      hostTasks[i] = getHostTask(task);
+      if (hostTasks[i] == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+    }
+
+    for (ForkJoinTask<?> task : hostTasks) {
+      await(task);
+    }
+    return null;
+  }
+
+  public static Object taskGetIsCompleted(VirtualFrame frame) {
+    ForkJoinTask<?> task = getHostTask((StaticObject) frame.getArguments()[0]);
+    if (task == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    return task.isDone() ? 1 : 0;
+  }
+
+  public static Object taskGetResult(VirtualFrame frame) {
+    ForkJoinTask<?> task = getHostTask((StaticObject) frame.getArguments()[0]);
+    if (task == null) return RuntimeSpecificMethodImplementations.USE_CIL_IMPLEMENTATION;
+
+    return await(task);
+  }
+
+  /**
+   * @return null for tasks not started by the intrinsics
+   */
+  private static ForkJoinTask<?> getHostTask(StaticObject task) {
+    Object storage = GuestAllocator.getHostStorage(task);
+    return storage instanceof ForkJoinTask<?> hostTask ? hostTask : null;
+  }
+
+  /**
+   * Waits for the task and gets its result. Workers run other tasks while waiting, other threads
+   * keep processing safepoints.
+   */
+  @CompilerDirectives.TruffleBoundary
+  private static Object await(ForkJoinTask<?> task) {
+    if (!task.isDone() && ForkJoinTask.getPool() == null) {
+      TruffleSafepoint.setBlockedThreadInterruptible(
+          null,
+          t -> {
+            try {
+              t.get();
+            } catch (ExecutionException e) {
+              // Rethrown by join
+            }
+          },
+          task);
+    }
+
+    return task.join();
+  }
+  // endregion
+
+  private static DelegateMethodImplementations.GuestDelegate getDelegate(
+      VirtualFrame frame, int index) {
+    var delegate =
+        DelegateMethodImplementations.resolve((StaticObject) frame.getArguments()[index]);
+    if (delegate == null) throw createException(frame, RuntimeCILException.Exception.ArgumentNull);
+
+    return delegate;
+  }
+
+  private static RuntimeCILException createException(
+      VirtualFrame frame, RuntimeCILException.Exception exception) {
+    return RuntimeCILException.RuntimeCILExceptionFactory.create(
+        exception, CILOSTAZOLContext.get(null), frame, 0);
+  }
+}
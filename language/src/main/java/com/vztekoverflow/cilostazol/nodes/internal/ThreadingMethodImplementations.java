@@ -0,0 +1,487 @@
+package com.vztekoverflow.cilostazol.nodes.internal;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleSafepoint;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.exceptions.InterpreterException;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
+import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestMonitor;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.ReferenceSymbol;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * System.Threading on host threads. Guest threads are polyglot threads of the context, monitors are
+ * host locks of the objects and Interlocked operations are atomic operations of the referenced
+ * storage.
+ */
+public final class ThreadingMethodImplementations {
+  private static final VarHandle INT_ELEMENTS = MethodHandles.arrayElementVarHandle(int[].class);
+  private static final VarHandle LONG_ELEMENTS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final VarHandle OBJECT_ELEMENTS =
+      MethodHandles.arrayElementVarHandle(StaticObject[].class);
+
+  // region Thread
+  public static Object threadCtor(VirtualFrame frame) {
+    return createThread(frame, false);
+  }
+
+  public static Object threadCtorParameterized(VirtualFrame frame) {
+    return createThread(frame, true);
+  }
+
+  private static Object createThread(VirtualFrame frame, boolean parameterized) {
+    StaticObject thread = (StaticObject) frame.getArguments()[0];
+    StaticObject start = (StaticObject) frame.getArguments()[1];
+    if (start == StaticObject.NULL)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentNull);
+
+    GuestAllocator.setHostStorage(thread, new GuestThread(start, parameterized));
+    return null;
+  }
+
+  public static Object threadStart(VirtualFrame frame) {
+    return startThread(frame, null);
+  }
+
+  public static Object threadStartParameter(VirtualFrame frame) {
+    return startThread(frame, frame.getArguments()[1]);
+  }
+
+  private static Object startThread(VirtualFrame frame, Object parameter) {
+    GuestThread thread = getThread(frame);
+    if (!thread.start(CILOSTAZOLContext.get(null), parameter))
+      throw createException(frame, RuntimeCILException.Exception.ThreadState);
+
+    return null;
+  }
+
+  public static Object threadJoin(VirtualFrame frame) {
+    GuestThread thread = getThread(frame);
+    if (!thread.join(-1)) throw createException(frame, RuntimeCILException.Exception.ThreadState);
+
+    return null;
+  }
+
+  public static Object threadJoinTimeout(VirtualFrame frame) {
+    int millisecondsTimeout = (int) frame.getArguments()[1];
+    if (millisecondsTimeout < -1)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentOutOfRange);
+
+    GuestThread thread = getThread(frame);
+    if (thread.host == null)
+      throw createException(frame, RuntimeCILException.Exception.ThreadState);
+
+    return thread.join(millisecondsTimeout) ? 1 : 0;
+  }
+
+  public static Object threadSleep(VirtualFrame frame) {
+    int millisecondsTimeout = (int) frame.getArguments()[0];
+    if (millisecondsTimeout < -1)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentOutOfRange);
+
+    sleep(millisecondsTimeout);
+    return null;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static void sleep(int millisecondsTimeout) {
+    if (millisecondsTimeout == 0) {
+      Thread.yield();
+      return;
+    }
+
+    TruffleSafepoint.setBlockedThreadInterruptible(
+        null,
+        timeout -> {
+          if (timeout < 0) Thread.sleep(Long.MAX_VALUE);
+          else Thread.sleep(timeout);
+        },
+        millisecondsTimeout);
+  }
+
+  private static GuestThread getThread(VirtualFrame frame) {
+    Object storage = GuestAllocator.getHostStorage((StaticObject) frame.getArguments()[0]);
+    if (!(storage instanceof GuestThread thread))
+      throw new InterpreterException("Thread was not created by a supported constructor");
+
+    return thread;
+  }
+
+  /** The host thread running a guest thread, created when the guest thread is started. */
+  private static final class GuestThread {
+    private final StaticObject start;
+    private final boolean parameterized;
+    private volatile Thread host;
+
+    private GuestThread(StaticObject start, boolean parameterized) {
+      this.start = start;
+      this.parameterized = parameterized;
+    }
+
+    @CompilerDirectives.TruffleBoundary
+    private synchronized boolean start(CILOSTAZOLContext context, Object parameter) {
+      if (host != null) return false;
+
+      DelegateMethodImplementations.GuestDelegate delegate =
+          DelegateMethodImplementations.resolve(start);
+      Object[] parameters = parameterized ? new Object[] {parameter} : new Object[0];
+      host = context.getEnv().createThread(() -> delegate.invoke(parameters));
+      host.start();
+      return true;
+    }
+
+    /**
+     * @return false if the thread was not started or the timeout elapsed
+     */
+    @CompilerDirectives.TruffleBoundary
+    private boolean join(int millisecondsTimeout) {
+      Thread thread = host;
+      if (thread == null) return false;
+
+      TruffleSafepoint.setBlockedThreadInterruptible(
+          null,
+          t -> {
+            if (millisecondsTimeout < 0) t.join();
+            else t.join(millisecondsTimeout);
+          },
+          thread);
+      return !thread.isAlive();
+    }
+  }
+  // endregion
+
+  // region Monitor
+  public static Object monitorEnter(VirtualFrame frame) {
+    getMonitor(frame).enter();
+    return null;
+  }
+
+  public static Object monitorEnterLockTaken(VirtualFrame frame) {
+    GuestMonitor monitor = getMonitor(frame);
+    StaticObject lockTaken = (StaticObject) frame.getArguments()[1];
+    monitor.enter();
+    CollectionMethodImplementations.storeToReference(
+        lockTaken, CILOSTAZOLContext.get(null).getBoolean(), 1);
+    return null;
+  }
+
+  public static Object monitorTryEnter(VirtualFrame frame) {
+    return getMonitor(frame).tryEnter() ? 1 : 0;
+  }
+
+  public static Object monitorExit(VirtualFrame frame) {
+    if (!getMonitor(frame).exit())
+      throw createException(frame, RuntimeCILException.Exception.SynchronizationLock);
+
+    return null;
+  }
+
+  public static Object monitorIsEntered(VirtualFrame frame) {
+    return getMonitor(frame).isEntered() ? 1 : 0;
+  }
+
+  public static Object monitorWait(VirtualFrame frame) {
+    return waitOnMonitor(frame, -1);
+  }
+
+  public static Object monitorWaitTimeout(VirtualFrame frame) {
+    int millisecondsTimeout = (int) frame.getArguments()[1];
+    if (millisecondsTimeout < -1)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentOutOfRange);
+
+    return waitOnMonitor(frame, millisecondsTimeout);
+  }
+
+  private static Object waitOnMonitor(VirtualFrame frame, int millisecondsTimeout) {
+    GuestMonitor monitor = getOwnedMonitor(frame);
+    return monitor.await(millisecondsTimeout) ? 1 : 0;
+  }
+
+  public static Object monitorPulse(VirtualFrame frame) {
+    getOwnedMonitor(frame).pulse();
+    return null;
+  }
+
+  public static Object monitorPulseAll(VirtualFrame frame) {
+    getOwnedMonitor(frame).pulseAll();
+    return null;
+  }
+
+  private static GuestMonitor getMonitor(VirtualFrame frame) {
+    StaticObject object = (StaticObject) frame.getArguments()[0];
+    if (object == StaticObject.NULL)
+      throw createException(frame, RuntimeCILException.Exception.ArgumentNull);
+
+    return object.getMonitor();
+  }
+
+  private static GuestMonitor getOwnedMonitor(VirtualFrame frame) {
+    GuestMonitor monitor = getMonitor(frame);
+    if (!monitor.isEntered())
+      throw createException(frame, RuntimeCILException.Exception.SynchronizationLock);
+
+    return monitor;
+  }
+  // endregion
+
+  // region Interlocked
+  public static Object interlockedIncrementInt32(VirtualFrame frame) {
+    return getAndAddInt(getLocation(frame), 1) + 1;
+  }
+
+  public static Object interlockedDecrementInt32(VirtualFrame frame) {
+    return getAndAddInt(getLocation(frame), -1) - 1;
+  }
+
+  public static Object interlockedExchangeInt32(VirtualFrame frame) {
+    return getAndSetInt(getLocation(frame), (int) frame.getArguments()[1]);
+  }
+
+  public static Object interlockedCompareExchangeInt32(VirtualFrame frame) {
+    return compareAndExchangeInt(
+        getLocation(frame), (int) frame.getArguments()[2], (int) frame.getArguments()[1]);
+  }
+
+  public static Object interlockedAddInt32(VirtualFrame frame) {
+    int value = (int) frame.getArguments()[1];
+    return getAndAddInt(getLocation(frame), value) + value;
+  }
+
+  public static Object interlockedIncrementInt64(VirtualFrame frame) {
+    return getAndAddLong(getLocation(frame), 1) + 1;
+  }
+
+  public static Object interlockedDecrementInt64(VirtualFrame frame) {
+    return getAndAddLong(getLocation(frame), -1) - 1;
+  }
+
+  public static Object interlockedExchangeInt64(VirtualFrame frame) {
+    return getAndSetLong(getLocation(frame), (long) frame.getArguments()[1]);
+  }
+
+  public static Object interlockedCompareExchangeInt64(VirtualFrame frame) {
+    return compareAndExchangeLong(
+        getLocation(frame), (long) frame.getArguments()[2], (long) frame.getArguments()[1]);
+  }
+
+  public static Object interlockedAddInt64(VirtualFrame frame) {
+    long value = (long) frame.getArguments()[1];
+    return getAndAddLong(getLocation(frame), value) + value;
+  }
+
+  public static Object interlockedExchangeObject(VirtualFrame frame) {
+    return getAndSetObject(getLocation(frame), (StaticObject) frame.getArguments()[1]);
+  }
+
+  public static Object interlockedCompareExchangeObject(VirtualFrame frame) {
+    return compareAndExchangeObject(
+        getLocation(frame),
+        (StaticObject) frame.getArguments()[2],
+        (StaticObject) frame.getArguments()[1]);
+  }
+
+  private static StaticObject getLocation(VirtualFrame frame) {
+    StaticObject location = (StaticObject) frame.getArguments()[0];
+    if (location == StaticObject.NULL)
+      throw createException(frame, RuntimeCILException.Exception.NullReference);
+
+    return location;
+  }
+
+  // Locals and arguments are only visible to the thread owning the frame, they are updated in place
+  @CompilerDirectives.TruffleBoundary
+  private static int getAndAddInt(StaticObject reference, int delta) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        int value = CILOSTAZOLFrame.getLocalInt(refFrame, index);
+        CILOSTAZOLFrame.setLocalInt(refFrame, index, value + delta);
+        yield value;
+      }
+      case Field -> getField(context, reference)
+          .getAndAddInt(getFieldObject(context, reference), delta);
+      case ArrayElement -> (int)
+          INT_ELEMENTS.getAndAdd(
+              getArray(context, reference), getArrayIndex(context, reference), delta);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static int getAndSetInt(StaticObject reference, int newValue) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        int value = CILOSTAZOLFrame.getLocalInt(refFrame, index);
+        CILOSTAZOLFrame.setLocalInt(refFrame, index, newValue);
+        yield value;
+      }
+      case Field -> getField(context, reference)
+          .getAndSetInt(getFieldObject(context, reference), newValue);
+      case ArrayElement -> (int)
+          INT_ELEMENTS.getAndSet(
+              getArray(context, reference), getArrayIndex(context, reference), newValue);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static int compareAndExchangeInt(StaticObject reference, int expected, int newValue) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        int value = CILOSTAZOLFrame.getLocalInt(refFrame, index);
+        if (value == expected) CILOSTAZOLFrame.setLocalInt(refFrame, index, newValue);
+        yield value;
+      }
+      case Field -> getField(context, reference)
+          .compareAndExchangeInt(getFieldObject(context, reference), expected, newValue);
+      case ArrayElement -> (int)
+          INT_ELEMENTS.compareAndExchange(
+              getArray(context, reference), getArrayIndex(context, reference), expected, newValue);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static long getAndAddLong(StaticObject reference, long delta) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        long value = CILOSTAZOLFrame.getLocalLong(refFrame, index);
+        CILOSTAZOLFrame.setLocalLong(refFrame, index, value + delta);
+        yield value;
+      }
+      case Field -> getField(context, reference)
+          .getAndAddLong(getFieldObject(context, reference), delta);
+      case ArrayElement -> (long)
+          LONG_ELEMENTS.getAndAdd(
+              getArray(context, reference), getArrayIndex(context, reference), delta);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static long getAndSetLong(StaticObject reference, long newValue) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        long value = CILOSTAZOLFrame.getLocalLong(refFrame, index);
+        CILOSTAZOLFrame.setLocalLong(refFrame, index, newValue);
+        yield value;
+      }
+      case Field -> getField(context, reference)
+          .getAndSetLong(getFieldObject(context, reference), newValue);
+      case ArrayElement -> (long)
+          LONG_ELEMENTS.getAndSet(
+              getArray(context, reference), getArrayIndex(context, reference), newValue);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static long compareAndExchangeLong(StaticObject reference, long expected, long newValue) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        long value = CILOSTAZOLFrame.getLocalLong(refFrame, index);
+        if (value == expected) CILOSTAZOLFrame.setLocalLong(refFrame, index, newValue);
+        yield value;
+      }
+      case Field -> getField(context, reference)
+          .compareAndExchangeLong(getFieldObject(context, reference), expected, newValue);
+      case ArrayElement -> (long)
+          LONG_ELEMENTS.compareAndExchange(
+              getArray(context, reference), getArrayIndex(context, reference), expected, newValue);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static StaticObject getAndSetObject(StaticObject reference, StaticObject newValue) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        StaticObject value = CILOSTAZOLFrame.getLocalObject(refFrame, index);
+        CILOSTAZOLFrame.setLocalObject(refFrame, index, newValue);
+        yield value;
+      }
+      case Field -> (StaticObject)
+          getField(context, reference)
+              .getAndSetObject(getFieldObject(context, reference), newValue);
+      case ArrayElement -> (StaticObject)
+          OBJECT_ELEMENTS.getAndSet(
+              getArray(context, reference), getArrayIndex(context, reference), newValue);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  // References are compared by identity, as object references in .NET are
+  @CompilerDirectives.TruffleBoundary
+  private static StaticObject compareAndExchangeObject(
+      StaticObject reference, StaticObject expected, StaticObject newValue) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return switch (((ReferenceSymbol) reference.getTypeSymbol()).getReferenceType()) {
+      case Local, Argument -> {
+        Frame refFrame = (Frame) context.getStackReferenceFrameProperty().getObject(reference);
+        int index = context.getStackReferenceIndexProperty().getInt(reference);
+        StaticObject value = CILOSTAZOLFrame.getLocalObject(refFrame, index);
+        if (value == expected) CILOSTAZOLFrame.setLocalObject(refFrame, index, newValue);
+        yield value;
+      }
+      case Field -> (StaticObject)
+          getField(context, reference)
+              .compareAndExchangeObject(getFieldObject(context, reference), expected, newValue);
+      case ArrayElement -> (StaticObject)
+          OBJECT_ELEMENTS.compareAndExchange(
+              getArray(context, reference), getArrayIndex(context, reference), expected, newValue);
+      default -> throw new InterpreterException("Invalid reference type");
+    };
+  }
+
+  private static StaticField getField(CILOSTAZOLContext context, StaticObject reference) {
+    return (StaticField) context.getFieldReferenceFieldProperty().getObject(reference);
+  }
+
+  private static StaticObject getFieldObject(CILOSTAZOLContext context, StaticObject reference) {
+    return (StaticObject) context.getFieldReferenceObjectProperty().getObject(reference);
+  }
+
+  private static Object getArray(CILOSTAZOLContext context, StaticObject reference) {
+    StaticObject array =
+        (StaticObject) context.getArrayElementReferenceArrayProperty().getObject(reference);
+    return context.getArrayProperty().getObject(array);
+  }
+
+  private static int getArrayIndex(CILOSTAZOLContext context, StaticObject reference) {
+    return context.getArrayElementReferenceIndexProperty().getInt(reference);
+  }
+  // endregion
+
+  private static RuntimeCILException createException(
+      VirtualFrame frame, RuntimeCILException.Exception exception) {
+    return RuntimeCILException.RuntimeCILExceptionFactory.create(
+        exception, CILOSTAZOLContext.get(null), frame, 0);
+  }
+}
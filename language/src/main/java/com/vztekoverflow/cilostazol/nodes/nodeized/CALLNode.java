@@ -1,8 +1,8 @@
 package com.vztekoverflow.cilostazol.nodes.nodeized;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
-import com.oracle.truffle.api.nodes.IndirectCallNode;
 import com.vztekoverflow.cil.parser.cli.signature.MethodDefFlags;
 import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
 import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
@@ -15,13 +15,15 @@ public final class CALLNode extends NodeizedNodeBase {
   private final int topStack;
   private final int returnStackTop;
 
-  @Child private IndirectCallNode indirectCallNode;
+  // The callee is known statically, so the call can be inlined and the argument array together
+  // with the boxed primitives in it is removed by escape analysis
+  @Child private DirectCallNode directCallNode;
 
   public CALLNode(MethodSymbol method, int topStack) {
     this.method = method;
     this.returnStackTop = topStack - method.getParameterCountIncludingInstance();
     this.topStack = topStack;
-    this.indirectCallNode = IndirectCallNode.create();
+    this.directCallNode = DirectCallNode.create(method.getNode().getCallTarget());
   }
 
   @Override
@@ -32,7 +34,7 @@ public final class CALLNode extends NodeizedNodeBase {
       throw RuntimeCILException.RuntimeCILExceptionFactory.create(
           RuntimeCILException.Exception.NullReference, method.getContext(), frame, topStack);
 
-    Object returnValue = indirectCallNode.call(method.getNode().getCallTarget(), args);
+    Object returnValue = directCallNode.call(args);
 
     if (method.hasReturnValue()) {
       CILOSTAZOLFrame.put(frame, returnValue, returnStackTop, method.getReturnType().getType());
@@ -45,12 +47,12 @@ public final class CALLNode extends NodeizedNodeBase {
   @NotNull
   @ExplodeLoop
   private Object[] getMethodArgsFromStack(VirtualFrame frame) {
-    final var argTypes = method.getParameters();
+    final var argTypes = method.getParameterStackTypesIncludingInstance();
     final var instantiableOffset = CILOSTAZOLFrame.isInstantiable(method);
-    final Object[] args = new Object[argTypes.length + instantiableOffset];
+    final Object[] args = new Object[argTypes.length];
     for (int i = instantiableOffset; i < args.length; i++) {
       final var idx = topStack - args.length + i;
-      args[i] = CILOSTAZOLFrame.pop(frame, idx, argTypes[i - instantiableOffset].getType());
+      args[i] = CILOSTAZOLFrame.pop(frame, idx, argTypes[i]);
     }
 
     if (instantiableOffset > 0) {
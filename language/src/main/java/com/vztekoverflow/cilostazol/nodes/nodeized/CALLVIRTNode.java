@@ -1,6 +1,8 @@
 package com.vztekoverflow.cilostazol.nodes.nodeized;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.IndirectCallNode;
 import com.vztekoverflow.cil.parser.cli.signature.MethodDefFlags;
@@ -11,33 +13,73 @@ import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
 import com.vztekoverflow.cilostazol.runtime.symbols.ConstructedNamedTypeSymbol;
 import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
 import org.jetbrains.annotations.NotNull;
 
 public final class CALLVIRTNode extends NodeizedNodeBase {
   private final MethodSymbol method;
   private final int topStack;
   private final int returnStackTop;
+  // Slot of the method in the vtable of its declaring type, -1 if it has to be resolved by name
+  private final int vtableSlot;
 
+  // Monomorphic inline cache, the first receiver type seen gets a direct call to its resolved
+  // method, any other receiver type goes through the dispatch tables and the indirect call
+  @CompilerDirectives.CompilationFinal private volatile TypeSymbol cachedReceiverType;
+  @CompilerDirectives.CompilationFinal private MethodSymbol cachedMethod;
+  @CompilerDirectives.CompilationFinal private boolean polymorphic;
+
+  @Child private DirectCallNode directCallNode;
   @Child private IndirectCallNode indirectCallNode;
 
   public CALLVIRTNode(MethodSymbol method, int topStack) {
     this.method = method;
     this.returnStackTop = topStack - method.getParameterCountIncludingInstance();
     this.topStack = topStack;
+    this.vtableSlot = getVTableSlot(method);
     this.indirectCallNode = IndirectCallNode.create();
   }
 
+  private static int getVTableSlot(MethodSymbol method) {
+    // Generic virtual methods are instantiated per call site, they are resolved by name
+    if (!method.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.VIRTUAL)
+        || method.getTypeParameters().length != 0) return -1;
+
+    return method.getDefiningType().getVTableSlot(method);
+  }
+
   @Override
   public int execute(VirtualFrame frame) {
-    MethodSymbol virtMethod = resolveVirtMethod(frame);
-    Object[] args = getMethodArgsFromStack(frame, virtMethod);
-    if (method.getMethodDefFlags().hasFlag(MethodDefFlags.Flag.HAS_THIS)
-        && args[0].equals(StaticObject.NULL))
+    TypeSymbol receiverType =
+        CILOSTAZOLFrame.getLocalObject(frame, topStack - 1 - method.getParameters().length)
+            .getTypeSymbol();
+    if (receiverType == null)
       throw RuntimeCILException.RuntimeCILExceptionFactory.create(
           RuntimeCILException.Exception.NullReference, method.getContext(), frame, topStack);
 
-    Object returnValue = indirectCallNode.call(virtMethod.getNode().getCallTarget(), args);
+    if (cachedReceiverType == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      initializeCache(receiverType);
+    }
+
+    Object returnValue;
+    if (receiverType == cachedReceiverType) {
+      Object[] args = getMethodArgsFromStack(frame, cachedMethod);
+      checkReceiver(frame, args);
+      returnValue = directCallNode.call(args);
+    } else {
+      if (!polymorphic) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        polymorphic = true;
+      }
+      MethodSymbol virtMethod = resolveVirtMethod(receiverType);
+      Object[] args = getMethodArgsFromStack(frame, virtMethod);
+      checkReceiver(frame, args);
+      returnValue = indirectCallNode.call(virtMethod.getNode().getCallTarget(), args);
+    }
 
     if (method.hasReturnValue()) {
       CILOSTAZOLFrame.put(frame, returnValue, returnStackTop, method.getReturnType().getType());
@@ -47,14 +89,39 @@ public final class CALLVIRTNode extends NodeizedNodeBase {
     return returnStackTop;
   }
 
-  private MethodSymbol resolveVirtMethod(VirtualFrame frame) {
+  private void initializeCache(TypeSymbol receiverType) {
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      if (cachedReceiverType != null) return;
+
+      cachedMethod = resolveVirtMethod(receiverType);
+      directCallNode = insert(DirectCallNode.create(cachedMethod.getNode().getCallTarget()));
+      // Published last, threads seeing the receiver type see the call it is cached for
+      cachedReceiverType = receiverType;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void checkReceiver(VirtualFrame frame, Object[] args) {
+    if (method.getMethodDefFlags().hasFlag(MethodDefFlags.Flag.HAS_THIS)
+        && args[0].equals(StaticObject.NULL))
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.NullReference, method.getContext(), frame, topStack);
+  }
+
+  private MethodSymbol resolveVirtMethod(TypeSymbol instanceType) {
+    if (vtableSlot >= 0 && instanceType instanceof NamedTypeSymbol namedType) {
+      var implementation = namedType.getVirtualMethod(method.getDefiningType(), vtableSlot);
+      if (implementation != null) return implementation;
+    }
+
     MethodSymbol virtMethod = method;
-    var instance =
-        CILOSTAZOLFrame.getLocalObject(frame, topStack - 1 - method.getParameters().length);
 
     if (method.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.VIRTUAL)
         // Allow looking for overrides on Multidimensional Array implementation
-        || (instance.getTypeSymbol() instanceof ConstructedNamedTypeSymbol constrType
+        || (instanceType instanceof ConstructedNamedTypeSymbol constrType
             && constrType
                 .getName()
                 .equals(CILOSTAZOLBundle.message("cilostazol.multidimensional.array.name"))
@@ -63,14 +130,14 @@ public final class CALLVIRTNode extends NodeizedNodeBase {
                 .equals(CILOSTAZOLBundle.message("cilostazol.multidimensional.array.namespace")))) {
       var candidateMethod =
           SymbolResolver.resolveMethod(
-              instance.getTypeSymbol(),
+              instanceType,
               method.getName(),
               method.getTypeArguments(),
               method.getParameterTypes(),
               method.getTypeParameters().length);
 
       if (candidateMethod == null)
-        candidateMethod = SymbolResolver.resolveMethodImpl(method, instance.getTypeSymbol());
+        candidateMethod = SymbolResolver.resolveMethodImpl(method, instanceType);
 
       virtMethod = Objects.requireNonNull(candidateMethod).member;
     }
@@ -81,12 +148,13 @@ public final class CALLVIRTNode extends NodeizedNodeBase {
   @NotNull
   @ExplodeLoop
   private Object[] getMethodArgsFromStack(VirtualFrame frame, MethodSymbol virtMethod) {
-    final var argTypes = virtMethod.getParameters();
+    // Overrides share the arity of the called method, which keeps the loop bound constant
+    final var argTypes = virtMethod.getParameterStackTypesIncludingInstance();
     final var instantiableOffset = CILOSTAZOLFrame.isInstantiable(virtMethod);
-    final Object[] args = new Object[argTypes.length + instantiableOffset];
+    final Object[] args = new Object[method.getParameterCountIncludingInstance()];
     for (int i = instantiableOffset; i < args.length; i++) {
       final var idx = topStack - args.length + i;
-      args[i] = CILOSTAZOLFrame.pop(frame, idx, argTypes[i - instantiableOffset].getType());
+      args[i] = CILOSTAZOLFrame.pop(frame, idx, argTypes[i]);
     }
 
     if (instantiableOffset > 0) {
@@ -0,0 +1,135 @@
+package com.vztekoverflow.cilostazol.nodes.nodeized;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * A call site in code shared by the instantiations of a generic type over reference types. The
+ * target can depend on the type arguments, so it is resolved for the type of each receiver. Types
+ * resolving to the same target share its node.
+ */
+public final class GenericContextNode extends NodeizedNodeBase {
+  private static final int CACHE_LIMIT = 8;
+
+  private final Function<TypeSymbol, MethodSymbol> resolver;
+  private final Function<MethodSymbol, NodeizedNodeBase> factory;
+  // Calls of different instantiations running the same shared code can use the same node
+  private final boolean sharesCallTargets;
+
+  // Published after the targets, threads seeing a receiver type see its target as well
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile TypeSymbol[] receiverTypes = new TypeSymbol[0];
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private int[] receiverTargets = new int[0];
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private MethodSymbol[] targetMethods = new MethodSymbol[0];
+
+  @Children private NodeizedNodeBase[] targets = new NodeizedNodeBase[0];
+
+  // Set once the receiver types exceed the cache, the targets of further types are looked up in
+  // the map and only a type resolving to a method without a node invalidates the code
+  @CompilerDirectives.CompilationFinal private volatile boolean megamorphic;
+  private final Map<TypeSymbol, Integer> megamorphicTargets = new ConcurrentHashMap<>();
+
+  public GenericContextNode(
+      Function<TypeSymbol, MethodSymbol> resolver,
+      Function<MethodSymbol, NodeizedNodeBase> factory,
+      boolean sharesCallTargets) {
+    this.resolver = resolver;
+    this.factory = factory;
+    this.sharesCallTargets = sharesCallTargets;
+  }
+
+  @Override
+  @ExplodeLoop
+  public int execute(VirtualFrame frame) {
+    TypeSymbol receiverType = ((StaticObject) frame.getArguments()[0]).getTypeSymbol();
+    TypeSymbol[] types = receiverTypes;
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == receiverType) {
+        return targets[receiverTargets[i]].execute(frame);
+      }
+    }
+
+    int target = megamorphic ? findMegamorphicTarget(receiverType) : -1;
+    if (target < 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      target = specialize(receiverType);
+    }
+
+    return targets[target].execute(frame);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private int findMegamorphicTarget(TypeSymbol receiverType) {
+    Integer cached = megamorphicTargets.get(receiverType);
+    if (cached != null) return cached;
+
+    // The lock makes the targets added by other threads visible
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      int target = findTarget(resolver.apply(receiverType));
+      if (target >= 0) megamorphicTargets.put(receiverType, target);
+      return target;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int specialize(TypeSymbol receiverType) {
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      // Another thread could have specialized for the type while this one was waiting
+      for (int i = 0; i < receiverTypes.length; i++) {
+        if (receiverTypes[i] == receiverType) return receiverTargets[i];
+      }
+
+      MethodSymbol method = resolver.apply(receiverType);
+      int target = findTarget(method);
+      if (target < 0) {
+        target = targets.length;
+        targetMethods = Arrays.copyOf(targetMethods, target + 1);
+        targetMethods[target] = method;
+        targets = Arrays.copyOf(targets, target + 1);
+        targets[target] = insert(factory.apply(method));
+      }
+
+      if (megamorphic || receiverTypes.length >= CACHE_LIMIT) {
+        megamorphicTargets.put(receiverType, target);
+        megamorphic = true;
+        return target;
+      }
+
+      receiverTargets = Arrays.copyOf(receiverTargets, receiverTargets.length + 1);
+      receiverTargets[receiverTargets.length - 1] = target;
+      TypeSymbol[] types = Arrays.copyOf(receiverTypes, receiverTypes.length + 1);
+      types[types.length - 1] = receiverType;
+      receiverTypes = types;
+      return target;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int findTarget(MethodSymbol method) {
+    for (int i = 0; i < targetMethods.length; i++) {
+      if (targetMethods[i] == method
+          || (sharesCallTargets && targetMethods[i].getNode() == method.getNode())) return i;
+    }
+
+    return -1;
+  }
+}
@@ -1,8 +1,8 @@
 package com.vztekoverflow.cilostazol.nodes.nodeized;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
-import com.oracle.truffle.api.nodes.IndirectCallNode;
 import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
 import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
 import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
@@ -18,14 +18,14 @@ public final class NEWOBJNode extends NodeizedNodeBase {
   private final int topStack;
   private final int returnStackTop;
 
-  @Child private IndirectCallNode indirectCallNode;
+  @Child private DirectCallNode directCallNode;
 
   public NEWOBJNode(MethodSymbol constructor, int topStack) {
     this.type = constructor.getDefiningType();
     this.constructor = constructor;
     this.returnStackTop = topStack - constructor.getParameters().length + 1;
     this.topStack = topStack;
-    this.indirectCallNode = IndirectCallNode.create();
+    this.directCallNode = DirectCallNode.create(constructor.getNode().getCallTarget());
   }
 
   @Override
@@ -46,7 +46,7 @@ public final class NEWOBJNode extends NodeizedNodeBase {
     args[0] = object;
 
     // Finally, call the constructor and push the result to the stack
-    indirectCallNode.call(constructor.getNode().getCallTarget(), args);
+    directCallNode.call(args);
     CILOSTAZOLFrame.put(frame, object, returnStackTop - 1, type);
     return returnStackTop;
   }
@@ -54,11 +54,11 @@ public final class NEWOBJNode extends NodeizedNodeBase {
   @NotNull
   @ExplodeLoop
   private Object[] getMethodArgsFromStack(VirtualFrame frame) {
-    final var argTypes = constructor.getParameters();
-    final Object[] args = new Object[argTypes.length + 1];
+    final var argTypes = constructor.getParameterStackTypesIncludingInstance();
+    final Object[] args = new Object[argTypes.length];
     for (int i = 1; i < args.length; i++) {
       final var idx = topStack - args.length + i;
-      args[i] = CILOSTAZOLFrame.pop(frame, idx, argTypes[i - 1].getType());
+      args[i] = CILOSTAZOLFrame.pop(frame, idx, argTypes[i]);
     }
     return args;
   }
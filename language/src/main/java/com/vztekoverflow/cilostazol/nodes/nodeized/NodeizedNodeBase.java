@@ -1,9 +1,14 @@
 package com.vztekoverflow.cilostazol.nodes.nodeized;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+import com.vztekoverflow.cilostazol.nodes.CILMethodNode;
 
 public abstract class NodeizedNodeBase extends Node {
+  // The offset of the replaced instruction, set when the method adopts the node
+  private int pc = -1;
 
   /**
    * Execute the node on the given evaluation stack.
@@ -12,4 +17,17 @@ public abstract class NodeizedNodeBase extends Node {
    * @return the new evaluation stack top
    */
   public abstract int execute(VirtualFrame frame);
+
+  public final void setPc(int pc) {
+    this.pc = pc;
+  }
+
+  /** The section of the replaced instruction, the location of calls in guest stack traces. */
+  @Override
+  @CompilerDirectives.TruffleBoundary
+  public SourceSection getSourceSection() {
+    return pc >= 0 && getParent() instanceof CILMethodNode method
+        ? method.getSourceSectionAt(pc)
+        : null;
+  }
 }
@@ -0,0 +1,99 @@
+package com.vztekoverflow.cilostazol.nodes.nodeized;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
+import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Partition III: 4.26 stelem.ref. The store check caches the first (element type, value type) pair
+ * that passes it, other pairs switch the node to the full check.
+ */
+public final class STELEMREFNode extends NodeizedNodeBase {
+  private final int topStack;
+
+  // Published after the element type, a thread seeing the value type sees the whole pair
+  @CompilerDirectives.CompilationFinal private TypeSymbol cachedElementType;
+  @CompilerDirectives.CompilationFinal private volatile TypeSymbol cachedValueType;
+  @CompilerDirectives.CompilationFinal private volatile boolean generic;
+
+  public STELEMREFNode(int topStack) {
+    this.topStack = topStack;
+  }
+
+  @Override
+  public int execute(VirtualFrame frame) {
+    StaticObject array = CILOSTAZOLFrame.popObject(frame, topStack - 3);
+    int index = CILOSTAZOLFrame.popInt32(frame, topStack - 2);
+    StaticObject value = CILOSTAZOLFrame.popObject(frame, topStack - 1);
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(this);
+    if (array == StaticObject.NULL)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.NullReference, context, frame, topStack);
+
+    StaticObject[] elements = (StaticObject[]) context.getArrayProperty().getObject(array);
+    if (index < 0 || index >= elements.length)
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.IndexOutOfRange, context, frame, topStack);
+
+    // Null can be stored to any array
+    if (value != StaticObject.NULL
+        && !checkStore(
+            context,
+            ((ArrayTypeSymbol) array.getTypeSymbol()).getElementType(),
+            value.getTypeSymbol()))
+      throw RuntimeCILException.RuntimeCILExceptionFactory.create(
+          RuntimeCILException.Exception.ArrayTypeMismatch, context, frame, topStack);
+
+    elements[index] = value;
+    return topStack - 3;
+  }
+
+  private boolean checkStore(
+      CILOSTAZOLContext context, TypeSymbol elementType, TypeSymbol valueType) {
+    if (elementType == valueType || elementType == context.getObject()) return true;
+
+    if (!generic) {
+      if (cachedValueType == valueType && cachedElementType == elementType) return true;
+
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      boolean result = isStoreAllowed(elementType, valueType);
+      if (result) specialize(elementType, valueType);
+      return result;
+    }
+
+    return isStoreAllowed(elementType, valueType);
+  }
+
+  private void specialize(TypeSymbol elementType, TypeSymbol valueType) {
+    Lock lock = getLock();
+    lock.lock();
+    try {
+      if (cachedValueType == null) {
+        cachedElementType = elementType;
+        cachedValueType = valueType;
+      } else if (cachedValueType != valueType || cachedElementType != elementType) {
+        generic = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static boolean isStoreAllowed(TypeSymbol elementType, TypeSymbol valueType) {
+    if (elementType.equals(valueType)) return true;
+    // Nothing derives from a sealed class, so no hierarchy walk is needed
+    if (elementType instanceof NamedTypeSymbol namedType
+        && namedType.isSealed()
+        && !namedType.isInterface()) return false;
+
+    return elementType.isAssignableFrom(valueType);
+  }
+}
@@ -0,0 +1,155 @@
+package com.vztekoverflow.cilostazol.runtime.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-null values. Collisions are
+ * resolved by linear probing and removals use backward shifting, so there are no tombstones.
+ */
+public final class LongObjectHashMap {
+  private static final int MIN_CAPACITY = 8;
+
+  private long[] keys;
+  // null marks an empty slot
+  private Object[] values;
+  // When each key was first put, entries can be visited in insertion order
+  private long[] stamps;
+  private long nextStamp;
+  private int size;
+  private int mask;
+  private int shift;
+
+  public LongObjectHashMap() {
+    this(0);
+  }
+
+  public LongObjectHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Object get(long key) {
+    int slot = findSlot(key);
+    return slot < 0 ? null : values[slot];
+  }
+
+  public boolean containsKey(long key) {
+    return findSlot(key) >= 0;
+  }
+
+  /** Returns the previous value associated with the key, or {@code null} if there was none. */
+  public Object put(long key, Object value) {
+    return put(key, value, nextStamp);
+  }
+
+  private Object put(long key, Object value, long stamp) {
+    assert value != null;
+    int slot = hash(key);
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        Object previous = values[slot];
+        values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    stamps[slot] = stamp;
+    nextStamp = Math.max(nextStamp, stamp + 1);
+    if (++size > (mask + 1) * 3 / 4) rehash((mask + 1) * 2);
+    return null;
+  }
+
+  /** Returns the removed value, or {@code null} if the key was not present. */
+  public Object remove(long key) {
+    int slot = findSlot(key);
+    if (slot < 0) return null;
+
+    Object previous = values[slot];
+    // Shift back the following entries of the probe sequence into the freed slot
+    int free = slot;
+    int next = (free + 1) & mask;
+    while (values[next] != null) {
+      int home = hash(keys[next]);
+      if (((next - home) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        values[free] = values[next];
+        stamps[free] = stamps[next];
+        free = next;
+      }
+      next = (next + 1) & mask;
+    }
+    values[free] = null;
+    size--;
+    return previous;
+  }
+
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+    nextStamp = 0;
+  }
+
+  /**
+   * Calls the action for each entry, in the order in which the keys were added. Overwriting the
+   * value of a key keeps its position.
+   */
+  public void forEachInInsertionOrder(EntryConsumer action) {
+    Integer[] slots = new Integer[size];
+    int count = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) slots[count++] = i;
+    }
+    Arrays.sort(slots, (a, b) -> Long.compare(stamps[a], stamps[b]));
+    for (int slot : slots) action.accept(keys[slot], values[slot]);
+  }
+
+  private int findSlot(long key) {
+    int slot = hash(key);
+    while (values[slot] != null) {
+      if (keys[slot] == key) return slot;
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int hash(long key) {
+    // Fibonacci hashing, the high bits of the product are the best mixed
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    long[] oldStamps = stamps;
+    allocate(capacity);
+    size = 0;
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) put(oldKeys[i], oldValues[i], oldStamps[i]);
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    stamps = new long[capacity];
+    mask = capacity - 1;
+    shift = Long.numberOfLeadingZeros(mask);
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity * 3 / 4 < expectedSize) capacity <<= 1;
+    return capacity;
+  }
+
+  @FunctionalInterface
+  public interface EntryConsumer {
+    void accept(long key, Object value);
+  }
+}
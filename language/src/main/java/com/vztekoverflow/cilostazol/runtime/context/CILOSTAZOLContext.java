@@ -2,6 +2,7 @@ package com.vztekoverflow.cilostazol.runtime.context;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleContext;
 import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.nodes.Node;
@@ -10,9 +11,12 @@ import com.oracle.truffle.api.staticobject.StaticProperty;
 import com.oracle.truffle.api.staticobject.StaticShape;
 import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
 import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITypeDefTableRow;
 import com.vztekoverflow.cilostazol.CILOSTAZOLBundle;
 import com.vztekoverflow.cilostazol.CILOSTAZOLEngineOption;
 import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import com.vztekoverflow.cilostazol.nodes.ExecutionStatistics;
+import com.vztekoverflow.cilostazol.runtime.interop.CILOSTAZOLScope;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
 import com.vztekoverflow.cilostazol.runtime.other.AppDomain;
@@ -21,8 +25,13 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.io.ByteSequence;
 import org.jetbrains.annotations.TestOnly;
@@ -32,14 +41,18 @@ public class CILOSTAZOLContext {
       TruffleLanguage.ContextReference.create(CILOSTAZOLLanguage.class);
   private final Path[] libraryPaths;
   private final CILOSTAZOLLanguage language;
-  private final TruffleLanguage.Env env;
-
-  private final Map<TypeDefinitionCacheKey, NamedTypeSymbol> typeDefinitionCache = new HashMap<>();
-  private final Map<TypeInstantiationCacheKey, TypeSymbol> typeInstantiationCache = new HashMap<>();
+  // Replaced when a context pre-initialized in a native image is patched
+  private TruffleLanguage.Env env;
+
+  // Guest threads resolve symbols concurrently, every symbol has to be published exactly once
+  private final Map<TypeDefinitionCacheKey, NamedTypeSymbol> typeDefinitionCache =
+      new ConcurrentHashMap<>();
+  private final Map<TypeInstantiationCacheKey, TypeSymbol> typeInstantiationCache =
+      new ConcurrentHashMap<>();
   private final Map<MethodInstantiationCacheKey, MethodSymbol> methodInstantiationCache =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
-  private final Map<ArrayCacheKey, ArrayTypeSymbol> arrayCache = new HashMap<>();
+  private final Map<ArrayCacheKey, ArrayTypeSymbol> arrayCache = new ConcurrentHashMap<>();
   private final ReferenceSymbol localReference;
   private final ReferenceSymbol argumentReference;
   private final ReferenceSymbol fieldReference;
@@ -47,32 +60,63 @@ public class CILOSTAZOLContext {
   private final ReferenceSymbol typedReference;
 
   private final AppDomain appDomain;
+  private final CILOSTAZOLScope scope;
+
+  // Dense ids of the loaded interfaces, they index the interface bitsets of types
+  private final Map<NamedTypeSymbol, Integer> interfaceIds = new ConcurrentHashMap<>();
+  private final AtomicInteger interfaceCount = new AtomicInteger();
+
+  private final boolean hostCollections;
+
+  // The methods stored in the IntPtr fields of delegates, indexed by their handle. Handle 0 is no
+  // method, the field of a delegate not created by its constructor.
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile MethodSymbol[] methodHandles = new MethodSymbol[16];
+
+  private int methodHandleCount = 1;
+
+  // Runs Task.Run and Parallel.For work, created on first use
+  private volatile ForkJoinPool taskPool;
+
+  // Counted while cil.statistics is enabled
+  private final ExecutionStatistics statistics;
+
+  private final boolean shareLibraries;
 
   // region shapes
-  @CompilerDirectives.CompilationFinal
-  private StaticShape<StaticObject.StaticObjectFactory> typedReferenceShape;
+  // Properties are created up front, the shapes of all threads have to be built from the same ones
+  private final StaticProperty arrayProperty = new DefaultStaticProperty("array");
+  private final StaticProperty stackReferenceFrameProperty = new DefaultStaticProperty("frame");
+  private final StaticProperty stackReferenceIndexProperty = new DefaultStaticProperty("index");
+  private final StaticProperty fieldReferenceObjectProperty = new DefaultStaticProperty("object");
+  private final StaticProperty fieldReferenceFieldProperty = new DefaultStaticProperty("field");
+  private final StaticProperty arrayElementReferenceArrayProperty =
+      new DefaultStaticProperty("array");
+  private final StaticProperty arrayElementReferenceIndexProperty =
+      new DefaultStaticProperty("index");
+  private final StaticProperty typedReferenceInnerRefProperty =
+      new DefaultStaticProperty("innerRef");
+  private final StaticProperty typedReferenceTypeTokenProperty =
+      new DefaultStaticProperty("typeToken");
+  private final StaticProperty methodPointerMethodProperty = new DefaultStaticProperty("method");
 
-  @CompilerDirectives.CompilationFinal private StaticProperty typedReferenceInnerRefProperty;
-  @CompilerDirectives.CompilationFinal private StaticProperty typedReferenceTypeTokenProperty;
-  @CompilerDirectives.CompilationFinal private StaticProperty arrayProperty;
+  @CompilerDirectives.CompilationFinal
+  private volatile StaticShape<StaticObject.StaticObjectFactory> typedReferenceShape;
 
   @CompilerDirectives.CompilationFinal
-  private StaticShape<StaticObject.StaticObjectFactory> arrayShape;
+  private volatile StaticShape<StaticObject.StaticObjectFactory> arrayShape;
 
   @CompilerDirectives.CompilationFinal
-  private StaticShape<StaticObject.StaticObjectFactory> stackReferenceShape;
+  private volatile StaticShape<StaticObject.StaticObjectFactory> stackReferenceShape;
 
-  @CompilerDirectives.CompilationFinal private StaticProperty stackReferenceFrameProperty;
-  @CompilerDirectives.CompilationFinal private StaticProperty stackReferenceIndexProperty;
-  private StaticShape<StaticObject.StaticObjectFactory> fieldReferenceShape;
-  @CompilerDirectives.CompilationFinal private StaticProperty fieldReferenceObjectProperty;
-  @CompilerDirectives.CompilationFinal private StaticProperty fieldReferenceFieldProperty;
+  @CompilerDirectives.CompilationFinal
+  private volatile StaticShape<StaticObject.StaticObjectFactory> fieldReferenceShape;
 
   @CompilerDirectives.CompilationFinal
-  private StaticShape<StaticObject.StaticObjectFactory> arrayElementReferenceShape;
+  private volatile StaticShape<StaticObject.StaticObjectFactory> arrayElementReferenceShape;
 
-  @CompilerDirectives.CompilationFinal private StaticProperty arrayElementReferenceArrayProperty;
-  @CompilerDirectives.CompilationFinal private StaticProperty arrayElementReferenceIndexProperty;
+  @CompilerDirectives.CompilationFinal
+  private volatile StaticShape<StaticObject.StaticObjectFactory> methodPointerShape;
   // endregion
 
   // region symbols
@@ -110,6 +154,15 @@ public class CILOSTAZOLContext {
             .distinct()
             .toArray(Path[]::new);
     appDomain = new AppDomain();
+    scope = new CILOSTAZOLScope(appDomain);
+    hostCollections = env.getOptions().get(CILOSTAZOLEngineOption.HOST_COLLECTIONS);
+    shareLibraries = env.getOptions().get(CILOSTAZOLEngineOption.SHARE_LIBRARIES);
+    if (env.getOptions().get(CILOSTAZOLEngineOption.STATISTICS)) {
+      statistics = new ExecutionStatistics();
+      lang.invalidateNoStatistics();
+    } else {
+      statistics = null;
+    }
 
     // init ref symbols
     localReference = ReferenceSymbol.ReferenceSymbolFactory.createLocalReference();
@@ -126,6 +179,10 @@ public class CILOSTAZOLContext {
     env = null;
     this.libraryPaths = libraryPaths;
     appDomain = new AppDomain();
+    scope = new CILOSTAZOLScope(appDomain);
+    hostCollections = false;
+    statistics = null;
+    shareLibraries = false;
 
     // init ref symbols
     localReference = ReferenceSymbol.ReferenceSymbolFactory.createLocalReference();
@@ -135,6 +192,76 @@ public class CILOSTAZOLContext {
     typedReference = ReferenceSymbol.ReferenceSymbolFactory.createTypedReference();
   }
 
+  // region pre-initialization
+  /**
+   * Resolves the core types and the types of CILOSTAZOLInternalImpl while a native image is built,
+   * the context is then stored in the image. Static constructors have to run in the context of the
+   * program, only core types without one in their hierarchy are laid out.
+   */
+  public void preInitialize() {
+    NamedTypeSymbol[] coreTypes = {
+      getObject(), getString(), getVoid(), getBoolean(), getChar(), getByte(), getSByte(),
+      getInt16(), getUInt16(), getInt32(), getUInt32(), getInt64(), getUInt64(), getSingle(),
+      getDouble(), getIntPtr(), getUIntPtr()
+    };
+    for (NamedTypeSymbol type : coreTypes) {
+      resolveMembers(type);
+      if (!hasStaticConstructor(type)) type.getShape(null, 0, false);
+    }
+
+    AssemblyIdentity internalImpl = AssemblyIdentity.CILOSTAZOLInternalImpl();
+    var file = resolveAssembly(internalImpl).getDefiningFile();
+    for (CLITypeDefTableRow row : file.getTableHeads().getTypeDefTableHead()) {
+      var name = row.getTypeNameHeapPtr().read(file.getStringHeap());
+      var namespace = row.getTypeNamespaceHeapPtr().read(file.getStringHeap());
+      // <Module> and nested types have no namespace, nested types are reached through their parents
+      if (namespace.isEmpty()) continue;
+
+      NamedTypeSymbol type = resolveType(name, namespace, internalImpl);
+      if (type != null) resolveMembers(type);
+    }
+
+    getArrayShape();
+    getStackReferenceShape();
+    getFieldReferenceShape();
+    getArrayElementReferenceShape();
+    getTypedReferenceShape();
+    getMethodPointerShape();
+  }
+
+  private static void resolveMembers(NamedTypeSymbol type) {
+    type.getSuperClasses();
+    type.getInterfaces();
+    type.getFields();
+    type.getMethods();
+  }
+
+  private static boolean hasStaticConstructor(NamedTypeSymbol type) {
+    if (type.isInterface() || !type.isClosed()) return true;
+
+    for (NamedTypeSymbol t : type.getSuperClasses()) {
+      if (hasStaticConstructor(t)) return true;
+    }
+    for (MethodSymbol method : type.getMethods()) {
+      if (method.getName().equals(".cctor")) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Reuse a context pre-initialized in a native image with the environment of the program. The
+   * libraries were loaded and the types laid out with the options given at build time, the context
+   * is only reused when the options are the same.
+   */
+  public boolean patch(TruffleLanguage.Env newEnv) {
+    if (!CILOSTAZOLEngineOption.areEqual(env.getOptions(), newEnv.getOptions())) return false;
+
+    env = newEnv;
+    getLanguage().initializeGuestAllocator(newEnv);
+    return true;
+  }
+  // endregion
+
   public static CILOSTAZOLContext get(Node node) {
     return CONTEXT_REF.get(node);
   }
@@ -151,12 +278,142 @@ public class CILOSTAZOLContext {
     return env;
   }
 
+  /**
+   * @return the execution statistics of the context, or null if they are not counted.
+   */
+  public ExecutionStatistics getStatistics() {
+    return statistics;
+  }
+
+  public boolean isHostCollectionsEnabled() {
+    return hostCollections;
+  }
+
+  /**
+   * Whether instances of the type get a hidden field for the host state of intrinsics. Derived
+   * types inherit it. Dictionaries get one whether or not cil.hostCollections is enabled.
+   */
+  public boolean hasHostStorage(NamedTypeSymbol type) {
+    String name = type.getName();
+    return switch (name) {
+      case "Thread" -> "System.Threading".equals(type.getNamespace());
+      case "Task" -> "System.Threading.Tasks".equals(type.getNamespace());
+      case "Dictionary`2" -> "System.Collections.Generic".equals(type.getNamespace());
+      default -> false;
+    };
+  }
+
+  /** Assigns the handle a delegate stores its method as, see {@link MethodSymbol#getHandle()}. */
+  @CompilerDirectives.TruffleBoundary
+  public synchronized long registerMethodHandle(MethodSymbol method) {
+    int handle = methodHandleCount++;
+    MethodSymbol[] handles = methodHandles;
+    if (handle == handles.length) handles = Arrays.copyOf(handles, handles.length * 2);
+    handles[handle] = method;
+    // Published after the method is stored, a thread reading a handle finds its method
+    methodHandles = handles;
+    return handle;
+  }
+
+  /**
+   * @return the method with the handle, or null for handle 0 and unknown handles
+   */
+  public MethodSymbol getMethodFromHandle(long handle) {
+    MethodSymbol[] handles = methodHandles;
+    return handle > 0 && handle < handles.length ? handles[(int) handle] : null;
+  }
+
+  // region task pool
+  /**
+   * Gets the pool running Task.Run and Parallel.For work. Its workers are host threads, {@link
+   * ForkJoinPool} only runs its own worker threads and those cannot be created by {@link
+   * TruffleLanguage.Env#createThread}. Workers enter the context in {@link #runGuestWork} only
+   * while they run guest work, an idle worker is not entered, it does not hold back safepoints nor
+   * the close of the context.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public ForkJoinPool getTaskPool() {
+    ForkJoinPool pool = taskPool;
+    if (pool == null) {
+      synchronized (this) {
+        if (taskPool == null) {
+          taskPool = new ForkJoinPool(getParallelism());
+        }
+        pool = taskPool;
+      }
+    }
+
+    return pool;
+  }
+
+  /**
+   * Resolved when the pool is created rather than with the context, a context pre-initialized in a
+   * native image would otherwise keep the processor count of the machine that built the image.
+   */
+  private int getParallelism() {
+    int parallelismOption = env.getOptions().get(CILOSTAZOLEngineOption.PARALLELISM);
+    return parallelismOption > 0 ? parallelismOption : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Runs guest work on a worker of the task pool, entered in the context. Work run by a thread
+   * already entered, a worker running a range it stole back, enters again.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public <T> T runGuestWork(Supplier<T> work) {
+    TruffleContext truffleContext = env.getContext();
+    Object previousContext = truffleContext.enter(null);
+    try {
+      return work.get();
+    } finally {
+      truffleContext.leave(null, previousContext);
+    }
+  }
+
+  /** Stops the workers, no guest work runs on them after the context is finalized. */
+  @CompilerDirectives.TruffleBoundary
+  public void shutdownTaskPool() {
+    ForkJoinPool pool;
+    synchronized (this) {
+      pool = taskPool;
+    }
+    if (pool == null) return;
+
+    pool.shutdownNow();
+    try {
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+  // endregion
+
   // region symbol resolution
+  /**
+   * Gets the symbol cached for the key, creating it when missing. Creating a symbol resolves other
+   * symbols through the same caches, which {@link ConcurrentHashMap#computeIfAbsent} does not
+   * allow, so it is created outside of the map. Threads racing on a key all get the symbol
+   * published first.
+   */
+  private static <K, V> V getOrCreate(Map<K, V> cache, K key, Function<K, V> factory) {
+    V result = cache.get(key);
+    if (result == null) {
+      V created = factory.apply(key);
+      if (created == null) return null;
+
+      result = cache.putIfAbsent(key, created);
+      if (result == null) result = created;
+    }
+
+    return result;
+  }
+
   public ArrayTypeSymbol resolveArray(
       TypeSymbol elemType, int rank, int[] lengths, int[] lowerBounds) {
     var cacheKey = new ArrayCacheKey(elemType, rank);
 
-    return arrayCache.computeIfAbsent(
+    return getOrCreate(
+        arrayCache,
         cacheKey,
         k -> {
           if (k.rank() == 1)
@@ -171,29 +428,22 @@ public class CILOSTAZOLContext {
   public NamedTypeSymbol resolveType(String name, String namespace, AssemblyIdentity assembly) {
     var cacheKey = new TypeDefinitionCacheKey(name, namespace, assembly);
 
-    if (typeDefinitionCache.containsKey(cacheKey)) {
-      return typeDefinitionCache.get(cacheKey);
-    } else {
-
-      AssemblySymbol assemblySymbol = resolveAssembly(assembly);
-      var defAssembly = assemblySymbol.getLocalTypeDefiningAssembly(name, namespace);
-      cacheKey = new TypeDefinitionCacheKey(name, namespace, defAssembly);
-      assemblySymbol = resolveAssembly(cacheKey.assemblyIdentity());
-
-      if (typeDefinitionCache.containsKey(cacheKey)) {
-        return typeDefinitionCache.get(cacheKey);
-      }
-
-      if (assemblySymbol != null) {
-        var result = assemblySymbol.getLocalType(cacheKey.name(), cacheKey.namespace());
-        if (result != null) {
-          typeDefinitionCache.put(cacheKey, result);
-          return result;
-        }
-      }
-
-      return null;
+    var result = typeDefinitionCache.get(cacheKey);
+    if (result != null) {
+      return result;
     }
+
+    AssemblySymbol assemblySymbol = resolveAssembly(assembly);
+    var defAssembly = assemblySymbol.getLocalTypeDefiningAssembly(name, namespace);
+    return getOrCreate(
+        typeDefinitionCache,
+        new TypeDefinitionCacheKey(name, namespace, defAssembly),
+        k -> {
+          var definingAssembly = resolveAssembly(k.assemblyIdentity());
+          return definingAssembly == null
+              ? null
+              : definingAssembly.getLocalType(k.name(), k.namespace());
+        });
   }
 
   /** This should be used on any path that queries a type. @ApiNote uses cache. */
@@ -201,19 +451,15 @@ public class CILOSTAZOLContext {
 
     var cacheKey = new TypeInstantiationCacheKey(type, typeArgs);
 
-    return typeInstantiationCache.computeIfAbsent(
-        cacheKey, k -> k.genType().construct(k.typeArgs()));
+    return getOrCreate(typeInstantiationCache, cacheKey, k -> k.genType().construct(k.typeArgs()));
   }
 
   public MethodSymbol resolveGenericMethodInstantiation(
       MethodSymbol method, TypeSymbol[] typeArgs) {
     var cacheKey = new MethodInstantiationCacheKey(method, typeArgs);
 
-    return methodInstantiationCache.computeIfAbsent(
-        cacheKey,
-        k -> {
-          return k.genMethod().construct(k.typeArgs());
-        });
+    return getOrCreate(
+        methodInstantiationCache, cacheKey, k -> k.genMethod().construct(k.typeArgs()));
   }
 
   public AssemblySymbol resolveAssembly(AssemblyIdentity assemblyIdentity) {
@@ -244,6 +490,11 @@ public class CILOSTAZOLContext {
       File file = new File(path.toString() + "/" + assemblyIdentity.getName() + ".dll");
       if (file.exists()) {
         try {
+          if (shareLibraries)
+            return loadAssembly(
+                AssemblySymbol.AssemblySymbolFactory.create(
+                    SharedLibraries.get(getEnv().getInternalTruffleFile(file.getPath()))));
+
           return loadAssembly(
               Source.newBuilder(
                       CILOSTAZOLLanguage.ID,
@@ -266,9 +517,17 @@ public class CILOSTAZOLContext {
   }
 
   public AssemblySymbol loadAssembly(Source source) {
-    var result = AssemblySymbol.AssemblySymbolFactory.create(source);
-    appDomain.loadAssembly(result);
-    return result;
+    return loadAssembly(AssemblySymbol.AssemblySymbolFactory.create(source));
+  }
+
+  private AssemblySymbol loadAssembly(AssemblySymbol assembly) {
+    appDomain.loadAssembly(assembly);
+    return assembly;
+  }
+
+  /** The bindings of the language, the loaded assemblies. */
+  public CILOSTAZOLScope getScope() {
+    return scope;
   }
 
   public NamedTypeSymbol getBoolean() {
@@ -391,6 +650,15 @@ public class CILOSTAZOLContext {
     return String;
   }
 
+  /**
+   * Equal instantiations of a generic interface are not necessarily the same symbol, so they are
+   * given the same id here.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public int getInterfaceId(NamedTypeSymbol iface) {
+    return interfaceIds.computeIfAbsent(iface, key -> interfaceCount.getAndIncrement());
+  }
+
   public NamedTypeSymbol getArray() {
     if (Array == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -419,20 +687,13 @@ public class CILOSTAZOLContext {
 
   // region shapes
   public StaticProperty getArrayProperty() {
-    if (arrayProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      arrayProperty = new DefaultStaticProperty("array");
-    }
     return arrayProperty;
   }
 
   public StaticShape<StaticObject.StaticObjectFactory> getArrayShape() {
     if (arrayShape == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      arrayShape =
-          StaticShape.newBuilder(CILOSTAZOLLanguage.get(null))
-              .property(getArrayProperty(), Object.class, true)
-              .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+      createShapes();
     }
     return arrayShape;
   }
@@ -440,115 +701,113 @@ public class CILOSTAZOLContext {
   public StaticShape<StaticObject.StaticObjectFactory> getStackReferenceShape() {
     if (stackReferenceShape == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      stackReferenceShape =
-          StaticShape.newBuilder(CILOSTAZOLLanguage.get(null))
-              .property(getStackReferenceFrameProperty(), Object.class, true)
-              .property(getStackReferenceIndexProperty(), int.class, true)
-              .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+      createShapes();
     }
     return stackReferenceShape;
   }
 
   public StaticProperty getStackReferenceFrameProperty() {
-    if (stackReferenceFrameProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      stackReferenceFrameProperty = new DefaultStaticProperty("frame");
-    }
     return stackReferenceFrameProperty;
   }
 
   public StaticProperty getStackReferenceIndexProperty() {
-    if (stackReferenceIndexProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      stackReferenceIndexProperty = new DefaultStaticProperty("index");
-    }
     return stackReferenceIndexProperty;
   }
 
   public StaticShape<StaticObject.StaticObjectFactory> getFieldReferenceShape() {
     if (fieldReferenceShape == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      fieldReferenceShape =
-          StaticShape.newBuilder(CILOSTAZOLLanguage.get(null))
-              .property(getFieldReferenceObjectProperty(), Object.class, true)
-              .property(getFieldReferenceFieldProperty(), Object.class, true)
-              .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+      createShapes();
     }
     return fieldReferenceShape;
   }
 
   public StaticProperty getFieldReferenceObjectProperty() {
-    if (fieldReferenceObjectProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      fieldReferenceObjectProperty = new DefaultStaticProperty("object");
-    }
     return fieldReferenceObjectProperty;
   }
 
   public StaticProperty getFieldReferenceFieldProperty() {
-    if (fieldReferenceFieldProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      fieldReferenceFieldProperty = new DefaultStaticProperty("field");
-    }
     return fieldReferenceFieldProperty;
   }
 
   public StaticShape<StaticObject.StaticObjectFactory> getArrayElementReferenceShape() {
     if (arrayElementReferenceShape == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      arrayElementReferenceShape =
-          StaticShape.newBuilder(CILOSTAZOLLanguage.get(null))
-              .property(getArrayElementReferenceArrayProperty(), Object.class, true)
-              .property(getArrayElementReferenceIndexProperty(), int.class, true)
-              .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+      createShapes();
     }
     return arrayElementReferenceShape;
   }
 
   public StaticProperty getArrayElementReferenceArrayProperty() {
-    if (arrayElementReferenceArrayProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      arrayElementReferenceArrayProperty = new DefaultStaticProperty("array");
-    }
     return arrayElementReferenceArrayProperty;
   }
 
   public StaticProperty getArrayElementReferenceIndexProperty() {
-    if (arrayElementReferenceIndexProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      arrayElementReferenceIndexProperty = new DefaultStaticProperty("index");
-    }
     return arrayElementReferenceIndexProperty;
   }
 
   public StaticShape<StaticObject.StaticObjectFactory> getTypedReferenceShape() {
     if (typedReferenceShape == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      typedReferenceShape =
-          StaticShape.newBuilder(CILOSTAZOLLanguage.get(null))
-              .property(getTypedReferenceInnerRefProperty(), StaticObject.class, true)
-              .property(getTypedReferenceTypeTokenProperty(), CLITablePtr.class, true)
-              .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+      createShapes();
     }
     return typedReferenceShape;
   }
 
   public StaticProperty getTypedReferenceInnerRefProperty() {
-    if (typedReferenceInnerRefProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      typedReferenceInnerRefProperty = new DefaultStaticProperty("innerRef");
-    }
-
     return typedReferenceInnerRefProperty;
   }
 
   public StaticProperty getTypedReferenceTypeTokenProperty() {
-    if (typedReferenceTypeTokenProperty == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      typedReferenceTypeTokenProperty = new DefaultStaticProperty("typeToken");
-    }
-
     return typedReferenceTypeTokenProperty;
   }
+
+  public StaticShape<StaticObject.StaticObjectFactory> getMethodPointerShape() {
+    if (methodPointerShape == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      createShapes();
+    }
+    return methodPointerShape;
+  }
+
+  public StaticProperty getMethodPointerMethodProperty() {
+    return methodPointerMethodProperty;
+  }
+
+  /** Objects of one kind created by different threads must share the shape, it is built once. */
+  private synchronized void createShapes() {
+    if (typedReferenceShape != null) return;
+
+    var lang = CILOSTAZOLLanguage.get(null);
+    arrayShape =
+        StaticShape.newBuilder(lang)
+            .property(arrayProperty, Object.class, true)
+            .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+    stackReferenceShape =
+        StaticShape.newBuilder(lang)
+            .property(stackReferenceFrameProperty, Object.class, true)
+            .property(stackReferenceIndexProperty, int.class, true)
+            .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+    fieldReferenceShape =
+        StaticShape.newBuilder(lang)
+            .property(fieldReferenceObjectProperty, Object.class, true)
+            .property(fieldReferenceFieldProperty, Object.class, true)
+            .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+    arrayElementReferenceShape =
+        StaticShape.newBuilder(lang)
+            .property(arrayElementReferenceArrayProperty, Object.class, true)
+            .property(arrayElementReferenceIndexProperty, int.class, true)
+            .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+    methodPointerShape =
+        StaticShape.newBuilder(lang)
+            .property(methodPointerMethodProperty, Object.class, true)
+            .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+    // Published last, it marks all shapes as created
+    typedReferenceShape =
+        StaticShape.newBuilder(lang)
+            .property(typedReferenceInnerRefProperty, StaticObject.class, true)
+            .property(typedReferenceTypeTokenProperty, CLITablePtr.class, true)
+            .build(StaticObject.class, StaticObject.StaticObjectFactory.class);
+  }
   // endregion
 }
@@ -0,0 +1,46 @@
+package com.vztekoverflow.cilostazol.runtime.context;
+
+import com.oracle.truffle.api.TruffleFile;
+import com.vztekoverflow.cil.parser.cli.CLIFile;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.graalvm.polyglot.io.ByteSequence;
+
+/**
+ * Parsed metadata of library files shared by all contexts of the process, used while {@code
+ * cil.shareLibraries} is enabled. The metadata is immutable, only the symbols created from it
+ * belong to a context. Entries are dropped under memory pressure and parsed again when the file
+ * changes.
+ *
+ * <p>A {@link CLIFile} is safe to share between threads: its fields are final, readers create their
+ * own cursors into its bytes and methods copy their bytecode before patching it. The map publishes
+ * it safely to other threads.
+ */
+final class SharedLibraries {
+  private static final Map<String, Entry> FILES = new ConcurrentHashMap<>();
+
+  private record Entry(long size, long lastModified, SoftReference<CLIFile> file) {}
+
+  private SharedLibraries() {}
+
+  /** Files are read through the file system of the context, like other internal resources. */
+  static CLIFile get(TruffleFile path) throws IOException {
+    final TruffleFile file = path.getAbsoluteFile().normalize();
+    final String key = file.getPath();
+    final long size = file.size();
+    final long lastModified = file.getLastModifiedTime().toMillis();
+
+    Entry entry = FILES.get(key);
+    CLIFile result = entry == null ? null : entry.file().get();
+    if (result != null && entry.size() == size && entry.lastModified() == lastModified)
+      return result;
+
+    // Concurrent misses parse the file twice, one of the results is kept
+    // The path locates the portable PDB next to the library
+    result = CLIFile.parse(file.getName(), key, ByteSequence.create(file.readAllBytes()));
+    FILES.put(key, new Entry(size, lastModified, new SoftReference<>(result)));
+    return result;
+  }
+}
@@ -0,0 +1,293 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.vztekoverflow.cilostazol.nodes.internal.CollectionMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Interop of guest arrays, working directly on the Java arrays backing them. Elements convert like
+ * arguments and return values of invoked methods. Arrays of bytes are also buffers, read and
+ * written in place.
+ */
+public final class ArrayInterop {
+  private static final VarHandle SHORT_LITTLE_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle SHORT_BIG_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle INT_LITTLE_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle INT_BIG_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONG_LITTLE_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle LONG_BIG_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle FLOAT_LITTLE_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle FLOAT_BIG_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+  private static final VarHandle DOUBLE_LITTLE_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle DOUBLE_BIG_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.BIG_ENDIAN);
+
+  private ArrayInterop() {}
+
+  // region array elements
+  public static long getArraySize(StaticObject array) throws UnsupportedMessageException {
+    if (!array.isArray()) throw UnsupportedMessageException.create();
+
+    return CollectionMethodImplementations.getLength(array);
+  }
+
+  public static boolean isElementInBounds(StaticObject array, long index) {
+    return array.isArray()
+        && index >= 0
+        && index < CollectionMethodImplementations.getLength(array);
+  }
+
+  public static Object readElement(StaticObject array, long index)
+      throws UnsupportedMessageException, InvalidArrayIndexException {
+    checkIndex(array, index);
+
+    TypeSymbol elementType = getElementType(array);
+    return InvokeMethodNode.toHostValue(
+        CollectionMethodImplementations.loadElement(array, (int) index), elementType);
+  }
+
+  public static void writeElement(
+      StaticObject array, long index, Object value, ToGuestValueNode toGuest)
+      throws UnsupportedMessageException, InvalidArrayIndexException, UnsupportedTypeException {
+    checkIndex(array, index);
+
+    CollectionMethodImplementations.storeElement(
+        array, (int) index, toGuest.execute(value, getElementType(array)));
+  }
+
+  private static void checkIndex(StaticObject array, long index)
+      throws UnsupportedMessageException, InvalidArrayIndexException {
+    if (!array.isArray()) throw UnsupportedMessageException.create();
+    if (!isElementInBounds(array, index)) throw InvalidArrayIndexException.create(index);
+  }
+
+  private static TypeSymbol getElementType(StaticObject array) {
+    return ((ArrayTypeSymbol) array.getTypeSymbol()).getElementType();
+  }
+  // endregion
+
+  // region buffer elements
+  /**
+   * @return the bytes backing the array, or null if the object is not an array of bytes
+   */
+  public static byte[] getBytes(StaticObject object) {
+    if (!object.isArray()) return null;
+
+    Object javaArray = CILOSTAZOLContext.get(null).getArrayProperty().getObject(object);
+    return javaArray instanceof byte[] bytes ? bytes : null;
+  }
+
+  public static byte[] getBuffer(StaticObject object) throws UnsupportedMessageException {
+    byte[] bytes = getBytes(object);
+    if (bytes == null) throw UnsupportedMessageException.create();
+
+    return bytes;
+  }
+
+  public static byte readByte(byte[] buffer, long offset) throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Byte.BYTES);
+    return buffer[(int) offset];
+  }
+
+  public static void writeByte(byte[] buffer, long offset, byte value)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Byte.BYTES);
+    buffer[(int) offset] = value;
+  }
+
+  public static short readShort(byte[] buffer, ByteOrder order, long offset)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Short.BYTES);
+    return order == ByteOrder.LITTLE_ENDIAN
+        ? (short) SHORT_LITTLE_ENDIAN.get(buffer, (int) offset)
+        : (short) SHORT_BIG_ENDIAN.get(buffer, (int) offset);
+  }
+
+  public static void writeShort(byte[] buffer, ByteOrder order, long offset, short value)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Short.BYTES);
+    if (order == ByteOrder.LITTLE_ENDIAN) SHORT_LITTLE_ENDIAN.set(buffer, (int) offset, value);
+    else SHORT_BIG_ENDIAN.set(buffer, (int) offset, value);
+  }
+
+  public static int readInt(byte[] buffer, ByteOrder order, long offset)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Integer.BYTES);
+    return order == ByteOrder.LITTLE_ENDIAN
+        ? (int) INT_LITTLE_ENDIAN.get(buffer, (int) offset)
+        : (int) INT_BIG_ENDIAN.get(buffer, (int) offset);
+  }
+
+  public static void writeInt(byte[] buffer, ByteOrder order, long offset, int value)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Integer.BYTES);
+    if (order == ByteOrder.LITTLE_ENDIAN) INT_LITTLE_ENDIAN.set(buffer, (int) offset, value);
+    else INT_BIG_ENDIAN.set(buffer, (int) offset, value);
+  }
+
+  public static long readLong(byte[] buffer, ByteOrder order, long offset)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Long.BYTES);
+    return order == ByteOrder.LITTLE_ENDIAN
+        ? (long) LONG_LITTLE_ENDIAN.get(buffer, (int) offset)
+        : (long) LONG_BIG_ENDIAN.get(buffer, (int) offset);
+  }
+
+  public static void writeLong(byte[] buffer, ByteOrder order, long offset, long value)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Long.BYTES);
+    if (order == ByteOrder.LITTLE_ENDIAN) LONG_LITTLE_ENDIAN.set(buffer, (int) offset, value);
+    else LONG_BIG_ENDIAN.set(buffer, (int) offset, value);
+  }
+
+  public static float readFloat(byte[] buffer, ByteOrder order, long offset)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Float.BYTES);
+    return order == ByteOrder.LITTLE_ENDIAN
+        ? (float) FLOAT_LITTLE_ENDIAN.get(buffer, (int) offset)
+        : (float) FLOAT_BIG_ENDIAN.get(buffer, (int) offset);
+  }
+
+  public static void writeFloat(byte[] buffer, ByteOrder order, long offset, float value)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Float.BYTES);
+    if (order == ByteOrder.LITTLE_ENDIAN) FLOAT_LITTLE_ENDIAN.set(buffer, (int) offset, value);
+    else FLOAT_BIG_ENDIAN.set(buffer, (int) offset, value);
+  }
+
+  public static double readDouble(byte[] buffer, ByteOrder order, long offset)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Double.BYTES);
+    return order == ByteOrder.LITTLE_ENDIAN
+        ? (double) DOUBLE_LITTLE_ENDIAN.get(buffer, (int) offset)
+        : (double) DOUBLE_BIG_ENDIAN.get(buffer, (int) offset);
+  }
+
+  public static void writeDouble(byte[] buffer, ByteOrder order, long offset, double value)
+      throws InvalidBufferOffsetException {
+    checkOffset(buffer, offset, Double.BYTES);
+    if (order == ByteOrder.LITTLE_ENDIAN) DOUBLE_LITTLE_ENDIAN.set(buffer, (int) offset, value);
+    else DOUBLE_BIG_ENDIAN.set(buffer, (int) offset, value);
+  }
+
+  private static void checkOffset(byte[] buffer, long offset, int length)
+      throws InvalidBufferOffsetException {
+    if (offset < 0 || offset > buffer.length - length)
+      throw InvalidBufferOffsetException.create(offset, length);
+  }
+  // endregion
+
+  // region host arrays
+  /**
+   * Converts a host array to a guest array. Java arrays of the backing type and byte buffers over a
+   * whole array are shared with the host, other arrays and buffers are copied.
+   */
+  @CompilerDirectives.TruffleBoundary
+  static StaticObject toGuestArray(Object value, ArrayTypeSymbol type, InteropLibrary interop)
+      throws UnsupportedTypeException {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    TruffleLanguage.Env env = context.getEnv();
+    if (env.isHostObject(value)) {
+      Object hostObject = env.asHostObject(value);
+      if (hostObject.getClass() == getBackingClass(type)) {
+        return context.getAllocator().wrapArrayAs(type, hostObject);
+      }
+
+      if (hostObject instanceof ByteBuffer buffer
+          && getBackingClass(type) == byte[].class
+          && buffer.hasArray()
+          && !buffer.isReadOnly()
+          && buffer.arrayOffset() == 0
+          && buffer.position() == 0
+          && buffer.limit() == buffer.array().length) {
+        return context.getAllocator().wrapArrayAs(type, buffer.array());
+      }
+    }
+
+    try {
+      if (interop.hasArrayElements(value)) return copyElements(value, type, interop);
+      if (interop.hasBufferElements(value) && getBackingClass(type) == byte[].class)
+        return copyBytes(value, type, interop);
+    } catch (UnsupportedMessageException | InvalidArrayIndexException e) {
+      // Not an array after all, reported below
+    } catch (InvalidBufferOffsetException e) {
+      throw CompilerDirectives.shouldNotReachHere(e);
+    }
+
+    throw UnsupportedTypeException.create(new Object[] {value});
+  }
+
+  private static StaticObject copyElements(
+      Object value, ArrayTypeSymbol type, InteropLibrary interop)
+      throws UnsupportedMessageException, InvalidArrayIndexException, UnsupportedTypeException {
+    long size = interop.getArraySize(value);
+    if (size > Integer.MAX_VALUE) throw UnsupportedTypeException.create(new Object[] {value});
+
+    StaticObject result = createArray(type, (int) size);
+    ToGuestValueNode toGuest = ToGuestValueNodeGen.getUncached();
+    for (int i = 0; i < size; i++) {
+      CollectionMethodImplementations.storeElement(
+          result, i, toGuest.execute(interop.readArrayElement(value, i), type.getElementType()));
+    }
+
+    return result;
+  }
+
+  private static StaticObject copyBytes(Object value, ArrayTypeSymbol type, InteropLibrary interop)
+      throws UnsupportedMessageException, InvalidBufferOffsetException, UnsupportedTypeException {
+    long size = interop.getBufferSize(value);
+    if (size > Integer.MAX_VALUE) throw UnsupportedTypeException.create(new Object[] {value});
+
+    byte[] bytes = new byte[(int) size];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = interop.readBufferByte(value, i);
+    }
+
+    return CILOSTAZOLContext.get(null).getAllocator().wrapArrayAs(type, bytes);
+  }
+
+  private static StaticObject createArray(ArrayTypeSymbol type, int length) {
+    var allocator = CILOSTAZOLContext.get(null).getAllocator();
+    return getBackingClass(type) == StaticObject[].class
+        ? allocator.createNewReferenceArray(type, length)
+        : allocator.createNewPrimitiveArray(type, length);
+  }
+
+  /** The class of the Java arrays backing guest arrays of the type. */
+  private static Class<?> getBackingClass(ArrayTypeSymbol type) {
+    return switch (type.getElementType().getSystemType()) {
+      case Boolean -> boolean[].class;
+      case Char -> char[].class;
+      case Byte -> byte[].class;
+      case Short -> short[].class;
+      case Int -> int[].class;
+      case Float -> float[].class;
+      case Long -> long[].class;
+      case Double -> double[].class;
+      case Object, Void -> StaticObject[].class;
+    };
+  }
+  // endregion
+}
@@ -0,0 +1,122 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.vztekoverflow.cil.parser.cli.CLIFile;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.symbols.AssemblySymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.ModuleSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import java.util.ArrayList;
+
+/**
+ * A loaded assembly. Its members are its top-level types by their full name, like {@code
+ * System.Console}.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class AssemblyObject implements TruffleObject {
+  // Nested types have the visibility bits set to one of the nested values
+  private static final int VISIBILITY_MASK = 0x7;
+  private static final int VISIBILITY_PUBLIC = 0x1;
+  private static final String MODULE_TYPE_NAME = "<Module>";
+
+  private final AssemblySymbol assembly;
+
+  public AssemblyObject(AssemblySymbol assembly) {
+    this.assembly = assembly;
+  }
+
+  public AssemblySymbol getAssembly() {
+    return assembly;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private String[] getTypeNames() {
+    var result = new ArrayList<String>();
+    for (ModuleSymbol module : assembly.getModules()) {
+      CLIFile file = module.getDefiningFile();
+      for (var row : file.getTableHeads().getTypeDefTableHead()) {
+        var name = row.getTypeNameHeapPtr().read(file.getStringHeap());
+        var namespace = row.getTypeNamespaceHeapPtr().read(file.getStringHeap());
+        if (isMember(row.getFlags(), name)) {
+          result.add(namespace.isEmpty() ? name : namespace + "." + name);
+        }
+      }
+    }
+
+    return result.toArray(String[]::new);
+  }
+
+  /**
+   * Types forwarded to other assemblies are not members, the type definitions are searched
+   * directly.
+   */
+  @CompilerDirectives.TruffleBoundary
+  private NamedTypeSymbol findType(String fullName) {
+    int separator = fullName.lastIndexOf('.');
+    String name = fullName.substring(separator + 1);
+    String namespace = separator < 0 ? "" : fullName.substring(0, separator);
+
+    for (ModuleSymbol module : assembly.getModules()) {
+      CLIFile file = module.getDefiningFile();
+      for (var row : file.getTableHeads().getTypeDefTableHead()) {
+        if (isMember(row.getFlags(), name)
+            && row.getTypeNameHeapPtr().read(file.getStringHeap()).equals(name)
+            && row.getTypeNamespaceHeapPtr().read(file.getStringHeap()).equals(namespace)) {
+          return CILOSTAZOLContext.get(null).resolveType(name, namespace, assembly.getIdentity());
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private static boolean isMember(int flags, String name) {
+    return (flags & VISIBILITY_MASK) <= VISIBILITY_PUBLIC && !name.equals(MODULE_TYPE_NAME);
+  }
+
+  @ExportMessage
+  boolean hasMembers() {
+    return true;
+  }
+
+  @ExportMessage
+  Object getMembers(boolean includeInternal) {
+    return new MemberNames(getTypeNames());
+  }
+
+  @ExportMessage
+  boolean isMemberReadable(String member) {
+    return findType(member) != null;
+  }
+
+  @ExportMessage
+  Object readMember(String member) throws UnknownIdentifierException {
+    NamedTypeSymbol type = findType(member);
+    if (type == null) throw UnknownIdentifierException.create(member);
+
+    return new TypeObject(type);
+  }
+
+  @ExportMessage
+  boolean hasLanguage() {
+    return true;
+  }
+
+  @ExportMessage
+  Class<? extends TruffleLanguage<?>> getLanguage() {
+    return CILOSTAZOLLanguage.class;
+  }
+
+  @ExportMessage
+  @CompilerDirectives.TruffleBoundary
+  Object toDisplayString(boolean allowSideEffects) {
+    return assembly.getIdentity().getName();
+  }
+}
@@ -0,0 +1,81 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import com.vztekoverflow.cilostazol.runtime.other.AppDomain;
+import com.vztekoverflow.cilostazol.runtime.symbols.AssemblySymbol;
+
+/**
+ * The top scope of a context, the bindings of the language. Its members are the loaded assemblies
+ * by name, an assembly is loaded by parsing it or by resolving a reference to it.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class CILOSTAZOLScope implements TruffleObject {
+  private final AppDomain appDomain;
+
+  public CILOSTAZOLScope(AppDomain appDomain) {
+    this.appDomain = appDomain;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private AssemblySymbol findAssembly(String name) {
+    for (AssemblySymbol assembly : appDomain.getAssemblies()) {
+      if (assembly.getIdentity().getName().equals(name)) return assembly;
+    }
+
+    return null;
+  }
+
+  @ExportMessage
+  boolean isScope() {
+    return true;
+  }
+
+  @ExportMessage
+  boolean hasMembers() {
+    return true;
+  }
+
+  @ExportMessage
+  @CompilerDirectives.TruffleBoundary
+  Object getMembers(boolean includeInternal) {
+    return new MemberNames(
+        appDomain.getAssemblies().stream()
+            .map(assembly -> assembly.getIdentity().getName())
+            .toArray(String[]::new));
+  }
+
+  @ExportMessage
+  boolean isMemberReadable(String member) {
+    return findAssembly(member) != null;
+  }
+
+  @ExportMessage
+  Object readMember(String member) throws UnknownIdentifierException {
+    AssemblySymbol assembly = findAssembly(member);
+    if (assembly == null) throw UnknownIdentifierException.create(member);
+
+    return new AssemblyObject(assembly);
+  }
+
+  @ExportMessage
+  boolean hasLanguage() {
+    return true;
+  }
+
+  @ExportMessage
+  Class<? extends TruffleLanguage<?>> getLanguage() {
+    return CILOSTAZOLLanguage.class;
+  }
+
+  @ExportMessage
+  Object toDisplayString(boolean allowSideEffects) {
+    return "global";
+  }
+}
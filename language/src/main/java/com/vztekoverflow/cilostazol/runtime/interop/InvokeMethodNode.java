@@ -0,0 +1,119 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.vztekoverflow.cilostazol.nodes.internal.StringMethodImplementations;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.ParameterSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+
+/**
+ * Calls a static method with host arguments. The call targets of the few methods a call site sees
+ * are cached with a conversion node per parameter, so a host calling a method repeatedly gets a
+ * direct call the compiler can inline.
+ */
+@GenerateUncached
+public abstract class InvokeMethodNode extends Node {
+  static final int CACHE_LIMIT = 4;
+
+  public abstract Object execute(MethodSymbol method, Object[] arguments)
+      throws UnsupportedTypeException;
+
+  @Specialization(guards = "method == cachedMethod", limit = "CACHE_LIMIT")
+  @ExplodeLoop
+  static Object doCached(
+      MethodSymbol method,
+      Object[] arguments,
+      @Cached("method") MethodSymbol cachedMethod,
+      @Cached(value = "getParameterTypes(cachedMethod)", dimensions = 1)
+          TypeSymbol[] parameterTypes,
+      @Cached(value = "createConversions(cachedMethod)") ToGuestValueNode[] conversions,
+      @Cached("create(cachedMethod.getNode().getCallTarget())") DirectCallNode callNode)
+      throws UnsupportedTypeException {
+    Object[] guestArguments = new Object[conversions.length];
+    for (int i = 0; i < conversions.length; i++) {
+      guestArguments[i] = conversions[i].execute(arguments[i], parameterTypes[i]);
+    }
+
+    return toHostValue(callNode.call(guestArguments), cachedMethod.getReturnType().getType());
+  }
+
+  @Specialization(replaces = "doCached")
+  static Object doIndirect(
+      MethodSymbol method,
+      Object[] arguments,
+      @Cached ToGuestValueNode conversion,
+      @Cached IndirectCallNode callNode)
+      throws UnsupportedTypeException {
+    ParameterSymbol[] parameters = method.getParameters();
+    Object[] guestArguments = new Object[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      guestArguments[i] = conversion.execute(arguments[i], parameters[i].getType());
+    }
+
+    return toHostValue(
+        callNode.call(getCallTarget(method), guestArguments), method.getReturnType().getType());
+  }
+
+  static TypeSymbol[] getParameterTypes(MethodSymbol method) {
+    ParameterSymbol[] parameters = method.getParameters();
+    TypeSymbol[] result = new TypeSymbol[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      result[i] = parameters[i].getType();
+    }
+
+    return result;
+  }
+
+  static ToGuestValueNode[] createConversions(MethodSymbol method) {
+    ToGuestValueNode[] result = new ToGuestValueNode[method.getParameters().length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = ToGuestValueNodeGen.create();
+    }
+
+    return result;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static CallTarget getCallTarget(MethodSymbol method) {
+    return method.getNode().getCallTarget();
+  }
+
+  /**
+   * Converts a value of the type back to a host value. Void methods return the guest null, booleans
+   * and chars get their host types back and guest strings are copied to host strings.
+   */
+  static Object toHostValue(Object result, TypeSymbol type) {
+    if (result == null || type == null) return StaticObject.NULL;
+
+    return switch (type.getSystemType()) {
+      case Void -> StaticObject.NULL;
+      case Boolean -> (int) result != 0;
+      case Char -> (char) (int) result;
+      default -> result instanceof StaticObject object && isString(object)
+          ? toHostString(object)
+          : result;
+    };
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static String toHostString(StaticObject string) {
+    return StringMethodImplementations.toJavaString(null, string);
+  }
+
+  private static boolean isString(StaticObject object) {
+    return !StaticObject.isNull(object)
+        && object.getTypeSymbol() == SymbolResolver.getString(CILOSTAZOLContext.get(null));
+  }
+}
@@ -0,0 +1,39 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/** The member names of an interop object, as an array of strings. */
+@ExportLibrary(InteropLibrary.class)
+final class MemberNames implements TruffleObject {
+  private final String[] names;
+
+  MemberNames(String[] names) {
+    this.names = names;
+  }
+
+  @ExportMessage
+  boolean hasArrayElements() {
+    return true;
+  }
+
+  @ExportMessage
+  long getArraySize() {
+    return names.length;
+  }
+
+  @ExportMessage
+  boolean isArrayElementReadable(long index) {
+    return index >= 0 && index < names.length;
+  }
+
+  @ExportMessage
+  Object readArrayElement(long index) throws InvalidArrayIndexException {
+    if (!isArrayElementReadable(index)) throw InvalidArrayIndexException.create(index);
+
+    return names[(int) index];
+  }
+}
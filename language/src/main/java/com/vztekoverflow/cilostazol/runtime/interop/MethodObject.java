@@ -0,0 +1,61 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.interop.ArityException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+
+/**
+ * The static methods of a type sharing a name. Hosts keep it to call a method repeatedly without
+ * looking it up by name each time.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class MethodObject implements TruffleObject {
+  private final TypeObject type;
+  private final String name;
+
+  MethodObject(TypeObject type, String name) {
+    this.type = type;
+    this.name = name;
+  }
+
+  @ExportMessage
+  boolean isExecutable() {
+    return true;
+  }
+
+  @ExportMessage
+  Object execute(
+      Object[] arguments, @Cached SelectMethodNode select, @Cached InvokeMethodNode invoke)
+      throws ArityException, UnsupportedTypeException {
+    try {
+      return invoke.execute(select.execute(type, name, arguments), arguments);
+    } catch (UnknownIdentifierException e) {
+      // The type had the method when this object was read
+      throw CompilerDirectives.shouldNotReachHere(e);
+    }
+  }
+
+  @ExportMessage
+  boolean hasLanguage() {
+    return true;
+  }
+
+  @ExportMessage
+  Class<? extends TruffleLanguage<?>> getLanguage() {
+    return CILOSTAZOLLanguage.class;
+  }
+
+  @ExportMessage
+  @CompilerDirectives.TruffleBoundary
+  Object toDisplayString(boolean allowSideEffects) {
+    return type.getType().toString() + "::" + name;
+  }
+}
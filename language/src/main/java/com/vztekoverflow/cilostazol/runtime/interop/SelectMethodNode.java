@@ -0,0 +1,142 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.ArityException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+
+/**
+ * Selects the overload of a static method for host arguments. The overload depends only on the
+ * kinds of the arguments, so the overloads a call site sees are cached by type, name and the kind
+ * of each argument, and selecting one is a comparison of the kinds.
+ */
+@GenerateUncached
+public abstract class SelectMethodNode extends Node {
+  static final int CACHE_LIMIT = 4;
+
+  // The conversions an argument passes, see ToGuestValueNode
+  private static final int NULL = 1;
+  private static final int BOOLEAN = 1 << 1;
+  private static final int STRING = 1 << 2;
+  // A string of length one, it converts to a char as well
+  private static final int CHAR = 1 << 3;
+  private static final int SBYTE = 1 << 4;
+  private static final int BYTE = 1 << 5;
+  private static final int INT16 = 1 << 6;
+  private static final int UINT16 = 1 << 7;
+  private static final int INT32 = 1 << 8;
+  private static final int INT64 = 1 << 9;
+  private static final int DOUBLE = 1 << 10;
+  private static final int ARRAY = 1 << 11;
+  // A guest object, its type is kept next to the kinds
+  private static final int GUEST = 1 << 12;
+
+  public abstract MethodSymbol execute(TypeObject type, String name, Object[] arguments)
+      throws UnknownIdentifierException, ArityException;
+
+  @Specialization(
+      guards = {
+        "type.getType() == cachedType",
+        "cachedName.equals(name)",
+        "arguments.length == cachedKinds.length",
+        "matches(arguments, cachedKinds, cachedGuestTypes, interop)"
+      },
+      limit = "CACHE_LIMIT")
+  static MethodSymbol doCached(
+      TypeObject type,
+      String name,
+      Object[] arguments,
+      @Cached("type.getType()") NamedTypeSymbol cachedType,
+      @Cached("name") String cachedName,
+      @CachedLibrary(limit = "3") InteropLibrary interop,
+      @Cached(value = "getKinds(arguments, interop)", dimensions = 1) int[] cachedKinds,
+      @Cached(value = "getGuestTypes(arguments)", dimensions = 1) TypeSymbol[] cachedGuestTypes,
+      @Cached("type.findMethod(name, arguments)") MethodSymbol cachedMethod)
+      throws UnknownIdentifierException, ArityException {
+    if (cachedMethod == null) {
+      // No overload takes arguments of these kinds, selecting again reports why
+      return type.selectMethod(name, arguments);
+    }
+
+    return cachedMethod;
+  }
+
+  @Specialization(replaces = "doCached")
+  static MethodSymbol doGeneric(TypeObject type, String name, Object[] arguments)
+      throws UnknownIdentifierException, ArityException {
+    return type.selectMethod(name, arguments);
+  }
+
+  @ExplodeLoop
+  static boolean matches(
+      Object[] arguments, int[] kinds, TypeSymbol[] guestTypes, InteropLibrary interop) {
+    for (int i = 0; i < kinds.length; i++) {
+      Object argument = arguments[i];
+      if (kinds[i] == GUEST) {
+        if (!(argument instanceof StaticObject object)
+            || StaticObject.isNull(object)
+            || object.getTypeSymbol() != guestTypes[i]) return false;
+      } else if (getKind(argument, interop) != kinds[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  static int[] getKinds(Object[] arguments, InteropLibrary interop) {
+    int[] result = new int[arguments.length];
+    for (int i = 0; i < arguments.length; i++) {
+      result[i] = getKind(arguments[i], interop);
+    }
+
+    return result;
+  }
+
+  static TypeSymbol[] getGuestTypes(Object[] arguments) {
+    TypeSymbol[] result = new TypeSymbol[arguments.length];
+    for (int i = 0; i < arguments.length; i++) {
+      if (arguments[i] instanceof StaticObject object && !StaticObject.isNull(object))
+        result[i] = object.getTypeSymbol();
+    }
+
+    return result;
+  }
+
+  private static int getKind(Object value, InteropLibrary interop) {
+    if (value instanceof StaticObject object) return StaticObject.isNull(object) ? NULL : GUEST;
+
+    try {
+      if (interop.isNull(value)) return NULL;
+      if (interop.isBoolean(value)) return BOOLEAN;
+      if (interop.isString(value)) return interop.asString(value).length() == 1 ? CHAR : STRING;
+
+      int kind = 0;
+      if (interop.fitsInInt(value)) {
+        int intValue = interop.asInt(value);
+        kind |= INT32;
+        if (intValue >= Byte.MIN_VALUE && intValue <= Byte.MAX_VALUE) kind |= SBYTE;
+        if (intValue >= 0 && intValue <= 0xFF) kind |= BYTE;
+        if (intValue >= Short.MIN_VALUE && intValue <= Short.MAX_VALUE) kind |= INT16;
+        if (intValue >= 0 && intValue <= 0xFFFF) kind |= UINT16;
+      }
+      if (interop.fitsInLong(value)) kind |= INT64;
+      if (interop.fitsInDouble(value)) kind |= DOUBLE;
+      if (interop.hasArrayElements(value) || interop.hasBufferElements(value)) kind |= ARRAY;
+      return kind;
+    } catch (UnsupportedMessageException e) {
+      throw CompilerDirectives.shouldNotReachHere(e);
+    }
+  }
+}
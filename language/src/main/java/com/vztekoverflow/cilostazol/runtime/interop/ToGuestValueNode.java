@@ -0,0 +1,133 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
+import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
+import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
+import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+
+/**
+ * Converts a host value to the representation of a parameter type on the evaluation stack. Booleans
+ * become 0 or 1, chars are strings of length one, host strings become new guest strings and guest
+ * objects are passed as they are. Integers out of the range of a byte or short type are rejected.
+ */
+@GenerateUncached
+public abstract class ToGuestValueNode extends Node {
+  public abstract Object execute(Object value, TypeSymbol type) throws UnsupportedTypeException;
+
+  @Specialization(limit = "3")
+  static Object doConvert(
+      Object value, TypeSymbol type, @CachedLibrary("value") InteropLibrary interop)
+      throws UnsupportedTypeException {
+    try {
+      return switch (type.getStackTypeKind()) {
+        case Int32 -> switch (type.getSystemType()) {
+          case Boolean -> interop.asBoolean(value) ? 1 : 0;
+          case Char -> toChar(value, interop.asString(value));
+          case Byte, Short -> checkRange(value, type, interop.asInt(value));
+          default -> interop.asInt(value);
+        };
+        case Int64 -> interop.asLong(value);
+        case NativeFloat -> interop.asDouble(value);
+        case NativeInt -> interop.asInt(value);
+        case Object -> toObject(value, type, interop);
+        default -> throw UnsupportedTypeException.create(new Object[] {value});
+      };
+    } catch (UnsupportedMessageException e) {
+      throw UnsupportedTypeException.create(new Object[] {value});
+    }
+  }
+
+  private static int toChar(Object value, String string) throws UnsupportedTypeException {
+    if (string.length() != 1) throw UnsupportedTypeException.create(new Object[] {value});
+
+    return string.charAt(0);
+  }
+
+  /** Values out of the range of a small integer type would be truncated by the guest. */
+  private static int checkRange(Object value, TypeSymbol type, int intValue)
+      throws UnsupportedTypeException {
+    boolean inRange =
+        switch (((NamedTypeSymbol) type).getName()) {
+          case "SByte" -> intValue >= Byte.MIN_VALUE && intValue <= Byte.MAX_VALUE;
+          case "Byte" -> intValue >= 0 && intValue <= 0xFF;
+          case "Int16" -> intValue >= Short.MIN_VALUE && intValue <= Short.MAX_VALUE;
+          case "UInt16" -> intValue >= 0 && intValue <= 0xFFFF;
+          default -> true;
+        };
+    if (!inRange) throw UnsupportedTypeException.create(new Object[] {value});
+
+    return intValue;
+  }
+
+  private static StaticObject toObject(Object value, TypeSymbol type, InteropLibrary interop)
+      throws UnsupportedMessageException, UnsupportedTypeException {
+    if (value instanceof StaticObject object) {
+      if (StaticObject.isNull(object) || isAssignable(type, object.getTypeSymbol())) return object;
+    } else if (interop.isNull(value)) {
+      return StaticObject.NULL;
+    } else if (interop.isString(value) && acceptsString(type)) {
+      return createString(interop.asString(value));
+    } else if (type instanceof ArrayTypeSymbol arrayType && arrayType.getRank() == 1) {
+      return ArrayInterop.toGuestArray(value, arrayType, interop);
+    }
+
+    throw UnsupportedTypeException.create(new Object[] {value});
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static boolean isAssignable(TypeSymbol type, TypeSymbol valueType) {
+    return type.isAssignableFrom(valueType);
+  }
+
+  private static boolean acceptsString(TypeSymbol type) {
+    CILOSTAZOLContext context = CILOSTAZOLContext.get(null);
+    return type == SymbolResolver.getString(context) || type == SymbolResolver.getObject(context);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static StaticObject createString(String value) {
+    // Not interned, a host calling in a loop would fill the literal cache
+    return CILOSTAZOLContext.get(null).getAllocator().createStringContent(value, null, 0);
+  }
+
+  /** Whether all arguments convert to the parameter types of the method. */
+  @CompilerDirectives.TruffleBoundary
+  static boolean acceptsAll(MethodSymbol method, Object[] arguments) {
+    ToGuestValueNode node = ToGuestValueNodeGen.getUncached();
+    for (int i = 0; i < arguments.length; i++) {
+      if (!accepts(node, arguments[i], method.getParameters()[i].getType())) return false;
+    }
+
+    return true;
+  }
+
+  private static boolean accepts(ToGuestValueNode node, Object value, TypeSymbol type) {
+    // Strings and arrays are created only by the conversion for the call
+    if (type.getStackTypeKind() == CILOSTAZOLFrame.StackType.Object
+        && !(value instanceof StaticObject)) {
+      InteropLibrary interop = InteropLibrary.getUncached(value);
+      if (interop.isNull(value) || (interop.isString(value) && acceptsString(type))) return true;
+      if (!(type instanceof ArrayTypeSymbol arrayType) || arrayType.getRank() != 1) return false;
+      return interop.hasArrayElements(value) || interop.hasBufferElements(value);
+    }
+
+    try {
+      node.execute(value, type);
+      return true;
+    } catch (UnsupportedTypeException e) {
+      return false;
+    }
+  }
+}
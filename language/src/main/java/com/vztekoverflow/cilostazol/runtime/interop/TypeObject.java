@@ -0,0 +1,154 @@
+package com.vztekoverflow.cilostazol.runtime.interop;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.interop.ArityException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import com.vztekoverflow.cilostazol.runtime.symbols.MethodSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.ParameterSymbol;
+import java.util.Arrays;
+
+/**
+ * A type of a loaded assembly. Its members are its static methods by name, overloads are told apart
+ * by the number and the kinds of the arguments.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class TypeObject implements TruffleObject {
+  private final NamedTypeSymbol type;
+
+  public TypeObject(NamedTypeSymbol type) {
+    this.type = type;
+  }
+
+  public NamedTypeSymbol getType() {
+    return type;
+  }
+
+  /** Generic methods and methods with by-ref parameters can not be called with host values. */
+  private static boolean isInvocable(MethodSymbol method) {
+    if (!method.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.STATIC)
+        || method.getName().equals(".cctor")
+        || method.getTypeParameters().length != 0) return false;
+
+    for (ParameterSymbol parameter : method.getParameters()) {
+      if (parameter.isByRef()) return false;
+    }
+
+    return true;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  boolean hasMethod(String name) {
+    for (MethodSymbol method : type.getMethods()) {
+      if (isInvocable(method) && method.getName().equals(name)) return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Selects the overload for the arguments, the first one the arguments can be converted for. Call
+   * sites cache the selection in {@link SelectMethodNode}.
+   *
+   * @throws ArityException if no overload takes that many arguments
+   */
+  @CompilerDirectives.TruffleBoundary
+  MethodSymbol selectMethod(String name, Object[] arguments)
+      throws UnknownIdentifierException, ArityException {
+    MethodSymbol candidate = null;
+    int minArity = Integer.MAX_VALUE;
+    int maxArity = -1;
+    for (MethodSymbol method : type.getMethods()) {
+      if (!isInvocable(method) || !method.getName().equals(name)) continue;
+
+      int arity = method.getParameters().length;
+      minArity = Math.min(minArity, arity);
+      maxArity = Math.max(maxArity, arity);
+      if (arity != arguments.length) continue;
+
+      if (ToGuestValueNode.acceptsAll(method, arguments)) return method;
+      if (candidate == null) candidate = method;
+    }
+
+    if (maxArity < 0) throw UnknownIdentifierException.create(name);
+    if (candidate == null) throw ArityException.create(minArity, maxArity, arguments.length);
+    // Converting the arguments reports which of them does not fit
+    return candidate;
+  }
+
+  /** Selects the overload like {@link #selectMethod}, null if that throws. */
+  MethodSymbol findMethod(String name, Object[] arguments) {
+    try {
+      return selectMethod(name, arguments);
+    } catch (UnknownIdentifierException | ArityException e) {
+      return null;
+    }
+  }
+
+  @ExportMessage
+  boolean hasMembers() {
+    return true;
+  }
+
+  @ExportMessage
+  @CompilerDirectives.TruffleBoundary
+  Object getMembers(boolean includeInternal) {
+    return new MemberNames(
+        Arrays.stream(type.getMethods())
+            .filter(TypeObject::isInvocable)
+            .map(MethodSymbol::getName)
+            .distinct()
+            .toArray(String[]::new));
+  }
+
+  @ExportMessage
+  boolean isMemberReadable(String member) {
+    return hasMethod(member);
+  }
+
+  @ExportMessage
+  boolean isMemberInvocable(String member) {
+    return hasMethod(member);
+  }
+
+  @ExportMessage
+  Object readMember(String member) throws UnknownIdentifierException {
+    if (!hasMethod(member)) throw UnknownIdentifierException.create(member);
+
+    return new MethodObject(this, member);
+  }
+
+  @ExportMessage
+  Object invokeMember(
+      String member,
+      Object[] arguments,
+      @Cached SelectMethodNode select,
+      @Cached InvokeMethodNode invoke)
+      throws UnknownIdentifierException, ArityException, UnsupportedTypeException {
+    return invoke.execute(select.execute(this, member, arguments), arguments);
+  }
+
+  @ExportMessage
+  boolean hasLanguage() {
+    return true;
+  }
+
+  @ExportMessage
+  Class<? extends TruffleLanguage<?>> getLanguage() {
+    return CILOSTAZOLLanguage.class;
+  }
+
+  @ExportMessage
+  @CompilerDirectives.TruffleBoundary
+  Object toDisplayString(boolean allowSideEffects) {
+    return type.toString();
+  }
+}
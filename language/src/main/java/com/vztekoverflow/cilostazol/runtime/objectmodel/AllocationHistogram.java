@@ -0,0 +1,88 @@
+package com.vztekoverflow.cilostazol.runtime.objectmodel;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.vztekoverflow.cilostazol.runtime.symbols.ArrayTypeSymbol;
+import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the objects guest code allocates and their estimated sizes, by type and by the method
+ * allocating them. Enabled by the {@code cil.allocationHistogram} option, the counts are printed
+ * when the context is closed.
+ */
+public final class AllocationHistogram {
+  private static final int PRINTED_ROWS = 25;
+  private static final String UNKNOWN_SITE = "<unknown>";
+
+  private final Map<TypeSymbol, Counter> byType = new ConcurrentHashMap<>();
+  private final Map<String, Counter> bySite = new ConcurrentHashMap<>();
+
+  private static final class Counter {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    private void add(long size) {
+      count.increment();
+      bytes.add(size);
+    }
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  public void record(TypeSymbol type, long size) {
+    byType.computeIfAbsent(type, t -> new Counter()).add(size);
+    bySite.computeIfAbsent(findSite(), s -> new Counter()).add(size);
+  }
+
+  /** Arrays print as System.Array on their own, signatures of intrinsics rely on it. */
+  private static String getName(Object type) {
+    if (type instanceof ArrayTypeSymbol array) {
+      return getName(array.getElementType()) + "[" + ",".repeat(array.getRank() - 1) + "]";
+    }
+
+    return type.toString();
+  }
+
+  /** The name of the innermost guest method on the stack. */
+  private static String findSite() {
+    String site =
+        Truffle.getRuntime()
+            .iterateFrames(
+                frame -> {
+                  if (!(frame.getCallTarget() instanceof RootCallTarget target)) return null;
+
+                  RootNode root = target.getRootNode();
+                  return root.isInternal() ? null : root.getName();
+                });
+    return site == null ? UNKNOWN_SITE : site;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  public void print(PrintStream out) {
+    out.println("Allocations by type:");
+    printTable(out, byType);
+    out.println("Allocations by method:");
+    printTable(out, bySite);
+    out.flush();
+  }
+
+  private static <K> void printTable(PrintStream out, Map<K, Counter> counters) {
+    out.printf("  %14s %16s  %s%n", "count", "bytes", "name");
+    counters.entrySet().stream()
+        .sorted(
+            Comparator.comparingLong((Map.Entry<K, Counter> e) -> e.getValue().bytes.sum())
+                .reversed())
+        .limit(PRINTED_ROWS)
+        .forEach(
+            e ->
+                out.printf(
+                    "  %14d %16d  %s%n",
+                    e.getValue().count.sum(), e.getValue().bytes.sum(), getName(e.getKey())));
+  }
+}
@@ -1,11 +1,11 @@
 package com.vztekoverflow.cilostazol.runtime.objectmodel;
 
-import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.AllocationReporter;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.staticobject.StaticProperty;
 import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
 import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
 import com.vztekoverflow.cilostazol.exceptions.*;
@@ -17,17 +17,31 @@ import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
 import com.vztekoverflow.cilostazol.runtime.symbols.*;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class GuestAllocator {
+  // Estimates of a 64-bit heap with compressed references, reported with each allocation
+  public static final int OBJECT_HEADER_SIZE = 16;
+  public static final int ARRAY_HEADER_SIZE = 16;
+  public static final int REFERENCE_SIZE = 4;
+  private static final int REFERENCE_OBJECT_SIZE = OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE;
+
   private final CILOSTAZOLLanguage language;
   private final AllocationReporter allocationReporter;
-  private final Map<String, StaticObject> stringCache = new HashMap<>();
+  private final AllocationHistogram histogram;
+  private final Map<String, StaticObject> stringCache = new ConcurrentHashMap<>();
 
-  public GuestAllocator(CILOSTAZOLLanguage language, AllocationReporter allocationReporter) {
+  public GuestAllocator(
+      CILOSTAZOLLanguage language,
+      AllocationReporter allocationReporter,
+      AllocationHistogram histogram) {
     this.language = language;
     this.allocationReporter = allocationReporter;
+    this.histogram = histogram;
+    if (histogram != null) {
+      language.invalidateAllocationTrackingDisabled();
+    }
     if (allocationReporter != null) {
       // Can be already active, in which case the active value change notification is missed.
       if (allocationReporter.isActive()) {
@@ -72,22 +86,6 @@ public final class GuestAllocator {
     }
   }
 
-  private static StaticObject trackAllocation(
-      NamedTypeSymbol typeSymbol, StaticObject obj, CILOSTAZOLLanguage lang, Symbol symbol) {
-    if (typeSymbol == null || lang.isAllocationTrackingDisabled()) {
-      return obj;
-    }
-    if (!CompilerDirectives.isPartialEvaluationConstant(symbol)) {
-      return trackAllocationBoundary(symbol, obj);
-    }
-    return symbol.getContext().getAllocator().trackAllocation(obj);
-  }
-
-  @CompilerDirectives.TruffleBoundary
-  private static StaticObject trackAllocationBoundary(Symbol symbol, StaticObject obj) {
-    return symbol.getContext().getAllocator().trackAllocation(obj);
-  }
-
   /**
    * Allocates a new instance of the given class; does not call any constructor. Initializes the
    * class.
@@ -101,10 +99,15 @@ public final class GuestAllocator {
     StaticObject newObj =
         typeSymbol.getShape(frame, topStack, false).getFactory().create(typeSymbol);
     initInstanceFields(newObj, typeSymbol, frame, topStack);
-    return trackAllocation(typeSymbol, newObj);
+    return trackAllocation(newObj, typeSymbol.getInstanceSize(frame, topStack));
   }
 
   public StaticObject box(NamedTypeSymbol typeSymbol, VirtualFrame frame, int slot) {
+    if (typeSymbol.getSystemType() == SystemType.Object) {
+      // Boxing a struct -> it already lives in an object, so no new one has to be allocated
+      return CILOSTAZOLFrame.popObject(frame, slot);
+    }
+
     StaticObject object = createNew(typeSymbol, frame, slot + 1);
     switch (typeSymbol.getSystemType()) {
       case Boolean -> {
@@ -156,11 +159,10 @@ public final class GuestAllocator {
             .setDouble(object, value);
       }
       case Void -> throw new InterpreterException("Cannot box void");
-      case Object -> // Boxing a struct -> we don't need to change any values
-      object = CILOSTAZOLFrame.popObject(frame, slot);
     }
 
-    return trackAllocation(object);
+    // Reported by createNew
+    return object;
   }
 
   public StaticObject unboxToReference(
@@ -228,19 +230,61 @@ public final class GuestAllocator {
     throw new InterpreterException("Could not find reference to object in given frame");
   }
 
-  private StaticObject trackAllocation(NamedTypeSymbol typeSymbol, StaticObject obj) {
-    return trackAllocation(typeSymbol, obj, language, typeSymbol);
-  }
+  // region allocation tracking
+  /**
+   * Reports a new object with its estimated size to allocation instruments and to the allocation
+   * histogram. Free while neither is enabled, the check folds to a constant in compiled code.
+   */
+  private StaticObject trackAllocation(StaticObject object, long size) {
+    if (language.isAllocationTrackingDisabled()) {
+      return object;
+    }
 
-  public <T> T trackAllocation(T object) {
-    if (allocationReporter != null) {
-      CompilerAsserts.partialEvaluationConstant(allocationReporter);
-      allocationReporter.onEnter(null, 0, AllocationReporter.SIZE_UNKNOWN);
-      allocationReporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
+    if (allocationReporter != null && allocationReporter.isActive()) {
+      allocationReporter.onEnter(null, 0, size);
+      allocationReporter.onReturnValue(object, 0, size);
+    }
+    if (histogram != null) {
+      histogram.record(object.getTypeSymbol(), size);
     }
     return object;
   }
 
+  /**
+   * The size of a field or an array element of the kind, references take {@link #REFERENCE_SIZE}.
+   */
+  public static int getFieldSize(SystemType kind) {
+    return switch (kind) {
+      case Boolean, Byte -> 1;
+      case Char, Short -> 2;
+      case Int, Float -> 4;
+      case Long, Double -> 8;
+      case Void -> 0;
+      case Object -> REFERENCE_SIZE;
+    };
+  }
+
+  private static long getArraySize(Object array) {
+    long elements;
+    if (array instanceof boolean[] a) elements = a.length;
+    else if (array instanceof byte[] a) elements = a.length;
+    else if (array instanceof char[] a) elements = 2L * a.length;
+    else if (array instanceof short[] a) elements = 2L * a.length;
+    else if (array instanceof int[] a) elements = 4L * a.length;
+    else if (array instanceof float[] a) elements = 4L * a.length;
+    else if (array instanceof long[] a) elements = 8L * a.length;
+    else if (array instanceof double[] a) elements = 8L * a.length;
+    else if (array instanceof Object[] a) elements = (long) REFERENCE_SIZE * a.length;
+    else return AllocationReporter.SIZE_UNKNOWN;
+
+    return ARRAY_HEADER_SIZE + elements;
+  }
+
+  public AllocationHistogram getHistogram() {
+    return histogram;
+  }
+  // endregion
+
   // region array creation
   public StaticObject createNewPrimitiveArray(ArrayTypeSymbol arrayType, int length) {
     var elementType = (NamedTypeSymbol) arrayType.getElementType();
@@ -280,7 +324,7 @@ public final class GuestAllocator {
   public StaticObject wrapArrayAs(ArrayTypeSymbol typeSymbol, Object array) {
     StaticObject newObj = typeSymbol.getContext().getArrayShape().getFactory().create(typeSymbol);
     typeSymbol.getContext().getArrayProperty().setObject(newObj, array);
-    return trackAllocation(newObj);
+    return trackAllocation(newObj, getArraySize(array));
   }
   // endregion
 
@@ -290,7 +334,7 @@ public final class GuestAllocator {
         reference.getContext().getStackReferenceShape().getFactory().create(reference);
     reference.getContext().getStackReferenceFrameProperty().setObject(newRef, frame);
     reference.getContext().getStackReferenceIndexProperty().setInt(newRef, index);
-    return newRef;
+    return trackAllocation(newRef, REFERENCE_OBJECT_SIZE);
   }
 
   public StaticObject createFieldReference(
@@ -299,7 +343,7 @@ public final class GuestAllocator {
         reference.getContext().getFieldReferenceShape().getFactory().create(reference);
     reference.getContext().getFieldReferenceFieldProperty().setObject(newRef, field);
     reference.getContext().getFieldReferenceObjectProperty().setObject(newRef, referent);
-    return newRef;
+    return trackAllocation(newRef, REFERENCE_OBJECT_SIZE);
   }
 
   public StaticObject createArrayElementReference(
@@ -308,7 +352,7 @@ public final class GuestAllocator {
         reference.getContext().getArrayElementReferenceShape().getFactory().create(reference);
     reference.getContext().getArrayElementReferenceArrayProperty().setObject(newRef, array);
     reference.getContext().getArrayElementReferenceIndexProperty().setInt(newRef, elemIndex);
-    return newRef;
+    return trackAllocation(newRef, REFERENCE_OBJECT_SIZE);
   }
 
   public StaticObject createTypedReference(
@@ -317,31 +361,69 @@ public final class GuestAllocator {
         referenceSymbol.getContext().getTypedReferenceShape().getFactory().create(referenceSymbol);
     referenceSymbol.getContext().getTypedReferenceInnerRefProperty().setObject(newRef, reference);
     referenceSymbol.getContext().getTypedReferenceTypeTokenProperty().setObject(newRef, token);
-    return newRef;
+    return trackAllocation(newRef, REFERENCE_OBJECT_SIZE);
+  }
+
+  /** Creates the native int pushed by ldftn and ldvirtftn, it identifies the loaded method. */
+  public StaticObject createMethodPointer(MethodSymbol method) {
+    var context = method.getContext();
+    StaticObject pointer = context.getMethodPointerShape().getFactory().create(context.getIntPtr());
+    context.getMethodPointerMethodProperty().setObject(pointer, method);
+    return trackAllocation(pointer, OBJECT_HEADER_SIZE + REFERENCE_SIZE);
+  }
+
+  public static MethodSymbol getPointedMethod(StaticObject pointer) {
+    var context = pointer.getTypeSymbol().getContext();
+    return (MethodSymbol) context.getMethodPointerMethodProperty().getObject(pointer);
+  }
+
+  /**
+   * Gets the host state an intrinsic keeps in the hidden field of the object.
+   *
+   * @return null if the state was not set or the type of the object has no hidden field
+   */
+  public static Object getHostStorage(StaticObject object) {
+    StaticProperty property = ((NamedTypeSymbol) object.getTypeSymbol()).getHostStorageProperty();
+    return property == null ? null : property.getObject(object);
+  }
+
+  /** Sets the host state of the object, its type must have the hidden field. */
+  public static void setHostStorage(StaticObject object, Object storage) {
+    ((NamedTypeSymbol) object.getTypeSymbol()).getHostStorageProperty().setObject(object, storage);
   }
   // endregion
 
   // region string creation
   public StaticObject createString(String value, VirtualFrame frame, int topStack) {
-    return stringCache.computeIfAbsent(
-        value,
-        k -> {
-          final var ctx = CILOSTAZOLContext.get(null);
-          final var stringChar = k.toCharArray();
-
-          final var stringType = SymbolResolver.getString(ctx);
-          final var charType = SymbolResolver.getChar(CILOSTAZOLContext.get(null));
-          final var charArrayType = SymbolResolver.resolveArray(charType, ctx);
-          final var charArray = createNewPrimitiveArray(charArrayType, stringChar.length);
-          ctx.getArrayProperty().setObject(charArray, stringChar);
-
-          final var result = createNew(stringType, frame, topStack);
-          ((NamedTypeSymbol) result.getTypeSymbol())
-              .getInstanceFields(frame, topStack)[0].setInt(result, stringChar.length);
-          ((NamedTypeSymbol) result.getTypeSymbol())
-              .getInstanceFields(frame, topStack)[1].setObject(result, charArray);
-          return result;
-        });
+    // Creating the string can run the static constructors of String and Char, which intern other
+    // strings, so it is not done inside computeIfAbsent. Threads racing on a literal all get the
+    // string published first.
+    var result = stringCache.get(value);
+    if (result == null) {
+      var created = createStringContent(value, frame, topStack);
+      result = stringCache.putIfAbsent(value, created);
+      if (result == null) result = created;
+    }
+
+    return result;
+  }
+
+  /** Creates a string that is not shared through the cache of literals. */
+  public StaticObject createStringContent(String value, VirtualFrame frame, int topStack) {
+    final var ctx = CILOSTAZOLContext.get(null);
+    final var stringChar = value.toCharArray();
+
+    final var stringType = SymbolResolver.getString(ctx);
+    final var charType = SymbolResolver.getChar(CILOSTAZOLContext.get(null));
+    final var charArrayType = SymbolResolver.resolveArray(charType, ctx);
+    final var charArray = wrapArrayAs(charArrayType, stringChar);
+
+    final var result = createNew(stringType, frame, topStack);
+    ((NamedTypeSymbol) result.getTypeSymbol())
+        .getInstanceFields(frame, topStack)[0].setInt(result, stringChar.length);
+    ((NamedTypeSymbol) result.getTypeSymbol())
+        .getInstanceFields(frame, topStack)[1].setObject(result, charArray);
+    return result;
   }
 
   public StaticObject createStringWithoutContent(VirtualFrame frame, int topStack, int length) {
@@ -350,7 +432,6 @@ public final class GuestAllocator {
     final var charType = SymbolResolver.getChar(ctx);
     final var charArrayType = SymbolResolver.resolveArray(charType, ctx);
     final var charArray = createNewPrimitiveArray(charArrayType, length);
-    ctx.getArrayProperty().setObject(charArray, new char[length]);
 
     final var result = createNew(stringType, frame, topStack);
     ((NamedTypeSymbol) result.getTypeSymbol())
@@ -0,0 +1,74 @@
+package com.vztekoverflow.cilostazol.runtime.objectmodel;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleSafepoint;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The host lock behind {@code System.Threading.Monitor}. Entering is reentrant and waiting releases
+ * all entries of the owner. Blocked guest threads still process safepoints, so a context can be
+ * cancelled while they wait.
+ */
+public final class GuestMonitor {
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition condition = lock.newCondition();
+
+  @CompilerDirectives.TruffleBoundary
+  public void enter() {
+    if (lock.tryLock()) return;
+
+    TruffleSafepoint.setBlockedThreadInterruptible(null, ReentrantLock::lockInterruptibly, lock);
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  public boolean tryEnter() {
+    return lock.tryLock();
+  }
+
+  /**
+   * @return false if the current thread does not own the monitor
+   */
+  @CompilerDirectives.TruffleBoundary
+  public boolean exit() {
+    if (!lock.isHeldByCurrentThread()) return false;
+
+    lock.unlock();
+    return true;
+  }
+
+  public boolean isEntered() {
+    return lock.isHeldByCurrentThread();
+  }
+
+  /**
+   * Waits for a pulse of the monitor, which the current thread has to own.
+   *
+   * @param millisecondsTimeout the timeout, -1 waits infinitely
+   * @return false if the timeout elapsed before the monitor was pulsed
+   */
+  @CompilerDirectives.TruffleBoundary
+  public boolean await(int millisecondsTimeout) {
+    boolean[] pulsed = {true};
+    if (millisecondsTimeout < 0) {
+      TruffleSafepoint.setBlockedThreadInterruptible(null, Condition::await, condition);
+    } else {
+      // A safepoint restarts the wait with the full timeout, which can only make it longer
+      TruffleSafepoint.setBlockedThreadInterruptible(
+          null, c -> pulsed[0] = c.await(millisecondsTimeout, TimeUnit.MILLISECONDS), condition);
+    }
+
+    return pulsed[0];
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  public void pulse() {
+    condition.signal();
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  public void pulseAll() {
+    condition.signalAll();
+  }
+}
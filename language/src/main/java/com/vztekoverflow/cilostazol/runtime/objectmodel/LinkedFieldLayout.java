@@ -2,6 +2,8 @@ package com.vztekoverflow.cilostazol.runtime.objectmodel;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.staticobject.DefaultStaticProperty;
+import com.oracle.truffle.api.staticobject.StaticProperty;
 import com.oracle.truffle.api.staticobject.StaticShape;
 import com.vztekoverflow.cilostazol.runtime.context.CILOSTAZOLContext;
 import com.vztekoverflow.cilostazol.runtime.symbols.FieldSymbol;
@@ -19,6 +21,10 @@ public final class LinkedFieldLayout {
   @CompilerDirectives.CompilationFinal(dimensions = 1) //
   public final StaticField[] staticFields;
 
+  // Hidden field with the host state of intrinsics, null if the type declares none. Its id is not
+  // a valid C# identifier, so it never clashes with a declared field
+  public final StaticProperty hostStorageProperty;
+
   final int fieldTableLength;
 
   public LinkedFieldLayout(
@@ -61,6 +67,13 @@ public final class LinkedFieldLayout {
       }
     }
 
+    if (description.hasHostStorage(parserTypeSymbol)) {
+      hostStorageProperty = new DefaultStaticProperty("<hostStorage>");
+      instanceBuilder.property(hostStorageProperty, Object.class, false);
+    } else {
+      hostStorageProperty = null;
+    }
+
     if (superClass == null) {
       instanceShape =
           instanceBuilder.build(StaticObject.class, StaticObject.StaticObjectFactory.class);
@@ -1,18 +1,35 @@
 package com.vztekoverflow.cilostazol.runtime.objectmodel;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
 import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import com.vztekoverflow.cilostazol.runtime.interop.ArrayInterop;
+import com.vztekoverflow.cilostazol.runtime.interop.ToGuestValueNode;
 import com.vztekoverflow.cilostazol.runtime.symbols.TypeSymbol;
+import java.nio.ByteOrder;
 
+@ExportLibrary(InteropLibrary.class)
 public class StaticObject implements TruffleObject, Cloneable {
   public static final StaticObject[] EMPTY_ARRAY = new StaticObject[0];
   public static final StaticObject NULL = new StaticObject(null);
   private final TypeSymbol typeSymbol;
+  // Created when the object is first used with System.Threading.Monitor
+  private volatile GuestMonitor monitor;
 
   protected StaticObject(TypeSymbol typeSymbol) {
     this.typeSymbol = typeSymbol;
   }
 
+  @ExportMessage.Ignore
   public static boolean isNull(StaticObject object) {
     assert object != null;
     assert (object.getTypeSymbol() != null) || object == NULL
@@ -24,7 +41,10 @@ public class StaticObject implements TruffleObject, Cloneable {
   @CompilerDirectives.TruffleBoundary
   public Object clone() {
     try {
-      return super.clone();
+      StaticObject result = (StaticObject) super.clone();
+      // A copy is a different object, it must not share the lock
+      result.monitor = null;
+      return result;
     } catch (CloneNotSupportedException e) {
       throw new RuntimeException(e);
     }
@@ -34,10 +54,169 @@ public class StaticObject implements TruffleObject, Cloneable {
     return typeSymbol;
   }
 
+  public final GuestMonitor getMonitor() {
+    GuestMonitor result = monitor;
+    if (result == null) {
+      result = createMonitor();
+    }
+
+    return result;
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private synchronized GuestMonitor createMonitor() {
+    if (monitor == null) monitor = new GuestMonitor();
+    return monitor;
+  }
+
   public final boolean isArray() {
     return !isNull(this) && getTypeSymbol().isArray();
   }
 
+  // region interop
+  @ExportMessage(name = "isNull")
+  boolean isNullObject() {
+    return isNull(this);
+  }
+
+  @ExportMessage
+  boolean hasLanguage() {
+    return true;
+  }
+
+  @ExportMessage
+  Class<? extends TruffleLanguage<?>> getLanguage() {
+    return CILOSTAZOLLanguage.class;
+  }
+
+  @ExportMessage
+  @CompilerDirectives.TruffleBoundary
+  Object toDisplayString(boolean allowSideEffects) {
+    return isNull(this) ? "null" : getTypeSymbol().toString();
+  }
+
+  @ExportMessage
+  boolean hasArrayElements() {
+    return isArray();
+  }
+
+  @ExportMessage
+  long getArraySize() throws UnsupportedMessageException {
+    return ArrayInterop.getArraySize(this);
+  }
+
+  @ExportMessage(name = "isArrayElementReadable")
+  @ExportMessage(name = "isArrayElementModifiable")
+  boolean isArrayElementInBounds(long index) {
+    return ArrayInterop.isElementInBounds(this, index);
+  }
+
+  @ExportMessage
+  boolean isArrayElementInsertable(long index) {
+    return false;
+  }
+
+  @ExportMessage
+  Object readArrayElement(long index)
+      throws UnsupportedMessageException, InvalidArrayIndexException {
+    return ArrayInterop.readElement(this, index);
+  }
+
+  @ExportMessage
+  void writeArrayElement(long index, Object value, @Cached ToGuestValueNode toGuest)
+      throws UnsupportedMessageException, InvalidArrayIndexException, UnsupportedTypeException {
+    ArrayInterop.writeElement(this, index, value, toGuest);
+  }
+
+  @ExportMessage
+  boolean hasBufferElements() {
+    return ArrayInterop.getBytes(this) != null;
+  }
+
+  @ExportMessage
+  boolean isBufferWritable() throws UnsupportedMessageException {
+    ArrayInterop.getBuffer(this);
+    return true;
+  }
+
+  @ExportMessage
+  long getBufferSize() throws UnsupportedMessageException {
+    return ArrayInterop.getBuffer(this).length;
+  }
+
+  @ExportMessage
+  byte readBufferByte(long offset)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    return ArrayInterop.readByte(ArrayInterop.getBuffer(this), offset);
+  }
+
+  @ExportMessage
+  void writeBufferByte(long offset, byte value)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    ArrayInterop.writeByte(ArrayInterop.getBuffer(this), offset, value);
+  }
+
+  @ExportMessage
+  short readBufferShort(ByteOrder order, long offset)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    return ArrayInterop.readShort(ArrayInterop.getBuffer(this), order, offset);
+  }
+
+  @ExportMessage
+  void writeBufferShort(ByteOrder order, long offset, short value)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    ArrayInterop.writeShort(ArrayInterop.getBuffer(this), order, offset, value);
+  }
+
+  @ExportMessage
+  int readBufferInt(ByteOrder order, long offset)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    return ArrayInterop.readInt(ArrayInterop.getBuffer(this), order, offset);
+  }
+
+  @ExportMessage
+  void writeBufferInt(ByteOrder order, long offset, int value)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    ArrayInterop.writeInt(ArrayInterop.getBuffer(this), order, offset, value);
+  }
+
+  @ExportMessage
+  long readBufferLong(ByteOrder order, long offset)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    return ArrayInterop.readLong(ArrayInterop.getBuffer(this), order, offset);
+  }
+
+  @ExportMessage
+  void writeBufferLong(ByteOrder order, long offset, long value)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    ArrayInterop.writeLong(ArrayInterop.getBuffer(this), order, offset, value);
+  }
+
+  @ExportMessage
+  float readBufferFloat(ByteOrder order, long offset)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    return ArrayInterop.readFloat(ArrayInterop.getBuffer(this), order, offset);
+  }
+
+  @ExportMessage
+  void writeBufferFloat(ByteOrder order, long offset, float value)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    ArrayInterop.writeFloat(ArrayInterop.getBuffer(this), order, offset, value);
+  }
+
+  @ExportMessage
+  double readBufferDouble(ByteOrder order, long offset)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    return ArrayInterop.readDouble(ArrayInterop.getBuffer(this), order, offset);
+  }
+
+  @ExportMessage
+  void writeBufferDouble(ByteOrder order, long offset, double value)
+      throws UnsupportedMessageException, InvalidBufferOffsetException {
+    ArrayInterop.writeDouble(ArrayInterop.getBuffer(this), order, offset, value);
+  }
+  // endregion
+
   public interface StaticObjectFactory {
     StaticObject create(TypeSymbol type);
   }
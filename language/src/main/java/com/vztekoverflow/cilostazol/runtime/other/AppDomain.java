@@ -2,13 +2,15 @@ package com.vztekoverflow.cilostazol.runtime.other;
 
 import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
 import com.vztekoverflow.cilostazol.runtime.symbols.AssemblySymbol;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class AppDomain {
-  private final ArrayList<AssemblySymbol> loadedAssemblies;
+  // Assemblies are loaded rarely and looked up by every thread
+  private final CopyOnWriteArrayList<AssemblySymbol> loadedAssemblies;
 
   public AppDomain() {
-    loadedAssemblies = new ArrayList<>();
+    loadedAssemblies = new CopyOnWriteArrayList<>();
   }
 
   public void loadAssembly(AssemblySymbol assembly) {
@@ -16,12 +18,14 @@ public class AppDomain {
   }
 
   public AssemblySymbol getAssembly(AssemblyIdentity identity) {
-    AssemblySymbol result = null;
-
-    for (int i = 0; i < loadedAssemblies.size() && result == null; i++) {
-      if (loadedAssemblies.get(i).getIdentity().equals(identity)) result = loadedAssemblies.get(i);
+    for (AssemblySymbol assembly : loadedAssemblies) {
+      if (assembly.getIdentity().equals(identity)) return assembly;
     }
 
-    return result;
+    return null;
+  }
+
+  public List<AssemblySymbol> getAssemblies() {
+    return loadedAssemblies;
   }
 }
@@ -1,7 +1,9 @@
 package com.vztekoverflow.cilostazol.runtime.symbols;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
+import java.util.Arrays;
 
 public class ArrayTypeSymbol extends NamedTypeSymbol {
   private final TypeSymbol elementType;
@@ -73,7 +75,7 @@ public class ArrayTypeSymbol extends NamedTypeSymbol {
 
   @Override
   protected int getHierarchyDepth() {
-    return arrayType.getHierarchyDepth();
+    return arrayType.getHierarchyDepth() + 1;
   }
 
   @Override
@@ -93,7 +95,28 @@ public class ArrayTypeSymbol extends NamedTypeSymbol {
 
   @Override
   public NamedTypeSymbol[] getSuperClasses() {
-    return arrayType.getSuperClasses();
+    // Every array derives from System.Array
+    if (lazySuperClasses == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      NamedTypeSymbol[] arraySuperClasses = arrayType.getSuperClasses();
+      NamedTypeSymbol[] result = Arrays.copyOf(arraySuperClasses, arraySuperClasses.length + 1);
+      result[arraySuperClasses.length] = arrayType;
+      lazySuperClasses = result;
+    }
+
+    return lazySuperClasses;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof ArrayTypeSymbol other
+        && other.getRank() == getRank()
+        && other.getElementType().equals(getElementType());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * getElementType().hashCode() + getRank();
   }
 
   public static class ArrayTypeSymbolFactory {
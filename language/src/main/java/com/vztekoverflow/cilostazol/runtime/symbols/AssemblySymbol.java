@@ -52,8 +52,12 @@ public final class AssemblySymbol extends Symbol {
     return definingFile.getAssemblyIdentity();
   }
 
+  public boolean hasEntryPoint() {
+    return definingFile.getCliHeader().getEntryPointToken() != 0;
+  }
+
   public MethodSymbol getEntryPoint() {
-    if (definingFile.getCliHeader().getEntryPointToken() == 0) {
+    if (!hasEntryPoint()) {
       throw new RuntimeException(
           CILOSTAZOLBundle.message("cilostazol.exception.runtime.no.entrypoint"));
     }
@@ -72,8 +76,16 @@ public final class AssemblySymbol extends Symbol {
      * @return the assembly
      */
     public static AssemblySymbol create(Source dllSource) {
-      CLIFile file = CLIFile.parse(dllSource.getName(), dllSource.getPath(), dllSource.getBytes());
+      return create(CLIFile.parse(dllSource.getName(), dllSource.getPath(), dllSource.getBytes()));
+    }
 
+    /**
+     * Create an assembly from parsed metadata. Is Pure.
+     *
+     * @param file the parsed DLL file
+     * @return the assembly
+     */
+    public static AssemblySymbol create(CLIFile file) {
       if (file.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_MODULE) != 1)
         throw new CILParserException(CILOSTAZOLBundle.message("cilostazol.exception.module"));
 
@@ -48,10 +48,8 @@ public final class ConstructedNamedTypeSymbol extends NamedTypeSymbol {
     if (lazyDirectBaseClass == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
       var baseClass = constructedFrom.getDirectBaseClass();
-      if (baseClass == null) {
-        lazyDirectBaseClass = null;
-      } else {
-        lazyDirectBaseClass = map.substitute(constructedFrom.getDirectBaseClass());
+      if (baseClass != null) {
+        lazyDirectBaseClass = map.substitute(baseClass);
       }
     }
 
@@ -72,19 +70,13 @@ public final class ConstructedNamedTypeSymbol extends NamedTypeSymbol {
   }
 
   @Override
-  public MethodSymbol[] getMethods() {
-    if (lazyMethods == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      lazyMethods =
-          Arrays.stream(constructedFrom.getMethods())
-              .map(
-                  x ->
-                      SubstitutedMethodSymbol.SubstitutedMethodSymbolFactory.create(
-                          x.getDefinition(), x, this))
-              .toArray(MethodSymbol[]::new);
-    }
-
-    return lazyMethods;
+  protected MethodSymbol[] createMethods() {
+    return Arrays.stream(constructedFrom.getMethods())
+        .map(
+            x ->
+                SubstitutedMethodSymbol.SubstitutedMethodSymbolFactory.create(
+                    x.getDefinition(), x, this))
+        .toArray(MethodSymbol[]::new);
   }
 
   @Override
@@ -107,16 +99,10 @@ public final class ConstructedNamedTypeSymbol extends NamedTypeSymbol {
   }
 
   @Override
-  public FieldSymbol[] getFields() {
-    if (lazyFields == null) {
-      CompilerDirectives.transferToInterpreterAndInvalidate();
-      lazyFields =
-          Arrays.stream(constructedFrom.getFields())
-              .map(x -> FieldSymbol.FieldSymbolFactory.createWith(x, map.substitute(x.getType())))
-              .toArray(FieldSymbol[]::new);
-    }
-
-    return lazyFields;
+  protected FieldSymbol[] createFields() {
+    return Arrays.stream(constructedFrom.getFields())
+        .map(x -> FieldSymbol.FieldSymbolFactory.createWith(x, map.substitute(x.getType())))
+        .toArray(FieldSymbol[]::new);
   }
 
   @Override
@@ -14,6 +14,7 @@ import com.vztekoverflow.cil.parser.cli.table.generated.CLIMethodDefTableRow;
 import com.vztekoverflow.cil.parser.cli.table.generated.CLIParamTableRow;
 import com.vztekoverflow.cilostazol.CILOSTAZOLBundle;
 import com.vztekoverflow.cilostazol.exceptions.TypeSystemException;
+import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
 import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLRootNode;
 import com.vztekoverflow.cilostazol.nodes.RuntimeSpecificMethodImplementations;
 import com.vztekoverflow.cilostazol.runtime.context.ContextProviderImpl;
@@ -42,10 +43,26 @@ public class MethodSymbol extends Symbol {
   protected final int maxStack;
   protected final boolean isInternalCall;
   protected final MethodHeaderFlags methodHeaderFlags;
-  @CompilerDirectives.CompilationFinal protected RootNode node;
+  // The row of the definition in the MethodDef table of its module
+  protected final int methodDefRow;
+  @CompilerDirectives.CompilationFinal protected volatile RootNode node;
+  // Code of the definition shared by all its instantiations over reference types
+  @CompilerDirectives.CompilationFinal protected volatile RootNode sharedNode;
+  @CompilerDirectives.CompilationFinal private volatile byte sharedCode = -1;
+  @CompilerDirectives.CompilationFinal private volatile long handle;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  protected StaticOpCodeAnalyser.OpCodeType[] opCodeTypes = null;
+  protected volatile StaticOpCodeAnalyser.OpCodeType[] opCodeTypes = null;
+
+  // Lazily computed argument layout, shared by every call of the method
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile TypeSymbol[] parameterTypes;
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile TypeSymbol[] parameterTypesIncludingInstance;
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile CILOSTAZOLFrame.StackType[] parameterStackTypesIncludingInstance;
 
   protected MethodSymbol(
       String name,
@@ -62,7 +79,8 @@ public class MethodSymbol extends Symbol {
       byte[] cil,
       int maxStack,
       MethodHeaderFlags methodHeaderFlags,
-      boolean isInternalCall) {
+      boolean isInternalCall,
+      int methodDefRow) {
     super(ContextProviderImpl.getInstance());
     this.name = name;
     this.module = module;
@@ -80,6 +98,7 @@ public class MethodSymbol extends Symbol {
     this.maxStack = maxStack;
     this.methodHeaderFlags = methodHeaderFlags;
     this.isInternalCall = isInternalCall;
+    this.methodDefRow = methodDefRow;
   }
 
   // region Getters
@@ -131,6 +150,10 @@ public class MethodSymbol extends Symbol {
     return maxStack;
   }
 
+  public int getMethodDefRow() {
+    return methodDefRow;
+  }
+
   public MethodSymbol getDefinition() {
     return this;
   }
@@ -151,30 +174,59 @@ public class MethodSymbol extends Symbol {
     return opCodeTypes;
   }
 
+  /** The returned array is cached and must not be modified. */
   public TypeSymbol[] getParameterTypesIncludingInstance() {
-    boolean hasReceiver = !getMethodFlags().hasFlag(MethodFlags.Flag.STATIC);
-    TypeSymbol[] paramTypes;
-
-    if (hasReceiver) {
-      paramTypes = new TypeSymbol[getParameterCountIncludingInstance()];
-      paramTypes[0] =
-          getDefiningType().isValueType()
-              ? SymbolResolver.resolveReference(ReferenceSymbol.ReferenceType.Local, getContext())
-              : getDefiningType();
-      for (int i = 0; i < parameters.length; i++) {
-        paramTypes[i + 1] = parameters[i].getType();
-      }
+    if (parameterTypesIncludingInstance == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      parameterTypesIncludingInstance = createParameterTypesIncludingInstance();
+    }
 
-    } else {
-      paramTypes =
+    return parameterTypesIncludingInstance;
+  }
+
+  /** The returned array is cached and must not be modified. */
+  public TypeSymbol[] getParameterTypes() {
+    if (parameterTypes == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      parameterTypes =
           Arrays.stream(parameters).map(ParameterSymbol::getType).toArray(TypeSymbol[]::new);
     }
 
-    return paramTypes;
+    return parameterTypes;
   }
 
-  public TypeSymbol[] getParameterTypes() {
-    return Arrays.stream(parameters).map(ParameterSymbol::getType).toArray(TypeSymbol[]::new);
+  /**
+   * The stack types of the arguments in the order they are passed, including the instance. The
+   * returned array is cached and must not be modified.
+   */
+  public CILOSTAZOLFrame.StackType[] getParameterStackTypesIncludingInstance() {
+    if (parameterStackTypesIncludingInstance == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      parameterStackTypesIncludingInstance =
+          Arrays.stream(getParameterTypesIncludingInstance())
+              .map(TypeSymbol::getStackTypeKind)
+              .toArray(CILOSTAZOLFrame.StackType[]::new);
+    }
+
+    return parameterStackTypesIncludingInstance;
+  }
+
+  private TypeSymbol[] createParameterTypesIncludingInstance() {
+    boolean hasReceiver = !getMethodFlags().hasFlag(MethodFlags.Flag.STATIC);
+    if (!hasReceiver) {
+      return getParameterTypes();
+    }
+
+    TypeSymbol[] paramTypes = new TypeSymbol[getParameterCountIncludingInstance()];
+    paramTypes[0] =
+        getDefiningType().isValueType()
+            ? SymbolResolver.resolveReference(ReferenceSymbol.ReferenceType.Local, getContext())
+            : getDefiningType();
+    for (int i = 0; i < parameters.length; i++) {
+      paramTypes[i + 1] = parameters[i].getType();
+    }
+
+    return paramTypes;
   }
 
   public String toString() {
@@ -207,15 +259,94 @@ public class MethodSymbol extends Symbol {
     return ConstructedMethodSymbol.ConstructedMethodSymbolFactory.create(this, this, typeArguments);
   }
 
+  /** The handle of the method in the IntPtr fields of delegates, assigned when first needed. */
+  public long getHandle() {
+    if (handle == 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      synchronized (this) {
+        if (handle == 0) handle = getContext().registerMethodHandle(this);
+      }
+    }
+
+    return handle;
+  }
+
   public RootNode getNode() {
     if (node == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      node = CILOSTAZOLRootNode.create(this);
+      // The node patches the CIL of the method, two nodes of one method must never coexist
+      synchronized (this) {
+        if (node == null) {
+          node =
+              isSharedCode()
+                  ? getDefinition().getSharedNode(this)
+                  : CILOSTAZOLRootNode.create(this);
+        }
+      }
     }
 
     return node;
   }
 
+  private RootNode getSharedNode(MethodSymbol instantiation) {
+    if (sharedNode == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      synchronized (this) {
+        if (sharedNode == null) sharedNode = CILOSTAZOLRootNode.create(instantiation);
+      }
+    }
+
+    return sharedNode;
+  }
+
+  /**
+   * Whether the method runs the code shared by all instantiations of its generic type over
+   * reference types, like the canonical instantiations of CoreCLR. The shared code reads the type
+   * arguments from the receiver, so only instance methods of classes without own type parameters
+   * qualify.
+   */
+  public boolean isSharedCode() {
+    if (sharedCode < 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      sharedCode = (byte) (canShareCode() ? 1 : 0);
+    }
+
+    return sharedCode == 1;
+  }
+
+  private boolean canShareCode() {
+    if (getDefinition() == this
+        || !(getDefiningType() instanceof ConstructedNamedTypeSymbol)
+        || getDefiningType().isValueType()
+        || getMethodFlags().hasFlag(MethodFlags.Flag.STATIC)
+        || typeParameters.length != 0
+        || isInternalCall) return false;
+
+    for (TypeSymbol typeArgument : getDefiningType().getTypeArguments()) {
+      if (!isReferenceType(typeArgument)) return false;
+    }
+
+    // Handlers are matched against the types of the instantiation the code was created for
+    for (ExceptionHandlerSymbol handler : getDefinition().getExceptionHandlers()) {
+      if (handler.getHandlerException() != null && !handler.getHandlerException().isClosed())
+        return false;
+    }
+
+    return true;
+  }
+
+  private static boolean isReferenceType(TypeSymbol type) {
+    if (!(type instanceof NamedTypeSymbol namedType)
+        || !namedType.isClosed()
+        || namedType.getStackTypeKind() != CILOSTAZOLFrame.StackType.Object
+        || namedType.isValueType()) return false;
+
+    // Enums do not derive from System.ValueType directly
+    NamedTypeSymbol baseClass = namedType.getDirectBaseClass();
+    return baseClass == null
+        || !(baseClass.getName().equals("Enum") && baseClass.getNamespace().equals("System"));
+  }
+
   public boolean hasReturnValue() {
     return returnSymbol.getType().getSystemType()
         != com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType.Void;
@@ -397,7 +528,8 @@ public class MethodSymbol extends Symbol {
                     .collect(Collectors.joining(", "))
                 + ")";
 
-        if (RuntimeSpecificMethodImplementations.hasCustomImplementation(methodIdentifier)) {
+        if (RuntimeSpecificMethodImplementations.hasCustomImplementation(
+            methodIdentifier, definingType, definingType.getContext())) {
           isInternalCall = true;
         }
       }
@@ -417,7 +549,8 @@ public class MethodSymbol extends Symbol {
           cil,
           maxStackSize,
           methodHeaderFlags,
-          isInternalCall);
+          isInternalCall,
+          mDef.getRowNo());
     }
   }
 
@@ -3,6 +3,9 @@ package com.vztekoverflow.cilostazol.runtime.symbols;
 import static com.vztekoverflow.cilostazol.runtime.symbols.NamedTypeSymbol.IS_TYPE_FORWARDER_FLAG_MASK;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.source.Source;
+import com.vztekoverflow.cil.parser.CILParserException;
 import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
 import com.vztekoverflow.cil.parser.cli.CLIFile;
 import com.vztekoverflow.cil.parser.cli.CLIFileUtils;
@@ -10,19 +13,29 @@ import com.vztekoverflow.cil.parser.cli.table.generated.CLIFieldTableRow;
 import com.vztekoverflow.cil.parser.cli.table.generated.CLIMethodDefTableRow;
 import com.vztekoverflow.cil.parser.cli.table.generated.CLITableConstants;
 import com.vztekoverflow.cil.parser.cli.table.generated.CLITypeDefTableRow;
+import com.vztekoverflow.cil.parser.pdb.PortablePdb;
+import com.vztekoverflow.cil.parser.pdb.SequencePoint;
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
 import com.vztekoverflow.cilostazol.runtime.context.ContextProviderImpl;
 import com.vztekoverflow.cilostazol.runtime.other.FieldIndex;
 import com.vztekoverflow.cilostazol.runtime.other.MethodIndex;
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
+import java.io.IOException;
+import org.graalvm.polyglot.io.ByteSequence;
 
 public final class ModuleSymbol extends Symbol {
   private final CLIFile definingFile;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  private MethodIndex[] methodDefToMethodSymbolCache;
+  private volatile MethodIndex[] methodDefToMethodSymbolCache;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  private FieldIndex[] fieldToFieldSymbolCache;
+  private volatile FieldIndex[] fieldToFieldSymbolCache;
+
+  // Read from the portable PDB next to the file of the module when a source section is first needed
+  private volatile PortablePdb debugInformation;
+  private volatile boolean debugInformationLoaded;
+  private volatile Source[] documentSources;
 
   public ModuleSymbol(CLIFile definingFile) {
     super(ContextProviderImpl.getInstance());
@@ -111,7 +124,8 @@ public final class ModuleSymbol extends Symbol {
   }
 
   private void initMethodSymbolCache() {
-    methodDefToMethodSymbolCache =
+    // Filled before it is published, other threads must not see a partial cache
+    var cache =
         new MethodIndex
             [definingFile.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_METHOD_DEF)
                 + 1];
@@ -121,7 +135,7 @@ public final class ModuleSymbol extends Symbol {
       int startIdx = methodRange.getLeft();
       int endIdx = methodRange.getRight();
       while (startIdx < endIdx) {
-        methodDefToMethodSymbolCache[startIdx] =
+        cache[startIdx] =
             new MethodIndex(
                 getContext()
                     .resolveType(
@@ -132,10 +146,11 @@ public final class ModuleSymbol extends Symbol {
         startIdx++;
       }
     }
+    methodDefToMethodSymbolCache = cache;
   }
 
   private void initFieldSymbolCache() {
-    fieldToFieldSymbolCache =
+    var cache =
         new FieldIndex
             [definingFile.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_FIELD) + 1];
     for (CLITypeDefTableRow klass : getDefiningFile().getTableHeads().getTypeDefTableHead()) {
@@ -144,7 +159,7 @@ public final class ModuleSymbol extends Symbol {
       int startIdx = fieldRange.getLeft();
       int endIdx = fieldRange.getRight();
       while (startIdx < endIdx) {
-        fieldToFieldSymbolCache[startIdx] =
+        cache[startIdx] =
             new FieldIndex(
                 getContext()
                     .resolveType(
@@ -155,6 +170,82 @@ public final class ModuleSymbol extends Symbol {
         startIdx++;
       }
     }
+    fieldToFieldSymbolCache = cache;
+  }
+  // endregion
+
+  // region Debug information
+  /**
+   * @return the debug information of the module, or null if there is no portable PDB for it.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public PortablePdb getDebugInformation() {
+    if (!debugInformationLoaded) {
+      synchronized (this) {
+        if (!debugInformationLoaded) {
+          debugInformation = readDebugInformation();
+          if (debugInformation != null) {
+            documentSources = new Source[debugInformation.getDocumentCount()];
+          }
+          debugInformationLoaded = true;
+        }
+      }
+    }
+
+    return debugInformation;
+  }
+
+  private PortablePdb readDebugInformation() {
+    String path = definingFile.getPath();
+    int extension = path == null ? -1 : path.lastIndexOf('.');
+    if (extension < 0) return null;
+
+    try {
+      // Read through the file system of the context, like the module itself
+      TruffleFile pdbFile =
+          getContext().getEnv().getInternalTruffleFile(path.substring(0, extension) + ".pdb");
+      if (!pdbFile.isRegularFile()) return null;
+
+      PortablePdb pdb = PortablePdb.parse(ByteSequence.create(pdbFile.readAllBytes()));
+      // A PDB of another build of the module would map the methods to the wrong lines
+      int methodDefCount =
+          definingFile.getTablesHeader().getRowCount(CLITableConstants.CLI_TABLE_METHOD_DEF);
+      return pdb.getMethodDefCount() == methodDefCount ? pdb : null;
+    } catch (IOException | SecurityException | CILParserException | IndexOutOfBoundsException e) {
+      // Windows PDBs, damaged and inaccessible files only lose the source mapping
+      return null;
+    }
+  }
+
+  /**
+   * @return the sequence points of a method defined in this module, empty if the module has no
+   *     debug information.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public SequencePoint[] getSequencePoints(MethodSymbol method) {
+    PortablePdb pdb = getDebugInformation();
+    if (pdb == null) return new SequencePoint[0];
+
+    return pdb.getSequencePoints(method.getMethodDefRow());
+  }
+
+  /**
+   * @return a source without content standing for a document of the debug information, shared by
+   *     all methods compiled from it.
+   */
+  @CompilerDirectives.TruffleBoundary
+  public Source getDocumentSource(int document) {
+    Source[] sources = documentSources;
+    synchronized (sources) {
+      if (sources[document] == null) {
+        sources[document] =
+            Source.newBuilder(CILOSTAZOLLanguage.ID, "", debugInformation.getDocumentName(document))
+                .content(Source.CONTENT_NONE)
+                .build();
+      }
+
+      return sources[document];
+    }
   }
   // endregion
 
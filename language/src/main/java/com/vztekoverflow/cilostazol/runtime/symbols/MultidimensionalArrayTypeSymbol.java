@@ -29,12 +29,12 @@ public final class MultidimensionalArrayTypeSymbol extends ArrayTypeSymbol {
   }
 
   @Override
-  public MethodSymbol[] getMethods() {
+  protected MethodSymbol[] createMethods() {
     return arrayImplementation.getMethods();
   }
 
   @Override
-  public FieldSymbol[] getFields() {
+  protected FieldSymbol[] createFields() {
     return arrayImplementation.getFields();
   }
 
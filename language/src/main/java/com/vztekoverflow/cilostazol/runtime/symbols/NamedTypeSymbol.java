@@ -1,19 +1,23 @@
 package com.vztekoverflow.cilostazol.runtime.symbols;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleSafepoint;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.staticobject.StaticProperty;
 import com.oracle.truffle.api.staticobject.StaticShape;
 import com.vztekoverflow.cil.parser.cli.CLIFileUtils;
 import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
 import com.vztekoverflow.cil.parser.cli.table.generated.*;
+import com.vztekoverflow.cilostazol.exceptions.RuntimeCILException;
 import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
 import com.vztekoverflow.cilostazol.nodes.nodeized.CALLNode;
+import com.vztekoverflow.cilostazol.runtime.objectmodel.GuestAllocator;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.LinkedFieldLayout;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticField;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.StaticObject;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType;
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
+import java.lang.invoke.VarHandle;
 import java.util.*;
 
 public class NamedTypeSymbol extends TypeSymbol {
@@ -37,40 +41,103 @@ public class NamedTypeSymbol extends TypeSymbol {
   protected final CLITablePtr definingRow;
   protected final Map<FieldSymbol, Integer> instanceFieldIndexMapping = new HashMap<>();
   protected final Map<FieldSymbol, Integer> staticFieldIndexMapping = new HashMap<>();
-  @CompilerDirectives.CompilationFinal protected NamedTypeSymbol lazyDirectBaseClass;
+  @CompilerDirectives.CompilationFinal protected volatile NamedTypeSymbol lazyDirectBaseClass;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  protected NamedTypeSymbol[] lazyInterfaces;
+  protected volatile NamedTypeSymbol[] lazyInterfaces;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  protected NamedTypeSymbol[] lazySuperClasses;
+  protected volatile NamedTypeSymbol[] lazySuperClasses;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  protected MethodSymbol[] lazyMethods;
+  protected volatile MethodSymbol[] lazyMethods;
 
-  @CompilerDirectives.CompilationFinal protected Map<MethodSymbol, MethodSymbol> lazyMethodImpl;
+  @CompilerDirectives.CompilationFinal
+  protected volatile Map<MethodSymbol, MethodSymbol> lazyMethodImpl;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  protected FieldSymbol[] lazyFields;
+  protected volatile FieldSymbol[] lazyFields;
 
   @CompilerDirectives.CompilationFinal private boolean isValueType = false;
 
+  // region subtype checks
+  @CompilerDirectives.CompilationFinal private volatile int interfaceId = -1;
+
+  /** Bitset of the ids of all interfaces implemented by the type, including inherited ones. */
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile long[] lazyInterfaceBits;
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile NamedTypeSymbol[] lazyAllInterfaces;
+
+  @CompilerDirectives.CompilationFinal private volatile byte variance = -1;
+  // endregion
+
+  // region dispatch tables
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile MethodSymbol[] lazyVTable;
+
+  /** The vtable slot of each method from {@link #getMethods()}, -1 for non-virtual methods. */
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile int[] lazyMethodSlots;
+
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private volatile NamedTypeSymbol[] lazyITableInterfaces;
+
+  /** The index into {@link #lazyITable} of each interface id, -1 for interfaces not implemented. */
+  @CompilerDirectives.CompilationFinal(dimensions = 1)
+  private int[] lazyITableIndex;
+
+  /**
+   * The implementations of the methods of each interface from {@link #lazyITableInterfaces},
+   * indexed by the vtable slot of the interface method.
+   */
+  @CompilerDirectives.CompilationFinal(dimensions = 2)
+  private MethodSymbol[][] lazyITable;
+  // endregion
+
   // region SOM - fields
   @CompilerDirectives.CompilationFinal
-  private StaticShape<StaticObject.StaticObjectFactory> instanceShape;
+  private volatile StaticShape<StaticObject.StaticObjectFactory> instanceShape;
+
+  @CompilerDirectives.CompilationFinal
+  private volatile StaticShape<StaticObject.StaticObjectFactory> staticShape;
+
+  @CompilerDirectives.CompilationFinal private volatile StaticObject staticInstance;
+
+  // Declared by the type or inherited from its base class
+  @CompilerDirectives.CompilationFinal private StaticProperty hostStorageProperty;
+
+  /** Partition II: 10.5.3.3 Races and deadlocks. */
+  private enum InitializationState {
+    NOT_STARTED,
+    RUNNING,
+    DONE,
+    // The static constructor threw, every access to the type throws a TypeInitializationException
+    FAILED
+  }
+
+  // The type each thread waits to be initialized, guarded by itself. A thread does not wait when
+  // the owners of the types it would wait for end up waiting for a type it is initializing.
+  private static final Map<Thread, NamedTypeSymbol> awaitedTypes = new HashMap<>();
 
+  // Static members are accessed without the lock only once the static constructor returned
   @CompilerDirectives.CompilationFinal
-  private StaticShape<StaticObject.StaticObjectFactory> staticShape;
+  private volatile InitializationState initializationState = InitializationState.NOT_STARTED;
 
-  @CompilerDirectives.CompilationFinal private StaticObject staticInstance;
+  // The thread running the static constructor, it can access the type while it is RUNNING
+  private volatile Thread initializingThread;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
   private StaticField[] instanceFields;
 
   @CompilerDirectives.CompilationFinal(dimensions = 1)
-  private StaticField[] staticFields;
+  private volatile StaticField[] staticFields;
 
-  @CompilerDirectives.CompilationFinal private int sizeInBytes;
+  @CompilerDirectives.CompilationFinal private volatile int sizeInBytes;
+
+  // The estimated heap size of an instance, reported to allocation instruments
+  @CompilerDirectives.CompilationFinal private int instanceSizeInBytes;
   // endregion
 
   protected NamedTypeSymbol(
@@ -131,11 +198,13 @@ public class NamedTypeSymbol extends TypeSymbol {
   public NamedTypeSymbol getDirectBaseClass() {
     if (lazyDirectBaseClass == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      lazyDirectBaseClass = LazyFactory.createDirectBaseClass(this);
+      var baseClass = LazyFactory.createDirectBaseClass(this);
+      // Written before the base class is published, readers of the base class see it
       isValueType =
-          lazyDirectBaseClass != null
-              && lazyDirectBaseClass.getNamespace().equals("System")
-              && lazyDirectBaseClass.getName().equals("ValueType");
+          baseClass != null
+              && baseClass.getNamespace().equals("System")
+              && baseClass.getName().equals("ValueType");
+      lazyDirectBaseClass = baseClass;
     }
 
     return lazyDirectBaseClass;
@@ -171,35 +240,38 @@ public class NamedTypeSymbol extends TypeSymbol {
   public MethodSymbol[] getMethods() {
     if (lazyMethods == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      lazyMethods =
-          LazyFactory.createMethods(
-              this,
-              definingModule
-                  .getDefiningFile()
-                  .getTableHeads()
-                  .getTypeDefTableHead()
-                  .skip(definingRow));
+      // Methods own their nodes and fields index the layout, so the symbols are created only once
+      synchronized (this) {
+        if (lazyMethods == null) lazyMethods = createMethods();
+      }
     }
 
     return lazyMethods;
   }
 
+  protected MethodSymbol[] createMethods() {
+    return LazyFactory.createMethods(
+        this,
+        definingModule.getDefiningFile().getTableHeads().getTypeDefTableHead().skip(definingRow));
+  }
+
   public FieldSymbol[] getFields() {
     if (lazyFields == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
-      lazyFields =
-          LazyFactory.createFields(
-              this,
-              definingModule
-                  .getDefiningFile()
-                  .getTableHeads()
-                  .getTypeDefTableHead()
-                  .skip(definingRow));
+      synchronized (this) {
+        if (lazyFields == null) lazyFields = createFields();
+      }
     }
 
     return lazyFields;
   }
 
+  protected FieldSymbol[] createFields() {
+    return LazyFactory.createFields(
+        this,
+        definingModule.getDefiningFile().getTableHeads().getTypeDefTableHead().skip(definingRow));
+  }
+
   public Map<MethodSymbol, MethodSymbol> getMethodsImpl() {
     if (lazyMethodImpl == null) {
       CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -208,6 +280,161 @@ public class NamedTypeSymbol extends TypeSymbol {
     return lazyMethodImpl;
   }
 
+  /** The dense id of this interface, assigned when it is first needed. */
+  public int getInterfaceId() {
+    assert isInterface();
+    if (interfaceId < 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      interfaceId = getContext().getInterfaceId(this);
+    }
+
+    return interfaceId;
+  }
+
+  /**
+   * All interfaces implemented by the type, including the ones inherited from base classes and
+   * other interfaces. An interface includes itself.
+   */
+  public NamedTypeSymbol[] getAllInterfaces() {
+    if (lazyAllInterfaces == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      LazyFactory.createInterfaceBits(this);
+    }
+
+    return lazyAllInterfaces;
+  }
+
+  /** Checks whether the type implements the interface, not considering variance. */
+  public boolean implementsInterface(NamedTypeSymbol iface) {
+    if (lazyInterfaceBits == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      LazyFactory.createInterfaceBits(this);
+    }
+
+    // Ids are assigned to all interfaces of a type when its bitset is created, so an interface
+    // with an id larger than the bitset cannot be implemented by it
+    int id = iface.getInterfaceId();
+    int word = id >>> 6;
+    return word < lazyInterfaceBits.length && (lazyInterfaceBits[word] & (1L << id)) != 0;
+  }
+
+  /** Whether the type is a generic instantiation with a covariant or contravariant parameter. */
+  public boolean isVariant() {
+    if (variance < 0) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      byte result = 0;
+      for (var typeParameter : getTypeParameters()) {
+        if (!typeParameter
+            .getFlags()
+            .hasFlag(TypeParameterSymbol.GenericParameterFlags.Flag.NONE)) {
+          result = 1;
+        }
+      }
+      variance = result;
+    }
+
+    return variance == 1 && this instanceof ConstructedNamedTypeSymbol;
+  }
+
+  /**
+   * The virtual methods of the type indexed by their slot. Entries inherited from the base class
+   * keep their slot and are replaced by overrides. The vtable of an interface lists its own virtual
+   * methods and is used as the layout of the interface method tables.
+   */
+  public MethodSymbol[] getVTable() {
+    if (lazyVTable == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      LazyFactory.createDispatchTables(this);
+    }
+
+    return lazyVTable;
+  }
+
+  /**
+   * Gets the vtable slot of a method declared by this type.
+   *
+   * @return the slot, or -1 if the method is not a virtual method of this type
+   */
+  public int getVTableSlot(MethodSymbol method) {
+    if (lazyMethodSlots == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      LazyFactory.createDispatchTables(this);
+    }
+
+    // Methods of constructed types can be substituted more than once, their definitions are unique
+    var methods = getMethods();
+    for (int i = 0; i < methods.length; i++) {
+      if (methods[i] == method || methods[i].getDefinition() == method.getDefinition()) {
+        return lazyMethodSlots[i];
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Gets the implementation of a virtual method for instances of this type.
+   *
+   * @param declaringType the class or interface declaring the method
+   * @param slot the slot of the method in the vtable of the declaring type
+   * @return the implementation, or null if this type does not implement the method
+   */
+  public MethodSymbol getVirtualMethod(NamedTypeSymbol declaringType, int slot) {
+    if (!declaringType.isInterface()) {
+      var vtable = getVTable();
+      return slot < vtable.length ? vtable[slot] : null;
+    }
+
+    var interfaces = getITableInterfaces();
+    int id = declaringType.getInterfaceId();
+    int i = id < lazyITableIndex.length ? lazyITableIndex[id] : -1;
+    if (i < 0) return null;
+
+    var row = lazyITable[i];
+    if (row == null) {
+      // Rows are filled on first use, types tend to implement many interfaces never called
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      row = LazyFactory.createITableRow(this, interfaces[i]);
+      // Threads racing on a row create equal ones, the fence publishes a filled row
+      VarHandle.releaseFence();
+      lazyITable[i] = row;
+    }
+    return row[slot];
+  }
+
+  private NamedTypeSymbol[] getITableInterfaces() {
+    if (lazyITableInterfaces == null) {
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      var interfaces = LazyFactory.createITableInterfaces(this);
+      int maxId = -1;
+      for (var iface : interfaces) {
+        maxId = Math.max(maxId, iface.getInterfaceId());
+      }
+      var index = new int[maxId + 1];
+      Arrays.fill(index, -1);
+      for (int i = 0; i < interfaces.length; i++) {
+        index[interfaces[i].getInterfaceId()] = i;
+      }
+      // The tables have to exist before the interfaces are published
+      lazyITableIndex = index;
+      lazyITable = new MethodSymbol[interfaces.length][];
+      lazyITableInterfaces = interfaces;
+    }
+
+    return lazyITableInterfaces;
+  }
+
+  /**
+   * Gets the implementation of a virtual method for instances of this type.
+   *
+   * @return the implementation, or null if the method has no slot or this type does not implement
+   *     it
+   */
+  public MethodSymbol resolveVirtualMethod(MethodSymbol method) {
+    int slot = method.getDefiningType().getVTableSlot(method);
+    return slot < 0 ? null : getVirtualMethod(method.getDefiningType(), slot);
+  }
+
   public StaticField getAssignableInstanceField(
       FieldSymbol field, VirtualFrame frame, int topStack) {
     if (instanceShape == null) {
@@ -219,7 +446,7 @@ public class NamedTypeSymbol extends TypeSymbol {
   }
 
   public StaticField getAssignableStaticField(FieldSymbol field, VirtualFrame frame, int topStack) {
-    if (staticShape == null) {
+    if (staticShape == null || !isInitialized(frame)) {
       createShapes(frame, topStack);
     }
 
@@ -228,7 +455,7 @@ public class NamedTypeSymbol extends TypeSymbol {
   }
 
   public StaticObject getStaticInstance(VirtualFrame frame, int topStack) {
-    if (staticInstance == null) {
+    if (staticInstance == null || !isInitialized(frame)) {
       createShapes(frame, topStack);
     }
 
@@ -248,6 +475,20 @@ public class NamedTypeSymbol extends TypeSymbol {
     return typeParameters;
   }
 
+  /**
+   * Finds the instantiation of a generic type definition among the type and its base classes, or
+   * returns null if the type does not derive from it.
+   */
+  public NamedTypeSymbol getInstantiationOf(NamedTypeSymbol definition) {
+    // Instantiations share the type parameters of their definition
+    NamedTypeSymbol type = this;
+    while (type != null && type.getTypeParameters() != definition.getTypeParameters()) {
+      type = type.getDirectBaseClass();
+    }
+
+    return type;
+  }
+
   public TypeMap getTypeMap() {
     return map;
   }
@@ -316,17 +557,25 @@ public class NamedTypeSymbol extends TypeSymbol {
   @Override
   public boolean equals(Object obj) {
     return obj instanceof NamedTypeSymbol other
+        && other.isArray() == isArray()
         && other.getName().equals(getName())
         && other.getNamespace().equals(getNamespace())
         && Arrays.equals(other.getTypeArguments(), getTypeArguments());
   }
 
+  @Override
+  public int hashCode() {
+    return Objects.hash(getName(), getNamespace());
+  }
+
   // endregion
 
   // region SOM shapes
   public StaticShape<StaticObject.StaticObjectFactory> getShape(
       VirtualFrame frame, int topStack, boolean isStatic) {
-    if (isStatic && staticShape == null || !isStatic && instanceShape == null) {
+    if (isStatic && staticShape == null
+        || !isStatic && instanceShape == null
+        || !isInitialized(frame)) {
       createShapes(frame, topStack);
     }
 
@@ -341,8 +590,22 @@ public class NamedTypeSymbol extends TypeSymbol {
     return instanceFields;
   }
 
+  /**
+   * The hidden property intrinsics keep the host state of instances in, such as the host thread of
+   * a {@code System.Threading.Thread}.
+   *
+   * @return null if instances of the type have no host state
+   */
+  public StaticProperty getHostStorageProperty() {
+    if (instanceShape == null) {
+      createShapes(null, 0);
+    }
+
+    return hostStorageProperty;
+  }
+
   public StaticField[] getStaticFields(VirtualFrame frame, int topStack) {
-    if (staticFields == null) {
+    if (staticFields == null || !isInitialized(frame)) {
       createShapes(frame, topStack);
     }
 
@@ -357,9 +620,130 @@ public class NamedTypeSymbol extends TypeSymbol {
     return sizeInBytes;
   }
 
+  /** The estimated size of an instance in bytes, its header and its instance fields. */
+  public int getInstanceSize(VirtualFrame frame, int topStack) {
+    if (instanceShape == null) {
+      createShapes(frame, topStack);
+    }
+
+    return instanceSizeInBytes;
+  }
+
+  /** Whether a frame accessing the type needs no static constructor to run or wait for. */
+  private boolean isInitialized(VirtualFrame frame) {
+    // Without a frame the static constructor cannot run, the type is only laid out
+    return frame == null || initializationState == InitializationState.DONE;
+  }
+
   private void createShapes(VirtualFrame frame, int topStack) {
+    if (frame != null && staticInstance != null) {
+      // The static constructor accessing its type, compiled code of a loop inside it keeps coming
+      // here until the constructor returns and must not be invalidated on every access
+      if (isInitializingThread()) return;
+      if (initializationState == InitializationState.FAILED) {
+        CompilerDirectives.transferToInterpreter();
+        throw createTypeInitializationException(frame, topStack);
+      }
+    }
+
     CompilerDirectives.transferToInterpreterAndInvalidate();
 
+    MethodSymbol staticConstructor;
+    synchronized (this) {
+      // Another thread could have laid out the type while this one was waiting
+      if (staticInstance == null) layOut(frame, topStack);
+      if (frame == null) return;
+
+      // Other threads wait for the static constructor, the thread running it can access the type
+      // recursively and sees its static fields before the constructor returns
+      Thread thread = Thread.currentThread();
+      while (initializationState == InitializationState.RUNNING && initializingThread != thread) {
+        // Waiting would deadlock, the thread sees the static fields before the constructor returns
+        if (!startWaiting(thread)) return;
+        try {
+          TruffleSafepoint.setBlockedThreadInterruptible(null, Object::wait, this);
+        } finally {
+          stopWaiting(thread);
+        }
+      }
+
+      if (initializationState == InitializationState.FAILED) {
+        staticConstructor = null;
+      } else if (initializationState != InitializationState.NOT_STARTED) {
+        return;
+      } else {
+        var classMember =
+            SymbolResolver.resolveMethod(this, ".cctor", new TypeSymbol[0], new TypeSymbol[0], 0);
+        if (classMember == null) {
+          initializationState = InitializationState.DONE;
+          return;
+        }
+
+        staticConstructor = classMember.member;
+        initializingThread = thread;
+        initializationState = InitializationState.RUNNING;
+      }
+    }
+
+    // Thrown outside the lock, creating the exception can initialize other types
+    if (staticConstructor == null) throw createTypeInitializationException(frame, topStack);
+
+    // The static constructor runs outside the lock, it can wait for types initialized by other
+    // threads
+    boolean initialized = false;
+    try {
+      callStaticConstructor(frame, topStack, staticConstructor);
+      initialized = true;
+    } catch (RuntimeCILException e) {
+      throw createTypeInitializationException(frame, topStack);
+    } finally {
+      synchronized (this) {
+        initializingThread = null;
+        initializationState = initialized ? InitializationState.DONE : InitializationState.FAILED;
+        notifyAll();
+      }
+    }
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private boolean isInitializingThread() {
+    return initializationState == InitializationState.RUNNING
+        && initializingThread == Thread.currentThread();
+  }
+
+  /**
+   * Registers the thread as waiting for the type, unless the thread initializing the type waits,
+   * directly or through other initializing threads, for a type the thread is initializing.
+   *
+   * @return false if waiting would deadlock
+   */
+  private boolean startWaiting(Thread thread) {
+    synchronized (awaitedTypes) {
+      Thread owner = initializingThread;
+      // Bounded, the owners change while their chain is followed
+      for (int i = 0; owner != null && i <= awaitedTypes.size(); i++) {
+        if (owner == thread) return false;
+        NamedTypeSymbol awaited = awaitedTypes.get(owner);
+        owner = awaited == null ? null : awaited.initializingThread;
+      }
+
+      awaitedTypes.put(thread, this);
+      return true;
+    }
+  }
+
+  private static void stopWaiting(Thread thread) {
+    synchronized (awaitedTypes) {
+      awaitedTypes.remove(thread);
+    }
+  }
+
+  private RuntimeCILException createTypeInitializationException(VirtualFrame frame, int topStack) {
+    return RuntimeCILException.RuntimeCILExceptionFactory.create(
+        RuntimeCILException.Exception.TypeInitialization, getContext(), frame, topStack);
+  }
+
+  private void layOut(VirtualFrame frame, int topStack) {
     LinkedFieldLayout layout =
         new LinkedFieldLayout(
             getContext(),
@@ -369,25 +753,19 @@ public class NamedTypeSymbol extends TypeSymbol {
             staticFieldIndexMapping,
             frame,
             topStack);
-    instanceShape = layout.instanceShape;
-    staticShape = layout.staticShape;
     instanceFields = layout.instanceFields;
     staticFields = layout.staticFields;
+    instanceSizeInBytes = calculateInstanceSizeInBytes();
+    NamedTypeSymbol baseClass = getDirectBaseClass();
+    hostStorageProperty =
+        layout.hostStorageProperty != null || baseClass == null
+            ? layout.hostStorageProperty
+            : baseClass.getHostStorageProperty();
+    instanceShape = layout.instanceShape;
+    staticShape = layout.staticShape;
     sizeInBytes = calculateSizeInBytes(frame, topStack);
-    initializeStaticInstance(frame, topStack);
-  }
-
-  @ExplodeLoop
-  private void initializeStaticInstance(VirtualFrame frame, int topStack) {
+    // Published last, a thread seeing it sees the whole layout
     staticInstance = staticShape.getFactory().create(this);
-    if (frame == null) {
-      return;
-    }
-    var classMember =
-        SymbolResolver.resolveMethod(this, ".cctor", new TypeSymbol[0], new TypeSymbol[0], 0);
-    if (classMember != null) {
-      callStaticConstructor(frame, topStack, classMember.member);
-    }
   }
 
   private void callStaticConstructor(VirtualFrame frame, int topStack, MethodSymbol constructor) {
@@ -410,6 +788,15 @@ public class NamedTypeSymbol extends TypeSymbol {
     return sizeInBytes;
   }
 
+  private int calculateInstanceSizeInBytes() {
+    int size = GuestAllocator.OBJECT_HEADER_SIZE;
+    for (StaticField field : instanceFields) {
+      size += GuestAllocator.getFieldSize(field.getKind());
+    }
+
+    return size;
+  }
+
   private int tryGetSizeInBytes() {
     return switch (getSystemType()) {
       case Boolean -> 1;
@@ -608,6 +995,170 @@ public class NamedTypeSymbol extends TypeSymbol {
       return result;
     }
 
+    private static void createInterfaceBits(NamedTypeSymbol type) {
+      var interfaces = new LinkedHashSet<NamedTypeSymbol>();
+      if (type.isInterface()) interfaces.add(type);
+      var base = type.isInterface() ? null : type.getDirectBaseClass();
+      if (base != null) interfaces.addAll(Arrays.asList(base.getAllInterfaces()));
+      for (var iface : type.getInterfaces()) {
+        interfaces.addAll(Arrays.asList(iface.getAllInterfaces()));
+      }
+
+      int maxId = -1;
+      for (var iface : interfaces) {
+        maxId = Math.max(maxId, iface.getInterfaceId());
+      }
+      var bits = new long[maxId < 0 ? 0 : (maxId >>> 6) + 1];
+      for (var iface : interfaces) {
+        bits[iface.getInterfaceId() >>> 6] |= 1L << iface.getInterfaceId();
+      }
+
+      type.lazyAllInterfaces = interfaces.toArray(new NamedTypeSymbol[0]);
+      type.lazyInterfaceBits = bits;
+    }
+
+    private static void createDispatchTables(NamedTypeSymbol type) {
+      var methods = type.getMethods();
+      var slots = new int[methods.length];
+      var base = type.isInterface() ? null : type.getDirectBaseClass();
+      var vtable =
+          base == null
+              ? new ArrayList<MethodSymbol>()
+              : new ArrayList<>(Arrays.asList(base.getVTable()));
+      int inheritedSlots = vtable.size();
+
+      for (int i = 0; i < methods.length; i++) {
+        var flags = methods[i].getMethodFlags();
+        if (!flags.hasFlag(MethodSymbol.MethodFlags.Flag.VIRTUAL)
+            || flags.hasFlag(MethodSymbol.MethodFlags.Flag.STATIC)) {
+          slots[i] = -1;
+          continue;
+        }
+
+        int slot =
+            flags.hasFlag(MethodSymbol.MethodFlags.Flag.NEW_SLOT)
+                ? -1
+                : findOverriddenSlot(vtable, inheritedSlots, methods[i]);
+        if (slot < 0) {
+          slot = vtable.size();
+          vtable.add(methods[i]);
+        } else {
+          vtable.set(slot, methods[i]);
+        }
+        slots[i] = slot;
+      }
+
+      // Explicit overrides of base class methods
+      for (var methodImpl : type.getMethodsImpl().entrySet()) {
+        var declaringType = methodImpl.getKey().getDefiningType();
+        if (declaringType.isInterface()) continue;
+
+        int slot = declaringType.getVTableSlot(methodImpl.getKey());
+        if (slot >= 0 && slot < vtable.size()) vtable.set(slot, methodImpl.getValue());
+      }
+
+      type.lazyMethodSlots = slots;
+      type.lazyVTable = vtable.toArray(new MethodSymbol[0]);
+    }
+
+    private static int findOverriddenSlot(
+        List<MethodSymbol> vtable, int inheritedSlots, MethodSymbol method) {
+      // The most derived declaration with a matching signature is overridden
+      for (int slot = inheritedSlots - 1; slot >= 0; slot--) {
+        if (hasSameSignature(vtable.get(slot), method)) return slot;
+      }
+
+      return -1;
+    }
+
+    private static NamedTypeSymbol[] createITableInterfaces(NamedTypeSymbol type) {
+      // Interfaces are never the runtime type of an instance, so they need no table of their own
+      return type.isInterface() ? new NamedTypeSymbol[0] : type.getAllInterfaces();
+    }
+
+    private static MethodSymbol[] createITableRow(NamedTypeSymbol type, NamedTypeSymbol iface) {
+      var declarations = iface.getVTable();
+      var row = new MethodSymbol[declarations.length];
+      for (int slot = 0; slot < declarations.length; slot++) {
+        row[slot] = findInterfaceImplementation(type, declarations[slot]);
+      }
+
+      return row;
+    }
+
+    /** Partition II: 12.2 Implementing virtual methods on interfaces. */
+    private static MethodSymbol findInterfaceImplementation(
+        NamedTypeSymbol type, MethodSymbol declaration) {
+      for (var current = type; current != null; current = current.getDirectBaseClass()) {
+        for (var methodImpl : current.getMethodsImpl().entrySet()) {
+          if (isSameDeclaration(methodImpl.getKey(), declaration)) {
+            return getOverride(type, methodImpl.getValue());
+          }
+        }
+
+        // Only virtual methods implement interfaces, a non-virtual method hiding the
+        // implementation of a base class is skipped
+        for (var method : current.getMethods()) {
+          var flags = method.getMethodFlags();
+          if (flags.hasFlag(MethodSymbol.MethodFlags.Flag.VIRTUAL)
+              && !flags.hasFlag(MethodSymbol.MethodFlags.Flag.STATIC)
+              && flags.hasFlag(MethodSymbol.MethodFlags.Flag.PUBLIC)
+              && hasSameSignature(method, declaration)) {
+            return getOverride(type, method);
+          }
+        }
+      }
+
+      // Default interface method
+      return declaration.getMethodFlags().hasFlag(MethodSymbol.MethodFlags.Flag.ABSTRACT)
+          ? null
+          : declaration;
+    }
+
+    /** Gets the most derived override of the method in the type. */
+    private static MethodSymbol getOverride(NamedTypeSymbol type, MethodSymbol method) {
+      int slot = method.getDefiningType().getVTableSlot(method);
+      return slot < 0 ? method : type.getVTable()[slot];
+    }
+
+    private static boolean isSameDeclaration(MethodSymbol method, MethodSymbol other) {
+      return method == other
+          || (method.getDefinition() == other.getDefinition()
+              && method.getDefiningType().equals(other.getDefiningType()));
+    }
+
+    private static boolean hasSameSignature(MethodSymbol method, MethodSymbol other) {
+      if (!method.getName().equals(other.getName())
+          || method.getTypeParameters().length != other.getTypeParameters().length
+          || method.getParameters().length != other.getParameters().length) return false;
+
+      for (int i = 0; i < method.getParameters().length; i++) {
+        if (!isSameType(method.getParameters()[i].getType(), other.getParameters()[i].getType()))
+          return false;
+      }
+
+      return true;
+    }
+
+    private static boolean isSameType(TypeSymbol type, TypeSymbol other) {
+      if (type == other) return true;
+
+      if (type instanceof TypeParameterSymbol typeParam
+          && other instanceof TypeParameterSymbol otherParam) {
+        // Method type parameters are matched by position
+        return typeParam.getOrdinal() == otherParam.getOrdinal();
+      }
+
+      if (type instanceof ArrayTypeSymbol array && other instanceof ArrayTypeSymbol otherArray) {
+        return array.getRank() == otherArray.getRank()
+            && isSameType(array.getElementType(), otherArray.getElementType());
+      }
+
+      return !(type instanceof ArrayTypeSymbol)
+          && !(other instanceof ArrayTypeSymbol)
+          && type.equals(other);
+    }
+
     public static FieldSymbol[] createFields(
         NamedTypeSymbol namedTypeSymbol, CLITypeDefTableRow row) {
       var fieldRange =
@@ -24,15 +24,22 @@ public class SubstitutedMethodSymbol extends MethodSymbol {
         createLocals(constructedFrom.locals, map),
         createReturn(constructedFrom.returnSymbol, map),
         createHandlers(constructedFrom.exceptionHandlers, map),
-        constructedFrom.cil,
+        // Every instantiation patches its own copy of the bytecode when nodeizing
+        constructedFrom.originalCil.clone(),
         constructedFrom.maxStack,
         constructedFrom.methodHeaderFlags,
-        constructedFrom.isInternalCall);
+        constructedFrom.isInternalCall,
+        constructedFrom.methodDefRow);
     this.definition = definition;
     this.constructedFrom = constructedFrom;
     this.map = map;
   }
 
+  @Override
+  public MethodSymbol getDefinition() {
+    return definition;
+  }
+
   // region create helpers
   private static TypeParameterSymbol[] createTypeParameters(
       TypeParameterSymbol[] symbols, TypeMap map) {
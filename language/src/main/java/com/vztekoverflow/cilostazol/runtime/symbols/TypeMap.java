@@ -2,37 +2,101 @@ package com.vztekoverflow.cilostazol.runtime.symbols;
 
 import com.vztekoverflow.cilostazol.runtime.other.SymbolResolver;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
+/**
+ * Substitution of type parameters by the type arguments of a generic instantiation. Type parameters
+ * are looked up by their ordinal, as VAR and MVAR signatures do.
+ */
 public class TypeMap {
-  private final HashMap<TypeParameterSymbol, TypeSymbol> map;
+  private static final TypeSymbol[] EMPTY = new TypeSymbol[0];
+
+  private final TypeSymbol[] typeArguments;
+  private final TypeSymbol[] methodTypeArguments;
+  // Open types and arrays of them are substituted again on every member resolution. Substitutions
+  // are done outside of the lock, racing threads resolve them to the same cached symbol.
+  private final Map<TypeSymbol, TypeSymbol> substituted =
+      Collections.synchronizedMap(new IdentityHashMap<>());
 
   public TypeMap(TypeParameterSymbol[] from, TypeSymbol[] to) {
-    this.map = new HashMap<>();
-    for (int i = 0; i < from.length; i++) {
-      map.put(from[i], to[i]);
-    }
+    this(EMPTY, EMPTY, from, to);
   }
 
   public TypeMap(TypeMap map, TypeParameterSymbol[] from, TypeSymbol[] to) {
-    this.map = new HashMap<>();
-    this.map.putAll(map.map);
+    this(map.typeArguments, map.methodTypeArguments, from, to);
+  }
+
+  private TypeMap(
+      TypeSymbol[] typeArguments,
+      TypeSymbol[] methodTypeArguments,
+      TypeParameterSymbol[] from,
+      TypeSymbol[] to) {
     for (int i = 0; i < from.length; i++) {
-      this.map.put(from[i], to[i]);
+      int ordinal = from[i].getOrdinal();
+      if (from[i].isMethodTypeParameter()) {
+        methodTypeArguments = set(methodTypeArguments, ordinal, to[i]);
+      } else {
+        typeArguments = set(typeArguments, ordinal, to[i]);
+      }
     }
+
+    this.typeArguments = typeArguments;
+    this.methodTypeArguments = methodTypeArguments;
+  }
+
+  private static TypeSymbol[] set(TypeSymbol[] arguments, int ordinal, TypeSymbol argument) {
+    // Never write to the arrays of another map
+    TypeSymbol[] result = Arrays.copyOf(arguments, Math.max(arguments.length, ordinal + 1));
+    result[ordinal] = argument;
+    return result;
   }
 
   private TypeSymbol substituteTypeParameter(TypeParameterSymbol symbol) {
-    return map.getOrDefault(symbol, symbol);
+    TypeSymbol[] arguments = symbol.isMethodTypeParameter() ? methodTypeArguments : typeArguments;
+    int ordinal = symbol.getOrdinal();
+    if (ordinal >= arguments.length || arguments[ordinal] == null) return symbol;
+
+    return arguments[ordinal];
   }
 
   private NamedTypeSymbol substituteNamedTypeSymbol(NamedTypeSymbol symbol) {
     if (symbol.isClosed()) return symbol;
 
-    var typeArgs = symbol.getTypeArguments();
-    var replacedTypeArgs = Arrays.stream(typeArgs).map(this::substitute).toArray(TypeSymbol[]::new);
-    return (NamedTypeSymbol)
-        SymbolResolver.resolveType(symbol, replacedTypeArgs, symbol.getContext());
+    var result = (NamedTypeSymbol) substituted.get(symbol);
+    if (result == null) {
+      var typeArgs = symbol.getTypeArguments();
+      var replacedTypeArgs = new TypeSymbol[typeArgs.length];
+      for (int i = 0; i < typeArgs.length; i++) {
+        replacedTypeArgs[i] = substitute(typeArgs[i]);
+      }
+
+      result =
+          (NamedTypeSymbol)
+              SymbolResolver.resolveType(symbol, replacedTypeArgs, symbol.getContext());
+      substituted.put(symbol, result);
+    }
+
+    return result;
+  }
+
+  private TypeSymbol substituteArrayTypeSymbol(ArrayTypeSymbol symbol) {
+    if (symbol.isClosed()) return symbol;
+
+    var result = substituted.get(symbol);
+    if (result == null) {
+      result =
+          SymbolResolver.resolveArray(
+              substitute(symbol.getElementType()),
+              symbol.getRank(),
+              symbol.getLengths(),
+              symbol.getLowerBounds(),
+              symbol.getContext());
+      substituted.put(symbol, result);
+    }
+
+    return result;
   }
 
   /**
@@ -48,18 +112,16 @@ public class TypeMap {
     if (symbol instanceof TypeParameterSymbol typeParameterSymbol) {
       return substituteTypeParameter(typeParameterSymbol);
     } else if (symbol instanceof ArrayTypeSymbol arrayTypeSymbol) {
-      return SymbolResolver.resolveArray(
-          substitute(arrayTypeSymbol.getElementType()),
-          arrayTypeSymbol.getRank(),
-          arrayTypeSymbol.getLengths(),
-          arrayTypeSymbol.getLowerBounds(),
-          arrayTypeSymbol.getContext());
+      return substituteArrayTypeSymbol(arrayTypeSymbol);
     } else {
       return substituteNamedTypeSymbol((NamedTypeSymbol) symbol);
     }
   }
 
   public NamedTypeSymbol substitute(NamedTypeSymbol symbol) {
+    if (symbol instanceof ArrayTypeSymbol arrayTypeSymbol)
+      return (NamedTypeSymbol) substituteArrayTypeSymbol(arrayTypeSymbol);
+
     return substituteNamedTypeSymbol(symbol);
   }
 
@@ -4,6 +4,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.vztekoverflow.cil.parser.cli.table.CLITablePtr;
 import com.vztekoverflow.cil.parser.cli.table.generated.CLIGenericParamConstraintTableRow;
 import com.vztekoverflow.cil.parser.cli.table.generated.CLIGenericParamTableRow;
+import com.vztekoverflow.cil.parser.cli.table.generated.CLITableConstants;
 import com.vztekoverflow.cilostazol.exceptions.InvalidOperationException;
 import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType;
@@ -17,6 +18,8 @@ public final class TypeParameterSymbol extends TypeSymbol {
 
   private final GenericParameterFlags flags;
   private final int ordinal;
+  // Partition II: 23.2.12, type parameters of methods are MVARs and those of types are VARs
+  private final boolean methodTypeParameter;
   private final String name;
 
   private TypeParameterSymbol(
@@ -24,11 +27,13 @@ public final class TypeParameterSymbol extends TypeSymbol {
       TypeSymbol[] constraints,
       GenericParameterFlags flags,
       int ordinal,
+      boolean methodTypeParameter,
       String name) {
     super(definingModule, CILOSTAZOLFrame.StackType.Object, SystemType.Void);
     this.constraints = constraints;
     this.flags = flags;
     this.ordinal = ordinal;
+    this.methodTypeParameter = methodTypeParameter;
     this.name = name;
   }
 
@@ -48,6 +53,10 @@ public final class TypeParameterSymbol extends TypeSymbol {
     return ordinal;
   }
 
+  public boolean isMethodTypeParameter() {
+    return methodTypeParameter;
+  }
+
   @Override
   protected int getHierarchyDepth() {
     throw new InvalidOperationException();
@@ -87,7 +96,12 @@ public final class TypeParameterSymbol extends TypeSymbol {
     public static TypeParameterSymbol createWith(
         TypeParameterSymbol symbol, TypeSymbol[] constrains) {
       return new TypeParameterSymbol(
-          symbol.definingModule, constrains, symbol.flags, symbol.ordinal, null);
+          symbol.definingModule,
+          constrains,
+          symbol.flags,
+          symbol.ordinal,
+          symbol.methodTypeParameter,
+          null);
     }
 
     public static TypeParameterSymbol create(
@@ -98,6 +112,7 @@ public final class TypeParameterSymbol extends TypeSymbol {
           null,
           new GenericParameterFlags(flags),
           row.getNumber(),
+          row.getOwnerTablePtr().getTableId() == CLITableConstants.CLI_TABLE_METHOD_DEF,
           row.getNameHeapPtr().read(module.getDefiningFile().getStringHeap()));
     }
 
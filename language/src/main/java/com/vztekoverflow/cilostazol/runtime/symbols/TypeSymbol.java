@@ -9,7 +9,6 @@ import com.vztekoverflow.cil.parser.cli.AssemblyIdentity;
 import com.vztekoverflow.cilostazol.nodes.CILOSTAZOLFrame;
 import com.vztekoverflow.cilostazol.runtime.context.ContextProviderImpl;
 import com.vztekoverflow.cilostazol.runtime.objectmodel.SystemType;
-import java.util.Arrays;
 
 public abstract class TypeSymbol extends Symbol {
   protected final ModuleSymbol definingModule;
@@ -67,13 +66,19 @@ public abstract class TypeSymbol extends Symbol {
     if (this.isArray() && other.isArray()) {
       ArrayTypeSymbol thisArray = (ArrayTypeSymbol) this;
       ArrayTypeSymbol otherArray = (ArrayTypeSymbol) other;
-      if (thisArray.getRank() == otherArray.getRank()) {
-        return thisArray.getElementType().isAssignableFrom(otherArray.getElementType());
+      if (thisArray.getRank() != otherArray.getRank()) return false;
+
+      TypeSymbol thisElement = thisArray.getElementType();
+      TypeSymbol otherElement = otherArray.getElementType();
+      // Array covariance only applies to arrays of reference types
+      if (isValueType(thisElement) || isValueType(otherElement)) {
+        return thisElement == otherElement || thisElement.equals(otherElement);
       }
-      return false;
+      return thisElement.isAssignableFrom(otherElement);
     }
-    // Both array case handled above
-    if (this.isArray() || other.isArray()) {
+    // Arrays are only assignable to arrays, but they are assignable to their base classes and
+    // interfaces
+    if (this.isArray()) {
       return false;
     }
 
@@ -83,6 +88,12 @@ public abstract class TypeSymbol extends Symbol {
     return checkOrdinaryClassSubclassing(other);
   }
 
+  private static boolean isValueType(TypeSymbol type) {
+    return type instanceof NamedTypeSymbol namedType
+        && !namedType.isArray()
+        && namedType.isValueType();
+  }
+
   /**
    * Performs type checking for non-interface, non-array classes.
    *
@@ -101,8 +112,52 @@ public abstract class TypeSymbol extends Symbol {
    * @return true if {@code this} is a super interface of {@code other}
    */
   public boolean checkInterfaceSubclassing(TypeSymbol other) {
-    NamedTypeSymbol[] interfaces = other.getInterfaces();
-    return fastLookup(this, interfaces) >= 0;
+    if (!(this instanceof NamedTypeSymbol iface) || !(other instanceof NamedTypeSymbol type)) {
+      NamedTypeSymbol[] interfaces = other.getInterfaces();
+      return fastLookup(this, interfaces) >= 0;
+    }
+
+    return type.implementsInterface(iface)
+        || (iface.isVariant() && checkVariantInterfaceSubclassing(iface, type));
+  }
+
+  @CompilerDirectives.TruffleBoundary
+  private static boolean checkVariantInterfaceSubclassing(
+      NamedTypeSymbol iface, NamedTypeSymbol type) {
+    for (NamedTypeSymbol candidate : type.getAllInterfaces()) {
+      if (isVariantAssignable(iface, candidate)) return true;
+    }
+
+    return false;
+  }
+
+  /** Partition I: 8.7 Assignment compatibility, variance of generic type arguments. */
+  private static boolean isVariantAssignable(NamedTypeSymbol target, NamedTypeSymbol source) {
+    // Instantiations of the same generic type share the type parameters of the definition
+    if (!(source instanceof ConstructedNamedTypeSymbol)
+        || source.getTypeParameters() != target.getTypeParameters()) return false;
+
+    TypeParameterSymbol[] typeParameters = target.getTypeParameters();
+    TypeSymbol[] targetArguments = target.getTypeArguments();
+    TypeSymbol[] sourceArguments = source.getTypeArguments();
+    for (int i = 0; i < typeParameters.length; i++) {
+      TypeSymbol targetArgument = targetArguments[i];
+      TypeSymbol sourceArgument = sourceArguments[i];
+      if (targetArgument == sourceArgument || targetArgument.equals(sourceArgument)) continue;
+
+      var flags = typeParameters[i].getFlags();
+      if (flags.hasFlag(TypeParameterSymbol.GenericParameterFlags.Flag.COVARIANT)) {
+        if (isValueType(sourceArgument) || !targetArgument.isAssignableFrom(sourceArgument))
+          return false;
+      } else if (flags.hasFlag(TypeParameterSymbol.GenericParameterFlags.Flag.CONTRAVARIANT)) {
+        if (isValueType(targetArgument) || !sourceArgument.isAssignableFrom(targetArgument))
+          return false;
+      } else {
+        return false;
+      }
+    }
+
+    return true;
   }
 
   protected abstract int getHierarchyDepth();
@@ -119,7 +174,13 @@ public abstract class TypeSymbol extends Symbol {
   public abstract boolean isClosed();
 
   public boolean isCovariantTo(TypeSymbol other) {
-    return this.equals(other) || Arrays.asList(getSuperClasses()).contains(other);
+    if (this.equals(other)) return true;
+
+    for (NamedTypeSymbol superClass : getSuperClasses()) {
+      if (superClass.equals(other)) return true;
+    }
+
+    return false;
   }
 
   public abstract NamedTypeSymbol[] getInterfaces();
@@ -149,6 +149,7 @@ public class StaticOpCodeAnalyser {
     switch (curOpcode) {
       case NOP:
       case BREAK:
+      case VOLATILE:
         break;
 
       case STLOC_0:
@@ -645,10 +646,13 @@ public class StaticOpCodeAnalyser {
         clear(stack, topStack - 2);
         break;
       case LDFTN:
-        push(stack, topStack, ManagedPointer);
+        // Method pointers are native ints, which are objects on the stack
+        push(stack, topStack, Object);
         break;
-      case LOCALLOC:
       case LDVIRTFTN:
+        replace(stack, topStack, Object);
+        break;
+      case LOCALLOC:
         replace(stack, topStack, ManagedPointer);
         break;
       case LDTOKEN:
@@ -0,0 +1,103 @@
+package com.vztekoverflow.cilostazol.runtime.collections;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+
+public class LongObjectHashMapTests extends TestCase {
+  public void testPutGet() {
+    LongObjectHashMap map = new LongObjectHashMap();
+    assertNull(map.put(1, "a"));
+    assertNull(map.put(-1, "b"));
+    assertEquals("a", map.put(1, "c"));
+
+    assertEquals(2, map.size());
+    assertEquals("c", map.get(1));
+    assertEquals("b", map.get(-1));
+    assertNull(map.get(2));
+    assertTrue(map.containsKey(-1));
+    assertFalse(map.containsKey(0));
+  }
+
+  public void testGrow() {
+    LongObjectHashMap map = new LongObjectHashMap();
+    for (long i = 0; i < 10_000; i++) {
+      map.put(i << 32, i);
+    }
+
+    assertEquals(10_000, map.size());
+    for (long i = 0; i < 10_000; i++) {
+      assertEquals(i, map.get(i << 32));
+    }
+  }
+
+  public void testRemove() {
+    LongObjectHashMap map = new LongObjectHashMap(4);
+    for (long i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+    for (long i = 0; i < 100; i += 2) {
+      assertEquals(i, map.remove(i));
+    }
+
+    assertNull(map.remove(0));
+    assertEquals(50, map.size());
+    for (long i = 0; i < 100; i++) {
+      assertEquals(i % 2 == 0 ? null : (Object) i, map.get(i));
+    }
+
+    map.clear();
+    assertEquals(0, map.size());
+    assertNull(map.get(1));
+  }
+
+  public void testInsertionOrder() {
+    LongObjectHashMap map = new LongObjectHashMap();
+    LinkedHashMap<Long, Object> expected = new LinkedHashMap<>();
+    for (long i = 0; i < 1000; i++) {
+      // Descending keys so that the slot order differs from the insertion order
+      long key = (1000 - i) * 31;
+      map.put(key, i);
+      expected.put(key, i);
+    }
+    for (long i = 0; i < 1000; i += 3) {
+      map.remove(i * 31);
+      expected.remove(i * 31);
+    }
+    map.put(31 * 500, "overwritten");
+    expected.put(31L * 500, "overwritten");
+
+    List<Long> keys = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+    map.forEachInInsertionOrder(
+        (key, value) -> {
+          keys.add(key);
+          values.add(value);
+        });
+    assertEquals(new ArrayList<>(expected.keySet()), keys);
+    assertEquals(new ArrayList<>(expected.values()), values);
+  }
+
+  public void testAgainstHashMap() {
+    Random random = new Random(42);
+    LongObjectHashMap map = new LongObjectHashMap();
+    HashMap<Long, Object> expected = new HashMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      // A small key range makes collisions, overwrites and removals of present keys frequent
+      long key = random.nextInt(512) - 256;
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+
+    for (long key = -256; key < 256; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+}
@@ -1,23 +1,50 @@
 package com.vztekoverflow.cilostazol.launcher;
 
+import com.vztekoverflow.cilostazol.CILOSTAZOLEngineOption;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.graalvm.launcher.AbstractLanguageLauncher;
 import org.graalvm.options.OptionCategory;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 
 public class CILOSTAZOLLauncher extends AbstractLanguageLauncher {
 
   public static final String LANGUAGE_ID = "cil";
+  private static final String ITERATIONS_OPTION = "--iterations";
+  private static final String CONTEXTS_OPTION = "--contexts";
+  private static final String SERVER_OPTION = "--server";
+  private static final String EXPERIMENTAL_OPTIONS_OPTION = "--experimental-options";
   private String inputFile = null;
   private int returnValue = 0;
+  private int iterations = 1;
+  private int contexts = 1;
+  private boolean server = false;
+  // Requests are read from the standard input when no port is given
+  private int serverPort = 0;
+  // The shared engine takes the experimental options the launcher was allowed to pass
+  private boolean experimentalOptions = false;
+  // The server enables the experimental shared libraries even when experimental options are not
+  private boolean sharesLibrariesByDefault = false;
+  private final Map<String, String> engineOptions = new HashMap<>();
 
   public static void main(String[] args) {
     CILOSTAZOLLauncher launcher = new CILOSTAZOLLauncher();
@@ -40,12 +67,25 @@ public class CILOSTAZOLLauncher extends AbstractLanguageLauncher {
     for (String arg : arguments) {
       if (!arg.startsWith("-")) {
         inputFile = arg;
+      } else if (arg.startsWith(ITERATIONS_OPTION + "=")) {
+        iterations = parsePositive(arg, ITERATIONS_OPTION);
+      } else if (arg.startsWith(CONTEXTS_OPTION + "=")) {
+        contexts = parsePositive(arg, CONTEXTS_OPTION);
+      } else if (arg.equals(SERVER_OPTION)) {
+        server = true;
+      } else if (arg.startsWith(SERVER_OPTION + "=")) {
+        server = true;
+        serverPort = parsePositive(arg, SERVER_OPTION);
       } else {
+        // Still parsed by the launcher, which allows them for the context
+        if (arg.equals(EXPERIMENTAL_OPTIONS_OPTION)
+            || arg.startsWith(EXPERIMENTAL_OPTIONS_OPTION + "="))
+          experimentalOptions = !arg.equals(EXPERIMENTAL_OPTIONS_OPTION + "=false");
         unrecognized.add(arg);
       }
     }
 
-    if (inputFile == null) {
+    if (inputFile == null && !server) {
       printUsage();
       System.exit(getReturnValue());
     }
@@ -53,23 +93,188 @@ public class CILOSTAZOLLauncher extends AbstractLanguageLauncher {
     return unrecognized;
   }
 
+  private int parsePositive(String arg, String option) {
+    try {
+      int value = Integer.parseInt(arg.substring(option.length() + 1));
+      if (value > 0) return value;
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw abortInvalidArgument(arg, option + " expects a positive number");
+  }
+
+  @Override
+  protected void validateArguments(Map<String, String> polyglotOptions) {
+    // Contexts with an explicit engine can't set engine options, they all go to the shared engine
+    if (contexts > 1 || server) {
+      engineOptions.putAll(polyglotOptions);
+      polyglotOptions.clear();
+    }
+    if (server && !engineOptions.containsKey(CILOSTAZOLEngineOption.SHARE_LIBRARIES_NAME)) {
+      engineOptions.put(CILOSTAZOLEngineOption.SHARE_LIBRARIES_NAME, "true");
+      sharesLibrariesByDefault = true;
+    }
+    // Every run keeps its time
+    if ((long) iterations * contexts > Integer.MAX_VALUE)
+      throw abortInvalidArgument(
+          CONTEXTS_OPTION + "=" + contexts,
+          ITERATIONS_OPTION + " times " + CONTEXTS_OPTION + " exceeds " + Integer.MAX_VALUE);
+  }
+
   @Override
   protected void launch(Context.Builder contextBuilder) {
     contextBuilder.out(new FileOutputStream(FileDescriptor.out));
     contextBuilder.err(new FileOutputStream(FileDescriptor.err));
     contextBuilder.allowAllAccess(true);
 
-    try (Context context = contextBuilder.build()) {
+    if (server) {
+      serve(contextBuilder);
+      return;
+    }
+
+    try {
       final Source source = Source.newBuilder(LANGUAGE_ID, new File(inputFile)).build();
+      if (iterations == 1 && contexts == 1) runOnce(contextBuilder, source);
+      else runIterations(contextBuilder, source);
+    } catch (IOException e) {
+      printFileNotFound();
+    } catch (PolyglotException e) {
+      handlePolyglotException(e);
+    }
+  }
+
+  private void runOnce(Context.Builder contextBuilder, Source source) {
+    try (Context context = contextBuilder.build()) {
       final long start = System.currentTimeMillis();
       returnValue = context.eval(source).asInt();
       System.err.println(LauncherBundle.message("launcher.output.return.value", returnValue));
       final long done = System.currentTimeMillis();
       System.err.println(LauncherBundle.message("launcher.output.return.time", done - start));
+    }
+  }
+
+  /**
+   * Runs the entry point {@link #iterations} times in each of {@link #contexts} fresh contexts. The
+   * contexts share one engine, so they also share the code compiled by the previous ones.
+   */
+  private void runIterations(Context.Builder contextBuilder, Source source) {
+    final IterationTimes times = new IterationTimes(iterations, contexts);
+    final Engine engine =
+        contexts > 1
+            ? Engine.newBuilder()
+                .allowExperimentalOptions(experimentalOptions)
+                .options(engineOptions)
+                .out(new FileOutputStream(FileDescriptor.out))
+                .err(new FileOutputStream(FileDescriptor.err))
+                .build()
+            : null;
+    if (engine != null) contextBuilder.engine(engine);
+
+    try {
+      int iteration = 0;
+      for (int c = 1; c <= contexts; c++) {
+        if (contexts > 1)
+          System.err.println(LauncherBundle.message("launcher.output.iterations.context", c));
+
+        try (Context context = contextBuilder.build()) {
+          for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            returnValue = context.eval(source).asInt();
+            final long time = System.nanoTime() - start;
+            times.add(time);
+            System.err.println(
+                LauncherBundle.message(
+                    "launcher.output.iterations.time", ++iteration, time / 1_000_000.0));
+          }
+        }
+      }
+    } finally {
+      if (engine != null) engine.close();
+    }
+
+    System.err.println(LauncherBundle.message("launcher.output.return.value", returnValue));
+    times.print(System.err);
+  }
+
+  /**
+   * Keeps one engine and runs every request in a fresh context, so the libraries are parsed once
+   * and the host code of the interpreter stays warm. A request is a line with the path of the
+   * assembly followed by its arguments, separated by whitespace. Requests are read from the
+   * standard input, or from connections to the local port given to {@code --server}.
+   */
+  private void serve(Context.Builder contextBuilder) {
+    try (Engine engine =
+        Engine.newBuilder()
+            .allowExperimentalOptions(experimentalOptions || sharesLibrariesByDefault)
+            .options(engineOptions)
+            .out(new FileOutputStream(FileDescriptor.out))
+            .err(new FileOutputStream(FileDescriptor.err))
+            .build()) {
+      contextBuilder.engine(engine);
+      if (serverPort == 0) {
+        serveClient(
+            contextBuilder,
+            System.in,
+            new FileOutputStream(FileDescriptor.out),
+            new FileOutputStream(FileDescriptor.err),
+            System.err);
+        return;
+      }
+
+      try (ServerSocket socket =
+          new ServerSocket(serverPort, 0, InetAddress.getLoopbackAddress())) {
+        System.err.println(
+            LauncherBundle.message("launcher.output.server.listening", socket.getLocalPort()));
+        while (true) {
+          try (Socket client = socket.accept()) {
+            final OutputStream clientOutput = client.getOutputStream();
+            serveClient(
+                contextBuilder,
+                client.getInputStream(),
+                clientOutput,
+                clientOutput,
+                new PrintStream(clientOutput, true, StandardCharsets.UTF_8));
+          } catch (IOException e) {
+            System.err.println(LauncherBundle.message("launcher.output.server.failed", e));
+          }
+        }
+      }
     } catch (IOException e) {
-      printFileNotFound();
-    } catch (PolyglotException e) {
-      handlePolyglotException(e);
+      throw abort(e);
+    }
+  }
+
+  private void serveClient(
+      Context.Builder contextBuilder,
+      InputStream requests,
+      OutputStream out,
+      OutputStream err,
+      PrintStream results)
+      throws IOException {
+    final BufferedReader reader =
+        new BufferedReader(new InputStreamReader(requests, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      final String[] request = line.trim().split("\\s+");
+      if (request[0].isEmpty()) continue;
+
+      inputFile = request[0];
+      contextBuilder
+          .arguments(LANGUAGE_ID, Arrays.copyOfRange(request, 1, request.length))
+          .out(out)
+          .err(err);
+      final long start = System.currentTimeMillis();
+      try (Context context = contextBuilder.build()) {
+        final Source source = Source.newBuilder(LANGUAGE_ID, new File(inputFile)).build();
+        returnValue = context.eval(source).asInt();
+        results.println(LauncherBundle.message("launcher.output.return.value", returnValue));
+        results.println(
+            LauncherBundle.message(
+                "launcher.output.return.time", System.currentTimeMillis() - start));
+      } catch (IOException | PolyglotException | ClassCastException e) {
+        // A failing request must not stop the server
+        results.println(LauncherBundle.message("launcher.output.server.failed", e.getMessage()));
+      }
     }
   }
 
@@ -79,7 +284,23 @@ public class CILOSTAZOLLauncher extends AbstractLanguageLauncher {
   }
 
   @Override
-  protected void printHelp(OptionCategory maxCategory) {}
+  protected void printHelp(OptionCategory maxCategory) {
+    System.out.println();
+    System.out.println("Measurement options:");
+    printOption(
+        ITERATIONS_OPTION + "=<n>", "Run the entry point n times, printing the time of each run");
+    printOption(
+        CONTEXTS_OPTION + "=<n>", "Repeat the iterations in n fresh contexts sharing one engine");
+    System.out.println();
+    System.out.println("Server options:");
+    printOption(SERVER_OPTION, "Run the assemblies and arguments read from stdin, one per line");
+    printOption(
+        SERVER_OPTION + "=<port>", "Read the requests from connections to a local port instead");
+  }
+
+  private static void printOption(String option, String description) {
+    System.out.printf("  %-20s%s%n", option, description);
+  }
 
   private void handlePolyglotException(PolyglotException e) {
     if (e.isIncompleteSource()) {
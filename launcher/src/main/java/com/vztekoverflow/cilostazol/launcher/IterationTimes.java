@@ -0,0 +1,95 @@
+package com.vztekoverflow.cilostazol.launcher;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/** Times of repeated runs of the entry point and their summary. */
+final class IterationTimes {
+  /** Runs within this ratio of the steady state time are considered to be at peak. */
+  private static final double PEAK_TOLERANCE = 1.1;
+
+  private static final double NS_PER_MS = 1_000_000.0;
+
+  private final int iterations;
+  private final int contexts;
+  // The runs of the contexts one after another
+  private final long[] times;
+  private int count;
+
+  IterationTimes(int iterations, int contexts) {
+    this.iterations = iterations;
+    this.contexts = contexts;
+    times = new long[iterations * contexts];
+  }
+
+  void add(long nanos) {
+    times[count++] = nanos;
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / NS_PER_MS;
+  }
+
+  /** Nearest-rank percentile of the sorted times. */
+  private static long percentile(long[] sorted, double percentile) {
+    int rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.max(rank, 1) - 1];
+  }
+
+  /**
+   * The steady state is the median of the second half of the runs of a context, the peak is reached
+   * by the first run of the context that is close enough to it.
+   *
+   * @return the index of the peak run within the runs of the context
+   */
+  private int findPeak(int from, int to) {
+    long[] secondHalf = Arrays.copyOfRange(times, from + (to - from) / 2, to);
+    Arrays.sort(secondHalf);
+    long steadyState = percentile(secondHalf, 0.5);
+    for (int i = from; i < to; i++) {
+      if (times[i] <= steadyState * PEAK_TOLERANCE) return i - from;
+    }
+    return to - from - 1;
+  }
+
+  void print(PrintStream out) {
+    long[] sorted = Arrays.copyOf(times, count);
+    Arrays.sort(sorted);
+    out.println(
+        LauncherBundle.message(
+            "launcher.output.iterations.summary",
+            count,
+            toMillis(sorted[0]),
+            toMillis(percentile(sorted, 0.5)),
+            toMillis(percentile(sorted, 0.9)),
+            toMillis(percentile(sorted, 0.99)),
+            toMillis(sorted[count - 1])));
+
+    // Each context warms up on its own, later ones start from the code compiled by earlier ones
+    for (int c = 0; c < contexts; c++) {
+      int from = c * iterations;
+      int to = Math.min(from + iterations, count);
+      if (from >= to) break;
+
+      int peak = findPeak(from, to);
+      long timeToPeak = 0;
+      for (int i = from; i <= from + peak; i++) timeToPeak += times[i];
+      if (contexts == 1) {
+        out.println(
+            LauncherBundle.message(
+                "launcher.output.iterations.peak",
+                toMillis(times[from + peak]),
+                peak + 1,
+                toMillis(timeToPeak)));
+      } else {
+        out.println(
+            LauncherBundle.message(
+                "launcher.output.iterations.context.peak",
+                c + 1,
+                toMillis(times[from + peak]),
+                peak + 1,
+                toMillis(timeToPeak)));
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.vztekoverflow.cilostazol.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vztekoverflow.cilostazol.CILOSTAZOLEngineOption;
+import org.graalvm.polyglot.Context;
+import org.junit.jupiter.api.Test;
+
+public class AllocationHistogramTests extends TestBase {
+  @Override
+  protected Context.Builder setupContext() {
+    return super.setupContext().option(CILOSTAZOLEngineOption.ALLOCATION_HISTOGRAM_NAME, "true");
+  }
+
+  @Test
+  public void arraysAndObjects() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+long sum = 0;
+for (int i = 0; i < 100; i++)
+{
+  var values = new int[10];
+  var point = new Point { X = i };
+  sum += values.Length + point.X;
+}
+Console.WriteLine(sum);
+
+public class Point
+{
+  public int X;
+  public int Y;
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    context.close();
+
+    // The histogram is printed to the error stream when the context is closed
+    var output = outputStream.toString().replace("\r\n", "\n");
+    assertTrue(output.startsWith("5950\n"));
+    assertTrue(output.contains("Allocations by type:"));
+    assertTrue(output.contains("System.Int32[]"));
+    assertTrue(output.contains(".Point"));
+    assertTrue(output.contains("Allocations by method:"));
+  }
+}
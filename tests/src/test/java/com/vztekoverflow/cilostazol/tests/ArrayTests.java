@@ -69,4 +69,192 @@ Console.WriteLine("T");
     assertEquals(0, result.exitCode());
     assertEquals("T\n", result.output().replace("\r\n", "\n"));
   }
+
+  @Test
+  public void covariantStore() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+object[] temp = new string[3];
+temp[0] = "a";
+temp[1] = null;
+try
+{
+  temp[2] = new object();
+}
+catch (ArrayTypeMismatchException)
+{
+  Console.WriteLine("mismatch");
+}
+Console.WriteLine(temp[0]);
+Console.WriteLine(temp[2] == null);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("mismatch\na\nTrue\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void copyWidening() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+long[] longs = new long[3];
+Array.Copy(new int[] { -1, 2, int.MaxValue }, longs, 3);
+Console.WriteLine(longs[0]);
+Console.WriteLine(longs[2]);
+int[] ints = new int[2];
+Array.Copy(new byte[] { 1, 200 }, ints, 2);
+Console.WriteLine(ints[1]);
+short[] shorts = new short[1];
+Array.Copy(new sbyte[] { -5 }, shorts, 1);
+Console.WriteLine(shorts[0]);
+double[] doubles = new double[2];
+Array.Copy(new uint[] { uint.MaxValue, 3 }, 0, doubles, 0, 2);
+Console.WriteLine(doubles[0] == 4294967295.0);
+Console.WriteLine(doubles[1] == 3.0);
+uint[] reinterpreted = new uint[1];
+Array.Copy(new int[] { -1 }, reinterpreted, 1);
+Console.WriteLine(reinterpreted[0]);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals(
+        "-1\n2147483647\n200\n-5\nTrue\nTrue\n4294967295\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void copyTypeMismatch() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+long[] longs = { 1, 2 };
+int[] ints = { 7, 8 };
+try
+{
+  Array.Copy(longs, ints, 2);
+}
+catch (ArrayTypeMismatchException)
+{
+  Console.WriteLine("narrowing");
+}
+try
+{
+  Array.Copy(new bool[] { true }, ints, 1);
+}
+catch (ArrayTypeMismatchException)
+{
+  Console.WriteLine("bool");
+}
+try
+{
+  Array.ConstrainedCopy(ints, 0, longs, 0, 2);
+}
+catch (ArrayTypeMismatchException)
+{
+  Console.WriteLine("constrained");
+}
+try
+{
+  Array.Copy(new string[] { "a" }, ints, 1);
+}
+catch (ArrayTypeMismatchException)
+{
+  Console.WriteLine("reference");
+}
+Console.WriteLine(ints[0]);
+Console.WriteLine(longs[0]);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals(
+        "narrowing\nbool\nconstrained\nreference\n7\n1\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void copyBoxing() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+object[] boxed = new object[2];
+Array.Copy(new int[] { 4, 5 }, boxed, 2);
+Console.WriteLine((int)boxed[0] + (int)boxed[1]);
+int[] unboxed = new int[2];
+Array.Copy(boxed, unboxed, 2);
+Console.WriteLine(unboxed[1]);
+boxed[1] = "five";
+try
+{
+  Array.Copy(boxed, unboxed, 2);
+}
+catch (InvalidCastException)
+{
+  Console.WriteLine("cast");
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("9\n5\ncast\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void sortAndBinarySearch() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+int[] ints = { 5, -3, 9, 0, 5 };
+Array.Sort(ints);
+Console.WriteLine(ints[0]);
+Console.WriteLine(ints[4]);
+Console.WriteLine(Array.BinarySearch(ints, 9));
+Console.WriteLine(Array.BinarySearch(ints, 4) < 0);
+double[] doubles = { 2.5, double.NaN, -1.0 };
+Array.Sort(doubles);
+Console.WriteLine(double.IsNaN(doubles[0]));
+Console.WriteLine(doubles[1] == -1.0);
+string[] strings = { "b", null, "B", "a" };
+Array.Sort(strings);
+Console.WriteLine(strings[0] == null);
+Console.WriteLine(strings[1]);
+Console.WriteLine(strings[3]);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("-3\n9\n4\nTrue\nTrue\nTrue\nTrue\nB\nb\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void sortManyStrings() {
+    // Long enough for the parallel sort, whose worker threads are not entered in the context
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+var strings = new string[70000];
+for (int i = 0; i < strings.Length; i++)
+  strings[i] = ((i * 7919) % strings.Length).ToString();
+strings[123] = null;
+Array.Sort(strings);
+Console.WriteLine(strings[0] == null);
+Console.WriteLine(strings[1]);
+Console.WriteLine(strings[2]);
+Console.WriteLine(strings[3]);
+Console.WriteLine(strings[6]);
+Console.WriteLine(strings[strings.Length - 1]);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("True\n0\n1\n10\n10000\n9999\n", result.output().replace("\r\n", "\n"));
+  }
 }
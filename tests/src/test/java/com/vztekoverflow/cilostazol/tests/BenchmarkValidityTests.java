@@ -7,159 +7,7 @@ import org.junit.jupiter.api.Test;
 public class BenchmarkValidityTests extends TestBase {
   @Test
   public void nBody() {
-    var result =
-        runTestFromCode(
-            """
-                namespace nbody
-                {
-                    /*  The Computer Language Benchmarks Game
-                        https://salsa.debian.org/benchmarksgame-team/benchmarksgame/
-
-                        contributed by Isaac Gouy
-                        modified by Robert F. Tobler
-                        modified by Eric P. Nusbaum
-                    */
-
-                    using System;
-
-                    public class NBody
-                    {
-                        public static void Main(String[] args)
-                        {
-                                int n = args.Length > 0 ? Int32.Parse(args[0]) : 1_000;
-                                NBodySystem bodies = new NBodySystem();
-                                Console.WriteLine(bodies.Energy());
-                                for (int i = 0; i < n; i++) bodies.Advance(0.01);
-                                Console.WriteLine(bodies.Energy());
-                        }
-                    }
-
-                    public class Body { public double x, y, z, vx, vy, vz, mass; }
-
-                    public class NBodySystem
-                    {
-                        private Body[] _bodies;
-                        private Body[] _pairL;
-                        private Body[] _pairR;
-                        private byte bodyCount = 5;
-
-                        const double Pi = 3.141592653589793;
-                        const double Solarmass = 4 * Pi * Pi;
-                        const double DaysPeryear = 365.24;
-
-                        public NBodySystem()
-                        {
-                            _bodies = new[]
-                            {
-                                new Body()
-                                {
-                                    // Sun
-                                    mass = Solarmass,
-                                },
-                                new Body()
-                                {
-                                    // Jupiter
-                                    x = 4.84143144246472090e+00,
-                                    y = -1.16032004402742839e+00,
-                                    z = -1.03622044471123109e-01,
-                                    vx = 1.66007664274403694e-03*DaysPeryear,
-                                    vy = 7.69901118419740425e-03*DaysPeryear,
-                                    vz = -6.90460016972063023e-05*DaysPeryear,
-                                    mass = 9.54791938424326609e-04*Solarmass,
-                                },
-                                new Body()
-                                {
-                                    // Saturn
-                                    x = 8.34336671824457987e+00,
-                                    y = 4.12479856412430479e+00,
-                                    z = -4.03523417114321381e-01,
-                                    vx = -2.76742510726862411e-03*DaysPeryear,
-                                    vy = 4.99852801234917238e-03*DaysPeryear,
-                                    vz = 2.30417297573763929e-05*DaysPeryear,
-                                    mass = 2.85885980666130812e-04*Solarmass,
-                                },
-                                new Body()
-                                {
-                                    // Uranus
-                                    x = 1.28943695621391310e+01,
-                                    y = -1.51111514016986312e+01,
-                                    z = -2.23307578892655734e-01,
-                                    vx = 2.96460137564761618e-03*DaysPeryear,
-                                    vy = 2.37847173959480950e-03*DaysPeryear,
-                                    vz = -2.96589568540237556e-05*DaysPeryear,
-                                    mass = 4.36624404335156298e-05*Solarmass,
-                                },
-                                new Body()
-                                {
-                                    // Neptune
-                                    x = 1.53796971148509165e+01,
-                                    y = -2.59193146099879641e+01,
-                                    z = 1.79258772950371181e-01,
-                                    vx = 2.68067772490389322e-03*DaysPeryear,
-                                    vy = 1.62824170038242295e-03*DaysPeryear,
-                                    vz = -9.51592254519715870e-05*DaysPeryear,
-                                    mass = 5.15138902046611451e-05*Solarmass,
-                                },
-                            };
-
-                            _pairL = new Body[(bodyCount * (bodyCount - 1) / 2)];
-                            _pairR = new Body[(bodyCount * (bodyCount - 1) / 2)];
-                            var pi = 0;
-                            for (var i = 0; i < bodyCount - 1; i++)
-                                for (var j = i + 1; j < bodyCount; j++)
-                                {
-                                    _pairL[pi] = _bodies[i];
-                                    _pairR[pi] = _bodies[j];
-                                    pi++;
-                                }
-
-                        double px = 0.0, py = 0.0, pz = 0.0;
-                            foreach (var b in _bodies)
-                            {
-                                px += b.vx * b.mass; py += b.vy * b.mass; pz += b.vz * b.mass;
-                            }
-                            var sol = _bodies[0];
-                            sol.vx = -px / Solarmass; sol.vy = -py / Solarmass; sol.vz = -pz / Solarmass;
-                        }
-
-                        public void Advance(double dt)
-                        {
-                            var length = _pairL.Length;
-                            for (int i = 0; i < length; i++)
-                            {
-                                Body bi =  _pairL[i], bj = _pairR[i];
-                                double dx = bi.x - bj.x, dy = bi.y - bj.y, dz = bi.z - bj.z;
-                                double d2 = dx * dx + dy * dy + dz * dz;
-                                double mag = dt / (d2 * Math.Sqrt(d2));
-                                bi.vx -= dx * bj.mass * mag; bj.vx += dx * bi.mass * mag;
-                                bi.vy -= dy * bj.mass * mag; bj.vy += dy * bi.mass * mag;
-                                bi.vz -= dz * bj.mass * mag; bj.vz += dz * bi.mass * mag;
-                            }
-                            foreach (var b in _bodies)
-                            {
-                                b.x += dt * b.vx; b.y += dt * b.vy; b.z += dt * b.vz;
-                            }
-                        }
-
-                        public double Energy()
-                        {
-                            double e = 0.0;
-                            for (int i = 0; i < bodyCount; i++)
-                            {
-                                var bi = _bodies[i];
-                                e += 0.5 * bi.mass * (bi.vx * bi.vx + bi.vy * bi.vy + bi.vz * bi.vz);
-                                for (int j = i + 1; j < bodyCount; j++)
-                                {
-                                    var bj = _bodies[j];
-                                    double dx = bi.x - bj.x, dy = bi.y - bj.y, dz = bi.z - bj.z;
-                                    e -= (bi.mass * bj.mass) / Math.Sqrt(dx * dx + dy * dy + dz * dz);
-                                }
-                            }
-                            return e;
-                        }
-                    }
-                }
-                """);
+    var result = runTestFromCode(getProjectSource("NBody"));
     assertEquals(
         "-0.16907516382852447\n-0.169087605234606\n", result.output().replace("\r\n", "\n"));
   }
@@ -245,87 +93,7 @@ public class BenchmarkValidityTests extends TestBase {
 
   @Test
   public void binaryTrees() {
-    var result =
-        runTestFromCode(
-            """
-          // The Computer Language Benchmarks Game
-          // https://benchmarksgame-team.pages.debian.net/benchmarksgame/
-          //
-          // based Jarkko Miettinen Java #2 and Anthony Lloyd C#\s
-          // contributed by Isaac Gouy
-
-          using System;
-
-          class BinaryTrees
-          {
-              const int MinDepth = 4;
-              const int NoTasks = 4;
-
-              public static void Main(string[] args)
-              {
-                  int maxDepth = 10;
-
-                  Console.WriteLine(string.Concat("stretch tree of depth ", maxDepth + 1,
-                      "\\t check: ", (TreeNode.bottomUpTree(maxDepth + 1)).itemCheck()));
-
-                  var longLivedTree = TreeNode.bottomUpTree(maxDepth);
-
-                  var results = new string[(maxDepth - MinDepth) / 2 + 1];
-
-                  for (int i = 0; i < results.Length; i++)
-                  {
-                      int depth = i * 2 + MinDepth;
-                      int n = (1 << maxDepth - depth + MinDepth) / NoTasks;
-                      var check = 0;
-                      for (int t = 0; t < NoTasks; t++)
-                      {
-                          for (int j = n; j > 0; j--)
-                              check += (TreeNode.bottomUpTree(depth)).itemCheck();
-                      }
-
-                      results[i] = string.Concat(n * NoTasks, "\\t trees of depth ",
-                          depth, "\\t check: ", check);
-                  }
-
-                  for (int i = 0; i < results.Length; i++)
-                      Console.WriteLine(results[i]);
-
-                  Console.WriteLine(string.Concat("long lived tree of depth ", maxDepth,
-                      "\\t check: ", longLivedTree.itemCheck()));
-              }
-
-              private class TreeNode
-              {
-                  readonly TreeNode left, right;
-
-                  internal static TreeNode bottomUpTree(int depth)
-                  {
-                      if (depth > 0)
-                      {
-                          return new TreeNode(
-                              bottomUpTree(depth - 1),
-                              bottomUpTree(depth - 1));
-                      }
-                      else
-                      {
-                          return new TreeNode(null, null);
-                      }
-                  }
-
-                  internal TreeNode(TreeNode left, TreeNode right)
-                  {
-                      this.left = left;
-                      this.right = right;
-                  }
-
-                  internal int itemCheck()
-                  {
-                      if (left == null) return 1;
-                      else return 1 + left.itemCheck() + right.itemCheck();
-                  }
-              }
-          }
-          """);
+    var result = runTestFromCode(getProjectSource("BinaryTrees"));
     assertEquals(
         """
                     stretch tree of depth 11\t check: 4095
@@ -340,233 +108,14 @@ public class BenchmarkValidityTests extends TestBase {
 
   @Test
   public void fannkuchRedux() {
-    var result =
-        runTestFromCode(
-            """
-          /* The Computer Language Benchmarks Game
-             https://salsa.debian.org/benchmarksgame-team/benchmarksgame/
-
-             contributed by Isaac Gouy, transliterated from Oleg Mazurov's Java program
-             concurrency fix and minor improvements by Peperud
-             parallel and small optimisations by Anthony Lloyd
-          */
-
-          using System;
-
-          public static class FannkuchRedux
-          {
-              static int taskCount;
-              static int[] fact;
-
-              static void firstPermutation(int[] p, int[] pp, int[] count, int idx)
-              {
-                  for (int i = 0; i < p.Length; ++i) p[i] = i;
-                  for (int i = count.Length - 1; i > 0; --i)
-                  {
-                      int d = idx / fact[i];
-                      count[i] = d;
-                      if (d > 0)
-                      {
-                          idx = idx % fact[i];
-                          for (int j = i; j >= 0; --j) pp[j] = p[j];
-                          for (int j = 0; j <= i; ++j) p[j] = pp[(j + d) % (i + 1)];
-                      }
-                  }
-              }
-
-              static int nextPermutation(int[] p, int[] count)
-              {
-                  int first = p[1];
-                  p[1] = p[0];
-                  p[0] = first;
-                  int i = 1;
-                  while (++count[i] > i)
-                  {
-                      count[i++] = 0;
-                      int next = p[1];
-                      p[0] = next;
-                      for (int j = 1; j < i;) p[j] = p[++j];
-                      p[i] = first;
-                      first = next;
-                  }
-
-                  return first;
-              }
-
-              static int countFlips(int first, int[] p, int[] pp)
-              {
-                  if (first == 0) return 0;
-                  if (p[first] == 0) return 1;
-                  for (int i = 0; i < pp.Length; i++) pp[i] = p[i];
-                  int flips = 2;
-                  while (true)
-                  {
-                      for (int lo = 1, hi = first - 1; lo < hi; lo++, hi--)
-                      {
-                          int t = pp[lo];
-                          pp[lo] = pp[hi];
-                          pp[hi] = t;
-                      }
-
-                      int tp = pp[first];
-                      if (pp[tp] == 0) return flips;
-                      pp[first] = first;
-                      first = tp;
-                      flips++;
-                  }
-              }
-
-              public static void Main(string[] args)
-              {
-                  int n = args.Length > 0 ? int.Parse(args[0]) : 7;
-                  fact = new int[n + 1];
-                  fact[0] = 1;
-                  var factn = 1;
-                  for (int i = 1; i < fact.Length; i++)
-                  {
-                      fact[i] = factn *= i;
-                  }
-
-                  taskCount = n > 9 ? factn / (7 * 6 * 5 * 4 * 3 * 2) : 8;
-                  int taskSize = factn / taskCount;
-                  int nThreads = 8;
-                  int chksum = 0, maxflips = 0;
-                  for (int i = 0; i < nThreads; i++)
-                  {
-                      int[] p = new int[n], pp = new int[n], count = new int[n];
-                      int taskId = 0;
-                      int currMaxFlips = 0;
-                      while ((taskId = --taskCount) >= 0)
-                      {
-                          firstPermutation(p, pp, count, taskId * taskSize);
-                          var flips = countFlips(p[0], p, pp);
-                          chksum += flips;
-                          if (flips > currMaxFlips) currMaxFlips = flips;
-                          for (int j = 1; j < taskSize; j++)
-                          {
-                              flips = countFlips(nextPermutation(p, count), p, pp);
-                              chksum += (1 - (j % 2) * 2) * flips;
-                              if (flips > currMaxFlips) currMaxFlips = flips;
-                          }
-                      }
-
-                      if (currMaxFlips > maxflips) maxflips = currMaxFlips;
-                  }
-
-                  Console.WriteLine(chksum + "\\nPfannkuchen(" + n + ") = " + maxflips);
-              }
-          }
-          """);
+    var result = runTestFromCode(getProjectSource("FannkuchRedux"));
 
     assertEquals("228\nPfannkuchen(7) = 16\n", result.output().replace("\r\n", "\n"));
   }
 
   @Test
   public void mandelbrot() {
-    var result =
-        runTestFromCode(
-            """
-          /* The Computer Language Benchmarks Game
-             https://salsa.debian.org/benchmarksgame-team/benchmarksgame/
-             \s
-             started with Java #2 program (Krause/Whipkey/Bennet/AhnTran/Enotus/Stalcup)
-             adapted for C# by Jan de Vaan
-          */
-
-          using System;
-
-          public class MandelBrot
-          {
-              private static int n = 200;
-              private static int[][] data;
-              private static int lineCount = -1;
-
-              private static double[] Crb;
-              private static double[] Cib;
-
-              static int getByte(int x, int y)
-              {
-                  int res = 0;
-                  for (int i = 0; i < 8; i += 2)
-                  {
-                      double Zr1 = Crb[x + i];
-                      double Zi1 = Cib[y];
-
-                      double Zr2 = Crb[x + i + 1];
-                      double Zi2 = Cib[y];
-
-                      int b = 0;
-                      int j = 49;
-                      do
-                      {
-                          double nZr1 = Zr1 * Zr1 - Zi1 * Zi1 + Crb[x + i];
-                          double nZi1 = Zr1 * Zi1 + Zr1 * Zi1 + Cib[y];
-                          Zr1 = nZr1;
-                          Zi1 = nZi1;
-
-                          double nZr2 = Zr2 * Zr2 - Zi2 * Zi2 + Crb[x + i + 1];
-                          double nZi2 = Zr2 * Zi2 + Zr2 * Zi2 + Cib[y];
-                          Zr2 = nZr2;
-                          Zi2 = nZi2;
-
-                          if (Zr1 * Zr1 + Zi1 * Zi1 > 4)
-                          {
-                              b |= 2;
-                              if (b == 3) break;
-                          }
-
-                          if (Zr2 * Zr2 + Zi2 * Zi2 > 4)
-                          {
-                              b |= 1;
-                              if (b == 3) break;
-                          }
-                      } while (--j > 0);
-
-                      res = (res << 2) + b;
-                  }
-
-                  return res ^ -1;
-              }
-
-              public static void Main(String[] args)
-              {
-                  if (args.Length > 0) n = Int32.Parse(args[0]);
-
-                  int lineLen = (n - 1) / 8 + 1;
-                  data = new int[n][];
-
-                  Crb = new double[n + 7];
-                  Cib = new double[n + 7];
-
-                  double invN = 2.0 / n;
-                  for (int i = 0; i < n; i++)
-                  {
-                      Cib[i] = i * invN - 1.0;
-                      Crb[i] = i * invN - 1.5;
-                  }
-
-                  for (int i = 0; i < 8; i++)
-                  {
-                      int y;
-                      while ((y = ++lineCount) < n)
-                      {
-                          var buffer = new int[lineLen];
-                          for (int x = 0; x < lineLen; x++)
-                          {
-                              buffer[x] = (byte) getByte(x * 8, y);
-                          }
-
-                          data[y] = buffer;
-                      }
-                  }
-
-                  Console.WriteLine("P4\\n" +  n + " " + n);
-                  for (int y = 0; y < n; y++)
-                  for (int i = 0; i < lineLen; i++)
-                      Console.Write(data[y][i]);
-              }
-          }
-          """);
+    var result = runTestFromCode(getProjectSource("Mandelbrot"));
 
     assertEquals(
         """
@@ -578,141 +127,7 @@ public class BenchmarkValidityTests extends TestBase {
 
   @Test
   public void spectralNorm() {
-    var result =
-        runTestFromCode(
-            """
-/* The Computer Language Benchmarks Game
-   https://salsa.debian.org/benchmarksgame-team/benchmarksgame/
-
-   contributed by Isaac Gouy
-   modified by Josh Goldfoot, based on the Java version by The Anh Tran
-*/
-
-using System;
-
-namespace SpectralNorms
-{
-    class SpectralNorm
-    {
-        public static void Main(String[] args)
-        {
-            int n = 100;
-            if (args.Length > 0) n = Int32.Parse(args[0]);
-
-            Console.WriteLine(spectralnormGame(n));
-        }
-
-        private static double spectralnormGame(int n)
-        {
-            double[] u = new double[n];
-            double[] v = new double[n];
-            double[] tmp = new double[n];
-
-            // create unit vector
-            for (int i = 0; i < n; i++)
-                u[i] = 1.0;
-
-            int nthread = 8;
-            int chunk = n / nthread;
-            Approximate[] ap = new Approximate[nthread];
-
-            for (int i = 0; i < nthread; i++)
-            {
-                int r1 = i * chunk;
-                int r2 = (i < (nthread - 1)) ? r1 + chunk : n;
-                ap[i] = new Approximate(u, v, tmp, r1, r2);
-            }
-
-            double vBv = 0, vv = 0;
-            for (int i = 0; i < nthread; i++)
-            {
-                ap[i].run();
-                vBv += ap[i].m_vBv;
-                vv += ap[i].m_vv;
-            }
-
-            return Math.Sqrt(vBv / vv);
-        }
-    }
-
-    public class Approximate
-    {
-        private double[] _u;
-        private double[] _v;
-        private double[] _tmp;
-
-        private int range_begin, range_end;
-        public double m_vBv, m_vv;
-
-        public Approximate(double[] u, double[] v, double[] tmp, int rbegin, int rend)
-        {
-            m_vBv = 0;
-            m_vv = 0;
-            _u = u;
-            _v = v;
-            _tmp = tmp;
-            range_begin = rbegin;
-            range_end = rend;\s
-        }
-
-        public void run()
-        {
-            // 20 steps of the power method
-            for (int i = 0; i < 10; i++)
-            {
-                MultiplyAtAv(_u, _tmp, _v);
-                MultiplyAtAv(_v, _tmp, _u);
-            }
-
-            for (int i = range_begin; i < range_end; i++)
-            {
-                m_vBv += _u[i] * _v[i];
-                m_vv += _v[i] * _v[i];
-            }
-        }
-
-        /* return element i,j of infinite matrix A */
-        private double eval_A(int i, int j)
-        {
-            return 1.0 / ((i + j) * (i + j + 1) / 2 + i + 1);
-        }
-
-        /* multiply vector v by matrix A, each thread evaluate its range only */
-        private void MultiplyAv(double[] v, double[] Av)
-        {
-            for (int i = range_begin; i < range_end; i++)
-            {
-                double sum = 0;
-                for (int j = 0; j < v.Length; j++)
-                    sum += eval_A(i, j) * v[j];
-
-                Av[i] = sum;
-            }
-        }
-
-        /* multiply vector v by matrix A transposed */
-        private void MultiplyAtv(double[] v, double[] Atv)
-        {
-            for (int i = range_begin; i < range_end; i++)
-            {
-                double sum = 0;
-                for (int j = 0; j < v.Length; j++)
-                    sum += eval_A(j, i) * v[j];
-
-                Atv[i] = sum;
-            }
-        }
-
-        /* multiply vector v by matrix A and then by matrix A transposed */
-        private void MultiplyAtAv(double[] v, double[] tmp, double[] AtAv)
-        {
-
-            MultiplyAv(v, tmp);
-            MultiplyAtv(tmp, AtAv);
-        }
-    }
-}
-""");
+    var result = runTestFromCode(getProjectSource("SpectralNorm"));
 
     assertEquals("1.271943572697285\n", result.output().replace("\r\n", "\n"));
   }
@@ -2,6 +2,7 @@ package com.vztekoverflow.cilostazol.tests;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.stream.StreamSupport;
 import org.graalvm.polyglot.PolyglotException;
 import org.junit.jupiter.api.Test;
 
@@ -61,6 +62,36 @@ public class ExceptionTests extends TestBase {
     fail("Expected exception");
   }
 
+  @Test
+  public void stackTraceLines() {
+    try {
+      runTestFromCode(
+          """
+using System;
+
+Thrower.Run();
+
+public static class Thrower
+{
+  public static void Run() => throw new InvalidOperationException();
+}
+                          """);
+    } catch (PolyglotException e) {
+      // The frame of the top-level statements points at the call in the C# source
+      assertTrue(
+          StreamSupport.stream(e.getPolyglotStackTrace().spliterator(), false)
+              .map(PolyglotException.StackFrame::getSourceLocation)
+              .anyMatch(
+                  location ->
+                      location != null
+                          && location.getSource().getName().endsWith("Program.cs")
+                          && location.getStartLine() == 3));
+      return;
+    }
+
+    fail("Expected exception");
+  }
+
   @Test
   public void simpleEx3() {
     var result =
@@ -56,4 +56,55 @@ public class GenericClassTests extends TestBase {
     assertEquals(0, result.exitCode());
     assertEquals("1\n", result.output().replace("\r\n", "\n"));
   }
+
+  @Test
+  public void sharedCodeOfReferenceTypeInstantiations() {
+    var result =
+        runTestFromCode(
+            """
+                              using System;
+
+                              var a = new Box<string>("a");
+                              var b = new Box<object>(new object());
+                              var c = new Derived();
+                              Console.WriteLine(a.Wrap().Get().Get());
+                              Console.WriteLine(a.Holds(new object()));
+                              Console.WriteLine(b.Holds("b"));
+                              Console.WriteLine(c.Wrap() is Box<Box<string>>);
+                              Console.WriteLine(a.Wrap() is Box<Box<object>>);
+
+                              class Box<T>
+                              {
+                                private T value;
+
+                                public Box(T value)
+                                {
+                                  this.value = value;
+                                }
+
+                                public T Get()
+                                {
+                                  return value;
+                                }
+
+                                public bool Holds(object o)
+                                {
+                                  return o is T;
+                                }
+
+                                public Box<Box<T>> Wrap()
+                                {
+                                  return new Box<Box<T>>(this);
+                                }
+                              }
+
+                              class Derived : Box<string>
+                              {
+                                public Derived() : base("d") {}
+                              }
+                                                    """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("a\nFalse\nTrue\nTrue\nFalse\n", result.output().replace("\r\n", "\n"));
+  }
 }
@@ -0,0 +1,231 @@
+package com.vztekoverflow.cilostazol.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vztekoverflow.cilostazol.CILOSTAZOLEngineOption;
+import org.graalvm.polyglot.Context;
+import org.junit.jupiter.api.Test;
+
+/** The expected outputs are those of the same programs running on .NET. */
+public class HostCollectionTests extends TestBase {
+  @Override
+  protected Context.Builder setupContext() {
+    return super.setupContext().option(CILOSTAZOLEngineOption.HOST_COLLECTIONS_NAME, "true");
+  }
+
+  @Test
+  public void listOfInts() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var list = new List<int>();
+for (int i = 0; i < 10; i++)
+  list.Add(i * i);
+list[3] = -1;
+Console.WriteLine(list.Count);
+Console.WriteLine(list[3]);
+Console.WriteLine(list[9]);
+Console.WriteLine(list.Contains(49));
+Console.WriteLine(list.Contains(9));
+Console.WriteLine(list.IndexOf(64));
+list.Clear();
+Console.WriteLine(list.Count);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("10\n-1\n81\nTrue\nFalse\n8\n0\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void listOfStrings() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var list = new List<string>();
+list.Add("a");
+list.Add("b");
+list.Add(null);
+Console.WriteLine(list.IndexOf("b"));
+Console.WriteLine(list.IndexOf(null));
+Console.WriteLine(list.Contains("c"));
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("1\n2\nFalse\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void listIndexOutOfRange() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var list = new List<int>(4);
+list.Add(1);
+try
+{
+  Console.WriteLine(list[1]);
+}
+catch (ArgumentOutOfRangeException)
+{
+  Console.WriteLine("caught");
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("caught\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void dictionaryOfInts() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var dict = new Dictionary<int, int>();
+for (int i = 0; i < 100; i++)
+  dict.Add(i, i * 2);
+dict[5] = -5;
+Console.WriteLine(dict.Count);
+Console.WriteLine(dict[5]);
+Console.WriteLine(dict[99]);
+Console.WriteLine(dict.ContainsKey(100));
+Console.WriteLine(dict.TryAdd(1, 0));
+Console.WriteLine(dict.Remove(1));
+Console.WriteLine(dict.Remove(1));
+int value;
+Console.WriteLine(dict.TryGetValue(2, out value));
+Console.WriteLine(value);
+Console.WriteLine(dict.TryGetValue(1, out value));
+Console.WriteLine(value);
+Console.WriteLine(dict.Count);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals(
+        "100\n-5\n198\nFalse\nFalse\nTrue\nFalse\nTrue\n4\nFalse\n0\n99\n",
+        result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void dictionaryOfStrings() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var dict = new Dictionary<string, long>();
+dict["one"] = 1;
+dict["two"] = 2;
+dict["one"] = 11;
+Console.WriteLine(dict.Count);
+Console.WriteLine(dict["one"]);
+Console.WriteLine(dict.ContainsKey("three"));
+dict.Clear();
+Console.WriteLine(dict.Count);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("2\n11\nFalse\n0\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void dictionaryExceptions() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var dict = new Dictionary<long, string>();
+dict.Add(1L, "a");
+try
+{
+  dict.Add(1L, "b");
+}
+catch (ArgumentException)
+{
+  Console.WriteLine("duplicate");
+}
+try
+{
+  Console.WriteLine(dict[2L]);
+}
+catch (KeyNotFoundException)
+{
+  Console.WriteLine("missing");
+}
+Console.WriteLine(dict[1L]);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("duplicate\nmissing\na\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void dictionaryEnumeration() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var dict = new Dictionary<int, string>();
+dict.Add(3, "c");
+dict.Add(1, "a");
+dict[2] = "b";
+foreach (var pair in dict)
+{
+  Console.WriteLine(pair.Key);
+  Console.WriteLine(pair.Value);
+}
+dict.Add(4, "d");
+Console.WriteLine(dict.Count);
+Console.WriteLine(dict[4]);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("3\nc\n1\na\n2\nb\n4\nd\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void dictionaryKeysValuesAndInterfaces() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Collections.Generic;
+
+var dict = new Dictionary<string, int>();
+dict["x"] = 1;
+dict["y"] = 2;
+dict["x"] = 3;
+foreach (var key in dict.Keys)
+  Console.WriteLine(key);
+int sum = 0;
+foreach (var value in dict.Values)
+  sum += value;
+Console.WriteLine(sum);
+IDictionary<string, int> view = dict;
+Console.WriteLine(view["y"]);
+Console.WriteLine(view.Count);
+ICollection<KeyValuePair<string, int>> collection = new Dictionary<string, int>(dict);
+Console.WriteLine(collection.Count);
+Console.WriteLine(collection.Contains(new KeyValuePair<string, int>("x", 3)));
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("x\ny\n5\n2\n2\n2\nTrue\n", result.output().replace("\r\n", "\n"));
+  }
+}
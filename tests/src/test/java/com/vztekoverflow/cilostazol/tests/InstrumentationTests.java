@@ -0,0 +1,136 @@
+package com.vztekoverflow.cilostazol.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.source.SourceSection;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class InstrumentationTests extends TestBase {
+  private List<Event> events;
+
+  @Override
+  protected int evaluate(File sourceFilePath) {
+    // Attached to the context of the test before it runs any guest code
+    events =
+        context
+            .getEngine()
+            .getInstruments()
+            .get(EventRecorder.ID)
+            .lookup(EventRecorder.class)
+            .attach();
+    return super.evaluate(sourceFilePath);
+  }
+
+  @Test
+  public void statementAndRootEvents() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+Console.WriteLine(Calculator.Add(40, 2));
+
+public static class Calculator
+{
+  public static int Add(int a, int b)
+  {
+    return a + b;
+  }
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("42\n", result.output().replace("\r\n", "\n"));
+
+    // The sections come from the sequence points of the PDB built next to the assembly
+    List<Event> add =
+        events.stream().filter(e -> e.rootName().endsWith("Calculator::Add")).toList();
+    List<Event> roots = add.stream().filter(Event::root).toList();
+    assertEquals(1, roots.size());
+    assertTrue(roots.get(0).sourceName().endsWith("Program.cs"));
+    assertEquals(8, roots.get(0).startLine());
+    assertEquals(10, roots.get(0).endLine());
+
+    List<Integer> statementLines =
+        add.stream().filter(e -> !e.root()).map(Event::startLine).toList();
+    assertEquals(List.of(8, 9, 10), statementLines);
+    assertTrue(
+        events.stream()
+            .anyMatch(
+                e ->
+                    !e.root()
+                        && e.sourceName().endsWith("Program.cs")
+                        && e.startLine() == 3
+                        && !e.rootName().endsWith("Calculator::Add")));
+  }
+
+  /** An entered node, its root method and its source section. */
+  record Event(boolean root, String rootName, String sourceName, int startLine, int endLine) {}
+
+  /** Records the statements and roots entered in the language of the tests. */
+  @TruffleInstrument.Registration(
+      id = EventRecorder.ID,
+      name = "Event recorder",
+      services = EventRecorder.class)
+  public static final class EventRecorder extends TruffleInstrument {
+    static final String ID = "cil-test-event-recorder";
+
+    private Env env;
+
+    @Override
+    protected void onCreate(Env instrumentEnv) {
+      env = instrumentEnv;
+      env.registerService(this);
+    }
+
+    List<Event> attach() {
+      List<Event> result = new ArrayList<>();
+      SourceSectionFilter filter =
+          SourceSectionFilter.newBuilder()
+              .tagIs(StandardTags.StatementTag.class, StandardTags.RootTag.class)
+              .build();
+      env.getInstrumenter()
+          .attachExecutionEventListener(
+              filter,
+              new ExecutionEventListener() {
+                @Override
+                public void onEnter(EventContext context, VirtualFrame frame) {
+                  record(result, context);
+                }
+
+                @Override
+                public void onReturnValue(EventContext context, VirtualFrame frame, Object value) {}
+
+                @Override
+                public void onReturnExceptional(
+                    EventContext context, VirtualFrame frame, Throwable exception) {}
+              });
+      return result;
+    }
+
+    @CompilerDirectives.TruffleBoundary
+    private static void record(List<Event> events, EventContext context) {
+      SourceSection section = context.getInstrumentedSourceSection();
+      synchronized (events) {
+        events.add(
+            new Event(
+                context.hasTag(StandardTags.RootTag.class),
+                context.getInstrumentedNode().getRootNode().getName(),
+                section.getSource().getName(),
+                section.getStartLine(),
+                section.getEndLine()));
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.vztekoverflow.cilostazol.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vztekoverflow.cilostazol.CILOSTAZOLLanguage;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Test;
+
+public class InteropTests extends TestBase {
+  @Test
+  public void invokeStaticMethods() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+Console.WriteLine(Calculator.Add(1, 2));
+
+public static class Calculator
+{
+  public static int Add(int a, int b) => a + b;
+  public static long Add(long a, long b, long c) => a + b + c;
+  public static bool IsEven(int value) => value % 2 == 0;
+  public static string Greet(string name) => "Hello, " + name;
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("3\n", result.output().replace("\r\n", "\n"));
+
+    var assembly = context.getBindings(CILOSTAZOLLanguage.ID).getMember("CustomTest");
+    var calculator = assembly.getMember("Calculator");
+    assertTrue(calculator.hasMember("Add"));
+
+    var add = calculator.getMember("Add");
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(2 * i, add.execute(i, i).asInt());
+    }
+    assertEquals(6L, calculator.invokeMember("Add", 1L, 2L, 3L).asLong());
+    assertTrue(calculator.invokeMember("IsEven", 4).asBoolean());
+    assertEquals("Hello, host", calculator.invokeMember("Greet", "host").asString());
+  }
+
+  @Test
+  public void overloadsByArgumentRange() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+Console.WriteLine(Overloads.Pick(1));
+
+public static class Overloads
+{
+  public static string Pick(byte value) => "byte";
+  public static string Pick(int value) => "int";
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("int\n", result.output().replace("\r\n", "\n"));
+
+    var pick =
+        context
+            .getBindings(CILOSTAZOLLanguage.ID)
+            .getMember("CustomTest")
+            .getMember("Overloads")
+            .getMember("Pick");
+    // The same call site selects by the range of the value, not only by its host type
+    for (int i = 0; i < 100; i++) {
+      assertEquals("byte", pick.execute(200).asString());
+      assertEquals("int", pick.execute(300).asString());
+      assertEquals("int", pick.execute(-1).asString());
+    }
+  }
+
+  @Test
+  public void arraysAndBuffers() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+Console.WriteLine(Arrays.Squares(3).Length);
+
+public static class Arrays
+{
+  public static int[] Squares(int count)
+  {
+    var result = new int[count];
+    for (int i = 0; i < count; i++)
+      result[i] = i * i;
+    return result;
+  }
+
+  public static byte[] Bytes() => new byte[] { 1, 0, 0, 0, 255 };
+
+  public static void Double(int[] values)
+  {
+    for (int i = 0; i < values.Length; i++)
+      values[i] *= 2;
+  }
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("3\n", result.output().replace("\r\n", "\n"));
+
+    var arrays =
+        context.getBindings(CILOSTAZOLLanguage.ID).getMember("CustomTest").getMember("Arrays");
+    var squares = arrays.invokeMember("Squares", 4);
+    assertEquals(4, squares.getArraySize());
+    assertEquals(9, squares.getArrayElement(3).asInt());
+
+    var bytes = arrays.invokeMember("Bytes");
+    assertTrue(bytes.hasBufferElements());
+    assertEquals(1, bytes.readBufferInt(ByteOrder.LITTLE_ENDIAN, 0));
+    assertEquals(255, bytes.getArrayElement(4).asInt());
+
+    // Host arrays of the backing type are shared, the guest writes to them
+    int[] values = {1, 2, 3};
+    arrays.invokeMember("Double", values);
+    assertArrayEquals(new int[] {2, 4, 6}, values);
+  }
+}
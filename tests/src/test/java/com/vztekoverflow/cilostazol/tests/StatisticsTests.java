@@ -0,0 +1,46 @@
+package com.vztekoverflow.cilostazol.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vztekoverflow.cilostazol.CILOSTAZOLEngineOption;
+import org.graalvm.polyglot.Context;
+import org.junit.jupiter.api.Test;
+
+public class StatisticsTests extends TestBase {
+  @Override
+  protected Context.Builder setupContext() {
+    return super.setupContext().option(CILOSTAZOLEngineOption.STATISTICS_NAME, "true");
+  }
+
+  @Test
+  public void countsInvocationsAndInstructions() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+int sum = 0;
+for (int i = 0; i < 100; i++)
+  sum += Calculator.Square(i);
+Console.WriteLine(sum);
+
+public static class Calculator
+{
+  public static int Square(int value) => value * value;
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    context.close();
+
+    // The summary is printed to the error stream when the context is closed
+    var output = outputStream.toString().replace("\r\n", "\n");
+    assertTrue(output.startsWith("328350\n"));
+    assertTrue(output.contains("Methods by invocations:"));
+    assertTrue(output.matches("(?s).*\\s100\\s.*Calculator::Square\n.*"));
+    assertTrue(output.contains("Executed instructions:"));
+    assertTrue(output.contains("Nodeized instructions:"));
+    assertTrue(output.contains("call"));
+  }
+}
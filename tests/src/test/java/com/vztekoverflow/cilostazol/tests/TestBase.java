@@ -240,6 +240,19 @@ public abstract class TestBase {
     return compileCode(sourceCode, directory);
   }
 
+  /**
+   * The program of a project at {@value directoryDllTests}, for tests compiling it themselves. The
+   * Benchmarks Game programs are shared this way with the benchmarks module.
+   */
+  protected static @Language("cs") String getProjectSource(String projectName) {
+    try {
+      return java.nio.file.Files.readString(
+          Paths.get(directoryDllTests, projectName, "Program.cs"));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private static @Language("cs") String getSourceCode(String sourceFile) {
     @Language("cs")
     String sourceCode;
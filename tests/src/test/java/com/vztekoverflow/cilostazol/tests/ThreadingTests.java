@@ -0,0 +1,249 @@
+package com.vztekoverflow.cilostazol.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** The expected outputs are those of the same programs running on .NET. */
+public class ThreadingTests extends TestBase {
+  @Test
+  public void delegateInvoke() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+
+int offset = 10;
+Func<int, int> add = x => x + offset;
+Func<int, int> square = Square;
+Console.WriteLine(add(5));
+Console.WriteLine(square(7));
+
+static int Square(int x) => x * x;
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("15\n49\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void interlockedIncrement() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading;
+
+var counter = new Counter();
+var threads = new Thread[4];
+for (int i = 0; i < threads.Length; i++)
+{
+  threads[i] = new Thread(() =>
+  {
+    for (int j = 0; j < 10000; j++)
+      Interlocked.Increment(ref counter.Value);
+  });
+  threads[i].Start();
+}
+foreach (var thread in threads)
+  thread.Join();
+Console.WriteLine(counter.Value);
+
+class Counter
+{
+  public int Value;
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("40000\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void lockStatement() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading;
+
+var gate = new object();
+long total = 0;
+var threads = new Thread[4];
+for (int i = 0; i < threads.Length; i++)
+{
+  threads[i] = new Thread(() =>
+  {
+    for (int j = 0; j < 10000; j++)
+    {
+      lock (gate)
+      {
+        total += 2;
+      }
+    }
+  });
+  threads[i].Start();
+}
+foreach (var thread in threads)
+  thread.Join();
+Console.WriteLine(total);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("80000\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void monitorWaitAndPulse() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading;
+
+var gate = new object();
+int value = 0;
+var producer = new Thread(() =>
+{
+  lock (gate)
+  {
+    value = 42;
+    Monitor.Pulse(gate);
+  }
+});
+lock (gate)
+{
+  producer.Start();
+  while (value == 0)
+    Monitor.Wait(gate);
+}
+producer.Join();
+Console.WriteLine(value);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("42\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void parallelFor() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading;
+using System.Threading.Tasks;
+
+var squares = new long[1000];
+int count = 0;
+Parallel.For(0, squares.Length, i =>
+{
+  squares[i] = (long)i * i;
+  Interlocked.Increment(ref count);
+});
+Console.WriteLine(squares[999]);
+Console.WriteLine(count);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("998001\n1000\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void taskRun() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading.Tasks;
+
+var first = Task.Run(() => 20);
+var second = Task.Run(() => 22);
+Task.WaitAll(first, second);
+Console.WriteLine(first.Result + second.Result);
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("42\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void lockFreeCounters() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading;
+
+var state = new State();
+var threads = new Thread[4];
+for (int i = 0; i < threads.Length; i++)
+{
+  threads[i] = new Thread(() =>
+  {
+    for (int j = 0; j < 1000; j++)
+    {
+      Interlocked.Add(ref state.Total, 3);
+      int seen;
+      do
+      {
+        seen = state.Maximum;
+      } while (j > seen && Interlocked.CompareExchange(ref state.Maximum, j, seen) != seen);
+    }
+    Interlocked.Exchange(ref state.Last, new object());
+  });
+  threads[i].Start();
+}
+foreach (var thread in threads)
+  thread.Join();
+state.Done = true;
+Console.WriteLine(state.Total);
+Console.WriteLine(state.Maximum);
+Console.WriteLine(state.Last != null && state.Done);
+
+class State
+{
+  public long Total;
+  public int Maximum;
+  public object Last;
+  public volatile bool Done;
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("12000\n999\nTrue\n", result.output().replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void staticConstructorBlocksOtherThreads() {
+    var result =
+        runTestFromCode(
+            """
+using System;
+using System.Threading;
+
+var first = new Thread(() => Console.WriteLine(Config.Value));
+first.Start();
+// The second thread reads the field while the first one runs the static constructor
+Thread.Sleep(50);
+var second = new Thread(() => Console.WriteLine(Config.Value));
+second.Start();
+first.Join();
+second.Join();
+
+static class Config
+{
+  public static int Value;
+
+  static Config()
+  {
+    Thread.Sleep(200);
+    Value = 42;
+  }
+}
+                            """);
+
+    assertEquals(0, result.exitCode());
+    assertEquals("42\n42\n", result.output().replace("\r\n", "\n"));
+  }
+}
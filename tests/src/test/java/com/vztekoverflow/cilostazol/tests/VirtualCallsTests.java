@@ -730,4 +730,140 @@ public class VirtualCallsTests extends TestBase {
     assertEquals(52, result.exitCode());
     assertEquals("B.Foo", result.output());
   }
+
+  @Test
+  public void NewSlotVirtualMethodFromPredecessorCall() {
+    var result =
+        runTestFromCode(
+            """
+                using System;
+                namespace CallsTests;
+
+                public class Program
+                {
+                    public static int Main()
+                    {
+                        A a = new C();
+                        return a.Foo();
+                    }
+                }
+
+                public class A
+                {
+                    public virtual int Foo()
+                    {
+                        Console.Write("A.Foo");
+                        return 42;
+                    }
+                }
+
+                public class B : A
+                {
+                    public new virtual int Foo()
+                    {
+                        Console.Write("B.Foo");
+                        return 52;
+                    }
+                }
+
+                public class C : B
+                {
+                    public override int Foo()
+                    {
+                        Console.Write("C.Foo");
+                        return 62;
+                    }
+                }
+""");
+    assertEquals(42, result.exitCode());
+    assertEquals("A.Foo", result.output());
+  }
+
+  @Test
+  public void InterfaceCallSkipsHidingMethod() {
+    var result =
+        runTestFromCode(
+            """
+                using System;
+                namespace CallsTests;
+
+                public class Program
+                {
+                    public static int Main()
+                    {
+                        IFoo foo = new B();
+                        return foo.Foo();
+                    }
+                }
+
+                public interface IFoo
+                {
+                    int Foo();
+                }
+
+                public class A : IFoo
+                {
+                    public int Foo()
+                    {
+                        Console.Write("A.Foo");
+                        return 42;
+                    }
+                }
+
+                public class B : A
+                {
+                    public new int Foo()
+                    {
+                        Console.Write("B.Foo");
+                        return 52;
+                    }
+                }
+""");
+    assertEquals(42, result.exitCode());
+    assertEquals("A.Foo", result.output());
+  }
+
+  @Test
+  public void InterfaceCallReimplementedByHidingMethod() {
+    var result =
+        runTestFromCode(
+            """
+                using System;
+                namespace CallsTests;
+
+                public class Program
+                {
+                    public static int Main()
+                    {
+                        IFoo foo = new B();
+                        return foo.Foo();
+                    }
+                }
+
+                public interface IFoo
+                {
+                    int Foo();
+                }
+
+                public class A : IFoo
+                {
+                    public int Foo()
+                    {
+                        Console.Write("A.Foo");
+                        return 42;
+                    }
+                }
+
+                public class B : A, IFoo
+                {
+                    public new int Foo()
+                    {
+                        Console.Write("B.Foo");
+                        return 52;
+                    }
+                }
+""");
+    assertEquals(52, result.exitCode());
+    assertEquals("B.Foo", result.output());
+  }
 }